@@ -7,8 +7,13 @@ import com.azure.ai.projects.models.AgentEvaluationResult;
 import com.azure.ai.projects.models.EvaluationOutput;
 import com.azure.identity.DefaultAzureCredential;
 import com.azure.identity.DefaultAzureCredentialBuilder;
+import com.azure.ai.foundry.util.AgentSettings;
 import com.azure.ai.foundry.util.EnvironmentUtil;
+import com.azure.ai.foundry.util.Telemetry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -19,6 +24,8 @@ import java.util.Map;
  */
 public class AgentEvaluationApp {
 
+    private static final Logger LOGGER = LoggerFactory.getLogger(AgentEvaluationApp.class);
+
     private static AIProjectClient projectClient;
     private static String modelDeploymentName;
 
@@ -26,21 +33,23 @@ public class AgentEvaluationApp {
         try {
             // Check required environment variables
             if (!EnvironmentUtil.checkRequiredEnv("AZURE_AI_ENDPOINT", "MODEL_DEPLOYMENT_NAME")) {
-                System.err.println("Please set all required environment variables in your .env file");
+                LOGGER.error("Please set all required environment variables in your .env file");
                 System.exit(1);
             }
 
             // Initialize AI Project client
-            String endpoint = EnvironmentUtil.getEnv("AZURE_AI_ENDPOINT");
-            modelDeploymentName = EnvironmentUtil.getEnv("MODEL_DEPLOYMENT_NAME");
+            AgentSettings settings = AgentSettings.load();
+            modelDeploymentName = settings.modelDeploymentName();
             
+            Telemetry.configure();
             DefaultAzureCredential credential = new DefaultAzureCredentialBuilder().build();
             projectClient = new AIProjectClientBuilder()
-                .endpoint(endpoint)
+                .endpoint(settings.endpoint())
                 .credential(credential)
+                .addPolicy(Telemetry.httpPolicy())
                 .buildClient();
             
-            System.out.println("Azure AI Project client initialized successfully.");
+            LOGGER.info("Azure AI Project client initialized successfully.");
             
             // Run the basic agent with a simple task that we'll evaluate
             String threadId = null;
@@ -49,37 +58,42 @@ public class AgentEvaluationApp {
             
             try {
                 // Create a simple agent
-                var agent = projectClient.getAgents().createAgent(
-                    modelDeploymentName,
-                    "evaluation-test-agent",
-                    "You are an AI assistant specializing in knowledge of world capitals. " +
-                    "Always provide accurate information about capital cities of countries. " +
-                    "If you're not sure about an answer, acknowledge this rather than guessing.");
+                var agent = Telemetry.observe(Telemetry.AGENT_CREATE, modelDeploymentName,
+                    () -> projectClient.getAgents().createAgent(
+                        modelDeploymentName,
+                        "evaluation-test-agent",
+                        "You are an AI assistant specializing in knowledge of world capitals. " +
+                        "Always provide accurate information about capital cities of countries. " +
+                        "If you're not sure about an answer, acknowledge this rather than guessing."));
                 
                 agentId = agent.getId();
-                System.out.println("Created agent with ID: " + agentId);
+                LOGGER.info("Created agent with ID: {}", agentId);
                 
                 // Create a thread
                 var thread = projectClient.getAgents().createThread();
                 threadId = thread.getId();
-                System.out.println("Created thread with ID: " + threadId);
+                LOGGER.info("Created thread with ID: {}", threadId);
                 
                 // Add messages to simulate a conversation
                 projectClient.getAgents().createMessage(
                     threadId, "user", "What is the capital of France?");
                 
                 // Process the agent run
-                var run = projectClient.getAgents().createAndProcessRun(threadId, agentId);
+                String currentThreadId = threadId;
+                String currentAgentId = agentId;
+                var run = Telemetry.observe(Telemetry.AGENT_RUN, modelDeploymentName,
+                    () -> projectClient.getAgents().createAndProcessRun(currentThreadId, currentAgentId));
                 runId = run.getId();
-                System.out.println("Run completed with status: " + run.getStatus());
+                LOGGER.info("Run completed with status: {}", run.getStatus());
                 
                 // Print the conversation
-                System.out.println("\n--- Conversation ---");
-                var messages = projectClient.getAgents().listMessages(threadId);
+                LOGGER.info("--- Conversation ---");
+                var messages = Telemetry.observe(Telemetry.MESSAGE_LIST, modelDeploymentName,
+                    () -> projectClient.getAgents().listMessages(currentThreadId));
                 for (var message : messages.getTextMessages()) {
-                    System.out.println(message);
+                    LOGGER.info("{}", message);
                 }
-                System.out.println("-------------------\n");
+                LOGGER.info("-------------------");
                 
                 // Evaluate the agent run with multiple evaluators
                 runSimpleEvaluation(threadId, runId);
@@ -89,13 +103,14 @@ public class AgentEvaluationApp {
                 // Clean up resources if created
                 if (agentId != null) {
                     projectClient.getAgents().deleteAgent(agentId);
-                    System.out.println("Deleted agent: " + agentId);
+                    LOGGER.info("Deleted agent: {}", agentId);
                 }
             }
             
+            Telemetry.logSummary();
+            
         } catch (Exception e) {
-            System.err.println("An error occurred: " + e.getMessage());
-            e.printStackTrace();
+            LOGGER.error("An error occurred", e);
         }
     }
     
@@ -103,7 +118,7 @@ public class AgentEvaluationApp {
      * Runs a simple evaluation with the agent quality evaluator.
      */
     private static void runSimpleEvaluation(String threadId, String runId) {
-        System.out.println("\n=== Running Simple Agent Evaluation ===");
+        LOGGER.info("=== Running Simple Agent Evaluation ===");
         
         try {
             // Create the evaluation
@@ -113,22 +128,24 @@ public class AgentEvaluationApp {
                 List.of(EvaluatorIds.AGENT_QUALITY_EVALUATOR));
             
             // Wait for the evaluation to complete
-            result.waitForCompletion();
+            Telemetry.observe(Telemetry.EVALUATION, modelDeploymentName, () -> {
+                result.waitForCompletion();
+                return result;
+            });
             
             // Access the evaluation output
             EvaluationOutput output = result.output();
-            System.out.println("Evaluation completed with result:");
+            LOGGER.info("Evaluation completed with result:");
             
             // Print the scores
             if (output != null && output.getScores() != null) {
                 for (Map.Entry<String, Object> score : output.getScores().entrySet()) {
-                    System.out.println("  " + score.getKey() + ": " + score.getValue());
+                    LOGGER.info("  {}: {}", score.getKey(), score.getValue());
                 }
             }
             
         } catch (Exception e) {
-            System.err.println("Error in simple evaluation: " + e.getMessage());
-            e.printStackTrace();
+            LOGGER.error("Error in simple evaluation", e);
         }
     }
     
@@ -136,7 +153,7 @@ public class AgentEvaluationApp {
      * Runs a detailed evaluation with multiple evaluators and analyzes the results.
      */
     private static void runDetailedEvaluation(String threadId, String runId) {
-        System.out.println("\n=== Running Detailed Agent Evaluation ===");
+        LOGGER.info("=== Running Detailed Agent Evaluation ===");
         
         try {
             // Create a detailed evaluation with multiple evaluators
@@ -150,47 +167,65 @@ public class AgentEvaluationApp {
                 ));
             
             // Wait for the evaluation to complete
-            result.waitForCompletion();
+            Telemetry.observe(Telemetry.EVALUATION, modelDeploymentName, () -> {
+                result.waitForCompletion();
+                return result;
+            });
             
             // Get the evaluation output
             EvaluationOutput output = result.output();
             
             if (output != null) {
-                System.out.println("\nDetailed evaluation results:");
+                LOGGER.info("Detailed evaluation results:");
                 
                 // Print overall score if available
                 if (output.getScores() != null) {
-                    System.out.println("\nOverall Scores:");
+                    LOGGER.info("Overall Scores:");
                     for (Map.Entry<String, Object> entry : output.getScores().entrySet()) {
-                        System.out.println("  " + entry.getKey() + ": " + entry.getValue());
+                        LOGGER.info("  {}: {}", entry.getKey(), entry.getValue());
                     }
                 }
                 
-                // Print evaluators and their results
+                // Print evaluators and their results, one line per evaluator metric
                 if (output.getResults() != null) {
-                    System.out.println("\nEvaluator Results:");
-                    for (Map.Entry<String, Map<String, Object>> evaluator : output.getResults().entrySet()) {
-                        System.out.println("\n  Evaluator: " + evaluator.getKey());
-                        
-                        Map<String, Object> evaluatorResults = evaluator.getValue();
-                        for (Map.Entry<String, Object> result : evaluatorResults.entrySet()) {
-                            System.out.println("    " + result.getKey() + ": " + result.getValue());
-                        }
+                    LOGGER.info("Evaluator Results:");
+                    for (Map.Entry<String, Object> metric : flattenResults(output.getResults()).entrySet()) {
+                        LOGGER.info("  {}: {}", metric.getKey(), metric.getValue());
                     }
                 }
                 
                 // Print any feedback or analysis
                 if (output.getFeedback() != null) {
-                    System.out.println("\nEvaluation Feedback:");
-                    System.out.println(output.getFeedback());
+                    LOGGER.info("Evaluation Feedback:\n{}", output.getFeedback());
                 }
             } else {
-                System.out.println("No evaluation output available.");
+                LOGGER.info("No evaluation output available.");
             }
             
         } catch (Exception e) {
-            System.err.println("Error in detailed evaluation: " + e.getMessage());
-            e.printStackTrace();
+            LOGGER.error("Error in detailed evaluation", e);
+        }
+    }
+
+    /**
+     * Flattens per-evaluator results into one map keyed by {@code evaluator.metric},
+     * in evaluator order.
+     *
+     * @param results The results of each evaluator
+     * @return The flattened results
+     */
+    public static Map<String, Object> flattenResults(Map<String, Map<String, Object>> results) {
+        int size = 0;
+        for (Map<String, Object> evaluatorResults : results.values()) {
+            size += evaluatorResults.size();
+        }
+        Map<String, Object> flattened = new LinkedHashMap<>((int) (size / 0.75f) + 1);
+        for (Map.Entry<String, Map<String, Object>> evaluator : results.entrySet()) {
+            String prefix = evaluator.getKey() + ".";
+            for (Map.Entry<String, Object> result : evaluator.getValue().entrySet()) {
+                flattened.put(prefix + result.getKey(), result.getValue());
+            }
         }
+        return flattened;
     }
 }
@@ -0,0 +1,202 @@
+package com.azure.ai.foundry;
+
+import com.azure.ai.foundry.provisioning.AdaptivePoller;
+import com.azure.ai.foundry.provisioning.ArmOperations;
+import com.azure.ai.foundry.provisioning.AzureArmOperations;
+import com.azure.ai.foundry.provisioning.CachingArmOperations;
+import com.azure.ai.foundry.provisioning.InMemoryArmOperations;
+import com.azure.ai.foundry.provisioning.ProvisioningJournal;
+import com.azure.ai.foundry.provisioning.ProvisioningManifest;
+import com.azure.ai.foundry.provisioning.ProvisioningOrchestrator;
+import com.azure.ai.foundry.provisioning.ProvisioningTarget;
+import com.azure.ai.foundry.provisioning.StepResult;
+import com.azure.ai.foundry.util.EnvironmentUtil;
+import com.azure.identity.DefaultAzureCredentialBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Sample showing how to provision many Azure AI Foundry resources from a manifest.
+ *
+ * The manifest is a CSV file of {@code subscription_id,resource_group,resource_name,project_name,region}
+ * lines. Resources are provisioned in parallel with a cap on how many are in flight per subscription.
+ * Completed entries are recorded in a journal next to the manifest, so rerunning the same command
+ * only retries the entries that failed. A dry run provisions against an in-memory stand-in and leaves
+ * the journal untouched. A per-resource timing report is printed and written as CSV.
+ *
+ * Usage: {@code BulkProvisioningApp <manifest.csv> [--dry-run] [--max-per-subscription=N] [--parallelism=N]}
+ */
+public class BulkProvisioningApp {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(BulkProvisioningApp.class);
+
+    public static void main(String[] args) {
+        if (args.length == 0 || args[0].startsWith("--")) {
+            LOGGER.error("Usage: BulkProvisioningApp <manifest.csv> [--dry-run] "
+                + "[--max-per-subscription=N] [--parallelism=N]");
+            return;
+        }
+
+        Path manifest = Paths.get(args[0]);
+        boolean dryRun = false;
+        int maxPerSubscription = Integer.parseInt(EnvironmentUtil.getEnv("BULK_MAX_PER_SUBSCRIPTION", "4"));
+        int parallelism = Integer.parseInt(EnvironmentUtil.getEnv("BULK_PARALLELISM", "16"));
+        for (int i = 1; i < args.length; i++) {
+            if (args[i].equals("--dry-run")) {
+                dryRun = true;
+            } else if (args[i].startsWith("--max-per-subscription=")) {
+                maxPerSubscription = Integer.parseInt(args[i].substring("--max-per-subscription=".length()));
+            } else if (args[i].startsWith("--parallelism=")) {
+                parallelism = Integer.parseInt(args[i].substring("--parallelism=".length()));
+            } else {
+                LOGGER.warn("Unknown option: {}", args[i]);
+                return;
+            }
+        }
+
+        try {
+            List<ProvisioningTarget> targets = ProvisioningManifest.read(manifest);
+            Path journalFile = Paths.get(manifest + ".journal");
+            Path reportFile = Paths.get(manifest + ".report.csv");
+
+            // A dry run reads the journal to pick the pending entries but never creates or writes it
+            try (ProvisioningJournal journal = dryRun
+                     ? ProvisioningJournal.openReadOnly(journalFile)
+                     : ProvisioningJournal.open(journalFile)) {
+                List<ProvisioningTarget> pending = journal.pending(targets);
+                LOGGER.info("Manifest has {} entries: {} already provisioned, {} to process",
+                    targets.size(), targets.size() - pending.size(), pending.size());
+                if (pending.isEmpty()) {
+                    return;
+                }
+
+                // Existence checks are single lookups by name, remembered briefly in a local inventory
+                ArmOperations arm = new CachingArmOperations(dryRun
+                    ? new InMemoryArmOperations(Duration.ofSeconds(5), Duration.ofMillis(100))
+                    : new AzureArmOperations(new DefaultAzureCredentialBuilder().build()), Duration.ofMinutes(1));
+
+                if (dryRun) {
+                    LOGGER.info("Dry run: the journal will not be updated");
+                }
+
+                Map<String, ProvisioningTarget> targetsByStep = byAccountStep(pending);
+                long start = System.nanoTime();
+                List<StepResult> results = provision(pending, arm, journal, dryRun, parallelism, maxPerSubscription,
+                    AdaptivePoller.Policy.defaults());
+                Duration wallClock = Duration.ofNanos(System.nanoTime() - start);
+
+                printReport(results, targetsByStep, wallClock);
+                writeReport(reportFile, results, targetsByStep);
+                LOGGER.info("Timing report written to {}", reportFile);
+
+                long failed = results.stream()
+                    .filter(result -> targetsByStep.containsKey(result.id()) && !result.succeeded())
+                    .count();
+                if (failed > 0) {
+                    LOGGER.warn("{} entries were not provisioned. "
+                        + "Rerun the same command to retry only those entries.", failed);
+                }
+            }
+        } catch (Exception e) {
+            LOGGER.error("An error occurred", e);
+        }
+    }
+
+    /**
+     * Provisions the targets, recording each resource in the journal as soon as it is in place.
+     *
+     * @param targets The resources to provision
+     * @param arm The ARM operations to use
+     * @param journal The journal of completed resources
+     * @param dryRun Whether this is a dry run, whose resources are not real and so are not recorded
+     * @param parallelism The maximum number of concurrent ARM calls
+     * @param maxPerSubscription The maximum number of resources provisioned at once per subscription
+     * @param policy The polling settings
+     * @return The result of every step
+     */
+    public static List<StepResult> provision(List<ProvisioningTarget> targets, ArmOperations arm,
+                                             ProvisioningJournal journal, boolean dryRun, int parallelism,
+                                             int maxPerSubscription, AdaptivePoller.Policy policy) {
+        Map<String, ProvisioningTarget> targetsByStep = byAccountStep(targets);
+        try (ProvisioningOrchestrator orchestrator = new ProvisioningOrchestrator(
+                 arm, parallelism, maxPerSubscription, policy)) {
+            return orchestrator.provision(targets, result -> {
+                ProvisioningTarget target = targetsByStep.get(result.id());
+                if (!dryRun && target != null && result.succeeded()) {
+                    journal.markCompleted(target);
+                }
+            }).join();
+        }
+    }
+
+    private static Map<String, ProvisioningTarget> byAccountStep(List<ProvisioningTarget> targets) {
+        return targets.stream()
+            .collect(Collectors.toMap(ProvisioningOrchestrator::accountStep, Function.identity()));
+    }
+
+    /**
+     * Prints the per-resource timings, slowest first.
+     */
+    private static void printReport(List<StepResult> results, Map<String, ProvisioningTarget> targetsByStep,
+                                    Duration wallClock) {
+        // The table is formatted eagerly, so skip it entirely when INFO is off
+        if (!LOGGER.isInfoEnabled()) {
+            return;
+        }
+        LOGGER.info("Provisioning report:");
+        LOGGER.info(String.format("  %-40s %-14s %-9s %8s %8s  %s",
+            "Resource", "Region", "Status", "Queued", "Elapsed", "Error"));
+        long totalMillis = 0;
+        List<StepResult> accountResults = results.stream()
+            .filter(result -> targetsByStep.containsKey(result.id()))
+            .sorted(Comparator.comparing(StepResult::duration).reversed())
+            .toList();
+        for (StepResult result : accountResults) {
+            ProvisioningTarget target = targetsByStep.get(result.id());
+            Duration provisioning = result.duration().minus(result.queued());
+            totalMillis += provisioning.toMillis();
+            LOGGER.info(String.format("  %-40s %-14s %-9s %7.1fs %7.1fs  %s",
+                target.resourceName(), target.region(), result.status(),
+                result.queued().toMillis() / 1000.0, provisioning.toMillis() / 1000.0,
+                result.error() != null ? result.error() : ""));
+        }
+        LOGGER.info(String.format("  %d resources in %.1fs wall clock (%.1fs if provisioned one at a time)",
+            accountResults.size(), wallClock.toMillis() / 1000.0, totalMillis / 1000.0));
+    }
+
+    /**
+     * Writes the per-resource timings as CSV.
+     */
+    private static void writeReport(Path file, List<StepResult> results,
+                                    Map<String, ProvisioningTarget> targetsByStep) throws Exception {
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            writer.write("subscription_id,resource_group,resource_name,region,status,queued_ms,elapsed_ms,error");
+            writer.newLine();
+            for (StepResult result : results) {
+                ProvisioningTarget target = targetsByStep.get(result.id());
+                if (target == null) {
+                    continue;
+                }
+                writer.write(String.join(",",
+                    target.subscriptionId(), target.resourceGroup(), target.resourceName(), target.region(),
+                    result.status().toString(),
+                    String.valueOf(result.queued().toMillis()),
+                    String.valueOf(result.duration().minus(result.queued()).toMillis()),
+                    result.error() != null ? '"' + result.error().replace("\"", "\"\"") + '"' : ""));
+                writer.newLine();
+            }
+        }
+    }
+}
@@ -1,124 +1,108 @@
 package com.azure.ai.foundry;
 
-import com.azure.core.credential.TokenCredential;
-import com.azure.core.management.AzureEnvironment;
-import com.azure.core.management.profile.AzureProfile;
+import com.azure.ai.foundry.provisioning.AdaptivePoller;
+import com.azure.ai.foundry.provisioning.ArmOperations;
+import com.azure.ai.foundry.provisioning.AzureArmOperations;
+import com.azure.ai.foundry.provisioning.CachingArmOperations;
+import com.azure.ai.foundry.provisioning.InMemoryArmOperations;
+import com.azure.ai.foundry.provisioning.ProvisioningOrchestrator;
+import com.azure.ai.foundry.provisioning.ProvisioningTarget;
+import com.azure.ai.foundry.provisioning.StepResult;
 import com.azure.identity.DefaultAzureCredentialBuilder;
-import com.azure.resourcemanager.cognitiveservices.CognitiveServicesManager;
-import com.azure.resourcemanager.cognitiveservices.models.Account;
-import com.azure.resourcemanager.cognitiveservices.models.ApiProperties;
-import com.azure.resourcemanager.cognitiveservices.models.Identity;
-import com.azure.resourcemanager.cognitiveservices.models.IdentityType;
-import com.azure.resourcemanager.cognitiveservices.models.Kind;
-import com.azure.resourcemanager.cognitiveservices.models.ResourceProvisioningState;
-import com.azure.resourcemanager.cognitiveservices.models.Sku;
-import com.azure.resourcemanager.resources.ResourceManager;
-import com.azure.resourcemanager.resources.models.ResourceGroup;
 import io.github.cdimascio.dotenv.Dotenv;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 
 /**
  * Sample showing how to create an Azure AI Foundry project using the Azure SDK for Java.
+ *
+ * AZURE_REGION may list several comma-separated regions, in which case one resource is created
+ * per region (named "&lt;resource-name&gt;-&lt;region&gt;") and all of them are provisioned concurrently.
+ * Run with {@code --dry-run} to provision against a local in-memory ARM stand-in instead of Azure.
  */
 public class CreateProjectApp {
 
+    private static final Logger LOGGER = LoggerFactory.getLogger(CreateProjectApp.class);
+
     public static void main(String[] args) {
+        boolean dryRun = Arrays.asList(args).contains("--dry-run");
         try {
             // Load environment variables
             Dotenv dotenv = Dotenv.configure().ignoreIfMissing().load();
             
-            String subscriptionId = dotenv.get("AZURE_SUBSCRIPTION_ID");
-            String resourceGroupName = dotenv.get("AZURE_RESOURCE_GROUP");
-            String foundryResourceName = dotenv.get("AZURE_FOUNDRY_RESOURCE_NAME");
-            String foundryProjectName = dotenv.get("AZURE_FOUNDRY_PROJECT_NAME");
-            String location = dotenv.get("AZURE_REGION", "eastus");
+            String subscriptionId = dotenv.get("AZURE_SUBSCRIPTION_ID", dryRun ? "dry-run-subscription" : null);
+            String resourceGroupName = dotenv.get("AZURE_RESOURCE_GROUP", dryRun ? "dry-run-rg" : null);
+            String foundryResourceName = dotenv.get("AZURE_FOUNDRY_RESOURCE_NAME", dryRun ? "dry-run-foundry" : null);
+            String foundryProjectName = dotenv.get("AZURE_FOUNDRY_PROJECT_NAME", dryRun ? "dry-run-project" : null);
+            String regions = dotenv.get("AZURE_REGION", "eastus");
             
             // Validate required parameters
-            validateParameters(subscriptionId, resourceGroupName, foundryResourceName, foundryProjectName);
-            
-            // Set up authentication
-            TokenCredential credential = new DefaultAzureCredentialBuilder().build();
-            AzureProfile profile = new AzureProfile(AzureEnvironment.AZURE);
-            
-            System.out.println("Creating Azure AI Foundry resources...");
-            
-            // Create Resource Manager client
-            ResourceManager resourceManager = ResourceManager.authenticate(credential, profile)
-                .withSubscription(subscriptionId);
-            
-            // Check if resource group exists, create if it doesn't
-            ResourceGroup resourceGroup;
-            if (!resourceManager.resourceGroups().contain(resourceGroupName)) {
-                System.out.println("Creating resource group: " + resourceGroupName);
-                resourceGroup = resourceManager.resourceGroups()
-                    .define(resourceGroupName)
-                    .withRegion(location)
-                    .create();
-                System.out.println("Resource group created: " + resourceGroup.name());
-            } else {
-                System.out.println("Resource group already exists: " + resourceGroupName);
-                resourceGroup = resourceManager.resourceGroups().getByName(resourceGroupName);
+            if (!dryRun) {
+                validateParameters(subscriptionId, resourceGroupName, foundryResourceName, foundryProjectName);
             }
             
-            // Create the Cognitive Services Manager
-            CognitiveServicesManager cognitiveServicesManager = CognitiveServicesManager.authenticate(
-                credential, profile);
+            List<ProvisioningTarget> targets = targets(
+                subscriptionId, resourceGroupName, foundryResourceName, foundryProjectName, regions);
             
-            // Check if Foundry resource already exists
-            boolean resourceExists = cognitiveServicesManager.accounts().listByResourceGroup(resourceGroupName)
-                .stream()
-                .anyMatch(account -> account.name().equalsIgnoreCase(foundryResourceName));
+            // Use Azure Resource Manager, or a local stand-in for dry runs
+            // Existence checks are single lookups by name, remembered briefly in a local inventory
+            ArmOperations arm = new CachingArmOperations(dryRun
+                ? new InMemoryArmOperations(Duration.ofSeconds(5), Duration.ofMillis(100))
+                : new AzureArmOperations(new DefaultAzureCredentialBuilder().build()), Duration.ofMinutes(1));
             
-            if (resourceExists) {
-                System.out.println("Foundry resource already exists: " + foundryResourceName);
-                System.out.println("Please use a different name or delete the existing resource.");
-                return;
-            }
+            LOGGER.info("Creating Azure AI Foundry resources{}...", dryRun ? " (dry run)" : "");
             
-            // Create the account
-            System.out.println("Creating AI Foundry resource: " + foundryResourceName);
-            Account account = cognitiveServicesManager.accounts()
-                .define(foundryResourceName)
-                .withRegion(location)
-                .withExistingResourceGroup(resourceGroupName)
-                .withKind(Kind.AI_SERVICES)
-                .withSku(new Sku().withName("S0"))
-                .withIdentity(new Identity().withType(IdentityType.SYSTEM_ASSIGNED))
-                .withProperties(new ApiProperties().withAllowProjectManagement(true))
-                .create();
-            
-            System.out.println("AI Foundry resource created:");
-            System.out.println("  - Name: " + account.name());
-            System.out.println("  - Type: " + account.type());
-            System.out.println("  - Location: " + account.location());
-            System.out.println("  - Provisioning State: " + account.properties().provisioningState());
+            List<StepResult> results;
+            try (ProvisioningOrchestrator orchestrator =
+                     new ProvisioningOrchestrator(arm, 8, AdaptivePoller.Policy.defaults())) {
+                results = orchestrator.provision(targets).join();
+            }
             
-            // Wait for resource to be fully provisioned
-            int attempts = 0;
-            while (!ResourceProvisioningState.SUCCEEDED.equals(account.properties().provisioningState()) 
-                   && attempts < 30) {
-                System.out.println("Waiting for resource to be fully provisioned...");
-                Thread.sleep(10000); // Wait 10 seconds
-                account = cognitiveServicesManager.accounts().getById(account.id());
-                attempts++;
+            LOGGER.info("Provisioning summary:");
+            for (StepResult result : results) {
+                LOGGER.info("  - {} {} {}s{}", result.id(), result.status(),
+                    result.duration().toMillis() / 1000.0, result.error() != null ? "  " + result.error() : "");
             }
             
-            if (!ResourceProvisioningState.SUCCEEDED.equals(account.properties().provisioningState())) {
-                System.out.println("Resource provisioning did not complete successfully within the timeout period.");
+            if (!results.stream().allMatch(StepResult::succeeded)) {
+                LOGGER.warn("Some resources were not provisioned successfully.");
                 return;
             }
             
-            System.out.println("AI Foundry resource successfully provisioned!");
-            System.out.println("\nNext steps:");
-            System.out.println("1. Log in to the Azure Portal");
-            System.out.println("2. Navigate to your AI Foundry resource");
-            System.out.println("3. Create a new project named '" + foundryProjectName + "'");
-            System.out.println("4. Deploy models and set up your environment");
-            System.out.println("5. Update your .env file with the project endpoint");
+            LOGGER.info("AI Foundry resources successfully provisioned!");
+            LOGGER.info("Next steps:");
+            LOGGER.info("1. Log in to the Azure Portal");
+            LOGGER.info("2. Navigate to your AI Foundry resource");
+            LOGGER.info("3. Create a new project named '{}'", foundryProjectName);
+            LOGGER.info("4. Deploy models and set up your environment");
+            LOGGER.info("5. Update your .env file with the project endpoint");
             
         } catch (Exception e) {
-            System.err.println("An error occurred: " + e.getMessage());
-            e.printStackTrace();
+            LOGGER.error("An error occurred", e);
+        }
+    }
+    
+    /**
+     * Builds one provisioning target per region.
+     */
+    private static List<ProvisioningTarget> targets(String subscriptionId, String resourceGroupName,
+                                                    String foundryResourceName, String foundryProjectName,
+                                                    String regions) {
+        List<String> regionList = Arrays.stream(regions.split(","))
+            .map(String::trim)
+            .filter(region -> !region.isEmpty())
+            .toList();
+        List<ProvisioningTarget> targets = new ArrayList<>();
+        for (String region : regionList) {
+            String name = regionList.size() == 1 ? foundryResourceName : foundryResourceName + "-" + region;
+            targets.add(new ProvisioningTarget(subscriptionId, resourceGroupName, name, foundryProjectName, region));
         }
+        return targets;
     }
     
     /**
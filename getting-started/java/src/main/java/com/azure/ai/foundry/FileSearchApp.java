@@ -11,7 +11,11 @@ import com.azure.ai.projects.models.Thread;
 import com.azure.ai.projects.models.VectorStore;
 import com.azure.identity.DefaultAzureCredential;
 import com.azure.identity.DefaultAzureCredentialBuilder;
+import com.azure.ai.foundry.util.AgentSettings;
 import com.azure.ai.foundry.util.EnvironmentUtil;
+import com.azure.ai.foundry.util.Telemetry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 import java.nio.file.Files;
@@ -30,6 +34,8 @@ import java.util.List;
  */
 public class FileSearchApp {
 
+    private static final Logger LOGGER = LoggerFactory.getLogger(FileSearchApp.class);
+
     private static AIProjectClient projectClient;
     private static String modelDeploymentName;
 
@@ -37,28 +43,31 @@ public class FileSearchApp {
         try {
             // Check required environment variables
             if (!EnvironmentUtil.checkRequiredEnv("AZURE_AI_ENDPOINT", "MODEL_DEPLOYMENT_NAME")) {
-                System.err.println("Please set all required environment variables in your .env file");
+                LOGGER.error("Please set all required environment variables in your .env file");
                 System.exit(1);
             }
 
             // Initialize AI Project client
-            String endpoint = EnvironmentUtil.getEnv("AZURE_AI_ENDPOINT");
-            modelDeploymentName = EnvironmentUtil.getEnv("MODEL_DEPLOYMENT_NAME");
+            AgentSettings settings = AgentSettings.load();
+            modelDeploymentName = settings.modelDeploymentName();
             
+            Telemetry.configure();
             DefaultAzureCredential credential = new DefaultAzureCredentialBuilder().build();
             projectClient = new AIProjectClientBuilder()
-                .endpoint(endpoint)
+                .endpoint(settings.endpoint())
                 .credential(credential)
+                .addPolicy(Telemetry.httpPolicy())
                 .buildClient();
             
-            System.out.println("Azure AI Project client initialized successfully.");
+            LOGGER.info("Azure AI Project client initialized successfully.");
             
             // Run the file search demonstration
             runFileSearchExample();
             
+            Telemetry.logSummary();
+            
         } catch (Exception e) {
-            System.err.println("An error occurred: " + e.getMessage());
-            e.printStackTrace();
+            LOGGER.error("An error occurred", e);
         }
     }
     
@@ -66,43 +75,45 @@ public class FileSearchApp {
      * Demonstrates the file search capabilities of Azure AI Foundry.
      */
     private static void runFileSearchExample() throws IOException {
-        System.out.println("\n=== Running File Search Example ===");
+        LOGGER.info("=== Running File Search Example ===");
         
         // Create and upload multiple files
         Path[] filePaths = createSampleFiles();
         List<File> uploadedFiles = uploadFiles(filePaths);
-        System.out.println("Uploaded " + uploadedFiles.size() + " files");
+        LOGGER.info("Uploaded {} files", uploadedFiles.size());
         
         // Create a vector store with the uploaded files
         List<String> fileIds = uploadedFiles.stream()
             .map(File::getId)
             .toList();
         
-        VectorStore vectorStore = projectClient.getAgents().createVectorStoreAndPoll(
-            fileIds, 
-            "product_documents_vectorstore");
+        VectorStore vectorStore = Telemetry.observe(Telemetry.VECTOR_STORE_INDEX, null,
+            () -> projectClient.getAgents().createVectorStoreAndPoll(
+                fileIds, 
+                "product_documents_vectorstore"));
         
-        System.out.println("Created vector store with ID: " + vectorStore.getId());
+        LOGGER.info("Created vector store with ID: {}", vectorStore.getId());
         
         try {
             // Create a file search tool
             FileSearchTool fileSearch = new FileSearchTool(List.of(vectorStore.getId()));
             
             // Create an agent with file search capabilities
-            var agent = projectClient.getAgents().createAgent(
-                modelDeploymentName,
-                "document-search-agent",
-                "You are an assistant that helps users find information in their documents. " +
-                "Use the search tool to look up relevant information in the uploaded files. " +
-                "If you find the information in the documents, cite the document name as your source.",
-                fileSearch.getDefinitions(),
-                fileSearch.getResources());
-            
-            System.out.println("Created agent with ID: " + agent.getId());
+            var agent = Telemetry.observe(Telemetry.AGENT_CREATE, modelDeploymentName,
+                () -> projectClient.getAgents().createAgent(
+                    modelDeploymentName,
+                    "document-search-agent",
+                    "You are an assistant that helps users find information in their documents. " +
+                    "Use the search tool to look up relevant information in the uploaded files. " +
+                    "If you find the information in the documents, cite the document name as your source.",
+                    fileSearch.getDefinitions(),
+                    fileSearch.getResources()));
+            
+            LOGGER.info("Created agent with ID: {}", agent.getId());
             
             // Create a thread for conversation
             Thread thread = projectClient.getAgents().createThread();
-            System.out.println("Created thread with ID: " + thread.getId());
+            LOGGER.info("Created thread with ID: {}", thread.getId());
             
             try {
                 // Ask a series of questions about the documents
@@ -121,17 +132,17 @@ public class FileSearchApp {
             } finally {
                 // Clean up the agent
                 projectClient.getAgents().deleteAgent(agent.getId());
-                System.out.println("Deleted agent: " + agent.getId());
+                LOGGER.info("Deleted agent: {}", agent.getId());
             }
             
         } finally {
             // Clean up the vector store and files
             projectClient.getAgents().deleteVectorStore(vectorStore.getId());
-            System.out.println("Deleted vector store: " + vectorStore.getId());
+            LOGGER.info("Deleted vector store: {}", vectorStore.getId());
             
             for (File file : uploadedFiles) {
                 projectClient.getAgents().deleteFile(file.getId());
-                System.out.println("Deleted file: " + file.getId());
+                LOGGER.info("Deleted file: {}", file.getId());
             }
             
             // Delete the local files
@@ -145,8 +156,8 @@ public class FileSearchApp {
      * Runs a question-and-answer interaction with the agent.
      */
     private static void runQuestionAndAnswer(String threadId, String agentId, String question) {
-        System.out.println("\n--- New Question ---");
-        System.out.println("User: " + question);
+        LOGGER.info("--- New Question ---");
+        LOGGER.info("User: {}", question);
         
         // Add the user's question to the thread
         Message message = projectClient.getAgents().createMessage(
@@ -155,21 +166,23 @@ public class FileSearchApp {
             question);
         
         // Process the agent run
-        Run run = projectClient.getAgents().createAndProcessRun(threadId, agentId);
+        Run run = Telemetry.observe(Telemetry.AGENT_RUN, modelDeploymentName,
+            () -> projectClient.getAgents().createAndProcessRun(threadId, agentId));
         
         if ("failed".equals(run.getStatus())) {
-            System.out.println("Run failed: " + run.getLastError());
+            LOGGER.warn("Run failed: {}", run.getLastError());
             return;
         }
         
         // Get the agent's response
-        var messages = projectClient.getAgents().listMessages(threadId);
+        var messages = Telemetry.observe(Telemetry.MESSAGE_LIST, modelDeploymentName,
+            () -> projectClient.getAgents().listMessages(threadId));
         var lastMsg = messages.getLastTextMessageByRole("assistant");
         
         if (lastMsg != null) {
-            System.out.println("Assistant: " + lastMsg.getText().getValue());
+            LOGGER.info("Assistant: {}", lastMsg.getText().getValue());
         } else {
-            System.out.println("No response from assistant");
+            LOGGER.info("No response from assistant");
         }
     }
     
@@ -318,13 +331,14 @@ public class FileSearchApp {
         return Arrays.stream(filePaths)
             .map(path -> {
                 try {
-                    File file = projectClient.getAgents().uploadFile(
-                        path.toString(), 
-                        FilePurpose.AGENTS);
-                    System.out.println("Uploaded file: " + path.getFileName() + " with ID: " + file.getId());
+                    File file = Telemetry.observe(Telemetry.FILE_UPLOAD, null,
+                        () -> projectClient.getAgents().uploadFile(
+                            path.toString(), 
+                            FilePurpose.AGENTS));
+                    LOGGER.info("Uploaded file: {} with ID: {}", path.getFileName(), file.getId());
                     return file;
                 } catch (Exception e) {
-                    System.err.println("Failed to upload file " + path + ": " + e.getMessage());
+                    LOGGER.error("Failed to upload file {}", path, e);
                     throw new RuntimeException(e);
                 }
             })
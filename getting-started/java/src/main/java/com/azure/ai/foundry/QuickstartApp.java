@@ -5,6 +5,13 @@ import com.azure.ai.projects.AIProjectClientBuilder;
 import com.azure.ai.projects.EvaluatorIds;
 import com.azure.ai.projects.models.FileSearchTool;
 import com.azure.ai.projects.models.FilePurpose;
+import com.azure.ai.projects.models.Run;
+import com.azure.ai.foundry.util.Telemetry;
+import com.azure.ai.foundry.util.UsageAccounting;
+import com.example.ai.common.tokenizer.BpeTokenizer;
+import com.example.ai.common.tokenizer.CostEstimator;
+import com.example.ai.common.tokenizer.TokenBudget;
+import com.example.ai.common.usage.UsageLedger;
 import com.azure.identity.DefaultAzureCredential;
 import com.azure.identity.DefaultAzureCredentialBuilder;
 import com.openai.client.OpenAI;
@@ -13,6 +20,8 @@ import com.openai.client.completion.chat.ChatCompletionRequest;
 import com.openai.client.completion.chat.ChatMessage;
 import com.openai.client.completion.chat.ChatMessageRole;
 import io.github.cdimascio.dotenv.Dotenv;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.nio.file.Files;
 import java.nio.file.Path;
@@ -25,8 +34,12 @@ import java.util.List;
  */
 public class QuickstartApp {
 
+    private static final Logger LOGGER = LoggerFactory.getLogger(QuickstartApp.class);
+
     private static AIProjectClient projectClient;
     private static String modelDeploymentName;
+    private static UsageLedger usageLedger;
+    private static String tenant;
 
     public static void main(String[] args) {
         try {
@@ -38,31 +51,39 @@ public class QuickstartApp {
             modelDeploymentName = dotenv.get("MODEL_DEPLOYMENT_NAME");
             
             if (endpoint == null || endpoint.isEmpty()) {
-                System.err.println("Error: AZURE_AI_ENDPOINT environment variable is required.");
+                LOGGER.error("AZURE_AI_ENDPOINT environment variable is required.");
                 System.exit(1);
             }
             
             if (modelDeploymentName == null || modelDeploymentName.isEmpty()) {
-                System.err.println("Error: MODEL_DEPLOYMENT_NAME environment variable is required.");
+                LOGGER.error("MODEL_DEPLOYMENT_NAME environment variable is required.");
                 System.exit(1);
             }
             
+            Telemetry.configure();
             DefaultAzureCredential credential = new DefaultAzureCredentialBuilder().build();
             projectClient = new AIProjectClientBuilder()
                 .endpoint(endpoint)
                 .credential(credential)
+                .addPolicy(Telemetry.httpPolicy())
                 .buildClient();
             
-            System.out.println("Azure AI Project client initialized successfully.");
-            
-            // Run samples
-            runChatCompletion();
-            runBasicAgent();
-            runFileSearchAgent();
+            LOGGER.info("Azure AI Project client initialized successfully.");
+            
+            // Run samples, recording the tokens each call uses
+            tenant = UsageAccounting.tenant();
+            try (UsageLedger ledger = UsageAccounting.openLedger()) {
+                usageLedger = ledger;
+                runChatCompletion();
+                runBasicAgent();
+                runFileSearchAgent();
+                
+                Telemetry.logSummary();
+                UsageAccounting.logRollUps(ledger);
+            }
             
         } catch (Exception e) {
-            System.err.println("An error occurred: " + e.getMessage());
-            e.printStackTrace();
+            LOGGER.error("An error occurred", e);
         }
     }
     
@@ -70,31 +91,74 @@ public class QuickstartApp {
      * Demonstrates how to use chat completion with Azure OpenAI.
      */
     private static void runChatCompletion() {
-        System.out.println("\n=== Running Chat Completion Sample ===");
+        LOGGER.info("=== Running Chat Completion Sample ===");
         
         try {
             // Get the OpenAI client from the project
             OpenAI openAIClient = projectClient.getInference().getAzureOpenAIClient("2024-06-01");
             
+            String systemPrompt = "You are a helpful writing assistant";
+            String userPrompt = "Write me a poem about flowers";
+            
+            // Count the prompt locally before sending it
+            TokenBudget budget = new TokenBudget(BpeTokenizer.forModel(modelDeploymentName), 128_000, 2_000);
+            int promptTokens = budget.countPrompt("system", systemPrompt, "user", userPrompt);
+            LOGGER.info("Prompt tokens: {}, completion limit: {}", promptTokens, budget.maxOutputTokens(promptTokens));
+            
             // Create and send a chat completion request
             ChatCompletionRequest request = ChatCompletionRequest.builder()
                 .model(modelDeploymentName)
                 .messages(List.of(
-                    new ChatMessage(ChatMessageRole.SYSTEM, "You are a helpful writing assistant"),
-                    new ChatMessage(ChatMessageRole.USER, "Write me a poem about flowers")
+                    new ChatMessage(ChatMessageRole.SYSTEM, systemPrompt),
+                    new ChatMessage(ChatMessageRole.USER, userPrompt)
                 ))
                 .build();
             
-            ChatCompletion response = openAIClient.chatCompletions().create(request);
+            ChatCompletion response = Telemetry.observe(Telemetry.CHAT, modelDeploymentName,
+                () -> openAIClient.chatCompletions().create(request));
             
             // Print the response
             String content = response.getChoices().get(0).getMessage().getContent();
-            System.out.println("Response from chat completion:");
-            System.out.println(content);
+            LOGGER.info("Response from chat completion:\n{}", content);
+            
+            // Prefer the service's token counts; fall back to the local ones if it sent none
+            long billedPrompt = promptTokens;
+            long billedCompletion;
+            if (response.getUsage() != null) {
+                billedPrompt = response.getUsage().getPromptTokens();
+                billedCompletion = response.getUsage().getCompletionTokens();
+            } else {
+                billedCompletion = budget.tokenizer().countTokens(content);
+            }
+            Telemetry.recordTokens(modelDeploymentName, billedPrompt, billedCompletion);
+            usageLedger.record(modelDeploymentName, tenant, billedPrompt, billedCompletion);
+            
+            try {
+                CostEstimator.Estimate estimate = CostEstimator.withListPrices()
+                    .estimate(modelDeploymentName, billedPrompt, billedCompletion);
+                LOGGER.info("Estimated cost: ${} ({} prompt + {} completion tokens)",
+                    estimate.cost().toPlainString(), estimate.inputTokens(), estimate.outputTokens());
+            } catch (IllegalArgumentException e) {
+                // Deployment names that don't start with a model name have no list price
+                LOGGER.info("No list price for deployment {}", modelDeploymentName);
+            }
             
         } catch (Exception e) {
-            System.err.println("Error in chat completion sample: " + e.getMessage());
-            e.printStackTrace();
+            LOGGER.error("Error in chat completion sample", e);
+        }
+    }
+    
+    /**
+     * Records the tokens an agent run used, summed over all of its steps.
+     *
+     * @param run The finished run
+     */
+    private static void recordRunUsage(Run run) {
+        if (run.getUsage() != null) {
+            Telemetry.recordTokens(modelDeploymentName, run.getUsage().getPromptTokens(),
+                run.getUsage().getCompletionTokens());
+            usageLedger.record(modelDeploymentName, tenant, run.getUsage().getPromptTokens(),
+                run.getUsage().getCompletionTokens());
         }
     }
     
@@ -102,20 +166,21 @@ public class QuickstartApp {
      * Demonstrates how to create and run a basic agent.
      */
     private static void runBasicAgent() {
-        System.out.println("\n=== Running Basic Agent Sample ===");
+        LOGGER.info("=== Running Basic Agent Sample ===");
         
         try {
             // Create an agent
-            var agent = projectClient.getAgents().createAgent(
-                modelDeploymentName,
-                "my-agent",
-                "You are a helpful writing assistant");
+            var agent = Telemetry.observe(Telemetry.AGENT_CREATE, modelDeploymentName,
+                () -> projectClient.getAgents().createAgent(
+                    modelDeploymentName,
+                    "my-agent",
+                    "You are a helpful writing assistant"));
             
-            System.out.println("Created agent with ID: " + agent.getId());
+            LOGGER.info("Created agent with ID: {}", agent.getId());
             
             // Create a thread for the conversation
             var thread = projectClient.getAgents().createThread();
-            System.out.println("Created thread with ID: " + thread.getId());
+            LOGGER.info("Created thread with ID: {}", thread.getId());
             
             // Add a message to the thread
             var message = projectClient.getAgents().createMessage(
@@ -123,33 +188,34 @@ public class QuickstartApp {
                 "user", 
                 "Write me a poem about flowers");
             
-            System.out.println("Created message with ID: " + message.getId());
+            LOGGER.info("Created message with ID: {}", message.getId());
             
             // Create and process a run
-            var run = projectClient.getAgents().createAndProcessRun(thread.getId(), agent.getId());
-            System.out.println("Run status: " + run.getStatus());
+            var run = Telemetry.observe(Telemetry.AGENT_RUN, modelDeploymentName,
+                () -> projectClient.getAgents().createAndProcessRun(thread.getId(), agent.getId()));
+            LOGGER.info("Run status: {}", run.getStatus());
+            recordRunUsage(run);
             
             if ("failed".equals(run.getStatus())) {
-                System.err.println("Run failed: " + run.getLastError());
+                LOGGER.warn("Run failed: {}", run.getLastError());
             }
             
             // Get messages from the thread
-            var messages = projectClient.getAgents().listMessages(thread.getId());
+            var messages = Telemetry.observe(Telemetry.MESSAGE_LIST, modelDeploymentName,
+                () -> projectClient.getAgents().listMessages(thread.getId()));
             
             // Get the last message from the assistant
             var lastMsg = messages.getLastTextMessageByRole("assistant");
             if (lastMsg != null) {
-                System.out.println("Last message from assistant:");
-                System.out.println(lastMsg.getText().getValue());
+                LOGGER.info("Last message from assistant:\n{}", lastMsg.getText().getValue());
             }
             
             // Clean up
             projectClient.getAgents().deleteAgent(agent.getId());
-            System.out.println("Deleted agent");
+            LOGGER.info("Deleted agent");
             
         } catch (Exception e) {
-            System.err.println("Error in basic agent sample: " + e.getMessage());
-            e.printStackTrace();
+            LOGGER.error("Error in basic agent sample", e);
         }
     }
     
@@ -157,42 +223,45 @@ public class QuickstartApp {
      * Demonstrates how to create and use an agent with file search capabilities.
      */
     private static void runFileSearchAgent() {
-        System.out.println("\n=== Running File Search Agent Sample ===");
+        LOGGER.info("=== Running File Search Agent Sample ===");
         
         try {
             // Create a sample product information file for demonstration
             Path productInfoFile = createProductInfoFile();
             
             // Upload file to the agent service
-            var file = projectClient.getAgents().uploadFile(
-                productInfoFile.toString(), 
-                FilePurpose.AGENTS);
+            var file = Telemetry.observe(Telemetry.FILE_UPLOAD, null,
+                () -> projectClient.getAgents().uploadFile(
+                    productInfoFile.toString(), 
+                    FilePurpose.AGENTS));
             
-            System.out.println("Uploaded file with ID: " + file.getId());
+            LOGGER.info("Uploaded file with ID: {}", file.getId());
             
             // Create a vector store with the uploaded file
-            var vectorStore = projectClient.getAgents().createVectorStoreAndPoll(
-                List.of(file.getId()), 
-                "my_vectorstore");
+            var vectorStore = Telemetry.observe(Telemetry.VECTOR_STORE_INDEX, null,
+                () -> projectClient.getAgents().createVectorStoreAndPoll(
+                    List.of(file.getId()), 
+                    "my_vectorstore"));
             
-            System.out.println("Created vector store with ID: " + vectorStore.getId());
+            LOGGER.info("Created vector store with ID: {}", vectorStore.getId());
             
             // Create file search tool
             FileSearchTool fileSearch = new FileSearchTool(List.of(vectorStore.getId()));
             
             // Create agent with file search capabilities
-            var agent = projectClient.getAgents().createAgent(
-                modelDeploymentName,
-                "my-assistant",
-                "You are a helpful assistant and can search information from uploaded files",
-                fileSearch.getDefinitions(),
-                fileSearch.getResources());
+            var agent = Telemetry.observe(Telemetry.AGENT_CREATE, modelDeploymentName,
+                () -> projectClient.getAgents().createAgent(
+                    modelDeploymentName,
+                    "my-assistant",
+                    "You are a helpful assistant and can search information from uploaded files",
+                    fileSearch.getDefinitions(),
+                    fileSearch.getResources()));
             
-            System.out.println("Created agent with ID: " + agent.getId());
+            LOGGER.info("Created agent with ID: {}", agent.getId());
             
             // Create thread and add user message
             var thread = projectClient.getAgents().createThread();
-            System.out.println("Created thread with ID: " + thread.getId());
+            LOGGER.info("Created thread with ID: {}", thread.getId());
             
             projectClient.getAgents().createMessage(
                 thread.getId(), 
@@ -200,16 +269,20 @@ public class QuickstartApp {
                 "Hello, what Contoso products do you know?");
             
             // Run the agent
-            var run = projectClient.getAgents().createAndProcessRun(thread.getId(), agent.getId());
-            System.out.println("Run status: " + run.getStatus());
+            var run = Telemetry.observe(Telemetry.AGENT_RUN, modelDeploymentName,
+                () -> projectClient.getAgents().createAndProcessRun(thread.getId(), agent.getId()));
+            LOGGER.info("Run status: {}", run.getStatus());
+            recordRunUsage(run);
             
             if ("failed".equals(run.getStatus())) {
-                System.err.println("Run failed: " + run.getLastError());
+                LOGGER.warn("Run failed: {}", run.getLastError());
             }
             
             // Print thread messages
-            for (var msg : projectClient.getAgents().listMessages(thread.getId()).getTextMessages()) {
-                System.out.println(msg);
+            var messages = Telemetry.observe(Telemetry.MESSAGE_LIST, modelDeploymentName,
+                () -> projectClient.getAgents().listMessages(thread.getId()));
+            for (var msg : messages.getTextMessages()) {
+                LOGGER.info("{}", msg);
             }
             
             // Evaluate the agent run
@@ -221,11 +294,10 @@ public class QuickstartApp {
             projectClient.getAgents().deleteAgent(agent.getId());
             Files.deleteIfExists(productInfoFile);
             
-            System.out.println("Cleaned up all resources");
+            LOGGER.info("Cleaned up all resources");
             
         } catch (Exception e) {
-            System.err.println("Error in file search agent sample: " + e.getMessage());
-            e.printStackTrace();
+            LOGGER.error("Error in file search agent sample", e);
         }
     }
     
@@ -233,7 +305,7 @@ public class QuickstartApp {
      * Evaluates an agent run using the AGENT_QUALITY_EVALUATOR.
      */
     private static void evaluateAgentRun(String threadId, String runId) {
-        System.out.println("\n=== Evaluating Agent Run ===");
+        LOGGER.info("=== Evaluating Agent Run ===");
         
         try {
             var result = projectClient.getEvaluation().createAgentEvaluation(
@@ -242,15 +314,16 @@ public class QuickstartApp {
                 List.of(EvaluatorIds.AGENT_QUALITY_EVALUATOR));
             
             // Wait for the evaluation to complete
-            result.waitForCompletion();
+            Telemetry.observe(Telemetry.EVALUATION, modelDeploymentName, () -> {
+                result.waitForCompletion();
+                return result;
+            });
             
             // Print the evaluation result
-            System.out.println("Evaluation result:");
-            System.out.println(result.output().toString());
+            LOGGER.info("Evaluation result:\n{}", result.output());
             
         } catch (Exception e) {
-            System.err.println("Error in agent evaluation: " + e.getMessage());
-            e.printStackTrace();
+            LOGGER.error("Error in agent evaluation", e);
         }
     }
     
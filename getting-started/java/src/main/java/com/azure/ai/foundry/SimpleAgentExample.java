@@ -1,11 +1,19 @@
 package com.azure.ai.foundry;
 
 import com.azure.ai.foundry.util.AgentHelper;
+import com.azure.ai.foundry.util.AgentSettings;
 import com.azure.ai.foundry.util.EnvironmentUtil;
+import com.azure.ai.foundry.util.Telemetry;
+import com.azure.ai.foundry.util.UsageAccounting;
 import com.azure.ai.projects.AIProjectClient;
 import com.azure.ai.projects.AIProjectClientBuilder;
 import com.azure.ai.projects.models.Agent;
 import com.azure.identity.DefaultAzureCredentialBuilder;
+import com.example.ai.common.concurrency.AdaptiveConcurrencyLimiter;
+import com.example.ai.common.concurrency.HttpErrors;
+import com.example.ai.common.usage.UsageLedger;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.nio.file.Files;
 import java.nio.file.Path;
@@ -16,88 +24,101 @@ import java.util.List;
  * Sample demonstrating how to use the AgentHelper utility class.
  */
 public class SimpleAgentExample {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SimpleAgentExample.class);
     
     public static void main(String[] args) {
         try {
             // Check required environment variables
             if (!EnvironmentUtil.checkRequiredEnv("AZURE_AI_ENDPOINT", "MODEL_DEPLOYMENT_NAME")) {
-                System.err.println("Please set all required environment variables in your .env file");
+                LOGGER.error("Please set all required environment variables in your .env file");
                 System.exit(1);
             }
             
             // Initialize AI Project client
-            String endpoint = EnvironmentUtil.getEnv("AZURE_AI_ENDPOINT");
-            String modelDeploymentName = EnvironmentUtil.getEnv("MODEL_DEPLOYMENT_NAME");
+            AgentSettings settings = AgentSettings.load();
+            String modelDeploymentName = settings.modelDeploymentName();
             
+            Telemetry.configure();
             AIProjectClient projectClient = new AIProjectClientBuilder()
-                .endpoint(endpoint)
+                .endpoint(settings.endpoint())
                 .credential(new DefaultAzureCredentialBuilder().build())
+                .addPolicy(Telemetry.httpPolicy())
                 .buildClient();
             
-            // Create AgentHelper
-            AgentHelper agentHelper = new AgentHelper(projectClient);
-            
-            // Demonstrate simple agent
-            System.out.println("\n=== Simple Agent Example ===");
-            Agent simpleAgent = agentHelper.createSimpleAgent(
-                modelDeploymentName,
-                "You are a helpful assistant who explains complex topics in simple terms.");
-            
-            System.out.println("Created simple agent with ID: " + simpleAgent.getId());
-            
-            try {
-                // Run a conversation
-                String response = agentHelper.runConversation(
-                    simpleAgent.getId(),
-                    "Explain how GPT models work in terms a 10-year-old would understand.");
-                
-                System.out.println("\nAgent response:");
-                System.out.println(response);
+            // Record the tokens each run uses against the configured tenant
+            String tenant = UsageAccounting.tenant();
+            try (UsageLedger usageLedger = UsageAccounting.openLedger()) {
+                // Create AgentHelper, limiting agent runs in flight and backing off on 429 responses
+                AdaptiveConcurrencyLimiter runLimiter = AdaptiveConcurrencyLimiter.builder()
+                    .throttled(HttpErrors::isThrottled)
+                    .build();
+                AgentHelper agentHelper = new AgentHelper(projectClient, usageLedger, runLimiter);
                 
-            } finally {
-                // Clean up
-                agentHelper.cleanupAgent(simpleAgent);
-                System.out.println("Cleaned up simple agent");
-            }
-            
-            // Demonstrate file search agent
-            System.out.println("\n=== File Search Agent Example ===");
-            
-            // Create a test file
-            Path testFilePath = createTestFile();
-            
-            try {
-                Agent searchAgent = agentHelper.createFileSearchAgent(
+                // Demonstrate simple agent
+                LOGGER.info("=== Simple Agent Example ===");
+                Agent simpleAgent = agentHelper.createSimpleAgent(
                     modelDeploymentName,
-                    "You are a helpful assistant that can search for information in files. " +
-                    "Always cite your sources when you find information in the documents.",
-                    List.of(testFilePath));
+                    "You are a helpful assistant who explains complex topics in simple terms.");
                 
-                System.out.println("Created file search agent with ID: " + searchAgent.getId());
+                LOGGER.info("Created simple agent with ID: {}", simpleAgent.getId());
                 
                 try {
-                    // Run a conversation with the search agent
+                    // Run a conversation
                     String response = agentHelper.runConversation(
-                        searchAgent.getId(),
-                        "What is the capital of France according to the document?");
+                        simpleAgent.getId(),
+                        "Explain how GPT models work in terms a 10-year-old would understand.",
+                        tenant);
                     
-                    System.out.println("\nAgent response:");
-                    System.out.println(response);
+                    LOGGER.info("Agent response:\n{}", response);
                     
                 } finally {
                     // Clean up
-                    agentHelper.cleanupAgent(searchAgent);
-                    System.out.println("Cleaned up file search agent");
+                    agentHelper.cleanupAgent(simpleAgent);
+                    LOGGER.info("Cleaned up simple agent");
+                }
+                
+                // Demonstrate file search agent
+                LOGGER.info("=== File Search Agent Example ===");
+                
+                // Create a test file
+                Path testFilePath = createTestFile();
+                
+                try {
+                    Agent searchAgent = agentHelper.createFileSearchAgent(
+                        modelDeploymentName,
+                        "You are a helpful assistant that can search for information in files. " +
+                        "Always cite your sources when you find information in the documents.",
+                        List.of(testFilePath));
+                    
+                    LOGGER.info("Created file search agent with ID: {}", searchAgent.getId());
+                    
+                    try {
+                        // Run a conversation with the search agent
+                        String response = agentHelper.runConversation(
+                            searchAgent.getId(),
+                            "What is the capital of France according to the document?",
+                            tenant);
+                        
+                        LOGGER.info("Agent response:\n{}", response);
+                        
+                    } finally {
+                        // Clean up
+                        agentHelper.cleanupAgent(searchAgent);
+                        LOGGER.info("Cleaned up file search agent");
+                    }
+                    
+                } finally {
+                    // Delete the test file
+                    Files.deleteIfExists(testFilePath);
                 }
                 
-            } finally {
-                // Delete the test file
-                Files.deleteIfExists(testFilePath);
+                Telemetry.logSummary();
+                UsageAccounting.logRollUps(usageLedger);
             }
             
         } catch (Exception e) {
-            System.err.println("An error occurred: " + e.getMessage());
-            e.printStackTrace();
+            LOGGER.error("An error occurred", e);
         }
     }
     
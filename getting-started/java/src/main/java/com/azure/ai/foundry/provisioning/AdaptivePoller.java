@@ -0,0 +1,126 @@
+package com.azure.ai.foundry.provisioning;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Polls long-running operations on a shared scheduler without holding a thread while waiting.
+ *
+ * The delay between polls grows geometrically (with jitter) while the observed state does not
+ * change, and drops back to the initial delay when it does. The poller also remembers how long
+ * operations of each kind usually take, and waits about half that long before the first poll,
+ * so short operations are picked up quickly and long ones are not polled needlessly often.
+ */
+public class AdaptivePoller {
+
+    /**
+     * Polling settings.
+     *
+     * @param initialDelay The shortest delay between polls
+     * @param maxDelay The longest delay between polls
+     * @param multiplier The growth factor applied while the state does not change
+     * @param timeout How long to poll before giving up
+     */
+    public record Policy(Duration initialDelay, Duration maxDelay, double multiplier, Duration timeout) {
+
+        /**
+         * @return Settings suited to ARM provisioning: 2 s to 30 s between polls, 15 minute timeout
+         */
+        public static Policy defaults() {
+            return new Policy(Duration.ofSeconds(2), Duration.ofSeconds(30), 1.6, Duration.ofMinutes(15));
+        }
+    }
+
+    private static final double SMOOTHING = 0.3;
+
+    private final ScheduledExecutorService scheduler;
+    private final Executor workers;
+    private final Policy policy;
+    private final Map<String, Double> typicalNanos = new ConcurrentHashMap<>();
+
+    /**
+     * @param scheduler Schedules the polls
+     * @param workers Runs the (blocking) status checks
+     * @param policy The polling settings
+     */
+    public AdaptivePoller(ScheduledExecutorService scheduler, Executor workers, Policy policy) {
+        this.scheduler = scheduler;
+        this.workers = workers;
+        this.policy = policy;
+    }
+
+    /**
+     * Polls until the state satisfies the completion condition.
+     *
+     * @param kind The kind of operation, used to learn typical durations
+     * @param check Reads the current state
+     * @param done Returns true when the state is final
+     * @param <T> The state type
+     * @return A future completed with the final state, or exceptionally on error or timeout
+     */
+    public <T> CompletableFuture<T> poll(String kind, Supplier<T> check, Predicate<T> done) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        long start = System.nanoTime();
+        long initialNanos = policy.initialDelay().toNanos();
+        double typical = typicalNanos.getOrDefault(kind, 0.0);
+        long firstDelay = clamp((long) (typical / 2), initialNanos, policy.maxDelay().toNanos());
+
+        new Object() {
+            private T lastState;
+            private long delayNanos = initialNanos;
+
+            void schedule(long delay) {
+                long remaining = start + policy.timeout().toNanos() - System.nanoTime();
+                if (remaining <= 0) {
+                    result.completeExceptionally(new TimeoutException(
+                        "Timed out after " + policy.timeout().toSeconds() + "s waiting for " + kind));
+                    return;
+                }
+                scheduler.schedule(() -> CompletableFuture.supplyAsync(check, workers).whenComplete(this::onState),
+                    Math.min(delay, remaining), TimeUnit.NANOSECONDS);
+            }
+
+            void onState(T state, Throwable error) {
+                if (error != null) {
+                    result.completeExceptionally(error);
+                    return;
+                }
+                if (done.test(state)) {
+                    long elapsed = System.nanoTime() - start;
+                    typicalNanos.merge(kind, (double) elapsed,
+                        (previous, sample) -> previous + SMOOTHING * (sample - previous));
+                    result.complete(state);
+                    return;
+                }
+                if (Objects.equals(state, lastState)) {
+                    delayNanos = Math.min((long) (delayNanos * policy.multiplier()), policy.maxDelay().toNanos());
+                } else {
+                    delayNanos = initialNanos;
+                }
+                lastState = state;
+                schedule(jitter(delayNanos));
+            }
+        }.schedule(firstDelay);
+
+        return result;
+    }
+
+    private static long jitter(long nanos) {
+        // +/- 20% so that many resources started together do not poll in lockstep
+        return (long) (nanos * ThreadLocalRandom.current().nextDouble(0.8, 1.2));
+    }
+
+    private static long clamp(long value, long min, long max) {
+        return Math.max(min, Math.min(value, max));
+    }
+}
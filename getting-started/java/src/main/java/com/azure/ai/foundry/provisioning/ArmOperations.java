@@ -0,0 +1,62 @@
+package com.azure.ai.foundry.provisioning;
+
+/**
+ * The Azure Resource Manager operations needed to provision AI Foundry resources.
+ *
+ * Calls are blocking and return as soon as ARM has answered; waiting for long-running
+ * provisioning is left to the caller, which polls {@link #accountStatus}. Lookups address a
+ * single resource by name, so their cost does not depend on the size of the resource group.
+ */
+public interface ArmOperations {
+
+    /**
+     * Provisioning state of a resource, reduced to what the orchestrator acts on.
+     */
+    enum ProvisioningStatus {
+        NOT_FOUND,
+        IN_PROGRESS,
+        SUCCEEDED,
+        FAILED
+    }
+
+    /**
+     * @param subscriptionId The subscription
+     * @param resourceGroup The resource group name
+     * @return true if the resource group exists
+     */
+    boolean resourceGroupExists(String subscriptionId, String resourceGroup);
+
+    /**
+     * Creates a resource group.
+     *
+     * @param subscriptionId The subscription
+     * @param resourceGroup The resource group name
+     * @param region The region
+     */
+    void createResourceGroup(String subscriptionId, String resourceGroup, String region);
+
+    /**
+     * @param subscriptionId The subscription
+     * @param resourceGroup The resource group name
+     * @param accountName The AI Foundry resource name
+     * @return true if the resource exists
+     */
+    default boolean accountExists(String subscriptionId, String resourceGroup, String accountName) {
+        return accountStatus(subscriptionId, resourceGroup, accountName) != ProvisioningStatus.NOT_FOUND;
+    }
+
+    /**
+     * Starts creating an AI Foundry resource without waiting for provisioning to finish.
+     *
+     * @param target The resource to create
+     */
+    void beginCreateAccount(ProvisioningTarget target);
+
+    /**
+     * @param subscriptionId The subscription
+     * @param resourceGroup The resource group name
+     * @param accountName The AI Foundry resource name
+     * @return The current provisioning status of the resource, or {@link ProvisioningStatus#NOT_FOUND}
+     */
+    ProvisioningStatus accountStatus(String subscriptionId, String resourceGroup, String accountName);
+}
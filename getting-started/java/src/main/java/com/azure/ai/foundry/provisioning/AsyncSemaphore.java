@@ -0,0 +1,76 @@
+package com.azure.ai.foundry.provisioning;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+/**
+ * A semaphore whose waiters are futures rather than blocked threads, so that steps queued
+ * behind a concurrency limit do not tie up the worker pool.
+ */
+public class AsyncSemaphore {
+
+    private final Queue<CompletableFuture<Void>> waiters = new ArrayDeque<>();
+    private int available;
+
+    /**
+     * @param permits The number of permits
+     */
+    public AsyncSemaphore(int permits) {
+        if (permits <= 0) {
+            throw new IllegalArgumentException("permits must be positive");
+        }
+        this.available = permits;
+    }
+
+    /**
+     * @return A future completed once a permit has been granted
+     */
+    public CompletableFuture<Void> acquire() {
+        synchronized (this) {
+            if (available > 0) {
+                available--;
+                return CompletableFuture.completedFuture(null);
+            }
+            CompletableFuture<Void> waiter = new CompletableFuture<>();
+            waiters.add(waiter);
+            return waiter;
+        }
+    }
+
+    /**
+     * Returns a permit, handing it directly to the longest waiting caller if there is one.
+     */
+    public void release() {
+        CompletableFuture<Void> next;
+        synchronized (this) {
+            next = waiters.poll();
+            if (next == null) {
+                available++;
+                return;
+            }
+        }
+        // Complete outside the lock; the waiter's continuation may run on this thread
+        next.complete(null);
+    }
+
+    /**
+     * Runs an asynchronous task while holding a permit.
+     *
+     * @param task Starts the task
+     * @param <T> The result type
+     * @return The task's result; the permit is released when it completes either way
+     */
+    public <T> CompletableFuture<T> withPermit(Supplier<CompletableFuture<T>> task) {
+        return acquire().thenCompose(ignored -> {
+            CompletableFuture<T> result;
+            try {
+                result = task.get();
+            } catch (RuntimeException e) {
+                result = CompletableFuture.failedFuture(e);
+            }
+            return result.whenComplete((value, error) -> release());
+        });
+    }
+}
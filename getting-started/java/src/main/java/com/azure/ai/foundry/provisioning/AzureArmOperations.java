@@ -0,0 +1,119 @@
+package com.azure.ai.foundry.provisioning;
+
+import com.azure.core.credential.TokenCredential;
+import com.azure.core.management.AzureEnvironment;
+import com.azure.core.management.exception.ManagementException;
+import com.azure.core.management.profile.AzureProfile;
+import com.azure.resourcemanager.cognitiveservices.CognitiveServicesManager;
+import com.azure.resourcemanager.cognitiveservices.fluent.models.AccountInner;
+import com.azure.resourcemanager.cognitiveservices.models.AccountProperties;
+import com.azure.resourcemanager.cognitiveservices.models.Identity;
+import com.azure.resourcemanager.cognitiveservices.models.IdentityType;
+import com.azure.resourcemanager.cognitiveservices.models.Kind;
+import com.azure.resourcemanager.cognitiveservices.models.ResourceProvisioningState;
+import com.azure.resourcemanager.cognitiveservices.models.Sku;
+import com.azure.resourcemanager.resources.ResourceManager;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * {@link ArmOperations} backed by the Azure management SDKs. Managers are created once per
+ * subscription and shared by all threads.
+ */
+public class AzureArmOperations implements ArmOperations {
+
+    // Not every SDK version declares a constant for it, but ARM reports it for cancelled deployments
+    private static final ResourceProvisioningState CANCELED = ResourceProvisioningState.fromString("Canceled");
+
+    private final TokenCredential credential;
+    private final Map<String, ResourceManager> resourceManagers = new ConcurrentHashMap<>();
+    private final Map<String, CognitiveServicesManager> cognitiveServicesManagers = new ConcurrentHashMap<>();
+
+    /**
+     * @param credential The credential used for all subscriptions
+     */
+    public AzureArmOperations(TokenCredential credential) {
+        this.credential = credential;
+    }
+
+    @Override
+    public boolean resourceGroupExists(String subscriptionId, String resourceGroup) {
+        return resourceManager(subscriptionId).resourceGroups().contain(resourceGroup);
+    }
+
+    @Override
+    public void createResourceGroup(String subscriptionId, String resourceGroup, String region) {
+        resourceManager(subscriptionId).resourceGroups()
+            .define(resourceGroup)
+            .withRegion(region)
+            .create();
+    }
+
+    @Override
+    public void beginCreateAccount(ProvisioningTarget target) {
+        AccountInner account = new AccountInner()
+            .withLocation(target.region())
+            .withKind(Kind.AI_SERVICES.toString())
+            .withSku(new Sku().withName("S0"))
+            .withIdentity(new Identity().withType(IdentityType.SYSTEM_ASSIGNED))
+            .withProperties(new AccountProperties().withAllowProjectManagement(true));
+
+        // Only send the initial request; completion is polled by the orchestrator
+        cognitiveServicesManager(target.subscriptionId()).serviceClient().getAccounts()
+            .beginCreate(target.resourceGroup(), target.resourceName(), account);
+    }
+
+    @Override
+    public ProvisioningStatus accountStatus(String subscriptionId, String resourceGroup, String accountName) {
+        ResourceProvisioningState state;
+        try {
+            state = provisioningState(subscriptionId, resourceGroup, accountName);
+        } catch (ManagementException e) {
+            if (e.getResponse() != null && e.getResponse().getStatusCode() == 404) {
+                return ProvisioningStatus.NOT_FOUND;
+            }
+            throw e;
+        }
+        if (ResourceProvisioningState.SUCCEEDED.equals(state)) {
+            return ProvisioningStatus.SUCCEEDED;
+        }
+        // A cancelled deployment is terminal; polling it further would never succeed
+        if (ResourceProvisioningState.FAILED.equals(state) || CANCELED.equals(state)) {
+            return ProvisioningStatus.FAILED;
+        }
+        return ProvisioningStatus.IN_PROGRESS;
+    }
+
+    /**
+     * Reads the ARM provisioning state of an account.
+     *
+     * @param subscriptionId The subscription containing the account
+     * @param resourceGroup The resource group containing the account
+     * @param accountName The account name
+     * @return The provisioning state reported by ARM
+     * @throws ManagementException if the request fails, with status 404 when the account does not exist
+     */
+    protected ResourceProvisioningState provisioningState(String subscriptionId, String resourceGroup,
+                                                          String accountName) {
+        // A direct GET by name; a 404 means the resource does not exist
+        return cognitiveServicesManager(subscriptionId).accounts()
+            .getByResourceGroup(resourceGroup, accountName)
+            .properties()
+            .provisioningState();
+    }
+
+    private ResourceManager resourceManager(String subscriptionId) {
+        return resourceManagers.computeIfAbsent(subscriptionId,
+            id -> ResourceManager.authenticate(credential, profile(id)).withSubscription(id));
+    }
+
+    private CognitiveServicesManager cognitiveServicesManager(String subscriptionId) {
+        return cognitiveServicesManagers.computeIfAbsent(subscriptionId,
+            id -> CognitiveServicesManager.authenticate(credential, profile(id)));
+    }
+
+    private static AzureProfile profile(String subscriptionId) {
+        return new AzureProfile(null, subscriptionId, AzureEnvironment.AZURE);
+    }
+}
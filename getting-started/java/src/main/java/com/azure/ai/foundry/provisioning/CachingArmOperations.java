@@ -0,0 +1,117 @@
+package com.azure.ai.foundry.provisioning;
+
+import com.azure.ai.foundry.util.Telemetry;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * {@link ArmOperations} decorator that keeps a short-lived local inventory of what exists.
+ *
+ * Resource group existence and settled resource states ({@link ProvisioningStatus#SUCCEEDED} and
+ * {@link ProvisioningStatus#NOT_FOUND}) are remembered for the configured time to live, so repeated
+ * preflight checks in one process (for example across CreateProjectApp regions or bulk reruns) do
+ * not go back to ARM. States that are expected to change are always read fresh, and the entry for
+ * a resource is dropped as soon as this process starts creating it.
+ */
+public class CachingArmOperations implements ArmOperations {
+
+    private static final String CACHE_NAME = "arm-inventory";
+
+    private record Entry<T>(T value, long expiresAt) {
+    }
+
+    private final ArmOperations delegate;
+    private final long ttlNanos;
+    private final Map<String, Entry<Boolean>> resourceGroups = new ConcurrentHashMap<>();
+    private final Map<String, Entry<ProvisioningStatus>> accounts = new ConcurrentHashMap<>();
+    private final Set<String> creating = ConcurrentHashMap.newKeySet();
+
+    /**
+     * @param delegate The operations to cache
+     * @param ttl How long an inventory entry stays valid
+     */
+    public CachingArmOperations(ArmOperations delegate, Duration ttl) {
+        this.delegate = delegate;
+        this.ttlNanos = ttl.toNanos();
+    }
+
+    @Override
+    public boolean resourceGroupExists(String subscriptionId, String resourceGroup) {
+        String key = key(subscriptionId, resourceGroup);
+        Boolean cached = get(resourceGroups, key);
+        if (cached != null) {
+            return cached;
+        }
+        boolean exists = delegate.resourceGroupExists(subscriptionId, resourceGroup);
+        put(resourceGroups, key, exists);
+        return exists;
+    }
+
+    @Override
+    public void createResourceGroup(String subscriptionId, String resourceGroup, String region) {
+        delegate.createResourceGroup(subscriptionId, resourceGroup, region);
+        put(resourceGroups, key(subscriptionId, resourceGroup), true);
+    }
+
+    @Override
+    public void beginCreateAccount(ProvisioningTarget target) {
+        String key = key(target.subscriptionId(), target.resourceGroup(), target.resourceName());
+        creating.add(key);
+        accounts.remove(key);
+        delegate.beginCreateAccount(target);
+    }
+
+    @Override
+    public ProvisioningStatus accountStatus(String subscriptionId, String resourceGroup, String accountName) {
+        String key = key(subscriptionId, resourceGroup, accountName);
+        ProvisioningStatus cached = get(accounts, key);
+        if (cached != null) {
+            return cached;
+        }
+        ProvisioningStatus status = delegate.accountStatus(subscriptionId, resourceGroup, accountName);
+        if (status == ProvisioningStatus.SUCCEEDED || status == ProvisioningStatus.FAILED) {
+            creating.remove(key);
+        }
+        // A resource being created can briefly read as not found; that must not be remembered
+        if (status == ProvisioningStatus.SUCCEEDED
+                || (status == ProvisioningStatus.NOT_FOUND && !creating.contains(key))) {
+            put(accounts, key, status);
+        }
+        return status;
+    }
+
+    /**
+     * Drops all inventory entries.
+     */
+    public void invalidateAll() {
+        resourceGroups.clear();
+        accounts.clear();
+    }
+
+    private <T> T get(Map<String, Entry<T>> entries, String key) {
+        Entry<T> entry = entries.get(key);
+        if (entry == null) {
+            Telemetry.cacheLookup(CACHE_NAME, false);
+            return null;
+        }
+        if (System.nanoTime() - entry.expiresAt() >= 0) {
+            entries.remove(key, entry);
+            Telemetry.cacheLookup(CACHE_NAME, false);
+            return null;
+        }
+        Telemetry.cacheLookup(CACHE_NAME, true);
+        return entry.value();
+    }
+
+    private <T> void put(Map<String, Entry<T>> entries, String key, T value) {
+        entries.put(key, new Entry<>(value, System.nanoTime() + ttlNanos));
+    }
+
+    // ARM names are case-insensitive
+    private static String key(String... parts) {
+        return String.join("/", parts).toLowerCase();
+    }
+}
@@ -0,0 +1,104 @@
+package com.azure.ai.foundry.provisioning;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Local stand-in for Azure Resource Manager, used for dry runs.
+ *
+ * Each call takes a configurable round-trip latency, and created resources report
+ * {@link ProvisioningStatus#IN_PROGRESS} until their provisioning time has passed.
+ * Resources can be marked to fail once so that failure handling and retries can be exercised.
+ */
+public class InMemoryArmOperations implements ArmOperations {
+
+    private final Duration provisioningTime;
+    private final Duration callLatency;
+    private final Set<String> resourceGroups = ConcurrentHashMap.newKeySet();
+    private final Map<String, SimulatedAccount> accounts = new ConcurrentHashMap<>();
+    private final Set<String> failingAccounts = ConcurrentHashMap.newKeySet();
+    private final AtomicLong calls = new AtomicLong();
+
+    /**
+     * @param provisioningTime How long a created resource stays in progress
+     * @param callLatency The simulated round-trip time of each call
+     */
+    public InMemoryArmOperations(Duration provisioningTime, Duration callLatency) {
+        this.provisioningTime = provisioningTime;
+        this.callLatency = callLatency;
+    }
+
+    private record SimulatedAccount(long readyAt, boolean fails) {
+    }
+
+    /**
+     * Makes the next provisioning of the named resource fail.
+     *
+     * @param accountName The AI Foundry resource name
+     */
+    public void failAccount(String accountName) {
+        failingAccounts.add(accountName.toLowerCase());
+    }
+
+    /**
+     * @return The number of ARM calls made so far
+     */
+    public long callCount() {
+        return calls.get();
+    }
+
+    @Override
+    public boolean resourceGroupExists(String subscriptionId, String resourceGroup) {
+        roundTrip();
+        return resourceGroups.contains(key(subscriptionId, resourceGroup));
+    }
+
+    @Override
+    public void createResourceGroup(String subscriptionId, String resourceGroup, String region) {
+        roundTrip();
+        resourceGroups.add(key(subscriptionId, resourceGroup));
+    }
+
+    @Override
+    public void beginCreateAccount(ProvisioningTarget target) {
+        roundTrip();
+        if (!resourceGroups.contains(key(target.subscriptionId(), target.resourceGroup()))) {
+            throw new IllegalStateException("Resource group not found: " + target.resourceGroup());
+        }
+        accounts.put(
+            key(target.subscriptionId(), target.resourceGroup(), target.resourceName()),
+            new SimulatedAccount(System.nanoTime() + provisioningTime.toNanos(),
+                failingAccounts.remove(target.resourceName().toLowerCase())));
+    }
+
+    @Override
+    public ProvisioningStatus accountStatus(String subscriptionId, String resourceGroup, String accountName) {
+        roundTrip();
+        SimulatedAccount account = accounts.get(key(subscriptionId, resourceGroup, accountName));
+        if (account == null) {
+            return ProvisioningStatus.NOT_FOUND;
+        }
+        if (System.nanoTime() < account.readyAt()) {
+            return ProvisioningStatus.IN_PROGRESS;
+        }
+        return account.fails() ? ProvisioningStatus.FAILED : ProvisioningStatus.SUCCEEDED;
+    }
+
+    private void roundTrip() {
+        calls.incrementAndGet();
+        try {
+            Thread.sleep(callLatency.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted", e);
+        }
+    }
+
+    // ARM names are case-insensitive
+    private static String key(String... parts) {
+        return String.join("/", parts).toLowerCase();
+    }
+}
@@ -0,0 +1,159 @@
+package com.azure.ai.foundry.provisioning;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * A dependency graph of provisioning steps.
+ *
+ * Each step starts as soon as all of its dependencies have succeeded, so independent branches
+ * (for example resources in different resource groups or regions) run concurrently. When a step
+ * fails, the steps that depend on it are reported as skipped and the rest of the graph carries on.
+ */
+public class ProvisioningGraph {
+
+    private record Step(List<String> dependencies, Supplier<CompletableFuture<StepResult.Status>> action) {
+    }
+
+    private final Map<String, Step> steps = new LinkedHashMap<>();
+
+    /**
+     * Adds a step.
+     *
+     * @param id The unique step identifier
+     * @param dependencies The steps that must succeed first
+     * @param action Starts the step and returns its eventual status; failures complete the future exceptionally
+     * @return This graph
+     */
+    public ProvisioningGraph add(String id, List<String> dependencies,
+                                 Supplier<CompletableFuture<StepResult.Status>> action) {
+        if (steps.putIfAbsent(id, new Step(List.copyOf(dependencies), action)) != null) {
+            throw new IllegalArgumentException("Duplicate step: " + id);
+        }
+        return this;
+    }
+
+    /**
+     * @param id A step identifier
+     * @return true if the graph has a step with this identifier
+     */
+    public boolean contains(String id) {
+        return steps.containsKey(id);
+    }
+
+    /**
+     * Runs all steps.
+     *
+     * @return A future completed with the result of every step, in the order they were added
+     * @throws IllegalStateException If a dependency is missing or the graph has a cycle
+     */
+    public CompletableFuture<List<StepResult>> execute() {
+        return execute(result -> { });
+    }
+
+    /**
+     * Runs all steps, reporting each result as soon as its step has finished.
+     *
+     * @param listener Called once per step, possibly from several threads at once
+     * @return A future completed with the result of every step, in the order they were added
+     * @throws IllegalStateException If a dependency is missing or the graph has a cycle
+     */
+    public CompletableFuture<List<StepResult>> execute(Consumer<StepResult> listener) {
+        Map<String, CompletableFuture<StepResult>> results = new HashMap<>();
+        for (String id : topologicalOrder()) {
+            Step step = steps.get(id);
+            CompletableFuture<?>[] dependencies = step.dependencies().stream()
+                .map(results::get)
+                .toArray(CompletableFuture[]::new);
+
+            // Read the dependencies' results from the array: results is still being filled in while this runs
+            CompletableFuture<StepResult> result = CompletableFuture.allOf(dependencies).thenCompose(ignored -> {
+                for (CompletableFuture<?> dependency : dependencies) {
+                    StepResult dependencyResult = (StepResult) dependency.join();
+                    if (!dependencyResult.succeeded()) {
+                        return CompletableFuture.completedFuture(new StepResult(id, StepResult.Status.SKIPPED,
+                            Duration.ZERO, Duration.ZERO, "dependency " + dependencyResult.id() + " did not succeed"));
+                    }
+                }
+                return run(id, step);
+            }).thenApply(stepResult -> {
+                listener.accept(stepResult);
+                return stepResult;
+            });
+            results.put(id, result);
+        }
+
+        CompletableFuture<?>[] all = results.values().toArray(CompletableFuture[]::new);
+        return CompletableFuture.allOf(all).thenApply(ignored -> steps.keySet().stream()
+            .map(id -> results.get(id).join())
+            .toList());
+    }
+
+    private static CompletableFuture<StepResult> run(String id, Step step) {
+        long start = System.nanoTime();
+        CompletableFuture<StepResult.Status> action;
+        try {
+            action = step.action().get();
+        } catch (RuntimeException e) {
+            action = CompletableFuture.failedFuture(e);
+        }
+        return action.handle((status, error) -> {
+            Duration duration = Duration.ofNanos(System.nanoTime() - start);
+            return error == null
+                ? new StepResult(id, status, duration, Duration.ZERO, null)
+                : new StepResult(id, StepResult.Status.FAILED, duration, Duration.ZERO, describe(error));
+        });
+    }
+
+    private List<String> topologicalOrder() {
+        Map<String, Integer> pending = new HashMap<>();
+        Map<String, List<String>> dependents = new HashMap<>();
+        Deque<String> ready = new ArrayDeque<>();
+        steps.forEach((id, step) -> {
+            for (String dependency : step.dependencies()) {
+                if (!steps.containsKey(dependency)) {
+                    throw new IllegalStateException("Step " + id + " depends on unknown step " + dependency);
+                }
+                dependents.computeIfAbsent(dependency, key -> new ArrayList<>()).add(id);
+            }
+            pending.put(id, step.dependencies().size());
+            if (step.dependencies().isEmpty()) {
+                ready.add(id);
+            }
+        });
+
+        List<String> order = new ArrayList<>(steps.size());
+        while (!ready.isEmpty()) {
+            String id = ready.poll();
+            order.add(id);
+            for (String dependent : dependents.getOrDefault(id, List.of())) {
+                if (pending.merge(dependent, -1, Integer::sum) == 0) {
+                    ready.add(dependent);
+                }
+            }
+        }
+        if (order.size() != steps.size()) {
+            throw new IllegalStateException("Provisioning steps contain a dependency cycle");
+        }
+        return order;
+    }
+
+    private static String describe(Throwable error) {
+        while ((error instanceof CompletionException || error instanceof ExecutionException)
+                && error.getCause() != null) {
+            error = error.getCause();
+        }
+        return error.getMessage() != null ? error.getMessage() : error.getClass().getSimpleName();
+    }
+}
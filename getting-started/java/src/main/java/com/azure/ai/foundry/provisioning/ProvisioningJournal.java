@@ -0,0 +1,119 @@
+package com.azure.ai.foundry.provisioning;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * Append-only record of the resources that have been provisioned, so that a rerun of a bulk
+ * manifest only processes the entries that did not complete. Each line is a resource key
+ * ({@link ProvisioningTarget#resourceKey()}) and is written as soon as the resource is in place.
+ */
+public class ProvisioningJournal implements AutoCloseable {
+
+    private final Set<String> completed = ConcurrentHashMap.newKeySet();
+    // Null for a read-only journal
+    private final BufferedWriter writer;
+
+    private ProvisioningJournal(BufferedWriter writer) {
+        this.writer = writer;
+    }
+
+    /**
+     * Opens a journal, loading the entries written by earlier runs.
+     *
+     * @param file The journal file, created if it does not exist
+     * @return The journal
+     */
+    public static ProvisioningJournal open(Path file) {
+        try {
+            ProvisioningJournal journal = new ProvisioningJournal(Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND));
+            journal.load(file);
+            return journal;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to open provisioning journal " + file, e);
+        }
+    }
+
+    /**
+     * Opens a journal for reading only, loading the entries written by earlier runs. Nothing is
+     * written to disk, and the file is not created if it does not exist.
+     *
+     * @param file The journal file
+     * @return The journal; {@link #markCompleted} throws on it
+     */
+    public static ProvisioningJournal openReadOnly(Path file) {
+        ProvisioningJournal journal = new ProvisioningJournal(null);
+        if (Files.exists(file)) {
+            try {
+                journal.load(file);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to read provisioning journal " + file, e);
+            }
+        }
+        return journal;
+    }
+
+    private void load(Path file) throws IOException {
+        try (Stream<String> lines = Files.lines(file, StandardCharsets.UTF_8)) {
+            lines.map(String::strip)
+                .filter(line -> !line.isEmpty())
+                .map(String::toLowerCase)
+                .forEach(completed::add);
+        }
+    }
+
+    /**
+     * @param target A provisioning target
+     * @return true if an earlier run completed the target
+     */
+    public boolean isCompleted(ProvisioningTarget target) {
+        return completed.contains(target.resourceKey().toLowerCase());
+    }
+
+    /**
+     * @param targets The targets from the manifest
+     * @return The targets that have not been completed yet
+     */
+    public List<ProvisioningTarget> pending(List<ProvisioningTarget> targets) {
+        return targets.stream().filter(target -> !isCompleted(target)).toList();
+    }
+
+    /**
+     * Records a completed target and flushes it to disk.
+     *
+     * @param target The target that is now in place
+     * @throws IllegalStateException If the journal was opened read-only
+     */
+    public synchronized void markCompleted(ProvisioningTarget target) {
+        if (writer == null) {
+            throw new IllegalStateException("The provisioning journal is read-only");
+        }
+        if (!completed.add(target.resourceKey().toLowerCase())) {
+            return;
+        }
+        try {
+            writer.write(target.resourceKey());
+            writer.newLine();
+            writer.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to update provisioning journal", e);
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (writer != null) {
+            writer.close();
+        }
+    }
+}
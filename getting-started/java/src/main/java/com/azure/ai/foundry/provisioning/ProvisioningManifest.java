@@ -0,0 +1,72 @@
+package com.azure.ai.foundry.provisioning;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Reads a CSV manifest of resources to provision.
+ *
+ * Each line holds {@code subscription_id,resource_group,resource_name,project_name,region}.
+ * Blank lines, lines starting with '#' and a header line starting with "subscription_id" are ignored.
+ */
+public final class ProvisioningManifest {
+
+    private ProvisioningManifest() {
+    }
+
+    /**
+     * Reads a manifest.
+     *
+     * @param file The manifest file
+     * @return The targets, in file order
+     * @throws IllegalArgumentException If a line is malformed or a resource is listed twice
+     */
+    public static List<ProvisioningTarget> read(Path file) {
+        List<ProvisioningTarget> targets = new ArrayList<>();
+        Set<String> seen = new HashSet<>();
+        List<String> errors = new ArrayList<>();
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                String trimmed = line.strip();
+                if (trimmed.isEmpty() || trimmed.startsWith("#") || trimmed.startsWith("subscription_id")) {
+                    continue;
+                }
+                String[] fields = trimmed.split(",", -1);
+                if (fields.length != 5) {
+                    errors.add("line " + lineNumber + ": expected 5 fields but found " + fields.length);
+                    continue;
+                }
+                for (int i = 0; i < fields.length; i++) {
+                    fields[i] = fields[i].strip();
+                }
+                if (List.of(fields).contains("")) {
+                    errors.add("line " + lineNumber + ": empty field");
+                    continue;
+                }
+                ProvisioningTarget target = new ProvisioningTarget(fields[0], fields[1], fields[2], fields[3], fields[4]);
+                if (!seen.add(target.resourceKey().toLowerCase())) {
+                    errors.add("line " + lineNumber + ": duplicate resource " + target.resourceName());
+                    continue;
+                }
+                targets.add(target);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read manifest " + file, e);
+        }
+        if (!errors.isEmpty()) {
+            throw new IllegalArgumentException("Invalid manifest " + file + ":\n  " + String.join("\n  ", errors));
+        }
+        return targets;
+    }
+}
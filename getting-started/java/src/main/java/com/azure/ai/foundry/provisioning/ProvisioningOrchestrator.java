@@ -0,0 +1,199 @@
+package com.azure.ai.foundry.provisioning;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Provisions AI Foundry resources concurrently.
+ *
+ * The targets are turned into a {@link ProvisioningGraph}: one step per distinct resource group
+ * and one step per resource that depends on its resource group. Blocking ARM calls run on a
+ * bounded worker pool, and provisioning state is polled by an {@link AdaptivePoller} on a single
+ * shared scheduler thread, so waiting resources do not hold worker threads.
+ *
+ * The number of resources being provisioned at once in each subscription can be capped; resources
+ * over the limit wait for a permit without holding a thread. Provisioning is idempotent: an
+ * existing resource is reported as existing, one still provisioning from an earlier run is waited
+ * for, and one whose provisioning failed is submitted again.
+ */
+public class ProvisioningOrchestrator implements AutoCloseable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ProvisioningOrchestrator.class);
+
+    private final ArmOperations arm;
+    private final ExecutorService workers;
+    private final ScheduledExecutorService scheduler;
+    private final AdaptivePoller poller;
+    private final int maxPerSubscription;
+    private final Map<String, AsyncSemaphore> subscriptionLimits = new ConcurrentHashMap<>();
+
+    /**
+     * @param arm The ARM operations to use
+     * @param parallelism The maximum number of concurrent ARM calls
+     * @param policy The polling settings
+     */
+    public ProvisioningOrchestrator(ArmOperations arm, int parallelism, AdaptivePoller.Policy policy) {
+        this(arm, parallelism, Integer.MAX_VALUE, policy);
+    }
+
+    /**
+     * @param arm The ARM operations to use
+     * @param parallelism The maximum number of concurrent ARM calls
+     * @param maxPerSubscription The maximum number of resources provisioned at once per subscription
+     * @param policy The polling settings
+     */
+    public ProvisioningOrchestrator(ArmOperations arm, int parallelism, int maxPerSubscription,
+                                    AdaptivePoller.Policy policy) {
+        this.arm = arm;
+        this.maxPerSubscription = maxPerSubscription;
+        this.workers = Executors.newFixedThreadPool(parallelism, daemonThreads("provisioning-worker"));
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(daemonThreads("provisioning-poller"));
+        this.poller = new AdaptivePoller(scheduler, workers, policy);
+    }
+
+    /**
+     * Provisions the targets.
+     *
+     * @param targets The resources to provision
+     * @return A future completed with the result of every step once all have finished
+     */
+    public CompletableFuture<List<StepResult>> provision(List<ProvisioningTarget> targets) {
+        return provision(targets, result -> { });
+    }
+
+    /**
+     * Provisions the targets, reporting each step as soon as it has finished.
+     *
+     * @param targets The resources to provision
+     * @param listener Called once per step, possibly from several threads at once
+     * @return A future completed with the result of every step once all have finished
+     */
+    public CompletableFuture<List<StepResult>> provision(List<ProvisioningTarget> targets,
+                                                         Consumer<StepResult> listener) {
+        Map<String, Duration> queued = new ConcurrentHashMap<>();
+        ProvisioningGraph graph = new ProvisioningGraph();
+        for (ProvisioningTarget target : targets) {
+            String resourceGroupStep = resourceGroupStep(target);
+            if (!graph.contains(resourceGroupStep)) {
+                graph.add(resourceGroupStep, List.of(), () -> ensureResourceGroup(target));
+            }
+            String accountStep = accountStep(target);
+            graph.add(accountStep, List.of(resourceGroupStep), () -> {
+                long waitStart = System.nanoTime();
+                return limit(target.subscriptionId()).withPermit(() -> {
+                    queued.put(accountStep, Duration.ofNanos(System.nanoTime() - waitStart));
+                    return ensureAccount(target);
+                });
+            });
+        }
+        return graph.execute(result -> listener.accept(withQueued(result, queued)))
+            .thenApply(results -> results.stream().map(result -> withQueued(result, queued)).toList());
+    }
+
+    /**
+     * @param target A provisioning target
+     * @return The identifier of the step that provisions the target's resource group
+     */
+    public static String resourceGroupStep(ProvisioningTarget target) {
+        return "resourceGroup:" + target.resourceGroupKey();
+    }
+
+    /**
+     * @param target A provisioning target
+     * @return The identifier of the step that provisions the target's AI Foundry resource
+     */
+    public static String accountStep(ProvisioningTarget target) {
+        return "account:" + target.resourceKey();
+    }
+
+    private static StepResult withQueued(StepResult result, Map<String, Duration> queued) {
+        Duration wait = queued.get(result.id());
+        return wait != null ? result.withQueued(wait) : result;
+    }
+
+    private AsyncSemaphore limit(String subscriptionId) {
+        return subscriptionLimits.computeIfAbsent(subscriptionId,
+            id -> new AsyncSemaphore(maxPerSubscription));
+    }
+
+    private CompletableFuture<StepResult.Status> ensureResourceGroup(ProvisioningTarget target) {
+        return CompletableFuture.supplyAsync(() -> {
+            if (arm.resourceGroupExists(target.subscriptionId(), target.resourceGroup())) {
+                LOGGER.info("Resource group already exists: {}", target.resourceGroup());
+                return StepResult.Status.EXISTING;
+            }
+            LOGGER.info("Creating resource group: {}", target.resourceGroup());
+            arm.createResourceGroup(target.subscriptionId(), target.resourceGroup(), target.region());
+            return StepResult.Status.CREATED;
+        }, workers);
+    }
+
+    private CompletableFuture<StepResult.Status> ensureAccount(ProvisioningTarget target) {
+        return CompletableFuture.supplyAsync(
+                () -> arm.accountStatus(target.subscriptionId(), target.resourceGroup(), target.resourceName()),
+                workers)
+            .thenCompose(status -> {
+                if (status == ArmOperations.ProvisioningStatus.NOT_FOUND
+                        || status == ArmOperations.ProvisioningStatus.FAILED) {
+                    // Creating is a PUT, so resubmitting a failed resource is safe
+                    return createAccount(target);
+                }
+                if (status == ArmOperations.ProvisioningStatus.IN_PROGRESS) {
+                    LOGGER.info("Foundry resource is still provisioning: {}", target.resourceName());
+                    return awaitAccount(target);
+                }
+                LOGGER.info("Foundry resource already exists: {}", target.resourceName());
+                return CompletableFuture.completedFuture(StepResult.Status.EXISTING);
+            });
+    }
+
+    private CompletableFuture<StepResult.Status> createAccount(ProvisioningTarget target) {
+        return CompletableFuture.runAsync(() -> {
+                LOGGER.info("Creating AI Foundry resource: {} in {}", target.resourceName(), target.region());
+                arm.beginCreateAccount(target);
+            }, workers)
+            .thenCompose(ignored -> awaitAccount(target));
+    }
+
+    private CompletableFuture<StepResult.Status> awaitAccount(ProvisioningTarget target) {
+        return poller.poll("account",
+                () -> arm.accountStatus(target.subscriptionId(), target.resourceGroup(), target.resourceName()),
+                // A resource that was just submitted can briefly read as not found
+                status -> status == ArmOperations.ProvisioningStatus.SUCCEEDED
+                    || status == ArmOperations.ProvisioningStatus.FAILED)
+            .thenApply(status -> {
+                if (status == ArmOperations.ProvisioningStatus.FAILED) {
+                    throw new IllegalStateException("Provisioning failed for " + target.resourceName());
+                }
+                LOGGER.info("AI Foundry resource provisioned: {}", target.resourceName());
+                return StepResult.Status.CREATED;
+            });
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+        workers.shutdownNow();
+    }
+
+    private static ThreadFactory daemonThreads(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -0,0 +1,32 @@
+package com.azure.ai.foundry.provisioning;
+
+/**
+ * An AI Foundry resource to provision.
+ *
+ * @param subscriptionId The Azure subscription
+ * @param resourceGroup The resource group, created if it does not exist
+ * @param resourceName The AI Foundry (AI Services) resource name
+ * @param projectName The project name
+ * @param region The Azure region
+ */
+public record ProvisioningTarget(
+    String subscriptionId,
+    String resourceGroup,
+    String resourceName,
+    String projectName,
+    String region) {
+
+    /**
+     * @return An identifier for the resource group, unique across subscriptions
+     */
+    public String resourceGroupKey() {
+        return subscriptionId + "/" + resourceGroup;
+    }
+
+    /**
+     * @return An identifier for the resource, unique across subscriptions
+     */
+    public String resourceKey() {
+        return subscriptionId + "/" + resourceGroup + "/" + resourceName;
+    }
+}
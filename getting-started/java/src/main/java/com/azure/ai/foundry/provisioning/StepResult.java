@@ -0,0 +1,44 @@
+package com.azure.ai.foundry.provisioning;
+
+import java.time.Duration;
+
+/**
+ * The outcome of one provisioning step.
+ *
+ * @param id The step identifier, for example "account:subscription/group/name"
+ * @param status What happened
+ * @param duration How long the step took, from the moment its dependencies were ready
+ * @param queued The part of the duration spent waiting for a concurrency limit
+ * @param error The failure reason, or null
+ */
+public record StepResult(String id, Status status, Duration duration, Duration queued, String error) {
+
+    /**
+     * Step outcomes.
+     */
+    public enum Status {
+        /** The resource was created. */
+        CREATED,
+        /** The resource already existed. */
+        EXISTING,
+        /** The step failed. */
+        FAILED,
+        /** The step was not run because a dependency failed. */
+        SKIPPED
+    }
+
+    /**
+     * @param queued The time spent waiting for a concurrency limit
+     * @return A copy of this result with the queued time set
+     */
+    public StepResult withQueued(Duration queued) {
+        return new StepResult(id, status, duration, queued, error);
+    }
+
+    /**
+     * @return true if the resource is in place after this step
+     */
+    public boolean succeeded() {
+        return status == Status.CREATED || status == Status.EXISTING;
+    }
+}
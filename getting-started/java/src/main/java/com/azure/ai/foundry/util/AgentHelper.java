@@ -7,8 +7,13 @@ import com.azure.ai.projects.models.FilePurpose;
 import com.azure.ai.projects.models.Run;
 import com.azure.ai.projects.models.Thread;
 import com.azure.ai.projects.models.VectorStore;
+import com.example.ai.common.concurrency.AdaptiveConcurrencyLimiter;
+import com.example.ai.common.usage.UsageLedger;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
 
@@ -17,10 +22,47 @@ import java.util.UUID;
  */
 public class AgentHelper {
 
+    private static final Logger LOGGER = LoggerFactory.getLogger(AgentHelper.class);
+
+    private static final String VECTOR_STORE_ID = "VectorStoreId:";
+    private static final String FILE_IDS = "FileIds:";
+
+    /**
+     * The resources recorded in an agent's description for cleanup.
+     *
+     * @param vectorStoreId The vector store ID, or null if none was recorded
+     * @param fileIds The uploaded file IDs
+     */
+    public record AgentResources(String vectorStoreId, List<String> fileIds) {
+    }
+
     private final AIProjectClient projectClient;
+    private final UsageLedger usageLedger;
+    private final AdaptiveConcurrencyLimiter limiter;
     
     public AgentHelper(AIProjectClient projectClient) {
+        this(projectClient, null);
+    }
+    
+    /**
+     * @param projectClient The project client
+     * @param usageLedger Where to record the tokens each run uses, or null to not record them
+     */
+    public AgentHelper(AIProjectClient projectClient, UsageLedger usageLedger) {
+        this(projectClient, usageLedger, null);
+    }
+    
+    /**
+     * @param projectClient The project client
+     * @param usageLedger Where to record the tokens each run uses, or null to not record them
+     * @param limiter The limit on agent runs in flight, or null for no limit; build it with
+     *        {@link com.example.ai.common.concurrency.HttpErrors#isThrottled(Throwable)} so that 429
+     *        responses lower the limit
+     */
+    public AgentHelper(AIProjectClient projectClient, UsageLedger usageLedger, AdaptiveConcurrencyLimiter limiter) {
         this.projectClient = projectClient;
+        this.usageLedger = usageLedger;
+        this.limiter = limiter;
     }
     
     /**
@@ -32,7 +74,8 @@ public class AgentHelper {
      */
     public Agent createSimpleAgent(String model, String instructions) {
         String agentName = "agent-" + UUID.randomUUID().toString().substring(0, 8);
-        return projectClient.getAgents().createAgent(model, agentName, instructions);
+        return Telemetry.observe(Telemetry.AGENT_CREATE, model,
+            () -> projectClient.getAgents().createAgent(model, agentName, instructions));
     }
     
     /**
@@ -48,7 +91,8 @@ public class AgentHelper {
         List<String> fileIds = filePaths.stream()
             .map(path -> {
                 try {
-                    var file = projectClient.getAgents().uploadFile(path.toString(), FilePurpose.AGENTS);
+                    var file = Telemetry.observe(Telemetry.FILE_UPLOAD, null,
+                        () -> projectClient.getAgents().uploadFile(path.toString(), FilePurpose.AGENTS));
                     return file.getId();
                 } catch (Exception e) {
                     throw new RuntimeException("Failed to upload file: " + path, e);
@@ -58,22 +102,23 @@ public class AgentHelper {
         
         // Create vector store
         String vectorStoreName = "vectorstore-" + UUID.randomUUID().toString().substring(0, 8);
-        VectorStore vectorStore = projectClient.getAgents().createVectorStoreAndPoll(fileIds, vectorStoreName);
+        VectorStore vectorStore = Telemetry.observe(Telemetry.VECTOR_STORE_INDEX, null,
+            () -> projectClient.getAgents().createVectorStoreAndPoll(fileIds, vectorStoreName));
         
         // Create file search tool
         FileSearchTool fileSearch = new FileSearchTool(List.of(vectorStore.getId()));
         
         // Create agent
         String agentName = "search-agent-" + UUID.randomUUID().toString().substring(0, 8);
-        Agent agent = projectClient.getAgents().createAgent(
+        Agent agent = Telemetry.observe(Telemetry.AGENT_CREATE, model, () -> projectClient.getAgents().createAgent(
             model,
             agentName,
             instructions,
             fileSearch.getDefinitions(),
-            fileSearch.getResources());
+            fileSearch.getResources()));
         
         // Store vector store ID in agent description for cleanup
-        agent.setDescription("VectorStoreId:" + vectorStore.getId() + ";FileIds:" + String.join(",", fileIds));
+        agent.setDescription(describeResources(vectorStore.getId(), fileIds));
         
         return agent;
     }
@@ -86,6 +131,19 @@ public class AgentHelper {
      * @return The agent's response message
      */
     public String runConversation(String agentId, String userMessage) {
+        return runConversation(agentId, userMessage, null);
+    }
+    
+    /**
+     * Runs a simple conversation with an agent, attributing the tokens it uses to a tenant.
+     *
+     * @param agentId The agent ID
+     * @param userMessage The user message to send
+     * @param tenant The tenant to record the run's usage against, or null
+     * @return The agent's response message
+     * @throws com.example.ai.common.concurrency.LimitExceededException If the limiter shed the run
+     */
+    public String runConversation(String agentId, String userMessage, String tenant) {
         // Create thread
         Thread thread = projectClient.getAgents().createThread();
         
@@ -93,14 +151,25 @@ public class AgentHelper {
         projectClient.getAgents().createMessage(thread.getId(), "user", userMessage);
         
         // Run the agent
-        Run run = projectClient.getAgents().createAndProcessRun(thread.getId(), agentId);
+        Run run = Telemetry.observe(Telemetry.AGENT_RUN, null, () -> limiter == null
+            ? projectClient.getAgents().createAndProcessRun(thread.getId(), agentId)
+            : limiter.call(() -> projectClient.getAgents().createAndProcessRun(thread.getId(), agentId)));
+        if (run.getUsage() != null) {
+            Telemetry.recordTokens(run.getModel(), run.getUsage().getPromptTokens(),
+                run.getUsage().getCompletionTokens());
+            if (usageLedger != null) {
+                usageLedger.record(run.getModel(), tenant, run.getUsage().getPromptTokens(),
+                    run.getUsage().getCompletionTokens());
+            }
+        }
         
         if ("failed".equals(run.getStatus())) {
             return "Error: " + run.getLastError();
         }
         
         // Get the agent's response
-        var messages = projectClient.getAgents().listMessages(thread.getId());
+        var messages = Telemetry.observe(Telemetry.MESSAGE_LIST, null,
+            () -> projectClient.getAgents().listMessages(thread.getId()));
         var lastMsg = messages.getLastTextMessageByRole("assistant");
         
         return lastMsg != null ? lastMsg.getText().getValue() : "No response";
@@ -116,34 +185,68 @@ public class AgentHelper {
         projectClient.getAgents().deleteAgent(agent.getId());
         
         // If the agent has a description with vector store and file IDs, clean those up too
-        if (agent.getDescription() != null && agent.getDescription().startsWith("VectorStoreId:")) {
-            String description = agent.getDescription();
-            
-            // Extract vector store ID
-            int vectorStoreIdStart = description.indexOf("VectorStoreId:") + "VectorStoreId:".length();
-            int vectorStoreIdEnd = description.indexOf(";", vectorStoreIdStart);
-            if (vectorStoreIdEnd > vectorStoreIdStart) {
-                String vectorStoreId = description.substring(vectorStoreIdStart, vectorStoreIdEnd);
-                try {
-                    projectClient.getAgents().deleteVectorStore(vectorStoreId);
-                } catch (Exception e) {
-                    System.err.println("Failed to delete vector store: " + e.getMessage());
-                }
+        AgentResources resources = parseResources(agent.getDescription());
+        if (resources == null) {
+            return;
+        }
+        if (resources.vectorStoreId() != null) {
+            try {
+                projectClient.getAgents().deleteVectorStore(resources.vectorStoreId());
+            } catch (Exception e) {
+                LOGGER.warn("Failed to delete vector store {}", resources.vectorStoreId(), e);
             }
-            
-            // Extract file IDs
-            int fileIdsStart = description.indexOf("FileIds:") + "FileIds:".length();
-            if (fileIdsStart > "FileIds:".length()) {
-                String fileIdsStr = description.substring(fileIdsStart);
-                String[] fileIds = fileIdsStr.split(",");
-                for (String fileId : fileIds) {
-                    try {
-                        projectClient.getAgents().deleteFile(fileId);
-                    } catch (Exception e) {
-                        System.err.println("Failed to delete file: " + e.getMessage());
-                    }
-                }
+        }
+        for (String fileId : resources.fileIds()) {
+            try {
+                projectClient.getAgents().deleteFile(fileId);
+            } catch (Exception e) {
+                LOGGER.warn("Failed to delete file {}", fileId, e);
+            }
+        }
+    }
+
+    /**
+     * Formats the description that records an agent's resources for cleanup.
+     *
+     * @param vectorStoreId The vector store ID
+     * @param fileIds The uploaded file IDs
+     * @return The description
+     */
+    public static String describeResources(String vectorStoreId, List<String> fileIds) {
+        return VECTOR_STORE_ID + vectorStoreId + ";" + FILE_IDS + String.join(",", fileIds);
+    }
+
+    /**
+     * Parses a description written by {@link #describeResources(String, List)}.
+     *
+     * @param description The agent description, may be null
+     * @return The recorded resources, or null if the description does not record any
+     */
+    public static AgentResources parseResources(String description) {
+        if (description == null || !description.startsWith(VECTOR_STORE_ID)) {
+            return null;
+        }
+        int vectorStoreIdEnd = description.indexOf(';', VECTOR_STORE_ID.length());
+        String vectorStoreId = vectorStoreIdEnd > VECTOR_STORE_ID.length()
+            ? description.substring(VECTOR_STORE_ID.length(), vectorStoreIdEnd)
+            : null;
+
+        int fileIdsStart = description.indexOf(FILE_IDS, VECTOR_STORE_ID.length());
+        if (fileIdsStart < 0) {
+            return new AgentResources(vectorStoreId, List.of());
+        }
+        List<String> fileIds = new ArrayList<>();
+        int start = fileIdsStart + FILE_IDS.length();
+        while (start < description.length()) {
+            int end = description.indexOf(',', start);
+            if (end < 0) {
+                end = description.length();
+            }
+            if (end > start) {
+                fileIds.add(description.substring(start, end));
             }
+            start = end + 1;
         }
+        return new AgentResources(vectorStoreId, fileIds);
     }
 }
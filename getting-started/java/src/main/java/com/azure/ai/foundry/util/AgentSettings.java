@@ -0,0 +1,24 @@
+package com.azure.ai.foundry.util;
+
+import com.example.ai.common.config.ConfigStore;
+
+/**
+ * The settings shared by the agent samples, bound and validated once at startup.
+ *
+ * @param endpoint The Azure AI Foundry project endpoint (AZURE_AI_ENDPOINT)
+ * @param modelDeploymentName The model deployment used by the agents (MODEL_DEPLOYMENT_NAME)
+ */
+public record AgentSettings(String endpoint, String modelDeploymentName) {
+
+    /**
+     * Binds the settings from the current configuration.
+     *
+     * @return The settings
+     * @throws IllegalArgumentException listing every required setting that is missing
+     */
+    public static AgentSettings load() {
+        EnvironmentUtil.requireEnv("AZURE_AI_ENDPOINT", "MODEL_DEPLOYMENT_NAME");
+        ConfigStore.Snapshot snapshot = ConfigStore.global().snapshot();
+        return new AgentSettings(snapshot.get("AZURE_AI_ENDPOINT"), snapshot.get("MODEL_DEPLOYMENT_NAME"));
+    }
+}
@@ -1,19 +1,20 @@
 package com.azure.ai.foundry.util;
 
-import io.github.cdimascio.dotenv.Dotenv;
+import com.example.ai.common.config.ConfigStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Arrays;
+import java.util.List;
 
 /**
  * Utility class for environment variable management.
+ * Values are read from {@link ConfigStore#global()}, so edits to .env are picked up without a restart.
  */
 public class EnvironmentUtil {
 
-    private static Dotenv dotenv;
-    
-    // Ensure we only load the environment once
-    static {
-        dotenv = Dotenv.configure().ignoreIfMissing().load();
-    }
-    
+    private static final Logger LOGGER = LoggerFactory.getLogger(EnvironmentUtil.class);
+
     /**
      * Gets an environment variable.
      * 
@@ -21,7 +22,7 @@ public class EnvironmentUtil {
      * @return The value of the environment variable or null if not found
      */
     public static String getEnv(String key) {
-        return dotenv.get(key);
+        return ConfigStore.global().get(key);
     }
     
     /**
@@ -32,24 +33,45 @@ public class EnvironmentUtil {
      * @return The value of the environment variable or the default value if not found
      */
     public static String getEnv(String key, String defaultValue) {
-        String value = dotenv.get(key);
+        String value = getEnv(key);
         return (value != null && !value.isEmpty()) ? value : defaultValue;
     }
     
     /**
-     * Checks if all the required environment variables are set.
+     * Checks if all the required environment variables are set, reporting every missing one.
      * 
      * @param keys The environment variable keys to check
      * @return true if all keys are set, false otherwise
      */
     public static boolean checkRequiredEnv(String... keys) {
-        for (String key : keys) {
-            String value = getEnv(key);
-            if (value == null || value.isEmpty()) {
-                System.err.println("Missing required environment variable: " + key);
-                return false;
-            }
+        List<String> missing = missingEnv(keys);
+        for (String key : missing) {
+            LOGGER.error("Missing required environment variable: {}", key);
         }
-        return true;
+        return missing.isEmpty();
+    }
+
+    /**
+     * Fails if any of the required environment variables is not set.
+     *
+     * @param keys The environment variable keys to check
+     * @throws IllegalArgumentException listing every missing key
+     */
+    public static void requireEnv(String... keys) {
+        List<String> missing = missingEnv(keys);
+        if (!missing.isEmpty()) {
+            throw new IllegalArgumentException("Missing required environment variables: "
+                + String.join(", ", missing) + ". Please set them in your .env file");
+        }
+    }
+
+    private static List<String> missingEnv(String... keys) {
+        ConfigStore.Snapshot snapshot = ConfigStore.global().snapshot();
+        return Arrays.stream(keys)
+            .filter(key -> {
+                String value = snapshot.get(key);
+                return value == null || value.isEmpty();
+            })
+            .toList();
     }
 }
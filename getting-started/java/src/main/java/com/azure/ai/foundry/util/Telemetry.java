@@ -0,0 +1,213 @@
+package com.azure.ai.foundry.util;
+
+import com.azure.core.http.policy.HttpPipelinePolicy;
+import com.example.ai.common.metrics.AzureSdkMetricsPolicy;
+import io.micrometer.core.instrument.Clock;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.observation.DefaultMeterObservationHandler;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import io.micrometer.registry.otlp.OtlpConfig;
+import io.micrometer.registry.otlp.OtlpMeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Comparator;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Metrics and spans for the samples' Foundry operations.
+ *
+ * Each operation is a Micrometer {@link Observation}: the default handler turns it into a timer
+ * tagged with the deployment and any error, and adding a tracing handler to
+ * {@link #observations()} (for example the OpenTelemetry bridge of Micrometer Tracing) turns
+ * the same observations into spans. Meters go to Micrometer's global registry, so any
+ * registry can be plugged in with {@link Metrics#addRegistry(MeterRegistry)}.
+ * {@link #configure()} adds an in-memory registry for {@link #logSummary()} and,
+ * when {@code OTLP_METRICS_URL} is set, an OTLP exporter.
+ */
+public final class Telemetry {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(Telemetry.class);
+
+    /** Uploading a file */
+    public static final String FILE_UPLOAD = "foundry.file.upload";
+    /** Creating a vector store and waiting for its files to be indexed */
+    public static final String VECTOR_STORE_INDEX = "foundry.vector_store.index";
+    /** Creating an agent */
+    public static final String AGENT_CREATE = "foundry.agent.create";
+    /** Running an agent until the run finishes */
+    public static final String AGENT_RUN = "foundry.agent.run";
+    /** Listing the messages of a thread */
+    public static final String MESSAGE_LIST = "foundry.message.list";
+    /** Evaluating an agent run until the evaluation finishes */
+    public static final String EVALUATION = "foundry.evaluation";
+    /** A chat completion */
+    public static final String CHAT = "foundry.chat";
+
+    private static final String NONE = "none";
+    private static final ObservationRegistry OBSERVATIONS = ObservationRegistry.create();
+
+    static {
+        OBSERVATIONS.observationConfig().observationHandler(new DefaultMeterObservationHandler(Metrics.globalRegistry));
+    }
+
+    private static volatile boolean configured;
+
+    private Telemetry() {
+    }
+
+    /**
+     * Adds the registries chosen by configuration to the global registry. Safe to call more
+     * than once.
+     */
+    public static synchronized void configure() {
+        if (configured) {
+            return;
+        }
+        configured = true;
+        Metrics.addRegistry(new SimpleMeterRegistry());
+        String otlpUrl = EnvironmentUtil.getEnv("OTLP_METRICS_URL");
+        if (otlpUrl != null && !otlpUrl.isBlank()) {
+            OtlpConfig config = key -> key.equals("otlp.url") ? otlpUrl : null;
+            Metrics.addRegistry(new OtlpMeterRegistry(config, Clock.SYSTEM));
+        }
+    }
+
+    /**
+     * @return The registry the operations are observed in; add tracing handlers here
+     */
+    public static ObservationRegistry observations() {
+        return OBSERVATIONS;
+    }
+
+    /**
+     * An observed operation, which may throw a checked exception.
+     *
+     * @param <T> The result type
+     * @param <E> The exception type
+     */
+    @FunctionalInterface
+    public interface Operation<T, E extends Exception> {
+        T call() throws E;
+    }
+
+    /**
+     * Observes an operation; a failure is recorded on the observation and rethrown.
+     *
+     * @param name The operation, e.g. {@link #AGENT_RUN}
+     * @param deployment The model deployment involved, or null
+     * @param operation The operation
+     * @param <T> The result type
+     * @param <E> The exception type
+     * @return The result of the operation
+     * @throws E If the operation fails
+     */
+    public static <T, E extends Exception> T observe(String name, String deployment, Operation<T, E> operation)
+            throws E {
+        Observation observation = Observation.createNotStarted(name, OBSERVATIONS)
+            .lowCardinalityKeyValue("deployment", deployment != null ? deployment : NONE)
+            .start();
+        try (Observation.Scope scope = observation.openScope()) {
+            return operation.call();
+        } catch (Exception | Error e) {
+            observation.error(e);
+            throw e;
+        } finally {
+            observation.stop();
+        }
+    }
+
+    /**
+     * Records the tokens used by a request.
+     *
+     * @param deployment The model deployment
+     * @param promptTokens Prompt tokens
+     * @param completionTokens Completion tokens
+     */
+    public static void recordTokens(String deployment, long promptTokens, long completionTokens) {
+        tokens(deployment, "prompt").record(promptTokens);
+        tokens(deployment, "completion").record(completionTokens);
+    }
+
+    private static DistributionSummary tokens(String deployment, String type) {
+        return DistributionSummary.builder("foundry.tokens")
+            .description("Tokens per request")
+            .baseUnit("tokens")
+            .tag("deployment", deployment != null ? deployment : NONE)
+            .tag("type", type)
+            .publishPercentileHistogram()
+            .register(Metrics.globalRegistry);
+    }
+
+    /**
+     * Counts a lookup in a cache.
+     *
+     * @param cache The cache name
+     * @param hit Whether the value was cached
+     */
+    public static void cacheLookup(String cache, boolean hit) {
+        Counter.builder(hit ? "foundry.cache.hits" : "foundry.cache.misses")
+            .tag("cache", cache)
+            .register(Metrics.globalRegistry)
+            .increment();
+    }
+
+    /**
+     * Counts retries and 429 responses in an Azure SDK client's pipeline. The policy runs on
+     * every attempt, so add it to the client builder with {@code addPolicy}.
+     *
+     * @return The policy
+     */
+    public static HttpPipelinePolicy httpPolicy() {
+        return new AzureSdkMetricsPolicy(Metrics.globalRegistry);
+    }
+
+    /**
+     * Logs the timers, counters and token summaries recorded so far, one line per meter.
+     */
+    public static void logSummary() {
+        if (!LOGGER.isInfoEnabled()) {
+            return;
+        }
+        SimpleMeterRegistry registry = Metrics.globalRegistry.getRegistries().stream()
+            .filter(SimpleMeterRegistry.class::isInstance)
+            .map(SimpleMeterRegistry.class::cast)
+            .findFirst()
+            .orElse(null);
+        if (registry == null) {
+            return;
+        }
+        LOGGER.info("=== Telemetry ===");
+        registry.getMeters().stream()
+            .filter(meter -> meter.getId().getName().startsWith("foundry."))
+            .sorted(Comparator.comparing((Meter meter) -> meter.getId().getName())
+                .thenComparing(meter -> meter.getId().getTags().toString()))
+            .forEach(meter -> LOGGER.info("  {}", describe(meter)));
+    }
+
+    private static String describe(Meter meter) {
+        Map<String, String> tags = new TreeMap<>();
+        meter.getId().getTags().forEach(tag -> tags.put(tag.getKey(), tag.getValue()));
+        String id = meter.getId().getName() + tags;
+        if (meter instanceof Timer timer) {
+            return String.format("%s count=%d mean=%.0fms max=%.0fms", id, timer.count(),
+                timer.mean(TimeUnit.MILLISECONDS), timer.max(TimeUnit.MILLISECONDS));
+        }
+        if (meter instanceof DistributionSummary summary) {
+            return String.format("%s count=%d mean=%.0f max=%.0f", id, summary.count(), summary.mean(), summary.max());
+        }
+        if (meter instanceof Counter counter) {
+            return String.format("%s count=%.0f", id, counter.count());
+        }
+        return id;
+    }
+}
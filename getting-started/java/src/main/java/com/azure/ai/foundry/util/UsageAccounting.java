@@ -0,0 +1,70 @@
+package com.azure.ai.foundry.util;
+
+import com.example.ai.common.tokenizer.CostEstimator;
+import com.example.ai.common.usage.UsageLedger;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.math.BigDecimal;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Opens the samples' usage ledger from configuration and reports its roll-ups.
+ *
+ * {@code USAGE_LEDGER_FILE} names the ledger file (default {@code usage-ledger.tsv}) and
+ * {@code USAGE_TENANT} the tenant the samples' calls are attributed to.
+ */
+public final class UsageAccounting {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(UsageAccounting.class);
+    private static final Duration FLUSH_INTERVAL = Duration.ofSeconds(10);
+
+    private UsageAccounting() {
+    }
+
+    /**
+     * @return The ledger, flushed every 10 seconds and on close
+     */
+    public static UsageLedger openLedger() {
+        return UsageLedger.open(Paths.get(EnvironmentUtil.getEnv("USAGE_LEDGER_FILE", "usage-ledger.tsv")),
+            FLUSH_INTERVAL);
+    }
+
+    /**
+     * @return The tenant to attribute usage to, or null if none is configured
+     */
+    public static String tenant() {
+        return EnvironmentUtil.getEnv("USAGE_TENANT");
+    }
+
+    /**
+     * Logs the usage in the ledger by tenant and by deployment, priced at list prices where the
+     * deployment name starts with a known model.
+     *
+     * @param ledger The ledger
+     */
+    public static void logRollUps(UsageLedger ledger) {
+        if (!LOGGER.isInfoEnabled()) {
+            return;
+        }
+        CostEstimator prices = CostEstimator.withListPrices();
+        LOGGER.info("=== Usage by tenant ===");
+        ledger.byTenant().forEach((tenant, usage) -> LOGGER.info("  {}: {} calls, {} prompt + {} completion tokens",
+            tenant, usage.calls(), usage.promptTokens(), usage.completionTokens()));
+        LOGGER.info("=== Usage by deployment ===");
+        for (Map.Entry<String, UsageLedger.Usage> entry : ledger.byDeployment().entrySet()) {
+            UsageLedger.Usage usage = entry.getValue();
+            String cost;
+            try {
+                BigDecimal dollars = prices.cost(entry.getKey(), usage.promptTokens(), usage.completionTokens());
+                cost = "$" + dollars.toPlainString();
+            } catch (IllegalArgumentException e) {
+                cost = "no list price";
+            }
+            LOGGER.info("  {}: {} calls, {} prompt + {} completion tokens, {}", entry.getKey(), usage.calls(),
+                usage.promptTokens(), usage.completionTokens(), cost);
+        }
+    }
+}
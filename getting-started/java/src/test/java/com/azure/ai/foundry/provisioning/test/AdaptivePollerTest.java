@@ -0,0 +1,96 @@
+package com.azure.ai.foundry.provisioning.test;
+
+import com.azure.ai.foundry.provisioning.AdaptivePoller;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AdaptivePollerTest {
+
+    // Runs every poll at once, recording the delay it was scheduled with
+    private static final class RecordingScheduler extends ScheduledThreadPoolExecutor {
+        private final List<Long> delays = Collections.synchronizedList(new ArrayList<>());
+
+        RecordingScheduler() {
+            super(1);
+        }
+
+        @Override
+        public <V> ScheduledFuture<V> schedule(Callable<V> callable, long delay, TimeUnit unit) {
+            delays.add(unit.toMillis(delay));
+            return super.schedule(callable, 0, unit);
+        }
+
+        @Override
+        public ScheduledFuture<?> schedule(Runnable command, long delay, TimeUnit unit) {
+            delays.add(unit.toMillis(delay));
+            return super.schedule(command, 0, unit);
+        }
+    }
+
+    private static final AdaptivePoller.Policy POLICY =
+        new AdaptivePoller.Policy(Duration.ofMillis(100), Duration.ofSeconds(1), 3, Duration.ofMinutes(1));
+
+    @Test
+    public void testBacksOffWhileTheStateIsUnchanged() {
+        RecordingScheduler scheduler = new RecordingScheduler();
+        try {
+            AdaptivePoller poller = new AdaptivePoller(scheduler, Runnable::run, POLICY);
+            Iterator<String> states = List.of("Creating", "Creating", "Creating", "Creating", "Creating",
+                "Updating", "Succeeded").iterator();
+            assertEquals("Succeeded", poller.poll("account", states::next, "Succeeded"::equals).join());
+
+            List<Long> delays = scheduler.delays;
+            assertEquals(7, delays.size());
+            assertEquals(Long.valueOf(100), delays.get(0));
+            // Each delay has up to 20% jitter
+            assertBetween(80, 120, delays.get(1));
+            assertBetween(240, 360, delays.get(2));
+            assertBetween(720, 1080, delays.get(3));
+            // Capped at the maximum delay
+            assertBetween(800, 1200, delays.get(4));
+            assertBetween(800, 1200, delays.get(5));
+            // A new state starts over from the initial delay
+            assertBetween(80, 120, delays.get(6));
+        } finally {
+            scheduler.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testFailsWhenTheCheckFailsOrTimesOut() {
+        RecordingScheduler scheduler = new RecordingScheduler();
+        try {
+            AdaptivePoller poller = new AdaptivePoller(scheduler, Runnable::run, POLICY);
+            CompletionException failed = assertThrows(CompletionException.class,
+                () -> poller.poll("account", () -> {
+                    throw new IllegalStateException("Forbidden");
+                }, state -> true).join());
+            assertInstanceOf(IllegalStateException.class, failed.getCause());
+
+            AdaptivePoller impatient = new AdaptivePoller(scheduler, Runnable::run,
+                new AdaptivePoller.Policy(Duration.ofMillis(100), Duration.ofSeconds(1), 3, Duration.ZERO));
+            CompletionException timedOut = assertThrows(CompletionException.class,
+                () -> impatient.poll("account", () -> "Creating", "Succeeded"::equals).join());
+            assertInstanceOf(TimeoutException.class, timedOut.getCause());
+        } finally {
+            scheduler.shutdownNow();
+        }
+    }
+
+    private static void assertBetween(long min, long max, long actual) {
+        assertTrue(actual >= min && actual <= max, actual + " not in [" + min + ", " + max + "]");
+    }
+}
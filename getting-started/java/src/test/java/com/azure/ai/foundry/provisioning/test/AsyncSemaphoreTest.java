@@ -0,0 +1,55 @@
+package com.azure.ai.foundry.provisioning.test;
+
+import com.azure.ai.foundry.provisioning.AsyncSemaphore;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AsyncSemaphoreTest {
+
+    @Test
+    public void testWaitersGetPermitsInOrder() {
+        AsyncSemaphore semaphore = new AsyncSemaphore(1);
+        CompletableFuture<Void> first = semaphore.acquire();
+        CompletableFuture<Void> second = semaphore.acquire();
+        CompletableFuture<Void> third = semaphore.acquire();
+        assertTrue(first.isDone());
+        assertFalse(second.isDone());
+
+        semaphore.release();
+        assertTrue(second.isDone());
+        assertFalse(third.isDone());
+
+        semaphore.release();
+        assertTrue(third.isDone());
+        semaphore.release();
+        assertTrue(semaphore.acquire().isDone());
+    }
+
+    @Test
+    public void testWithPermitReleasesWhenTheTaskFails() {
+        AsyncSemaphore semaphore = new AsyncSemaphore(1);
+        CompletableFuture<String> slow = new CompletableFuture<>();
+        CompletableFuture<String> holding = semaphore.withPermit(() -> slow);
+        CompletableFuture<String> failing = semaphore.withPermit(() -> {
+            throw new IllegalStateException("Conflict");
+        });
+        CompletableFuture<String> last = semaphore.withPermit(() -> CompletableFuture.completedFuture("done"));
+        assertFalse(failing.isDone());
+
+        slow.complete("slow");
+        assertEquals("slow", holding.join());
+        CompletionException e = assertThrows(CompletionException.class, failing::join);
+        assertInstanceOf(IllegalStateException.class, e.getCause());
+        assertEquals("done", last.join());
+        assertTrue(semaphore.acquire().isDone());
+    }
+
+    @Test
+    public void testRejectsNonPositivePermits() {
+        assertThrows(IllegalArgumentException.class, () -> new AsyncSemaphore(0));
+    }
+}
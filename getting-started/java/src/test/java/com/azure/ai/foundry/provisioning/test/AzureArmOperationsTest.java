@@ -0,0 +1,45 @@
+package com.azure.ai.foundry.provisioning.test;
+
+import com.azure.ai.foundry.provisioning.ArmOperations.ProvisioningStatus;
+import com.azure.ai.foundry.provisioning.AzureArmOperations;
+import com.azure.resourcemanager.cognitiveservices.models.ResourceProvisioningState;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AzureArmOperationsTest {
+
+    // Reports a fixed state instead of calling ARM; managers are created lazily, so no credential is needed
+    private static final class StubArmOperations extends AzureArmOperations {
+        private final ResourceProvisioningState state;
+
+        StubArmOperations(String state) {
+            super(null);
+            this.state = ResourceProvisioningState.fromString(state);
+        }
+
+        @Override
+        protected ResourceProvisioningState provisioningState(String subscriptionId, String resourceGroup,
+                                                              String accountName) {
+            return state;
+        }
+    }
+
+    private static ProvisioningStatus statusFor(String state) {
+        return new StubArmOperations(state).accountStatus("sub-1", "rg-east", "foundry-east");
+    }
+
+    @Test
+    public void testTerminalStates() {
+        assertEquals(ProvisioningStatus.SUCCEEDED, statusFor("Succeeded"));
+        assertEquals(ProvisioningStatus.FAILED, statusFor("Failed"));
+        assertEquals(ProvisioningStatus.FAILED, statusFor("Canceled"));
+    }
+
+    @Test
+    public void testTransientStatesAreInProgress() {
+        assertEquals(ProvisioningStatus.IN_PROGRESS, statusFor("Accepted"));
+        assertEquals(ProvisioningStatus.IN_PROGRESS, statusFor("Creating"));
+        assertEquals(ProvisioningStatus.IN_PROGRESS, statusFor("ResolvingDNS"));
+    }
+}
@@ -0,0 +1,68 @@
+package com.azure.ai.foundry.provisioning.test;
+
+import com.azure.ai.foundry.provisioning.ArmOperations.ProvisioningStatus;
+import com.azure.ai.foundry.provisioning.CachingArmOperations;
+import com.azure.ai.foundry.provisioning.InMemoryArmOperations;
+import com.azure.ai.foundry.provisioning.ProvisioningTarget;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CachingArmOperationsTest {
+
+    private static final ProvisioningTarget EAST =
+        new ProvisioningTarget("sub-1", "rg-east", "foundry-east", "project-1", "eastus");
+
+    private final InMemoryArmOperations arm = new InMemoryArmOperations(Duration.ZERO, Duration.ZERO);
+
+    @Test
+    public void testRepeatedReadsAreServedFromTheInventory() {
+        arm.createResourceGroup("sub-1", "rg-east", "eastus");
+        arm.beginCreateAccount(EAST);
+        CachingArmOperations cache = new CachingArmOperations(arm, Duration.ofMinutes(1));
+
+        assertTrue(cache.resourceGroupExists("sub-1", "rg-east"));
+        assertEquals(ProvisioningStatus.SUCCEEDED, cache.accountStatus("sub-1", "rg-east", "foundry-east"));
+        long calls = arm.callCount();
+
+        assertTrue(cache.resourceGroupExists("SUB-1", "RG-East"));
+        assertEquals(ProvisioningStatus.SUCCEEDED, cache.accountStatus("sub-1", "rg-east", "foundry-east"));
+        assertTrue(cache.accountExists("sub-1", "rg-east", "foundry-east"));
+        assertEquals(calls, arm.callCount());
+    }
+
+    @Test
+    public void testEntriesExpireAfterTheirTimeToLive() throws InterruptedException {
+        CachingArmOperations cache = new CachingArmOperations(arm, Duration.ofMillis(50));
+
+        assertFalse(cache.resourceGroupExists("sub-1", "rg-east"));
+        assertFalse(cache.resourceGroupExists("sub-1", "rg-east"));
+        assertEquals(1, arm.callCount());
+
+        Thread.sleep(100);
+        assertFalse(cache.resourceGroupExists("sub-1", "rg-east"));
+        assertEquals(2, arm.callCount());
+    }
+
+    @Test
+    public void testCreatingAResourceReplacesItsEntry() {
+        InMemoryArmOperations slow = new InMemoryArmOperations(Duration.ofMinutes(1), Duration.ZERO);
+        CachingArmOperations cache = new CachingArmOperations(slow, Duration.ofMinutes(1));
+
+        assertFalse(cache.resourceGroupExists("sub-1", "rg-east"));
+        cache.createResourceGroup("sub-1", "rg-east", "eastus");
+        long calls = slow.callCount();
+        assertTrue(cache.resourceGroupExists("sub-1", "rg-east"));
+        assertEquals(calls, slow.callCount());
+
+        assertEquals(ProvisioningStatus.NOT_FOUND, cache.accountStatus("sub-1", "rg-east", "foundry-east"));
+        cache.beginCreateAccount(EAST);
+        // The remembered NOT_FOUND is gone, and the changing state is read fresh each time
+        assertEquals(ProvisioningStatus.IN_PROGRESS, cache.accountStatus("sub-1", "rg-east", "foundry-east"));
+        calls = slow.callCount();
+        assertEquals(ProvisioningStatus.IN_PROGRESS, cache.accountStatus("sub-1", "rg-east", "foundry-east"));
+        assertEquals(calls + 1, slow.callCount());
+    }
+}
@@ -0,0 +1,82 @@
+package com.azure.ai.foundry.provisioning.test;
+
+import com.azure.ai.foundry.provisioning.ProvisioningGraph;
+import com.azure.ai.foundry.provisioning.StepResult;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ProvisioningGraphTest {
+
+    private final List<String> started = Collections.synchronizedList(new ArrayList<>());
+
+    // A step that records when it starts and succeeds after the given time, off the calling thread
+    private Supplier<CompletableFuture<StepResult.Status>> step(String id, long millis) {
+        return () -> {
+            started.add(id);
+            return CompletableFuture.supplyAsync(() -> StepResult.Status.CREATED,
+                CompletableFuture.delayedExecutor(millis, TimeUnit.MILLISECONDS));
+        };
+    }
+
+    @Test
+    public void testStartsStepsOnceTheirDependenciesSucceed() {
+        List<StepResult> results = new ProvisioningGraph()
+            .add("d", List.of("b", "c"), step("d", 0))
+            .add("a", List.of(), step("a", 50))
+            .add("b", List.of("a"), step("b", 20))
+            .add("c", List.of("a"), step("c", 0))
+            .execute()
+            .join();
+
+        assertEquals(List.of("d", "a", "b", "c"), results.stream().map(StepResult::id).toList());
+        assertTrue(results.stream().allMatch(StepResult::succeeded));
+        assertEquals("a", started.get(0));
+        assertEquals("d", started.get(3));
+    }
+
+    @Test
+    public void testSkipsStepsWhoseDependencyFailed() {
+        List<StepResult> results = new ProvisioningGraph()
+            .add("a", List.of(), () -> CompletableFuture.failedFuture(new IllegalStateException("Quota exceeded")))
+            .add("b", List.of("a"), step("b", 0))
+            .add("c", List.of("b"), step("c", 0))
+            .add("x", List.of(), () -> {
+                throw new IllegalArgumentException("Bad region");
+            })
+            .add("y", List.of(), step("y", 0))
+            .execute()
+            .join();
+
+        assertEquals(StepResult.Status.FAILED, results.get(0).status());
+        assertEquals("Quota exceeded", results.get(0).error());
+        assertEquals(StepResult.Status.SKIPPED, results.get(1).status());
+        assertEquals("dependency a did not succeed", results.get(1).error());
+        assertEquals(StepResult.Status.SKIPPED, results.get(2).status());
+        assertEquals(StepResult.Status.FAILED, results.get(3).status());
+        assertEquals("Bad region", results.get(3).error());
+        assertEquals(StepResult.Status.CREATED, results.get(4).status());
+        assertEquals(List.of("y"), started);
+    }
+
+    @Test
+    public void testRejectsCyclesAndUnknownDependencies() {
+        ProvisioningGraph cycle = new ProvisioningGraph()
+            .add("a", List.of("b"), step("a", 0))
+            .add("b", List.of("a"), step("b", 0));
+        assertThrows(IllegalStateException.class, cycle::execute);
+
+        ProvisioningGraph unknown = new ProvisioningGraph().add("a", List.of("missing"), step("a", 0));
+        assertThrows(IllegalStateException.class, unknown::execute);
+
+        assertThrows(IllegalArgumentException.class,
+            () -> new ProvisioningGraph().add("a", List.of(), step("a", 0)).add("a", List.of(), step("a", 0)));
+    }
+}
@@ -0,0 +1,66 @@
+package com.azure.ai.foundry.provisioning.test;
+
+import com.azure.ai.foundry.provisioning.ProvisioningJournal;
+import com.azure.ai.foundry.provisioning.ProvisioningTarget;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ProvisioningJournalTest {
+
+    private static final ProvisioningTarget EAST =
+        new ProvisioningTarget("sub-1", "rg-east", "foundry-east", "project-1", "eastus");
+    private static final ProvisioningTarget WEST =
+        new ProvisioningTarget("sub-1", "rg-west", "foundry-west", "project-2", "westus");
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void testReopenedJournalRemembersCompletedTargets() throws Exception {
+        Path file = tempDir.resolve("manifest.csv.journal");
+        try (ProvisioningJournal journal = ProvisioningJournal.open(file)) {
+            assertEquals(List.of(EAST, WEST), journal.pending(List.of(EAST, WEST)));
+            journal.markCompleted(EAST);
+            journal.markCompleted(EAST);
+            assertTrue(journal.isCompleted(EAST));
+        }
+        assertEquals(List.of("sub-1/rg-east/foundry-east"), Files.readAllLines(file));
+
+        try (ProvisioningJournal journal = ProvisioningJournal.open(file)) {
+            assertEquals(List.of(WEST), journal.pending(List.of(EAST, WEST)));
+        }
+    }
+
+    @Test
+    public void testMatchesResourceNamesIgnoringCase() throws Exception {
+        Path file = tempDir.resolve("manifest.csv.journal");
+        Files.writeString(file, "SUB-1/RG-East/Foundry-East\n\n");
+        try (ProvisioningJournal journal = ProvisioningJournal.open(file)) {
+            assertTrue(journal.isCompleted(EAST));
+            assertFalse(journal.isCompleted(WEST));
+        }
+    }
+
+    @Test
+    public void testReadOnlyJournalNeverTouchesTheFile() throws Exception {
+        Path missing = tempDir.resolve("missing.csv.journal");
+        try (ProvisioningJournal journal = ProvisioningJournal.openReadOnly(missing)) {
+            assertEquals(List.of(EAST, WEST), journal.pending(List.of(EAST, WEST)));
+            assertThrows(IllegalStateException.class, () -> journal.markCompleted(EAST));
+        }
+        assertFalse(Files.exists(missing));
+
+        Path file = tempDir.resolve("manifest.csv.journal");
+        Files.writeString(file, "sub-1/rg-east/foundry-east\n");
+        try (ProvisioningJournal journal = ProvisioningJournal.openReadOnly(file)) {
+            assertEquals(List.of(WEST), journal.pending(List.of(EAST, WEST)));
+        }
+        assertEquals(List.of("sub-1/rg-east/foundry-east"), Files.readAllLines(file));
+    }
+}
@@ -0,0 +1,50 @@
+package com.azure.ai.foundry.provisioning.test;
+
+import com.azure.ai.foundry.provisioning.ProvisioningManifest;
+import com.azure.ai.foundry.provisioning.ProvisioningTarget;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ProvisioningManifestTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void testReadsEntriesSkippingHeaderAndComments() throws Exception {
+        Path file = tempDir.resolve("manifest.csv");
+        Files.writeString(file, String.join("\n",
+            "subscription_id,resource_group,resource_name,project_name,region",
+            "# Development",
+            "sub-1, rg-dev ,foundry-dev,project-dev,eastus",
+            "",
+            "sub-2,rg-test,foundry-test,project-test,westeurope"));
+
+        assertEquals(List.of(
+                new ProvisioningTarget("sub-1", "rg-dev", "foundry-dev", "project-dev", "eastus"),
+                new ProvisioningTarget("sub-2", "rg-test", "foundry-test", "project-test", "westeurope")),
+            ProvisioningManifest.read(file));
+    }
+
+    @Test
+    public void testReportsEveryInvalidLine() throws Exception {
+        Path file = tempDir.resolve("manifest.csv");
+        Files.writeString(file, String.join("\n",
+            "sub-1,rg-dev,foundry-dev,project-dev",
+            "sub-1,rg-dev,,project-dev,eastus",
+            "sub-1,rg-dev,foundry-dev,project-dev,eastus",
+            "SUB-1,RG-DEV,Foundry-Dev,project-other,westus"));
+
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+            () -> ProvisioningManifest.read(file));
+        assertTrue(e.getMessage().contains("line 1: expected 5 fields but found 4"), e.getMessage());
+        assertTrue(e.getMessage().contains("line 2: empty field"), e.getMessage());
+        assertTrue(e.getMessage().contains("line 4: duplicate resource Foundry-Dev"), e.getMessage());
+    }
+}
@@ -0,0 +1,80 @@
+package com.azure.ai.foundry.provisioning.test;
+
+import com.azure.ai.foundry.provisioning.AdaptivePoller;
+import com.azure.ai.foundry.provisioning.InMemoryArmOperations;
+import com.azure.ai.foundry.provisioning.ProvisioningOrchestrator;
+import com.azure.ai.foundry.provisioning.ProvisioningTarget;
+import com.azure.ai.foundry.provisioning.StepResult;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ProvisioningOrchestratorTest {
+
+    private static final AdaptivePoller.Policy POLICY =
+        new AdaptivePoller.Policy(Duration.ofMillis(10), Duration.ofMillis(50), 1.6, Duration.ofSeconds(10));
+
+    private static final List<ProvisioningTarget> TARGETS = List.of(
+        new ProvisioningTarget("sub-1", "rg-east", "foundry-east-1", "project-1", "eastus"),
+        new ProvisioningTarget("sub-1", "rg-east", "foundry-east-2", "project-2", "eastus"),
+        new ProvisioningTarget("sub-1", "rg-west", "foundry-west-1", "project-3", "westus"));
+
+    private static Map<String, StepResult.Status> statuses(List<StepResult> results) {
+        return results.stream().collect(Collectors.toMap(StepResult::id, StepResult::status));
+    }
+
+    @Test
+    public void testProvisionsAgainstTheLocalStub() {
+        InMemoryArmOperations arm = new InMemoryArmOperations(Duration.ofMillis(50), Duration.ofMillis(1));
+        arm.failAccount("foundry-east-2");
+        try (ProvisioningOrchestrator orchestrator = new ProvisioningOrchestrator(arm, 4, POLICY)) {
+            Map<String, StepResult.Status> first = statuses(orchestrator.provision(TARGETS).join());
+            assertEquals(5, first.size());
+            assertEquals(StepResult.Status.CREATED, first.get("resourceGroup:sub-1/rg-east"));
+            assertEquals(StepResult.Status.CREATED, first.get("resourceGroup:sub-1/rg-west"));
+            assertEquals(StepResult.Status.CREATED, first.get("account:sub-1/rg-east/foundry-east-1"));
+            assertEquals(StepResult.Status.FAILED, first.get("account:sub-1/rg-east/foundry-east-2"));
+            assertEquals(StepResult.Status.CREATED, first.get("account:sub-1/rg-west/foundry-west-1"));
+
+            // A rerun finds what is in place and resubmits the failed resource
+            Map<String, StepResult.Status> second = statuses(orchestrator.provision(TARGETS).join());
+            assertEquals(StepResult.Status.EXISTING, second.get("resourceGroup:sub-1/rg-east"));
+            assertEquals(StepResult.Status.EXISTING, second.get("account:sub-1/rg-east/foundry-east-1"));
+            assertEquals(StepResult.Status.CREATED, second.get("account:sub-1/rg-east/foundry-east-2"));
+            assertEquals(StepResult.Status.EXISTING, second.get("account:sub-1/rg-west/foundry-west-1"));
+        }
+    }
+
+    @Test
+    public void testQueuesResourcesOverTheSubscriptionLimit() {
+        InMemoryArmOperations arm = new InMemoryArmOperations(Duration.ofMillis(100), Duration.ofMillis(1));
+        try (ProvisioningOrchestrator orchestrator = new ProvisioningOrchestrator(arm, 4, 1, POLICY)) {
+            List<StepResult> accounts = orchestrator.provision(TARGETS).join().stream()
+                .filter(result -> result.id().startsWith("account:"))
+                .toList();
+            assertTrue(accounts.stream().allMatch(StepResult::succeeded));
+            // One at a time: the last resource waited for the other two
+            Duration longestWait = accounts.stream().map(StepResult::queued).max(Duration::compareTo).orElseThrow();
+            assertTrue(longestWait.toMillis() >= 150, "waited " + longestWait);
+        }
+    }
+
+    @Test
+    public void testReportsEachStepAsItFinishes() {
+        InMemoryArmOperations arm = new InMemoryArmOperations(Duration.ofMillis(20), Duration.ofMillis(1));
+        try (ProvisioningOrchestrator orchestrator = new ProvisioningOrchestrator(arm, 4, POLICY)) {
+            Map<String, StepResult> reported = new ConcurrentHashMap<>();
+            List<StepResult> results = orchestrator.provision(TARGETS, result -> reported.put(result.id(), result))
+                .join();
+            assertEquals(results.stream().collect(Collectors.toMap(StepResult::id, Function.identity())),
+                reported);
+        }
+    }
+}
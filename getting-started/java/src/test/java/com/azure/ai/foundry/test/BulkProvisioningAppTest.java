@@ -0,0 +1,61 @@
+package com.azure.ai.foundry.test;
+
+import com.azure.ai.foundry.BulkProvisioningApp;
+import com.azure.ai.foundry.provisioning.AdaptivePoller;
+import com.azure.ai.foundry.provisioning.InMemoryArmOperations;
+import com.azure.ai.foundry.provisioning.ProvisioningJournal;
+import com.azure.ai.foundry.provisioning.ProvisioningTarget;
+import com.azure.ai.foundry.provisioning.StepResult;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BulkProvisioningAppTest {
+
+    private static final AdaptivePoller.Policy POLICY =
+        new AdaptivePoller.Policy(Duration.ofMillis(10), Duration.ofMillis(50), 1.6, Duration.ofSeconds(10));
+
+    private static final List<ProvisioningTarget> TARGETS = List.of(
+        new ProvisioningTarget("sub-1", "rg-east", "foundry-east-1", "project-1", "eastus"),
+        new ProvisioningTarget("sub-1", "rg-west", "foundry-west-1", "project-2", "westus"));
+
+    @TempDir
+    Path tempDir;
+
+    private List<StepResult> provision(Path journalFile, boolean dryRun) throws Exception {
+        try (ProvisioningJournal journal = dryRun
+                 ? ProvisioningJournal.openReadOnly(journalFile)
+                 : ProvisioningJournal.open(journalFile)) {
+            return BulkProvisioningApp.provision(journal.pending(TARGETS),
+                new InMemoryArmOperations(Duration.ofMillis(20), Duration.ofMillis(1)), journal, dryRun, 4, 2, POLICY);
+        }
+    }
+
+    @Test
+    public void testDryRunLeavesTheJournalUnchanged() throws Exception {
+        Path journalFile = tempDir.resolve("manifest.csv.journal");
+        List<StepResult> results = provision(journalFile, true);
+        assertTrue(results.stream().allMatch(StepResult::succeeded));
+        assertFalse(Files.exists(journalFile));
+
+        try (ProvisioningJournal journal = ProvisioningJournal.open(journalFile)) {
+            assertEquals(TARGETS, journal.pending(TARGETS));
+        }
+    }
+
+    @Test
+    public void testRealRunRecordsCompletedEntries() throws Exception {
+        Path journalFile = tempDir.resolve("manifest.csv.journal");
+        provision(journalFile, false);
+
+        try (ProvisioningJournal journal = ProvisioningJournal.open(journalFile)) {
+            assertEquals(List.of(), journal.pending(TARGETS));
+        }
+    }
+}
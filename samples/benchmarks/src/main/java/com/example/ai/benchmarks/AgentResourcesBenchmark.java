@@ -0,0 +1,58 @@
+package com.example.ai.benchmarks;
+
+import com.azure.ai.foundry.util.AgentHelper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Description parsing in {@code AgentHelper.cleanupAgent}, and the formatting that writes the
+ * description when a file search agent is created.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AgentResourcesBenchmark {
+
+    @Param({"1", "16"})
+    public int files;
+
+    private String vectorStoreId;
+    private List<String> fileIds;
+    private String description;
+
+    @Setup
+    public void setUp() {
+        vectorStoreId = "vs_abc123def456ghi789jkl012";
+        fileIds = new ArrayList<>(files);
+        for (int i = 0; i < files; i++) {
+            fileIds.add(String.format("assistant-%024d", i));
+        }
+        description = AgentHelper.describeResources(vectorStoreId, fileIds);
+    }
+
+    @Benchmark
+    public AgentHelper.AgentResources parseResources() {
+        return AgentHelper.parseResources(description);
+    }
+
+    @Benchmark
+    public String describeResources() {
+        return AgentHelper.describeResources(vectorStoreId, fileIds);
+    }
+}
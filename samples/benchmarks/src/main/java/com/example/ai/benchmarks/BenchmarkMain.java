@@ -0,0 +1,24 @@
+package com.example.ai.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks with the GC profiler, so every result reports its allocation rate
+ * ({@code gc.alloc.rate.norm} is bytes allocated per operation).
+ *
+ * Accepts the usual JMH options, e.g. {@code java -jar target/benchmarks.jar Prompt -f 1}.
+ */
+public class BenchmarkMain {
+
+    public static void main(String[] args) throws Exception {
+        Options options = new OptionsBuilder()
+            .parent(new CommandLineOptions(args))
+            .addProfiler(GCProfiler.class)
+            .build();
+        new Runner(options).run();
+    }
+}
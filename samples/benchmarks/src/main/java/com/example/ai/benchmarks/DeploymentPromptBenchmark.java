@@ -0,0 +1,39 @@
+package com.example.ai.benchmarks;
+
+import com.example.ai.projects.spring.service.AIChatService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.ai.chat.prompt.Prompt;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Prompt building in {@code AIChatService.chatAboutDeployment}: rendering the system prompt
+ * template with the deployment's details.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DeploymentPromptBenchmark {
+
+    private final String name = "gpt-4o-eastus";
+    private final String type = "ModelDeployment";
+    private final String createdAt = OffsetDateTime.of(2025, 4, 29, 12, 0, 0, 0, ZoneOffset.UTC).toString();
+
+    @Benchmark
+    public Prompt deploymentPrompt() {
+        return AIChatService.deploymentPrompt(name, type, createdAt);
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.ai.benchmarks;
+
+import com.azure.ai.foundry.AgentEvaluationApp;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Result flattening in {@code AgentEvaluationApp}, on evaluator results shaped like the
+ * service's output: a few metrics per evaluator with scores, labels and reasons.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class EvaluationResultsBenchmark {
+
+    @Param({"3", "20"})
+    public int evaluators;
+
+    @Param({"6"})
+    public int metrics;
+
+    private Map<String, Map<String, Object>> results;
+
+    @Setup
+    public void setUp() {
+        results = new LinkedHashMap<>();
+        for (int e = 0; e < evaluators; e++) {
+            Map<String, Object> evaluatorResults = new LinkedHashMap<>();
+            for (int m = 0; m < metrics; m++) {
+                evaluatorResults.put("metric" + m, m % 3 == 0 ? "pass" : m % 3 == 1 ? (Object) (m * 0.5) : (Object) m);
+            }
+            results.put("evaluator" + e, evaluatorResults);
+        }
+    }
+
+    @Benchmark
+    public Map<String, Object> flattenResults() {
+        return AgentEvaluationApp.flattenResults(results);
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.ai.benchmarks;
+
+import com.azure.ai.projects.models.Connection;
+import com.example.ai.projects.spring.service.AzureAIService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Draining listings into an {@code ArrayList} as {@code AzureAIService} does, from an in-process
+ * stand-in for a paged listing and from a list the SDK has already materialized.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ListDrainingBenchmark {
+
+    // The default page size of the service's list operations
+    private static final int PAGE_SIZE = 20;
+
+    @Param({"10", "1000"})
+    public int size;
+
+    private List<Connection> connections;
+    private Iterable<Connection> pages;
+
+    @Setup
+    public void setUp() {
+        connections = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            Connection connection = new Connection();
+            connection.setName("connection-" + i);
+            connections.add(connection);
+        }
+        pages = () -> new PagedIterator<>(connections, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public List<Connection> drainPages() {
+        return AzureAIService.toList(pages);
+    }
+
+    @Benchmark
+    public List<Connection> drainCollection() {
+        return AzureAIService.toList(connections);
+    }
+
+    /**
+     * Iterates page by page, copying each page as a deserialized response would be.
+     */
+    private static final class PagedIterator<T> implements Iterator<T> {
+        private final List<T> items;
+        private final int pageSize;
+        private int next;
+        private List<T> page = List.of();
+        private int index;
+
+        PagedIterator(List<T> items, int pageSize) {
+            this.items = items;
+            this.pageSize = pageSize;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return index < page.size() || next < items.size();
+        }
+
+        @Override
+        public T next() {
+            if (index == page.size()) {
+                if (next >= items.size()) {
+                    throw new NoSuchElementException();
+                }
+                page = new ArrayList<>(items.subList(next, Math.min(next + pageSize, items.size())));
+                next += page.size();
+                index = 0;
+            }
+            return page.get(index++);
+        }
+    }
+}
@@ -0,0 +1,346 @@
+package com.example.ai.common.concurrency;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Limits the calls in flight to an endpoint, adjusting the limit to the endpoint's capacity.
+ *
+ * The limit follows the gradient of latency, as in Netflix's gradient2 limiter: each call's
+ * latency is compared with a long-term average, and
+ * <pre>
+ * new limit = limit * clamp(1.5 * average / latency, 0.5, 1) + sqrt(limit)
+ * </pre>
+ * smoothed by 20% per call. While latency stays near the average the limit grows by about its
+ * square root, and once latency rises the limit shrinks. Growth only happens while at least
+ * half the limit is in use, so a lightly loaded limiter does not drift upwards. A throttled
+ * call, such as a 429 response, cuts the limit by 10% at once, so the endpoint's own signal
+ * backs off multiplicatively as in AIMD.
+ *
+ * A call over the limit waits in a bounded queue for a slot. When the queue is full, or the
+ * wait is too long, the call is shed with a {@link LimitExceededException} instead of adding
+ * more load, and the rejection is counted by reason.
+ */
+public final class AdaptiveConcurrencyLimiter {
+
+    private static final double TOLERANCE = 1.5;
+    private static final double SMOOTHING = 0.2;
+    private static final double BACKOFF = 0.9;
+    // Calls the long-term latency average is taken over
+    private static final int LONG_WINDOW = 600;
+
+    /**
+     * Why a call was shed.
+     */
+    public enum Rejection {
+        /** Too many calls were already waiting */
+        QUEUE_FULL,
+        /** No slot came free within the maximum wait */
+        TIMEOUT
+    }
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final int maxQueue;
+    private final long maxWaitNanos;
+    private final Predicate<Throwable> throttled;
+    private final LongSupplier nanoTime;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition slotFree = lock.newCondition();
+    private final LongAdder accepted = new LongAdder();
+    private final LongAdder throttles = new LongAdder();
+    private final Map<Rejection, LongAdder> rejections = new EnumMap<>(Rejection.class);
+    // Guarded by lock
+    private double limit;
+    private double longLatency;
+    private int inFlight;
+    private int queued;
+
+    private AdaptiveConcurrencyLimiter(Builder builder) {
+        this.minLimit = builder.minLimit;
+        this.maxLimit = builder.maxLimit;
+        this.maxQueue = builder.maxQueue;
+        this.maxWaitNanos = builder.maxWait.toNanos();
+        this.throttled = builder.throttled;
+        this.nanoTime = builder.nanoTime;
+        this.limit = builder.initialLimit;
+        for (Rejection rejection : Rejection.values()) {
+            rejections.put(rejection, new LongAdder());
+        }
+    }
+
+    /**
+     * Makes a call within the limit, waiting for a slot if necessary.
+     *
+     * @param call The call
+     * @param <T> The result type
+     * @return The result of the call
+     * @throws LimitExceededException If the call was shed
+     * @throws RuntimeException What the call threw
+     */
+    public <T> T call(Supplier<T> call) {
+        int inFlightAtStart = acquire();
+        long start = nanoTime.getAsLong();
+        boolean released = false;
+        try {
+            T result = call.get();
+            released = true;
+            release(nanoTime.getAsLong() - start, inFlightAtStart, false);
+            return result;
+        } catch (RuntimeException e) {
+            if (throttled.test(e)) {
+                throttles.increment();
+                released = true;
+                release(0, inFlightAtStart, true);
+            }
+            throw e;
+        } finally {
+            if (!released) {
+                // Other failures say nothing about the endpoint's capacity
+                release(-1, inFlightAtStart, false);
+            }
+        }
+    }
+
+    private int acquire() {
+        lock.lock();
+        try {
+            if (queued == 0 && inFlight < (int) limit) {
+                return admit();
+            }
+            if (queued >= maxQueue) {
+                throw reject(Rejection.QUEUE_FULL);
+            }
+            queued++;
+            try {
+                long remaining = maxWaitNanos;
+                while (inFlight >= (int) limit) {
+                    if (remaining <= 0) {
+                        throw reject(Rejection.TIMEOUT);
+                    }
+                    remaining = slotFree.awaitNanos(remaining);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw reject(Rejection.TIMEOUT);
+            } finally {
+                queued--;
+            }
+            return admit();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private int admit() {
+        inFlight++;
+        accepted.increment();
+        return inFlight;
+    }
+
+    private LimitExceededException reject(Rejection rejection) {
+        rejections.get(rejection).increment();
+        return new LimitExceededException(rejection, (int) limit);
+    }
+
+    // latencyNanos is negative for calls whose outcome should not change the limit
+    private void release(long latencyNanos, int inFlightAtStart, boolean dropped) {
+        lock.lock();
+        try {
+            inFlight--;
+            if (dropped) {
+                limit = Math.max(minLimit, limit * BACKOFF);
+            } else if (latencyNanos >= 0) {
+                update(Math.max(1, latencyNanos), inFlightAtStart);
+            }
+            int free = (int) limit - inFlight;
+            for (int i = 0; i < free; i++) {
+                slotFree.signal();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void update(double latency, int inFlightAtStart) {
+        longLatency = longLatency == 0 ? latency : longLatency + (latency - longLatency) / LONG_WINDOW;
+        // Let the average recover quickly once latency has dropped for good
+        if (longLatency / latency > 2) {
+            longLatency *= 0.95;
+        }
+        double gradient = Math.max(0.5, Math.min(1.0, TOLERANCE * longLatency / latency));
+        if (gradient >= 1.0 && inFlightAtStart < limit / 2) {
+            return;
+        }
+        double target = limit * gradient + Math.sqrt(limit);
+        limit = Math.max(minLimit, Math.min(maxLimit, limit * (1 - SMOOTHING) + target * SMOOTHING));
+    }
+
+    /**
+     * @return The current in-flight limit
+     */
+    public int limit() {
+        lock.lock();
+        try {
+            return (int) limit;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return Calls in flight now
+     */
+    public int inFlight() {
+        lock.lock();
+        try {
+            return inFlight;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return Calls waiting for a slot now
+     */
+    public int queued() {
+        lock.lock();
+        try {
+            return queued;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return Calls that were let through
+     */
+    public long accepted() {
+        return accepted.sum();
+    }
+
+    /**
+     * @return Calls that failed as throttled and cut the limit
+     */
+    public long throttled() {
+        return throttles.sum();
+    }
+
+    /**
+     * @param rejection The reason
+     * @return Calls shed for that reason
+     */
+    public long rejected(Rejection rejection) {
+        return rejections.get(rejection).sum();
+    }
+
+    /**
+     * @return A builder with an initial limit of 10, between 1 and 200, a queue of 100 calls and
+     *         a maximum wait of 5 seconds
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Builder for {@link AdaptiveConcurrencyLimiter}.
+     */
+    public static class Builder {
+        private int initialLimit = 10;
+        private int minLimit = 1;
+        private int maxLimit = 200;
+        private int maxQueue = 100;
+        private Duration maxWait = Duration.ofSeconds(5);
+        private Predicate<Throwable> throttled = error -> false;
+        private LongSupplier nanoTime = System::nanoTime;
+
+        /**
+         * @param initialLimit The limit to start from
+         * @return This builder
+         */
+        public Builder initialLimit(int initialLimit) {
+            this.initialLimit = initialLimit;
+            return this;
+        }
+
+        /**
+         * @param minLimit The lowest the limit goes
+         * @return This builder
+         */
+        public Builder minLimit(int minLimit) {
+            this.minLimit = minLimit;
+            return this;
+        }
+
+        /**
+         * @param maxLimit The highest the limit goes
+         * @return This builder
+         */
+        public Builder maxLimit(int maxLimit) {
+            this.maxLimit = maxLimit;
+            return this;
+        }
+
+        /**
+         * @param maxQueue How many calls may wait for a slot; 0 sheds every call over the limit
+         * @return This builder
+         */
+        public Builder maxQueue(int maxQueue) {
+            this.maxQueue = maxQueue;
+            return this;
+        }
+
+        /**
+         * @param maxWait How long a call may wait for a slot
+         * @return This builder
+         */
+        public Builder maxWait(Duration maxWait) {
+            this.maxWait = maxWait;
+            return this;
+        }
+
+        /**
+         * @param throttled Which errors mean the endpoint is overloaded, e.g. 429 responses
+         * @return This builder
+         */
+        public Builder throttled(Predicate<Throwable> throttled) {
+            this.throttled = throttled;
+            return this;
+        }
+
+        /**
+         * @param nanoTime The time source for latencies, in nanoseconds
+         * @return This builder
+         */
+        public Builder nanoTime(LongSupplier nanoTime) {
+            this.nanoTime = nanoTime;
+            return this;
+        }
+
+        /**
+         * @return The limiter
+         * @throws IllegalArgumentException If the limits or queue settings are inconsistent
+         */
+        public AdaptiveConcurrencyLimiter build() {
+            if (minLimit < 1 || maxLimit < minLimit) {
+                throw new IllegalArgumentException("Limits must satisfy 1 <= min <= max: " + minLimit + ", " + maxLimit);
+            }
+            if (initialLimit < minLimit || initialLimit > maxLimit) {
+                throw new IllegalArgumentException("Initial limit must be between " + minLimit + " and " + maxLimit
+                    + ": " + initialLimit);
+            }
+            if (maxQueue < 0 || maxWait.isNegative()) {
+                throw new IllegalArgumentException("Queue size and wait must not be negative");
+            }
+            return new AdaptiveConcurrencyLimiter(this);
+        }
+    }
+}
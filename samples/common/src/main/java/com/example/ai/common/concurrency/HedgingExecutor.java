@@ -0,0 +1,202 @@
+package com.example.ai.common.concurrency;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Hedges slow calls: when a call has not answered by a percentile of recent latencies, a
+ * duplicate is started, the first answer wins and the other call is cancelled by interrupting
+ * it.
+ *
+ * Hedges are paid for from a budget: every call adds {@code budget} of a hedge to it, up to ten
+ * hedges, and each hedge takes one, so hedging adds at most that share of extra calls however
+ * slow the calls get. Until enough latencies have been recorded to estimate the percentile,
+ * nothing is hedged.
+ *
+ * Both calls run on the executor's own daemon threads while the caller waits, so a cancelled
+ * call must stop when its thread is interrupted.
+ */
+public final class HedgingExecutor implements AutoCloseable {
+
+    private static final int SAMPLES = 256;
+    private static final int MIN_SAMPLES = 20;
+    // How often the percentile is recomputed, in recorded latencies
+    private static final int RECOMPUTE_EVERY = 16;
+    private static final long CREDIT = 1_000;
+    private static final long MAX_CREDITS = 10 * CREDIT;
+
+    private final double percentile;
+    private final long creditPerCall;
+    private final ExecutorService executor;
+    private final AtomicLong credits = new AtomicLong(CREDIT);
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder hedges = new LongAdder();
+    private final LongAdder hedgeWins = new LongAdder();
+    // Guarded by this
+    private final long[] latencies = new long[SAMPLES];
+    private long recorded;
+    private volatile long hedgeAfterNanos = Long.MAX_VALUE;
+
+    /**
+     * @param percentile The percentile of recent latencies after which a call is hedged, e.g. 95
+     * @param budget The most hedges per call, e.g. 0.05 for at most 5% extra calls
+     */
+    public HedgingExecutor(double percentile, double budget) {
+        if (percentile <= 0 || percentile >= 100) {
+            throw new IllegalArgumentException("Percentile must be between 0 and 100: " + percentile);
+        }
+        if (budget < 0 || budget > 1) {
+            throw new IllegalArgumentException("Budget must be between 0 and 1: " + budget);
+        }
+        this.percentile = percentile;
+        this.creditPerCall = Math.round(budget * CREDIT);
+        this.executor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "hedging-executor");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Makes a call, hedging it if it is slow.
+     *
+     * @param primary The call
+     * @param hedge The duplicate to start if the call is slow, for example the same request to
+     *              another deployment
+     * @param <T> The result type
+     * @return The first successful result
+     * @throws RuntimeException What the call threw, or what the hedge threw if both failed
+     * @throws IllegalStateException If the calling thread is interrupted while waiting
+     */
+    public <T> T call(Supplier<T> primary, Supplier<T> hedge) {
+        long start = System.nanoTime();
+        calls.increment();
+        credits.accumulateAndGet(creditPerCall, (current, credit) -> Math.min(MAX_CREDITS, current + credit));
+        CompletionService<T> completion = new ExecutorCompletionService<>(executor);
+        Future<T> first = completion.submit(primary::get);
+        Future<T> second = null;
+        try {
+            Future<T> done = completion.poll(hedgeAfterNanos, TimeUnit.NANOSECONDS);
+            if (done == null && withdraw()) {
+                hedges.increment();
+                second = completion.submit(hedge::get);
+            }
+            if (done == null) {
+                done = completion.take();
+            }
+            T result;
+            try {
+                result = done.get();
+            } catch (ExecutionException e) {
+                if (second == null) {
+                    throw unwrap(e);
+                }
+                // One failed; the other may still succeed
+                result = awaitOther(completion);
+                done = done == first ? second : first;
+            }
+            if (done == second) {
+                hedgeWins.increment();
+            }
+            // The caller's wait, not the winner's own duration: a hedge that wins started late, and
+            // recording only its time would drop the slow primaries and pull the percentile down
+            record(System.nanoTime() - start);
+            return result;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a hedged call", e);
+        } finally {
+            first.cancel(true);
+            if (second != null) {
+                second.cancel(true);
+            }
+        }
+    }
+
+    private static <T> T awaitOther(CompletionService<T> completion) throws InterruptedException {
+        try {
+            return completion.take().get();
+        } catch (ExecutionException e) {
+            throw unwrap(e);
+        }
+    }
+
+    private static RuntimeException unwrap(ExecutionException e) {
+        if (e.getCause() instanceof RuntimeException cause) {
+            return cause;
+        }
+        if (e.getCause() instanceof Error cause) {
+            throw cause;
+        }
+        return new IllegalStateException(e.getCause());
+    }
+
+    private boolean withdraw() {
+        long current;
+        do {
+            current = credits.get();
+            if (current < CREDIT) {
+                return false;
+            }
+        } while (!credits.compareAndSet(current, current - CREDIT));
+        return true;
+    }
+
+    private synchronized void record(long nanos) {
+        latencies[(int) (recorded % SAMPLES)] = nanos;
+        recorded++;
+        if (recorded == MIN_SAMPLES || recorded > MIN_SAMPLES && recorded % RECOMPUTE_EVERY == 0) {
+            long[] sorted = Arrays.copyOf(latencies, (int) Math.min(recorded, SAMPLES));
+            Arrays.sort(sorted);
+            int index = (int) Math.ceil(percentile / 100 * sorted.length) - 1;
+            hedgeAfterNanos = sorted[Math.max(0, index)];
+        }
+    }
+
+    /**
+     * @return The delay after which a call is hedged, or null until enough calls have finished
+     */
+    public Duration hedgeAfter() {
+        long nanos = hedgeAfterNanos;
+        return nanos == Long.MAX_VALUE ? null : Duration.ofNanos(nanos);
+    }
+
+    /**
+     * @return Calls made
+     */
+    public long calls() {
+        return calls.sum();
+    }
+
+    /**
+     * @return Duplicates started because a call was slow
+     */
+    public long hedges() {
+        return hedges.sum();
+    }
+
+    /**
+     * @return Hedges that answered first
+     */
+    public long hedgeWins() {
+        return hedgeWins.sum();
+    }
+
+    /**
+     * Cancels calls in progress and stops the executor's threads.
+     */
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+}
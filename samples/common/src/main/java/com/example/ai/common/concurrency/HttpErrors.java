@@ -0,0 +1,35 @@
+package com.example.ai.common.concurrency;
+
+import com.azure.core.exception.HttpResponseException;
+
+/**
+ * Reads the HTTP status of failed Azure SDK calls, for the {@code throttled} predicate of an
+ * {@link AdaptiveConcurrencyLimiter} and for deciding when to fail over.
+ */
+public final class HttpErrors {
+
+    private HttpErrors() {
+    }
+
+    /**
+     * @param error A failed call's error
+     * @return The HTTP status of the response the error or one of its causes carries, or 0 if
+     *     it carries none
+     */
+    public static int status(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof HttpResponseException http && http.getResponse() != null) {
+                return http.getResponse().getStatusCode();
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * @param error A failed call's error
+     * @return Whether it is a 429 response, i.e. the endpoint is over its capacity
+     */
+    public static boolean isThrottled(Throwable error) {
+        return status(error) == 429;
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.ai.common.concurrency;
+
+/**
+ * Thrown when an {@link AdaptiveConcurrencyLimiter} sheds a call instead of making it.
+ */
+public class LimitExceededException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final AdaptiveConcurrencyLimiter.Rejection reason;
+
+    /**
+     * @param reason Why the call was shed
+     * @param limit The in-flight limit at the time
+     */
+    public LimitExceededException(AdaptiveConcurrencyLimiter.Rejection reason, int limit) {
+        super(reason == AdaptiveConcurrencyLimiter.Rejection.QUEUE_FULL
+            ? "Too many calls waiting; in-flight limit is " + limit
+            : "Timed out waiting for one of " + limit + " in-flight slots");
+        this.reason = reason;
+    }
+
+    /**
+     * @return Why the call was shed
+     */
+    public AdaptiveConcurrencyLimiter.Rejection reason() {
+        return reason;
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.ai.common.concurrency;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent identical calls: while a call for a key is in flight, other callers
+ * with the same key wait for it and share its result instead of making the call again.
+ *
+ * Only calls that overlap are shared. The key is forgotten as soon as its call finishes, so
+ * the next caller makes a fresh call; this is not a cache. A failure is shared the same way
+ * as a result, and every waiting caller gets the same exception.
+ *
+ * @param <K> The key identifying identical calls; it must implement equals and hashCode
+ * @param <V> The result type
+ */
+public final class SingleFlight<K, V> {
+
+    private final ConcurrentMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+
+    /**
+     * Makes the call, or waits for an identical one that is already in flight.
+     *
+     * @param key The key of the call
+     * @param call The call; it runs on the thread of the first caller
+     * @return The result of the call
+     * @throws RuntimeException Whatever the call threw, also in callers that shared it
+     */
+    public V execute(K key, Supplier<V> call) {
+        CompletableFuture<V> flight = new CompletableFuture<>();
+        CompletableFuture<V> leader = inFlight.putIfAbsent(key, flight);
+        if (leader != null) {
+            coalesced.increment();
+            return await(leader);
+        }
+        calls.increment();
+        try {
+            V value = call.get();
+            inFlight.remove(key, flight);
+            flight.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            inFlight.remove(key, flight);
+            flight.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    private static <V> V await(CompletableFuture<V> flight) {
+        try {
+            return flight.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * @return Calls made, i.e. callers that did not share another caller's call
+     */
+    public long calls() {
+        return calls.sum();
+    }
+
+    /**
+     * @return Callers that shared a call already in flight
+     */
+    public long coalesced() {
+        return coalesced.sum();
+    }
+
+    /**
+     * @return Calls in flight now
+     */
+    public int inFlight() {
+        return inFlight.size();
+    }
+}
@@ -0,0 +1,316 @@
+package com.example.ai.common.config;
+
+import io.github.cdimascio.dotenv.Dotenv;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Configuration store that serves settings from an immutable snapshot of a .env file merged
+ * with the system environment.
+ *
+ * Readers only dereference an {@link AtomicReference}, so lookups never lock. A watcher thread
+ * reloads the file when it changes and swaps in a new snapshot; subscribers are then notified
+ * on a background thread, which is where client factories rebuild their clients. As with
+ * {@link Dotenv}, system environment variables take precedence over the .env file.
+ */
+public final class ConfigStore implements AutoCloseable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ConfigStore.class);
+
+    /**
+     * Receives snapshot changes on the store's notification thread.
+     */
+    @FunctionalInterface
+    public interface Listener {
+        void onChange(Snapshot previous, Snapshot current);
+    }
+
+    /**
+     * An immutable view of the configuration.
+     *
+     * @param values The settings
+     * @param version Incremented each time a changed snapshot is published
+     */
+    public record Snapshot(Map<String, String> values, long version) {
+
+        public Snapshot {
+            values = Collections.unmodifiableMap(new HashMap<>(values));
+        }
+
+        /**
+         * @param key The setting name
+         * @return The value, or null if it is not set
+         */
+        public String get(String key) {
+            return values.get(key);
+        }
+
+        /**
+         * @param key The setting name
+         * @param defaultValue The value to use if the setting is not set
+         * @return The value or the default value
+         */
+        public String get(String key, String defaultValue) {
+            return values.getOrDefault(key, defaultValue);
+        }
+
+        /**
+         * @param other Another snapshot
+         * @return The names of the settings that were added, removed or changed between the snapshots
+         */
+        public Set<String> changedKeys(Snapshot other) {
+            Set<String> changed = new HashSet<>();
+            for (Map.Entry<String, String> entry : values.entrySet()) {
+                if (!Objects.equals(entry.getValue(), other.values.get(entry.getKey()))) {
+                    changed.add(entry.getKey());
+                }
+            }
+            for (String key : other.values.keySet()) {
+                if (!values.containsKey(key)) {
+                    changed.add(key);
+                }
+            }
+            return changed;
+        }
+    }
+
+    // Editors often write a file in several steps; wait for it to settle before reloading
+    private static final long SETTLE_MILLIS = 200;
+
+    private static final class Global {
+        private static final ConfigStore INSTANCE = open(Paths.get(".env"));
+    }
+
+    private final Path envFile;
+    private final AtomicReference<Snapshot> snapshot;
+    private final AtomicLong versions = new AtomicLong();
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+    private final ExecutorService notifier;
+    private final WatchService watchService;
+
+    private ConfigStore(Path envFile, boolean watch) {
+        this.envFile = envFile.toAbsolutePath().normalize();
+        this.snapshot = new AtomicReference<>(new Snapshot(read(this.envFile), 0));
+        this.notifier = Executors.newSingleThreadExecutor(runnable -> daemon(runnable, "config-store-notifier"));
+        this.watchService = watch ? watch(this.envFile.getParent()) : null;
+    }
+
+    /**
+     * @return The store for the .env file in the working directory, watched for changes
+     */
+    public static ConfigStore global() {
+        return Global.INSTANCE;
+    }
+
+    /**
+     * Loads a .env file and watches it for changes. The file does not have to exist yet.
+     *
+     * @param envFile The .env file
+     * @return The store
+     */
+    public static ConfigStore open(Path envFile) {
+        return new ConfigStore(envFile, true);
+    }
+
+    /**
+     * Loads a .env file once; call {@link #reload()} to pick up changes.
+     *
+     * @param envFile The .env file
+     * @return The store
+     */
+    public static ConfigStore load(Path envFile) {
+        return new ConfigStore(envFile, false);
+    }
+
+    /**
+     * @return The current snapshot
+     */
+    public Snapshot snapshot() {
+        return snapshot.get();
+    }
+
+    /**
+     * @param key The setting name
+     * @return The current value, or null if it is not set
+     */
+    public String get(String key) {
+        return snapshot.get().get(key);
+    }
+
+    /**
+     * @param key The setting name
+     * @param defaultValue The value to use if the setting is not set
+     * @return The current value or the default value
+     */
+    public String get(String key, String defaultValue) {
+        return snapshot.get().get(key, defaultValue);
+    }
+
+    /**
+     * Registers a listener for configuration changes.
+     *
+     * @param listener Called on a background thread after each change
+     * @return Removes the listener when run
+     */
+    public Runnable subscribe(Listener listener) {
+        listeners.add(listener);
+        return () -> listeners.remove(listener);
+    }
+
+    /**
+     * Keeps a value built from the configuration up to date. The value is built now and rebuilt
+     * on the notification thread whenever one of the given settings changes; until the rebuild
+     * completes, callers keep getting the previous value. If a rebuild fails the previous value
+     * is kept.
+     *
+     * @param factory Builds the value, typically a client, from a snapshot
+     * @param keys The settings the value depends on
+     * @param <T> The value type
+     * @return Supplies the latest value without locking
+     */
+    public <T> Supplier<T> reloading(Function<Snapshot, T> factory, String... keys) {
+        Set<String> watched = Set.of(keys);
+        AtomicReference<T> current = new AtomicReference<>(factory.apply(snapshot()));
+        subscribe((previous, next) -> {
+            if (previous.changedKeys(next).stream().anyMatch(watched::contains)) {
+                try {
+                    current.set(factory.apply(next));
+                } catch (RuntimeException e) {
+                    LOGGER.warn("Keeping previous client after failed rebuild", e);
+                }
+            }
+        });
+        return current::get;
+    }
+
+    /**
+     * Reads the .env file again and publishes a new snapshot if anything changed.
+     *
+     * @return The current snapshot
+     */
+    public Snapshot reload() {
+        Map<String, String> values = read(envFile);
+        while (true) {
+            Snapshot previous = snapshot.get();
+            if (previous.values().equals(values)) {
+                return previous;
+            }
+            Snapshot next = new Snapshot(values, versions.incrementAndGet());
+            if (snapshot.compareAndSet(previous, next)) {
+                notifyListeners(previous, next);
+                return next;
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        if (watchService != null) {
+            try {
+                watchService.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        notifier.shutdown();
+    }
+
+    private void notifyListeners(Snapshot previous, Snapshot next) {
+        notifier.execute(() -> {
+            for (Listener listener : listeners) {
+                try {
+                    listener.onChange(previous, next);
+                } catch (RuntimeException e) {
+                    LOGGER.warn("Configuration listener failed", e);
+                }
+            }
+        });
+    }
+
+    private WatchService watch(Path directory) {
+        try {
+            WatchService service = FileSystems.getDefault().newWatchService();
+            directory.register(service, StandardWatchEventKinds.ENTRY_CREATE,
+                StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
+            daemon(() -> watchLoop(service), "config-store-watcher").start();
+            return service;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to watch " + directory, e);
+        }
+    }
+
+    private void watchLoop(WatchService service) {
+        Path fileName = envFile.getFileName();
+        try {
+            while (true) {
+                WatchKey key = service.take();
+                boolean changed = false;
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    changed |= event.kind() == StandardWatchEventKinds.OVERFLOW || fileName.equals(event.context());
+                }
+                key.reset();
+                if (!changed) {
+                    continue;
+                }
+                // Collapse the burst of events from a single save into one reload
+                WatchKey more;
+                while ((more = service.poll(SETTLE_MILLIS, TimeUnit.MILLISECONDS)) != null) {
+                    more.pollEvents();
+                    more.reset();
+                }
+                try {
+                    reload();
+                } catch (RuntimeException e) {
+                    LOGGER.warn("Failed to reload {}", envFile, e);
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // Store closed
+        }
+    }
+
+    private static Map<String, String> read(Path envFile) {
+        Map<String, String> values = new HashMap<>();
+        Dotenv.configure()
+            .directory(envFile.getParent().toString())
+            .filename(envFile.getFileName().toString())
+            .ignoreIfMissing()
+            .load()
+            .entries(Dotenv.Filter.DECLARED_IN_ENV_FILE)
+            .forEach(entry -> values.put(entry.getKey(), entry.getValue()));
+        values.putAll(System.getenv());
+        return values;
+    }
+
+    private static Thread daemon(Runnable runnable, String name) {
+        Thread thread = new Thread(runnable, name);
+        thread.setDaemon(true);
+        return thread;
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.ai.common.metrics;
+
+import com.azure.core.http.HttpPipelineCallContext;
+import com.azure.core.http.HttpPipelineNextPolicy;
+import com.azure.core.http.HttpPipelinePosition;
+import com.azure.core.http.HttpResponse;
+import com.azure.core.http.policy.HttpPipelinePolicy;
+import io.micrometer.core.instrument.MeterRegistry;
+import reactor.core.publisher.Mono;
+
+/**
+ * Counts the retries and 429 responses of the Azure SDK clients as
+ * {@code foundry.http.retries} and {@code foundry.http.throttled}, tagged by host.
+ *
+ * The SDK retries inside its pipeline, so neither is visible to the callers; this policy runs
+ * on every attempt to see them. Add it to a client builder with {@code addPolicy}.
+ */
+public class AzureSdkMetricsPolicy implements HttpPipelinePolicy {
+
+    private static final String ATTEMPT = "metrics-attempt";
+
+    private final MeterRegistry registry;
+
+    /**
+     * @param registry The registry the counters are registered in
+     */
+    public AzureSdkMetricsPolicy(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public Mono<HttpResponse> process(HttpPipelineCallContext context, HttpPipelineNextPolicy next) {
+        int attempt = (Integer) context.getData(ATTEMPT).orElse(0) + 1;
+        context.setData(ATTEMPT, attempt);
+        String host = context.getHttpRequest().getUrl().getHost();
+        if (attempt > 1) {
+            registry.counter("foundry.http.retries", "host", host).increment();
+        }
+        return next.process().doOnNext(response -> {
+            if (response.getStatusCode() == 429) {
+                registry.counter("foundry.http.throttled", "host", host).increment();
+            }
+        });
+    }
+
+    @Override
+    public HttpPipelinePosition getPipelinePosition() {
+        return HttpPipelinePosition.PER_RETRY;
+    }
+}
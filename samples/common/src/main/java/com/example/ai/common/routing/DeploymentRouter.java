@@ -0,0 +1,346 @@
+package com.example.ai.common.routing;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import java.util.function.Predicate;
+
+/**
+ * Spreads model calls over a pool of equivalent deployments, for example the same model in
+ * several regions, and fails over when one of them is throttled or failing.
+ *
+ * Each call goes to the available deployment with the lowest expected wait: its moving average
+ * latency (an EWMA) times the calls it has outstanding plus one. A deployment that has not
+ * answered yet is assumed to be as fast as the average of the others, so it gets traffic
+ * straight away.
+ *
+ * Every deployment has a circuit breaker. Calls that fail with an error the failover predicate
+ * accepts, typically 429 and 5xx responses, count against it and are retried on the next best
+ * deployment that has not been tried for the call. After {@code failureThreshold} such failures
+ * in a row the breaker opens and the deployment gets no calls for {@code openDuration}; then a
+ * single trial call decides whether it closes again. Other errors, such as a bad request, are
+ * the caller's problem and are rethrown without failing over.
+ */
+public final class DeploymentRouter {
+
+    /** Weight of the latest latency in the moving average */
+    private static final double ALPHA = 0.2;
+
+    /**
+     * A circuit breaker's state.
+     */
+    public enum State {
+        /** Taking calls */
+        CLOSED,
+        /** Taking no calls until its open period ends */
+        OPEN,
+        /** Open period over; one trial call is allowed */
+        HALF_OPEN
+    }
+
+    /**
+     * A deployment's routing statistics at one moment.
+     *
+     * @param deployment The deployment
+     * @param outstanding Calls in progress
+     * @param latencyMillis The moving average latency, or NaN before the first success
+     * @param state The circuit breaker's state
+     */
+    public record Stats(String deployment, int outstanding, double latencyMillis, State state) {
+    }
+
+    private final Predicate<Throwable> failover;
+    private final int failureThreshold;
+    private final long openNanos;
+    private final LongSupplier nanoTime;
+    private final LongAdder failovers = new LongAdder();
+    private volatile Map<String, Endpoint> pool;
+
+    /**
+     * Creates a router whose breakers open after 5 failures in a row, for 30 seconds.
+     *
+     * @param deployments The pool
+     * @param failover Which errors to fail over on
+     */
+    public DeploymentRouter(Collection<String> deployments, Predicate<Throwable> failover) {
+        this(deployments, failover, 5, Duration.ofSeconds(30), System::nanoTime);
+    }
+
+    /**
+     * @param deployments The pool
+     * @param failover Which errors to fail over on
+     * @param failureThreshold Failures in a row that open a deployment's breaker
+     * @param openDuration How long an open breaker keeps the deployment out of rotation
+     * @param nanoTime The time source, in nanoseconds
+     */
+    public DeploymentRouter(Collection<String> deployments, Predicate<Throwable> failover, int failureThreshold,
+                            Duration openDuration, LongSupplier nanoTime) {
+        if (failureThreshold < 1) {
+            throw new IllegalArgumentException("Failure threshold must be at least 1: " + failureThreshold);
+        }
+        if (openDuration.isNegative()) {
+            throw new IllegalArgumentException("Open duration must not be negative: " + openDuration);
+        }
+        this.failover = failover;
+        this.failureThreshold = failureThreshold;
+        this.openNanos = openDuration.toNanos();
+        this.nanoTime = nanoTime;
+        this.pool = Map.of();
+        updatePool(deployments);
+    }
+
+    /**
+     * Replaces the pool. Deployments that stay in it keep their statistics and breakers; calls
+     * in progress on removed ones finish normally.
+     *
+     * @param deployments The new pool
+     * @throws IllegalArgumentException If the pool is empty
+     */
+    public synchronized void updatePool(Collection<String> deployments) {
+        if (deployments.isEmpty()) {
+            throw new IllegalArgumentException("The deployment pool must not be empty");
+        }
+        Map<String, Endpoint> current = pool;
+        Map<String, Endpoint> updated = new LinkedHashMap<>();
+        for (String deployment : deployments) {
+            updated.put(deployment, current.getOrDefault(deployment, new Endpoint(deployment)));
+        }
+        pool = Collections.unmodifiableMap(updated);
+    }
+
+    /**
+     * @return The deployments in the pool
+     */
+    public Set<String> deployments() {
+        return pool.keySet();
+    }
+
+    /**
+     * Calls the best available deployment, failing over to the next best on errors the failover
+     * predicate accepts, until the call succeeds or every available deployment has been tried.
+     *
+     * @param call The call, given the deployment to use
+     * @param <T> The result type
+     * @return The result of the first successful attempt
+     * @throws RuntimeException What the last attempt threw
+     * @throws NoDeploymentAvailableException If every deployment's breaker is open
+     */
+    public <T> T call(Function<String, T> call) {
+        return call(call, Set.of());
+    }
+
+    /**
+     * Like {@link #call(Function)}, but starts with deployments other than the given ones, and
+     * uses those only if no other deployment is available. A hedged call uses this to go to a
+     * different deployment than the call it duplicates.
+     *
+     * @param call The call, given the deployment to use
+     * @param avoid Deployments to use only as a last resort
+     * @param <T> The result type
+     * @return The result of the first successful attempt
+     * @throws RuntimeException What the last attempt threw
+     * @throws NoDeploymentAvailableException If every deployment's breaker is open
+     */
+    public <T> T call(Function<String, T> call, Set<String> avoid) {
+        Set<String> tried = new HashSet<>(avoid);
+        if (!anyAvailable(tried)) {
+            tried.clear();
+        }
+        RuntimeException last = null;
+        Endpoint endpoint;
+        while ((endpoint = choose(tried)) != null) {
+            if (last != null) {
+                failovers.increment();
+            }
+            tried.add(endpoint.deployment);
+            endpoint.outstanding.incrementAndGet();
+            long start = nanoTime.getAsLong();
+            try {
+                T result = call.apply(endpoint.deployment);
+                endpoint.succeeded(nanoTime.getAsLong() - start);
+                return result;
+            } catch (RuntimeException e) {
+                if (!failover.test(e)) {
+                    endpoint.released();
+                    throw e;
+                }
+                endpoint.failed();
+                last = e;
+            } catch (Error e) {
+                endpoint.released();
+                throw e;
+            } finally {
+                endpoint.outstanding.decrementAndGet();
+            }
+        }
+        if (last != null) {
+            throw last;
+        }
+        throw new NoDeploymentAvailableException(Duration.ofNanos(untilAvailable()));
+    }
+
+    private long untilAvailable() {
+        long now = nanoTime.getAsLong();
+        long nanos = Long.MAX_VALUE;
+        for (Endpoint endpoint : pool.values()) {
+            nanos = Math.min(nanos, endpoint.untilAvailable(now));
+        }
+        return nanos;
+    }
+
+    private boolean anyAvailable(Set<String> tried) {
+        long now = nanoTime.getAsLong();
+        for (Endpoint endpoint : pool.values()) {
+            if (!tried.contains(endpoint.deployment) && endpoint.available(now)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private Endpoint choose(Set<String> tried) {
+        Collection<Endpoint> endpoints = pool.values();
+        double measured = 0;
+        int count = 0;
+        for (Endpoint endpoint : endpoints) {
+            double latency = endpoint.latencyNanos;
+            if (!Double.isNaN(latency)) {
+                measured += latency;
+                count++;
+            }
+        }
+        double assumed = count == 0 ? 1 : measured / count;
+
+        long now = nanoTime.getAsLong();
+        List<Endpoint> best = new ArrayList<>();
+        double bestScore = Double.MAX_VALUE;
+        for (Endpoint endpoint : endpoints) {
+            if (tried.contains(endpoint.deployment) || !endpoint.available(now)) {
+                continue;
+            }
+            double latency = Double.isNaN(endpoint.latencyNanos) ? assumed : endpoint.latencyNanos;
+            double score = latency * (endpoint.outstanding.get() + 1);
+            if (score < bestScore) {
+                bestScore = score;
+                best.clear();
+            }
+            if (score == bestScore) {
+                best.add(endpoint);
+            }
+        }
+        // Spread ties so an idle pool is not drained in order
+        for (Endpoint endpoint : shuffled(best)) {
+            if (endpoint.acquire(now)) {
+                return endpoint;
+            }
+        }
+        return best.isEmpty() ? null : choose(tried);
+    }
+
+    private static List<Endpoint> shuffled(List<Endpoint> endpoints) {
+        if (endpoints.size() > 1) {
+            Collections.shuffle(endpoints, ThreadLocalRandom.current());
+        }
+        return endpoints;
+    }
+
+    /**
+     * @return Attempts that failed and were retried on another deployment
+     */
+    public long failovers() {
+        return failovers.sum();
+    }
+
+    /**
+     * @return The statistics of every deployment in the pool
+     */
+    public List<Stats> stats() {
+        long now = nanoTime.getAsLong();
+        List<Stats> stats = new ArrayList<>();
+        for (Endpoint endpoint : pool.values()) {
+            stats.add(new Stats(endpoint.deployment, endpoint.outstanding.get(), endpoint.latencyNanos / 1_000_000,
+                endpoint.state(now)));
+        }
+        return stats;
+    }
+
+    // One deployment's load, latency and breaker
+    private final class Endpoint {
+        private final String deployment;
+        private final AtomicInteger outstanding = new AtomicInteger();
+        private volatile double latencyNanos = Double.NaN;
+        // Guarded by this
+        private int failures;
+        private long openUntil;
+        private boolean open;
+        private boolean trialInProgress;
+
+        Endpoint(String deployment) {
+            this.deployment = deployment;
+        }
+
+        synchronized State state(long now) {
+            if (!open) {
+                return State.CLOSED;
+            }
+            return now - openUntil < 0 ? State.OPEN : State.HALF_OPEN;
+        }
+
+        // Whether the deployment may be chosen, without claiming a trial call
+        synchronized boolean available(long now) {
+            State state = state(now);
+            return state == State.CLOSED || state == State.HALF_OPEN && !trialInProgress;
+        }
+
+        // Nanoseconds until the breaker allows a trial call; a trial in progress may close it any moment
+        synchronized long untilAvailable(long now) {
+            return state(now) == State.OPEN ? openUntil - now : 0;
+        }
+
+        // Claims the deployment for a call; for a half-open breaker this is the trial call
+        synchronized boolean acquire(long now) {
+            State state = state(now);
+            if (state == State.CLOSED) {
+                return true;
+            }
+            if (state == State.HALF_OPEN && !trialInProgress) {
+                trialInProgress = true;
+                return true;
+            }
+            return false;
+        }
+
+        synchronized void succeeded(long elapsedNanos) {
+            double latency = latencyNanos;
+            latencyNanos = Double.isNaN(latency) ? elapsedNanos : latency + ALPHA * (elapsedNanos - latency);
+            failures = 0;
+            open = false;
+            trialInProgress = false;
+        }
+
+        // The call failed for a reason that says nothing about the deployment
+        synchronized void released() {
+            trialInProgress = false;
+        }
+
+        synchronized void failed() {
+            failures++;
+            if (trialInProgress || failures >= failureThreshold) {
+                open = true;
+                openUntil = nanoTime.getAsLong() + openNanos;
+            }
+            trialInProgress = false;
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.ai.common.routing;
+
+import java.time.Duration;
+
+/**
+ * Thrown when a {@link DeploymentRouter} has no deployment to call because every circuit breaker
+ * is open.
+ */
+public class NoDeploymentAvailableException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final Duration retryAfter;
+
+    /**
+     * @param retryAfter How long until the first breaker allows a trial call
+     */
+    public NoDeploymentAvailableException(Duration retryAfter) {
+        super("No deployment available: every circuit breaker is open");
+        this.retryAfter = retryAfter;
+    }
+
+    /**
+     * @return How long until the first breaker allows a trial call; zero if a trial call is in progress
+     */
+    public Duration retryAfter() {
+        return retryAfter;
+    }
+}
@@ -0,0 +1,402 @@
+package com.example.ai.common.tokenizer;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Byte-level BPE tokenizer compatible with tiktoken vocabularies.
+ *
+ * The vocabulary is packed into primitive arrays: the bytes of every token are concatenated in
+ * one array indexed by rank, and an open-addressing table of ints maps byte sequences to ranks.
+ * Text is split into pieces with the encoding's pattern, each piece is encoded to UTF-8 into a
+ * per-thread scratch buffer, and adjacent parts are merged lowest rank first. Counting tokens
+ * allocates nothing beyond the regex matcher's reset; encoding allocates only the result.
+ *
+ * Special tokens such as {@code <|endoftext|>} are encoded as ordinary text. Instances are
+ * immutable and thread-safe.
+ */
+public final class BpeTokenizer {
+
+    private static final int NO_RANK = Integer.MAX_VALUE;
+    private static final Map<Encoding, BpeTokenizer> LOADED = new EnumMap<>(Encoding.class);
+
+    private final Pattern pattern;
+    private final byte[] tokenBytes;
+    private final int[] tokenOffsets;
+    private final int[] byteRanks = new int[256];
+    private final int[] table;
+    private final int mask;
+    private final ThreadLocal<Scratch> scratch;
+
+    // Reusable buffers for one thread
+    private static final class Scratch {
+        final Matcher matcher;
+        byte[] bytes = new byte[256];
+        int[] starts = new int[257];
+        int[] ranks = new int[257];
+        int[] tokens = new int[1024];
+        int tokenCount;
+
+        Scratch(Pattern pattern) {
+            this.matcher = pattern.matcher("");
+        }
+    }
+
+    private BpeTokenizer(Pattern pattern, byte[] tokenBytes, int[] tokenOffsets) {
+        this.pattern = pattern;
+        this.tokenBytes = tokenBytes;
+        this.tokenOffsets = tokenOffsets;
+        int ranks = tokenOffsets.length - 1;
+        int capacity = Integer.highestOneBit(Math.max(ranks, 1) * 2 - 1) << 1;
+        this.table = new int[capacity];
+        this.mask = capacity - 1;
+        Arrays.fill(byteRanks, -1);
+        for (int rank = 0; rank < ranks; rank++) {
+            int start = tokenOffsets[rank];
+            int length = tokenOffsets[rank + 1] - start;
+            if (length == 0) {
+                continue;
+            }
+            if (length == 1) {
+                byteRanks[tokenBytes[start] & 0xFF] = rank;
+            }
+            int slot = hash(tokenBytes, start, start + length) & mask;
+            while (table[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            table[slot] = rank + 1;
+        }
+        for (int b = 0; b < 256; b++) {
+            if (byteRanks[b] < 0) {
+                throw new IllegalArgumentException("Vocabulary has no token for byte " + b);
+            }
+        }
+        this.scratch = ThreadLocal.withInitial(() -> new Scratch(pattern));
+    }
+
+    /**
+     * Returns the tokenizer for an encoding, loading its bundled vocabulary on first use.
+     *
+     * @param encoding The encoding
+     * @return The shared tokenizer
+     */
+    public static BpeTokenizer get(Encoding encoding) {
+        synchronized (LOADED) {
+            return LOADED.computeIfAbsent(encoding, BpeTokenizer::loadBundled);
+        }
+    }
+
+    /**
+     * Returns the tokenizer for a model or deployment name.
+     *
+     * @param model The model or deployment name
+     * @return The shared tokenizer
+     */
+    public static BpeTokenizer forModel(String model) {
+        return get(Encoding.forModel(model));
+    }
+
+    /**
+     * Reads a vocabulary in tiktoken format: one line per token with the base64 token bytes and
+     * the rank, separated by a space.
+     *
+     * @param vocabulary The vocabulary, closed by the caller
+     * @param pattern Splits text into pieces before merging
+     * @return The tokenizer
+     */
+    public static BpeTokenizer load(InputStream vocabulary, Pattern pattern) {
+        try {
+            BufferedReader reader = new BufferedReader(new InputStreamReader(vocabulary, StandardCharsets.US_ASCII));
+            Base64.Decoder decoder = Base64.getDecoder();
+            byte[][] tokens = new byte[1 << 16][];
+            int maxRank = -1;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isEmpty()) {
+                    continue;
+                }
+                int space = line.indexOf(' ');
+                if (space < 0) {
+                    throw new IllegalArgumentException("Malformed vocabulary line: " + line);
+                }
+                int rank = Integer.parseInt(line, space + 1, line.length(), 10);
+                if (rank >= tokens.length) {
+                    tokens = Arrays.copyOf(tokens, Math.max(tokens.length * 2, rank + 1));
+                }
+                tokens[rank] = decoder.decode(line.substring(0, space));
+                maxRank = Math.max(maxRank, rank);
+            }
+
+            int[] offsets = new int[maxRank + 2];
+            int size = 0;
+            for (int rank = 0; rank <= maxRank; rank++) {
+                offsets[rank] = size;
+                size += tokens[rank] == null ? 0 : tokens[rank].length;
+            }
+            offsets[maxRank + 1] = size;
+            byte[] bytes = new byte[size];
+            for (int rank = 0; rank <= maxRank; rank++) {
+                if (tokens[rank] != null) {
+                    System.arraycopy(tokens[rank], 0, bytes, offsets[rank], tokens[rank].length);
+                }
+            }
+            return new BpeTokenizer(pattern, bytes, offsets);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read BPE vocabulary", e);
+        }
+    }
+
+    /**
+     * @return The number of ranks in the vocabulary
+     */
+    public int vocabularySize() {
+        return tokenOffsets.length - 1;
+    }
+
+    /**
+     * @param text The text
+     * @return The token ids
+     */
+    public int[] encode(String text) {
+        Scratch s = scratch.get();
+        s.tokenCount = 0;
+        encode(text, s, true, Integer.MAX_VALUE);
+        return Arrays.copyOf(s.tokens, s.tokenCount);
+    }
+
+    /**
+     * Counts tokens without building the token array.
+     *
+     * @param text The text
+     * @return The number of tokens
+     */
+    public int countTokens(String text) {
+        if (text == null || text.isEmpty()) {
+            return 0;
+        }
+        Scratch s = scratch.get();
+        s.tokenCount = 0;
+        return encode(text, s, false, Integer.MAX_VALUE);
+    }
+
+    /**
+     * @param tokens Token ids
+     * @return The decoded text
+     */
+    public String decode(int[] tokens) {
+        byte[] bytes = toBytes(tokens, tokens.length);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Shortens text to at most the given number of tokens, keeping the beginning. The cut never
+     * splits a character.
+     *
+     * @param text The text
+     * @param maxTokens The maximum number of tokens
+     * @return The text itself if it fits, otherwise its longest prefix that does
+     */
+    public String truncate(String text, int maxTokens) {
+        if (maxTokens < 0) {
+            throw new IllegalArgumentException("maxTokens must not be negative");
+        }
+        Scratch s = scratch.get();
+        s.tokenCount = 0;
+        // Stop as soon as the text is known not to fit
+        if (encode(text, s, true, maxTokens + 1) <= maxTokens) {
+            return text;
+        }
+        byte[] bytes = toBytes(s.tokens, maxTokens);
+        return new String(bytes, 0, completeUtf8Length(bytes), StandardCharsets.UTF_8);
+    }
+
+    // Encodes up to the given number of tokens; returns the number of tokens produced
+    private int encode(String text, Scratch s, boolean keep, int limit) {
+        Matcher matcher = s.matcher.reset(text);
+        int count = 0;
+        try {
+            while (count < limit && matcher.find()) {
+                int length = utf8(text, matcher.start(), matcher.end(), s);
+                count += encodePiece(s, length, keep, limit - count);
+            }
+        } finally {
+            matcher.reset("");
+        }
+        return count;
+    }
+
+    private int encodePiece(Scratch s, int length, boolean keep, int limit) {
+        byte[] bytes = s.bytes;
+        if (length == 1) {
+            return emit(s, byteRanks[bytes[0] & 0xFF], keep);
+        }
+        int whole = rank(bytes, 0, length);
+        if (whole != NO_RANK) {
+            return emit(s, whole, keep);
+        }
+
+        // parts[i] starts at starts[i]; ranks[i] is the rank of merging parts i and i + 1
+        int[] starts = s.starts;
+        int[] ranks = s.ranks;
+        int parts = length + 1;
+        for (int i = 0; i < parts; i++) {
+            starts[i] = i;
+        }
+        for (int i = 0; i < parts - 2; i++) {
+            ranks[i] = rank(bytes, i, i + 2);
+        }
+        ranks[parts - 2] = NO_RANK;
+        ranks[parts - 1] = NO_RANK;
+
+        while (true) {
+            int best = -1;
+            int bestRank = NO_RANK;
+            for (int i = 0; i < parts - 1; i++) {
+                if (ranks[i] < bestRank) {
+                    bestRank = ranks[i];
+                    best = i;
+                }
+            }
+            if (best < 0) {
+                break;
+            }
+            // Merge parts best and best + 1, then re-rank the pairs around the new part
+            System.arraycopy(starts, best + 2, starts, best + 1, parts - best - 2);
+            System.arraycopy(ranks, best + 2, ranks, best + 1, parts - best - 2);
+            parts--;
+            ranks[best] = best + 2 < parts ? rank(bytes, starts[best], starts[best + 2]) : NO_RANK;
+            if (best > 0) {
+                ranks[best - 1] = rank(bytes, starts[best - 1], starts[best + 1]);
+            }
+        }
+
+        int count = 0;
+        for (int i = 0; i < parts - 1 && count < limit; i++) {
+            count += emit(s, rank(bytes, starts[i], starts[i + 1]), keep);
+        }
+        return count;
+    }
+
+    private static int emit(Scratch s, int token, boolean keep) {
+        if (keep) {
+            if (s.tokenCount == s.tokens.length) {
+                s.tokens = Arrays.copyOf(s.tokens, s.tokens.length * 2);
+            }
+            s.tokens[s.tokenCount++] = token;
+        }
+        return 1;
+    }
+
+    private int rank(byte[] bytes, int start, int end) {
+        int length = end - start;
+        for (int slot = hash(bytes, start, end) & mask; ; slot = (slot + 1) & mask) {
+            int entry = table[slot];
+            if (entry == 0) {
+                return NO_RANK;
+            }
+            int offset = tokenOffsets[entry - 1];
+            if (tokenOffsets[entry] - offset == length
+                    && Arrays.equals(tokenBytes, offset, offset + length, bytes, start, end)) {
+                return entry - 1;
+            }
+        }
+    }
+
+    private static int hash(byte[] bytes, int start, int end) {
+        int h = 0x811C9DC5;
+        for (int i = start; i < end; i++) {
+            h = (h ^ (bytes[i] & 0xFF)) * 0x01000193;
+        }
+        return h ^ (h >>> 16);
+    }
+
+    // Encodes text[start, end) as UTF-8 into the scratch buffer and sizes the merge arrays
+    private static int utf8(String text, int start, int end, Scratch s) {
+        int maxLength = (end - start) * 3;
+        if (s.bytes.length < maxLength) {
+            s.bytes = new byte[maxLength];
+            s.starts = new int[maxLength + 1];
+            s.ranks = new int[maxLength + 1];
+        }
+        byte[] out = s.bytes;
+        int n = 0;
+        for (int i = start; i < end; i++) {
+            char c = text.charAt(i);
+            if (c < 0x80) {
+                out[n++] = (byte) c;
+            } else if (c < 0x800) {
+                out[n++] = (byte) (0xC0 | c >> 6);
+                out[n++] = (byte) (0x80 | c & 0x3F);
+            } else if (Character.isHighSurrogate(c) && i + 1 < end && Character.isLowSurrogate(text.charAt(i + 1))) {
+                int cp = Character.toCodePoint(c, text.charAt(++i));
+                out[n++] = (byte) (0xF0 | cp >> 18);
+                out[n++] = (byte) (0x80 | cp >> 12 & 0x3F);
+                out[n++] = (byte) (0x80 | cp >> 6 & 0x3F);
+                out[n++] = (byte) (0x80 | cp & 0x3F);
+            } else if (Character.isSurrogate(c)) {
+                // Unpaired surrogates encode as U+FFFD, as String.getBytes does
+                out[n++] = (byte) 0xEF;
+                out[n++] = (byte) 0xBF;
+                out[n++] = (byte) 0xBD;
+            } else {
+                out[n++] = (byte) (0xE0 | c >> 12);
+                out[n++] = (byte) (0x80 | c >> 6 & 0x3F);
+                out[n++] = (byte) (0x80 | c & 0x3F);
+            }
+        }
+        return n;
+    }
+
+    private byte[] toBytes(int[] tokens, int count) {
+        int size = 0;
+        for (int i = 0; i < count; i++) {
+            size += tokenOffsets[tokens[i] + 1] - tokenOffsets[tokens[i]];
+        }
+        byte[] bytes = new byte[size];
+        int n = 0;
+        for (int i = 0; i < count; i++) {
+            int offset = tokenOffsets[tokens[i]];
+            int length = tokenOffsets[tokens[i] + 1] - offset;
+            System.arraycopy(tokenBytes, offset, bytes, n, length);
+            n += length;
+        }
+        return bytes;
+    }
+
+    // Length of the bytes without a trailing, incomplete UTF-8 sequence
+    private static int completeUtf8Length(byte[] bytes) {
+        int end = bytes.length;
+        int i = end - 1;
+        while (i >= 0 && i > end - 4 && (bytes[i] & 0xC0) == 0x80) {
+            i--;
+        }
+        if (i < 0) {
+            return end;
+        }
+        int lead = bytes[i] & 0xFF;
+        int expected = lead >= 0xF0 ? 4 : lead >= 0xE0 ? 3 : lead >= 0xC0 ? 2 : 1;
+        return end - i < expected ? i : end;
+    }
+
+    private static BpeTokenizer loadBundled(Encoding encoding) {
+        try (InputStream vocabulary = BpeTokenizer.class.getResourceAsStream(encoding.resource())) {
+            if (vocabulary == null) {
+                throw new IllegalStateException("Vocabulary " + encoding.resource()
+                    + " is not on the classpath; build azure-ai-samples-common with Maven to download it");
+            }
+            return load(vocabulary, encoding.pattern());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
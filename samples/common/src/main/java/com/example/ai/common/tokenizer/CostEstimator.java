@@ -0,0 +1,115 @@
+package com.example.ai.common.tokenizer;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Estimates the cost of a request from its token counts.
+ *
+ * Prices are looked up by the longest model name prefix, so a deployment named
+ * {@code gpt-4o-mini-eastus} is priced as {@code gpt-4o-mini}, not {@code gpt-4o}.
+ */
+public final class CostEstimator {
+
+    private static final BigDecimal MILLION = BigDecimal.valueOf(1_000_000);
+
+    /**
+     * Price of a model in US dollars.
+     *
+     * @param inputPerMillion Price per million prompt tokens
+     * @param outputPerMillion Price per million completion tokens
+     */
+    public record Pricing(BigDecimal inputPerMillion, BigDecimal outputPerMillion) {
+
+        /**
+         * @param inputPerMillion Price per million prompt tokens
+         * @param outputPerMillion Price per million completion tokens
+         * @return The pricing
+         */
+        public static Pricing of(String inputPerMillion, String outputPerMillion) {
+            return new Pricing(new BigDecimal(inputPerMillion), new BigDecimal(outputPerMillion));
+        }
+    }
+
+    /**
+     * The estimated cost of one request.
+     *
+     * @param inputTokens Prompt tokens
+     * @param outputTokens Completion tokens
+     * @param cost Cost in US dollars
+     */
+    public record Estimate(int inputTokens, int outputTokens, BigDecimal cost) {
+    }
+
+    // Sorted so the longest matching prefix is found by walking down from the name
+    private final TreeMap<String, Pricing> prices = new TreeMap<>();
+
+    /**
+     * @return An estimator with Azure OpenAI global standard list prices at the time of writing;
+     *     check the pricing page for your region and agreement
+     */
+    public static CostEstimator withListPrices() {
+        return new CostEstimator()
+            .price("gpt-4o", Pricing.of("2.50", "10.00"))
+            .price("gpt-4o-mini", Pricing.of("0.15", "0.60"))
+            .price("gpt-4.1", Pricing.of("2.00", "8.00"))
+            .price("gpt-4.1-mini", Pricing.of("0.40", "1.60"))
+            .price("gpt-4.1-nano", Pricing.of("0.10", "0.40"))
+            .price("text-embedding-3-small", Pricing.of("0.02", "0"))
+            .price("text-embedding-3-large", Pricing.of("0.13", "0"));
+    }
+
+    /**
+     * Sets the price of a model.
+     *
+     * @param model The model name prefix
+     * @param pricing The price
+     * @return This estimator
+     */
+    public CostEstimator price(String model, Pricing pricing) {
+        prices.put(model.toLowerCase(Locale.ROOT), pricing);
+        return this;
+    }
+
+    /**
+     * @param model The model or deployment name
+     * @param inputTokens Prompt tokens
+     * @param outputTokens Completion tokens
+     * @return The estimate
+     * @throws IllegalArgumentException If no price is known for the model
+     */
+    public Estimate estimate(String model, int inputTokens, int outputTokens) {
+        return new Estimate(inputTokens, outputTokens, cost(model, inputTokens, outputTokens));
+    }
+
+    /**
+     * Prices token counts too large for one request, such as a day's usage.
+     *
+     * @param model The model or deployment name
+     * @param inputTokens Prompt tokens
+     * @param outputTokens Completion tokens
+     * @return The cost in US dollars
+     * @throws IllegalArgumentException If no price is known for the model
+     */
+    public BigDecimal cost(String model, long inputTokens, long outputTokens) {
+        Pricing pricing = pricing(model);
+        return pricing.inputPerMillion().multiply(BigDecimal.valueOf(inputTokens))
+            .add(pricing.outputPerMillion().multiply(BigDecimal.valueOf(outputTokens)))
+            .divide(MILLION, 8, RoundingMode.HALF_UP)
+            .stripTrailingZeros();
+    }
+
+    private Pricing pricing(String model) {
+        String name = model.toLowerCase(Locale.ROOT);
+        for (Map.Entry<String, Pricing> entry = prices.floorEntry(name); entry != null;
+                entry = prices.lowerEntry(entry.getKey())) {
+            if (name.startsWith(entry.getKey())) {
+                return entry.getValue();
+            }
+        }
+        throw new IllegalArgumentException("No price configured for model " + model);
+    }
+}
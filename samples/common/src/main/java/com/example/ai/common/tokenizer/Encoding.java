@@ -0,0 +1,65 @@
+package com.example.ai.common.tokenizer;
+
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * The BPE vocabularies used by Azure OpenAI chat and embedding models.
+ *
+ * Each encoding names a vocabulary bundled under {@code /tokenizer} on the classpath and the
+ * pattern that splits text into pieces before byte pair merging.
+ */
+public enum Encoding {
+
+    /**
+     * GPT-4, GPT-3.5 Turbo and the text-embedding-3 and ada-002 embedding models.
+     */
+    CL100K_BASE("cl100k_base",
+        "(?i:'s|'t|'re|'ve|'m|'ll|'d)|[^\\r\\n\\p{L}\\p{N}]?\\p{L}+|\\p{N}{1,3}| ?[^\\s\\p{L}\\p{N}]+[\\r\\n]*"
+            + "|\\s*[\\r\\n]+|\\s+(?!\\S)|\\s+"),
+
+    /**
+     * GPT-4o, GPT-4.1 and the o-series reasoning models.
+     */
+    O200K_BASE("o200k_base",
+        "[^\\r\\n\\p{L}\\p{N}]?[\\p{Lu}\\p{Lt}\\p{Lm}\\p{Lo}\\p{M}]*[\\p{Ll}\\p{Lm}\\p{Lo}\\p{M}]+(?i:'s|'t|'re|'ve|'m|'ll|'d)?"
+            + "|[^\\r\\n\\p{L}\\p{N}]?[\\p{Lu}\\p{Lt}\\p{Lm}\\p{Lo}\\p{M}]+[\\p{Ll}\\p{Lm}\\p{Lo}\\p{M}]*(?i:'s|'t|'re|'ve|'m|'ll|'d)?"
+            + "|\\p{N}{1,3}| ?[^\\s\\p{L}\\p{N}]+[\\r\\n/]*|\\s*[\\r\\n]+|\\s+(?!\\S)|\\s+");
+
+    private final String vocabularyName;
+    private final Pattern pattern;
+
+    Encoding(String vocabularyName, String pattern) {
+        this.vocabularyName = vocabularyName;
+        this.pattern = Pattern.compile(pattern, Pattern.UNICODE_CHARACTER_CLASS);
+    }
+
+    /**
+     * Picks the encoding for a model or deployment name. Deployments are usually named after
+     * their model; names that match no known model get the encoding of current models.
+     *
+     * @param model The model or deployment name, for example {@code gpt-4o-mini}
+     * @return The encoding
+     */
+    public static Encoding forModel(String model) {
+        String name = model.toLowerCase(Locale.ROOT);
+        boolean cl100k = (name.startsWith("gpt-4") && !name.startsWith("gpt-4o") && !name.startsWith("gpt-4."))
+            || name.startsWith("gpt-35") || name.startsWith("gpt-3.5")
+            || name.startsWith("text-embedding-3") || name.startsWith("text-embedding-ada-002");
+        return cl100k ? CL100K_BASE : O200K_BASE;
+    }
+
+    /**
+     * @return The classpath location of the vocabulary
+     */
+    public String resource() {
+        return "/tokenizer/" + vocabularyName + ".tiktoken";
+    }
+
+    /**
+     * @return The pattern that splits text into pieces
+     */
+    public Pattern pattern() {
+        return pattern;
+    }
+}
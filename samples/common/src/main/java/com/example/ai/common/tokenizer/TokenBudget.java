@@ -0,0 +1,102 @@
+package com.example.ai.common.tokenizer;
+
+/**
+ * Splits a model's context window between the prompt and the completion.
+ *
+ * Chat prompts are counted the way the chat completions API bills them: every message adds a
+ * few tokens of framing around its role and content, and the reply is primed with a few more.
+ * Use {@link #maxOutputTokens(int)} instead of a fixed {@code max_tokens}, so long prompts
+ * are not rejected and short ones can use the configured limit.
+ */
+public final class TokenBudget {
+
+    // Framing per message and for the reply primer, as documented for the chat completions API
+    private static final int TOKENS_PER_MESSAGE = 3;
+    private static final int TOKENS_PER_REPLY = 3;
+
+    private final BpeTokenizer tokenizer;
+    private final int contextWindow;
+    private final int maxOutputTokens;
+
+    /**
+     * @param tokenizer Counts tokens for the model
+     * @param contextWindow The model's context window in tokens
+     * @param maxOutputTokens The most tokens a completion may use
+     */
+    public TokenBudget(BpeTokenizer tokenizer, int contextWindow, int maxOutputTokens) {
+        if (maxOutputTokens <= 0 || maxOutputTokens >= contextWindow) {
+            throw new IllegalArgumentException("maxOutputTokens must be positive and smaller than the context window");
+        }
+        this.tokenizer = tokenizer;
+        this.contextWindow = contextWindow;
+        this.maxOutputTokens = maxOutputTokens;
+    }
+
+    /**
+     * @return The tokenizer
+     */
+    public BpeTokenizer tokenizer() {
+        return tokenizer;
+    }
+
+    /**
+     * @param role The message role, for example {@code user}
+     * @param content The message content
+     * @return The tokens the message adds to a prompt
+     */
+    public int countMessage(String role, String content) {
+        return TOKENS_PER_MESSAGE + tokenizer.countTokens(role) + tokenizer.countTokens(content);
+    }
+
+    /**
+     * Counts a prompt of alternating roles and contents, for example
+     * {@code countPrompt("system", "You are helpful", "user", "Hi")}.
+     *
+     * @param rolesAndContents Role and content pairs
+     * @return The prompt tokens, including the reply primer
+     */
+    public int countPrompt(String... rolesAndContents) {
+        if (rolesAndContents.length % 2 != 0) {
+            throw new IllegalArgumentException("Expected role and content pairs");
+        }
+        int tokens = TOKENS_PER_REPLY;
+        for (int i = 0; i < rolesAndContents.length; i += 2) {
+            tokens += countMessage(rolesAndContents[i], rolesAndContents[i + 1]);
+        }
+        return tokens;
+    }
+
+    /**
+     * @param promptTokens The size of the prompt
+     * @return The completion limit that keeps the request within the context window
+     * @throws IllegalArgumentException If the prompt leaves no room for a completion
+     */
+    public int maxOutputTokens(int promptTokens) {
+        int available = contextWindow - promptTokens;
+        if (available <= 0) {
+            throw new IllegalArgumentException("Prompt of " + promptTokens + " tokens exceeds the context window of "
+                + contextWindow + " tokens");
+        }
+        return Math.min(maxOutputTokens, available);
+    }
+
+    /**
+     * @param promptTokens The size of the prompt
+     * @return true if the prompt leaves room for a completion of the full configured size
+     */
+    public boolean fits(int promptTokens) {
+        return promptTokens + maxOutputTokens <= contextWindow;
+    }
+
+    /**
+     * Shortens a piece of the prompt, such as retrieved context or a tool result, so that the
+     * whole prompt leaves room for a completion of the full configured size.
+     *
+     * @param text The text to shorten
+     * @param otherPromptTokens The tokens used by the rest of the prompt
+     * @return The text, truncated if necessary
+     */
+    public String truncateToFit(String text, int otherPromptTokens) {
+        return tokenizer.truncate(text, Math.max(0, contextWindow - maxOutputTokens - otherPromptTokens));
+    }
+}
@@ -0,0 +1,396 @@
+package com.example.ai.common.usage;
+
+import com.example.ai.common.tokenizer.CostEstimator;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Token usage per hour, deployment and tenant, for attributing cost.
+ *
+ * Recording a call adds to {@link LongAdder}s for its key, so concurrent callers do not
+ * contend on a lock. The counts are periodically moved into an append-only file, one
+ * tab-separated line per key and flush:
+ * <pre>
+ * 2025-06-01T13:00:00Z  gpt-4o  contoso  12  8450  2210
+ * </pre>
+ * giving the hour, deployment, tenant, calls, prompt tokens and completion tokens added since
+ * the previous flush. Reopening the file sums its lines, so the totals survive restarts and
+ * roll-ups never need to scan the file. A flush that fails part way is cut back to the end of
+ * the last complete flush before the usage is written again, so no line is counted twice.
+ */
+public final class UsageLedger implements AutoCloseable {
+
+    /** The tenant of calls recorded without one */
+    public static final String UNATTRIBUTED = "unattributed";
+
+    /**
+     * What usage is counted by.
+     *
+     * @param hour The start of the hour the call finished in, in UTC
+     * @param deployment The model deployment
+     * @param tenant The caller the usage is attributed to
+     */
+    public record Key(Instant hour, String deployment, String tenant) {
+    }
+
+    /**
+     * Usage of one key or roll-up.
+     *
+     * @param calls Calls recorded
+     * @param promptTokens Prompt tokens
+     * @param completionTokens Completion tokens
+     */
+    public record Usage(long calls, long promptTokens, long completionTokens) {
+
+        /**
+         * @param other Usage to add
+         * @return The sum
+         */
+        public Usage plus(Usage other) {
+            return new Usage(calls + other.calls, promptTokens + other.promptTokens,
+                completionTokens + other.completionTokens);
+        }
+
+        /**
+         * @return Prompt and completion tokens
+         */
+        public long totalTokens() {
+            return promptTokens + completionTokens;
+        }
+    }
+
+    private static final class Counters {
+        final LongAdder calls = new LongAdder();
+        final LongAdder promptTokens = new LongAdder();
+        final LongAdder completionTokens = new LongAdder();
+
+        void add(long calls, long promptTokens, long completionTokens) {
+            this.calls.add(calls);
+            this.promptTokens.add(promptTokens);
+            this.completionTokens.add(completionTokens);
+        }
+
+        // Each cell is swapped to zero atomically, so a concurrent add lands in this drain or the next.
+        // The three cells are drained one after the other, so a record can be split across two drains
+        Usage drain() {
+            return new Usage(calls.sumThenReset(), promptTokens.sumThenReset(), completionTokens.sumThenReset());
+        }
+
+        Usage sum() {
+            return new Usage(calls.sum(), promptTokens.sum(), completionTokens.sum());
+        }
+    }
+
+    private final Path file;
+    private final Clock clock;
+    private final FileChannel channel;
+    // Length of the file up to the end of the last complete flush; guarded by this
+    private long written;
+    private final Map<Key, Counters> pending = new ConcurrentHashMap<>();
+    // Guarded by this
+    private final Map<Key, Usage> flushed = new HashMap<>();
+    private final ScheduledExecutorService flusher;
+
+    private UsageLedger(Path file, Clock clock, FileChannel channel, Duration flushInterval) throws IOException {
+        this.file = file;
+        this.clock = clock;
+        this.channel = channel;
+        this.written = channel.size();
+        if (flushInterval == null || flushInterval.isZero()) {
+            this.flusher = null;
+        } else {
+            this.flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "usage-ledger-flush");
+                thread.setDaemon(true);
+                return thread;
+            });
+            long millis = flushInterval.toMillis();
+            flusher.scheduleWithFixedDelay(this::flushQuietly, millis, millis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Opens a ledger, loading the usage written by earlier runs.
+     *
+     * @param file The ledger file, created if it does not exist
+     * @param flushInterval How often to write recorded usage to the file, or zero to write only
+     *     on {@link #flush()} and {@link #close()}
+     * @return The ledger
+     */
+    public static UsageLedger open(Path file, Duration flushInterval) {
+        return open(file, flushInterval, Clock.systemUTC());
+    }
+
+    /**
+     * Opens a ledger, loading the usage written by earlier runs.
+     *
+     * @param file The ledger file, created if it does not exist
+     * @param flushInterval How often to write recorded usage to the file, or zero to write only
+     *     on {@link #flush()} and {@link #close()}
+     * @param clock The clock that decides the hour of each call
+     * @return The ledger
+     */
+    public static UsageLedger open(Path file, Duration flushInterval, Clock clock) {
+        try {
+            Map<Key, Usage> earlier = Files.exists(file) ? read(file) : Map.of();
+            UsageLedger ledger = new UsageLedger(file, clock, FileChannel.open(file,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND), flushInterval);
+            ledger.flushed.putAll(earlier);
+            return ledger;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to open usage ledger " + file, e);
+        }
+    }
+
+    /**
+     * Reads a ledger file without opening it for writing.
+     *
+     * @param file The ledger file
+     * @return The usage in the file by key
+     */
+    public static Map<Key, Usage> read(Path file) {
+        Map<Key, Usage> usage = new HashMap<>();
+        try (Stream<String> lines = Files.lines(file, StandardCharsets.UTF_8)) {
+            lines.filter(line -> !line.isBlank()).forEach(line -> {
+                String[] fields = line.split("\t", -1);
+                if (fields.length != 6) {
+                    throw new IllegalArgumentException("Malformed usage ledger line in " + file + ": " + line);
+                }
+                Key key = new Key(Instant.parse(fields[0]), fields[1], fields[2]);
+                Usage delta = new Usage(Long.parseLong(fields[3]), Long.parseLong(fields[4]),
+                    Long.parseLong(fields[5]));
+                usage.merge(key, delta, Usage::plus);
+            });
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read usage ledger " + file, e);
+        }
+        return usage;
+    }
+
+    /**
+     * Records one call.
+     *
+     * @param deployment The model deployment
+     * @param tenant The caller to attribute the usage to, or null
+     * @param promptTokens Prompt tokens
+     * @param completionTokens Completion tokens
+     * @throws IllegalArgumentException If a tag contains a tab or line break, or a count is negative
+     */
+    public void record(String deployment, String tenant, long promptTokens, long completionTokens) {
+        if (promptTokens < 0 || completionTokens < 0) {
+            throw new IllegalArgumentException("Token counts must not be negative: "
+                + promptTokens + ", " + completionTokens);
+        }
+        Key key = new Key(currentHour(), tag("deployment", deployment),
+            tenant == null ? UNATTRIBUTED : tag("tenant", tenant));
+        Counters counters = pending.get(key);
+        if (counters == null) {
+            counters = pending.computeIfAbsent(key, k -> new Counters());
+        }
+        counters.add(1, promptTokens, completionTokens);
+    }
+
+    private static String tag(String name, String value) {
+        if (value == null || value.isEmpty()) {
+            throw new IllegalArgumentException("The " + name + " is required");
+        }
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '\t' || c == '\n' || c == '\r') {
+                throw new IllegalArgumentException("The " + name + " must not contain tabs or line breaks: " + value);
+            }
+        }
+        return value;
+    }
+
+    private Instant currentHour() {
+        return clock.instant().truncatedTo(ChronoUnit.HOURS);
+    }
+
+    /**
+     * Writes the usage recorded since the last flush to the file.
+     *
+     * Keys for hours that ended more than an hour ago are dropped from memory once written;
+     * their totals stay in the roll-ups.
+     *
+     * @throws UncheckedIOException If the file cannot be written; the usage is kept for the next flush,
+     *     and any lines of this batch that reached the file are removed before it
+     */
+    public synchronized void flush() {
+        Map<Key, Usage> deltas = new LinkedHashMap<>();
+        Instant retireBefore = currentHour().minus(1, ChronoUnit.HOURS);
+        for (Map.Entry<Key, Counters> entry : pending.entrySet()) {
+            Usage delta = entry.getValue().drain();
+            if (!isZero(delta)) {
+                deltas.put(entry.getKey(), delta);
+            } else if (entry.getKey().hour().isBefore(retireBefore)) {
+                // Calls are recorded against the current hour, so nothing adds to this key anymore
+                pending.remove(entry.getKey(), entry.getValue());
+            }
+        }
+        if (deltas.isEmpty()) {
+            return;
+        }
+        StringBuilder lines = new StringBuilder();
+        deltas.forEach((key, delta) -> lines.append(key.hour()).append('\t').append(key.deployment()).append('\t')
+            .append(key.tenant()).append('\t').append(delta.calls()).append('\t').append(delta.promptTokens())
+            .append('\t').append(delta.completionTokens()).append(System.lineSeparator()));
+        ByteBuffer batch = ByteBuffer.wrap(lines.toString().getBytes(StandardCharsets.UTF_8));
+        try {
+            // Whatever an earlier failed flush left behind is also in the batch, so drop it first
+            if (channel.size() > written) {
+                channel.truncate(written);
+            }
+            while (batch.hasRemaining()) {
+                channel.write(batch);
+            }
+            written += batch.capacity();
+        } catch (IOException e) {
+            // Put the usage back, so it is written by a later flush instead of being lost
+            deltas.forEach((key, delta) -> pending.computeIfAbsent(key, k -> new Counters())
+                .add(delta.calls(), delta.promptTokens(), delta.completionTokens()));
+            try {
+                channel.truncate(written);
+            } catch (IOException truncateFailure) {
+                // The next flush cuts the file back before writing
+                e.addSuppressed(truncateFailure);
+            }
+            throw new UncheckedIOException("Failed to write usage ledger " + file, e);
+        }
+        deltas.forEach((key, delta) -> flushed.merge(key, delta, Usage::plus));
+    }
+
+    private static boolean isZero(Usage usage) {
+        return usage.calls() == 0 && usage.promptTokens() == 0 && usage.completionTokens() == 0;
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (UncheckedIOException e) {
+            // Kept in memory; the next flush or close tries again
+        }
+    }
+
+    /**
+     * @return The usage recorded so far, written or not, by key
+     */
+    public synchronized Map<Key, Usage> totals() {
+        Map<Key, Usage> totals = new HashMap<>(flushed);
+        pending.forEach((key, counters) -> {
+            Usage usage = counters.sum();
+            if (!isZero(usage)) {
+                totals.merge(key, usage, Usage::plus);
+            }
+        });
+        return totals;
+    }
+
+    /**
+     * Adds up the usage by any dimension of the key.
+     *
+     * @param dimension What to group by, e.g. {@code Key::tenant}
+     * @param <K> The group type
+     * @return The usage of each group, largest total tokens first
+     */
+    public <K> Map<K, Usage> rollUp(Function<Key, K> dimension) {
+        Map<K, Usage> groups = new HashMap<>();
+        totals().forEach((key, usage) -> groups.merge(dimension.apply(key), usage, Usage::plus));
+        return sortByTokens(groups);
+    }
+
+    /**
+     * @return The usage of each hour, in time order
+     */
+    public Map<Instant, Usage> byHour() {
+        Map<Instant, Usage> hours = new TreeMap<>();
+        totals().forEach((key, usage) -> hours.merge(key.hour(), usage, Usage::plus));
+        return hours;
+    }
+
+    /**
+     * @return The usage of each deployment, largest first
+     */
+    public Map<String, Usage> byDeployment() {
+        return rollUp(Key::deployment);
+    }
+
+    /**
+     * @return The usage of each tenant, largest first
+     */
+    public Map<String, Usage> byTenant() {
+        return rollUp(Key::tenant);
+    }
+
+    /**
+     * Prices the usage and adds it up by any dimension of the key. Each key is priced by its
+     * own deployment, so groups that span deployments are priced correctly.
+     *
+     * @param dimension What to group by, e.g. {@code Key::tenant}
+     * @param prices The prices of the deployments' models
+     * @param <K> The group type
+     * @return The cost of each group in US dollars
+     * @throws IllegalArgumentException If no price is known for a deployment
+     */
+    public <K> Map<K, BigDecimal> costBy(Function<Key, K> dimension, CostEstimator prices) {
+        Map<K, BigDecimal> costs = new HashMap<>();
+        totals().forEach((key, usage) -> costs.merge(dimension.apply(key),
+            prices.cost(key.deployment(), usage.promptTokens(), usage.completionTokens()), BigDecimal::add));
+        List<Map.Entry<K, BigDecimal>> entries = new ArrayList<>(costs.entrySet());
+        entries.sort(Map.Entry.<K, BigDecimal>comparingByValue().reversed());
+        Map<K, BigDecimal> sorted = new LinkedHashMap<>();
+        entries.forEach(entry -> sorted.put(entry.getKey(), entry.getValue().stripTrailingZeros()));
+        return sorted;
+    }
+
+    private static <K> Map<K, Usage> sortByTokens(Map<K, Usage> groups) {
+        List<Map.Entry<K, Usage>> entries = new ArrayList<>(groups.entrySet());
+        entries.sort(Comparator.comparingLong((Map.Entry<K, Usage> entry) -> entry.getValue().totalTokens())
+            .reversed());
+        Map<K, Usage> sorted = new LinkedHashMap<>();
+        entries.forEach(entry -> sorted.put(entry.getKey(), entry.getValue()));
+        return sorted;
+    }
+
+    /**
+     * Stops the periodic flush, writes the remaining usage and closes the file.
+     */
+    @Override
+    public synchronized void close() {
+        if (flusher != null) {
+            flusher.shutdownNow();
+        }
+        try {
+            flush();
+            channel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to close usage ledger " + file, e);
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package com.example.ai.common.concurrency.test;
+
+import com.example.ai.common.concurrency.AdaptiveConcurrencyLimiter;
+import com.example.ai.common.concurrency.AdaptiveConcurrencyLimiter.Rejection;
+import com.example.ai.common.concurrency.LimitExceededException;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AdaptiveConcurrencyLimiterTest {
+
+    // Thrown for 429 responses in these tests
+    private static final class Throttled extends RuntimeException {
+    }
+
+    private final AtomicLong now = new AtomicLong();
+
+    // A call that takes the given time on the test clock
+    private String call(AdaptiveConcurrencyLimiter limiter, long millis) {
+        return limiter.call(() -> {
+            now.addAndGet(TimeUnit.MILLISECONDS.toNanos(millis));
+            return "ok";
+        });
+    }
+
+    @Test
+    public void testThrottlingCutsTheLimit() {
+        AdaptiveConcurrencyLimiter limiter = AdaptiveConcurrencyLimiter.builder()
+            .initialLimit(20)
+            .throttled(Throttled.class::isInstance)
+            .nanoTime(now::get)
+            .build();
+        for (int i = 0; i < 5; i++) {
+            assertThrows(Throttled.class, () -> limiter.call(() -> {
+                throw new Throttled();
+            }));
+        }
+        // 20 * 0.9^5
+        assertEquals(11, limiter.limit());
+        assertEquals(5, limiter.throttled());
+        assertEquals(0, limiter.inFlight());
+
+        // Other errors leave it alone
+        assertThrows(IllegalArgumentException.class, () -> limiter.call(() -> {
+            throw new IllegalArgumentException("Bad request");
+        }));
+        assertEquals(11, limiter.limit());
+    }
+
+    @Test
+    public void testRisingLatencyLowersTheLimit() {
+        AdaptiveConcurrencyLimiter limiter = AdaptiveConcurrencyLimiter.builder()
+            .initialLimit(20)
+            .nanoTime(now::get)
+            .build();
+        for (int i = 0; i < 50; i++) {
+            call(limiter, 100);
+        }
+        // Lightly loaded at a steady latency: no change
+        assertEquals(20, limiter.limit());
+        for (int i = 0; i < 10; i++) {
+            call(limiter, 500);
+        }
+        assertTrue(limiter.limit() < 15, "limit " + limiter.limit());
+    }
+
+    @Test
+    public void testSteadyLatencyUnderLoadRaisesTheLimit() throws Exception {
+        AdaptiveConcurrencyLimiter limiter = AdaptiveConcurrencyLimiter.builder()
+            .initialLimit(2)
+            .maxLimit(50)
+            .maxWait(Duration.ofSeconds(10))
+            .build();
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            Thread worker = new Thread(() -> {
+                for (int i = 0; i < 50; i++) {
+                    limiter.call(() -> {
+                        try {
+                            Thread.sleep(2);
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                        return "ok";
+                    });
+                }
+            });
+            worker.start();
+            workers.add(worker);
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        assertTrue(limiter.limit() > 4, "limit " + limiter.limit());
+        assertEquals(400, limiter.accepted());
+    }
+
+    @Test
+    public void testShedsWhenTheQueueIsFullOrTheWaitTooLong() throws Exception {
+        AdaptiveConcurrencyLimiter limiter = AdaptiveConcurrencyLimiter.builder()
+            .initialLimit(1)
+            .maxLimit(1)
+            .maxQueue(1)
+            .maxWait(Duration.ofMillis(200))
+            .build();
+        CountDownLatch holding = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Thread holder = new Thread(() -> limiter.call(() -> {
+            holding.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return "ok";
+        }));
+        holder.start();
+        assertTrue(holding.await(5, TimeUnit.SECONDS));
+
+        List<Rejection> waiterRejection = new ArrayList<>();
+        Thread waiter = new Thread(() -> {
+            try {
+                limiter.call(() -> "ok");
+            } catch (LimitExceededException e) {
+                waiterRejection.add(e.reason());
+            }
+        });
+        waiter.start();
+        while (limiter.queued() == 0) {
+            Thread.sleep(1);
+        }
+        LimitExceededException e = assertThrows(LimitExceededException.class, () -> limiter.call(() -> "ok"));
+        assertEquals(Rejection.QUEUE_FULL, e.reason());
+
+        waiter.join();
+        assertEquals(List.of(Rejection.TIMEOUT), waiterRejection);
+        release.countDown();
+        holder.join();
+
+        assertEquals(1, limiter.rejected(Rejection.QUEUE_FULL));
+        assertEquals(1, limiter.rejected(Rejection.TIMEOUT));
+        assertEquals("ok", limiter.call(() -> "ok"));
+    }
+
+    @Test
+    public void testRejectsInconsistentSettings() {
+        assertThrows(IllegalArgumentException.class,
+            () -> AdaptiveConcurrencyLimiter.builder().minLimit(0).build());
+        assertThrows(IllegalArgumentException.class,
+            () -> AdaptiveConcurrencyLimiter.builder().initialLimit(300).build());
+    }
+}
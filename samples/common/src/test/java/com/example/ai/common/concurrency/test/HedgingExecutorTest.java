@@ -0,0 +1,117 @@
+package com.example.ai.common.concurrency.test;
+
+import com.example.ai.common.concurrency.HedgingExecutor;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HedgingExecutorTest {
+
+    // Records enough fast calls to set the hedging delay
+    private static void warmUp(HedgingExecutor hedging) {
+        for (int i = 0; i < 20; i++) {
+            hedging.call(() -> "fast", () -> "hedge");
+        }
+    }
+
+    @Test
+    public void testDoesNotHedgeUntilLatenciesAreKnown() {
+        try (HedgingExecutor hedging = new HedgingExecutor(95, 0.05)) {
+            assertNull(hedging.hedgeAfter());
+            warmUp(hedging);
+            assertNotNull(hedging.hedgeAfter());
+            assertEquals(20, hedging.calls());
+            assertEquals(0, hedging.hedges());
+        }
+    }
+
+    @Test
+    public void testHedgeWinsAndTheSlowCallIsCancelled() throws Exception {
+        try (HedgingExecutor hedging = new HedgingExecutor(95, 0.05)) {
+            warmUp(hedging);
+            CountDownLatch interrupted = new CountDownLatch(1);
+            String result = hedging.call(() -> {
+                try {
+                    Thread.sleep(TimeUnit.MINUTES.toMillis(1));
+                    return "slow";
+                } catch (InterruptedException e) {
+                    interrupted.countDown();
+                    throw new IllegalStateException(e);
+                }
+            }, () -> "hedge");
+            assertEquals("hedge", result);
+            assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+            assertEquals(1, hedging.hedges());
+            assertEquals(1, hedging.hedgeWins());
+        }
+    }
+
+    private static String sleep(long millis, String result) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return result;
+    }
+
+    @Test
+    public void testHedgeWinsDoNotShrinkTheDelay() {
+        try (HedgingExecutor hedging = new HedgingExecutor(50, 1)) {
+            for (int i = 0; i < 20; i++) {
+                hedging.call(() -> sleep(20, "primary"), () -> "hedge");
+            }
+            Duration initial = hedging.hedgeAfter();
+            assertNotNull(initial);
+            // Every one of these is hedged and the instant hedge wins; were only the hedge's own
+            // duration recorded, the median would fall to almost nothing
+            for (int i = 0; i < 40; i++) {
+                hedging.call(() -> sleep(TimeUnit.MINUTES.toMillis(1), "slow"), () -> "hedge");
+            }
+            assertEquals(40, hedging.hedgeWins());
+            assertTrue(hedging.hedgeAfter().compareTo(initial) >= 0,
+                hedging.hedgeAfter() + " is shorter than " + initial);
+        }
+    }
+
+    @Test
+    public void testBudgetCapsHedges() {
+        try (HedgingExecutor hedging = new HedgingExecutor(95, 0.05)) {
+            warmUp(hedging);
+            for (int i = 0; i < 10; i++) {
+                hedging.call(() -> {
+                    try {
+                        Thread.sleep(20);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return "slow";
+                }, () -> "hedge");
+            }
+            // One hedge to start with, plus 5% of the 30 calls
+            assertEquals(2, hedging.hedges());
+        }
+    }
+
+    @Test
+    public void testFailureBeforeTheDelayIsNotHedged() {
+        try (HedgingExecutor hedging = new HedgingExecutor(95, 0.05)) {
+            IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> hedging.call(() -> {
+                    throw new IllegalArgumentException("Bad request");
+                }, () -> "hedge"));
+            assertEquals("Bad request", e.getMessage());
+            assertEquals(0, hedging.hedges());
+        }
+    }
+
+    @Test
+    public void testRejectsInvalidSettings() {
+        assertThrows(IllegalArgumentException.class, () -> new HedgingExecutor(100, 0.05));
+        assertThrows(IllegalArgumentException.class, () -> new HedgingExecutor(95, 2));
+    }
+}
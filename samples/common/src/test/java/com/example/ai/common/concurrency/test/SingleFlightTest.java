@@ -0,0 +1,98 @@
+package com.example.ai.common.concurrency.test;
+
+import com.example.ai.common.concurrency.SingleFlight;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SingleFlightTest {
+
+    @Test
+    public void testConcurrentIdenticalCallsShareOneCall() throws Exception {
+        SingleFlight<String, String> flight = new SingleFlight<>();
+        AtomicInteger upstream = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        int callers = 8;
+        ExecutorService pool = Executors.newFixedThreadPool(callers);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < callers; i++) {
+                results.add(pool.submit(() -> flight.execute("gpt-4o", () -> {
+                    upstream.incrementAndGet();
+                    await(release);
+                    return "deployment gpt-4o";
+                })));
+            }
+            // Wait until every caller is either making the call or waiting for it
+            while (flight.calls() + flight.coalesced() < callers) {
+                Thread.sleep(1);
+            }
+            release.countDown();
+            for (Future<String> result : results) {
+                assertEquals("deployment gpt-4o", result.get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        assertEquals(1, upstream.get());
+        assertEquals(1, flight.calls());
+        assertEquals(callers - 1, flight.coalesced());
+        assertEquals(0, flight.inFlight());
+    }
+
+    @Test
+    public void testFinishedCallsAreNotReused() {
+        SingleFlight<String, Integer> flight = new SingleFlight<>();
+        AtomicInteger upstream = new AtomicInteger();
+        assertEquals(Integer.valueOf(1), flight.execute("a", upstream::incrementAndGet));
+        assertEquals(Integer.valueOf(2), flight.execute("a", upstream::incrementAndGet));
+        assertEquals(Integer.valueOf(3), flight.execute("b", upstream::incrementAndGet));
+        assertEquals(0, flight.coalesced());
+    }
+
+    @Test
+    public void testFailureIsSharedAndThenForgotten() throws Exception {
+        SingleFlight<String, String> flight = new SingleFlight<>();
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        try {
+            Future<String> leader = pool.submit(() -> flight.execute("x", () -> {
+                await(release);
+                throw new IllegalStateException("throttled");
+            }));
+            while (flight.inFlight() == 0) {
+                Thread.sleep(1);
+            }
+            Future<String> follower = pool.submit(() -> flight.execute("x", () -> "not called"));
+            while (flight.coalesced() == 0) {
+                Thread.sleep(1);
+            }
+            release.countDown();
+            for (Future<String> result : List.of(leader, follower)) {
+                Exception e = assertThrows(Exception.class, () -> result.get(5, TimeUnit.SECONDS));
+                assertInstanceOf(IllegalStateException.class, e.getCause());
+                assertEquals("throttled", e.getCause().getMessage());
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        assertEquals("recovered", flight.execute("x", () -> "recovered"));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
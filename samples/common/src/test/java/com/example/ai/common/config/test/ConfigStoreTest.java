@@ -0,0 +1,103 @@
+package com.example.ai.common.config.test;
+
+import com.example.ai.common.config.ConfigStore;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ConfigStoreTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    public void testReadsEnvFile() throws Exception {
+        Path env = dir.resolve(".env");
+        Files.writeString(env, "CONFIG_STORE_TEST_ENDPOINT=https://one\n");
+
+        try (ConfigStore store = ConfigStore.load(env)) {
+            assertEquals("https://one", store.get("CONFIG_STORE_TEST_ENDPOINT"));
+            assertEquals("fallback", store.get("CONFIG_STORE_TEST_MISSING", "fallback"));
+            assertNull(store.get("CONFIG_STORE_TEST_MISSING"));
+        }
+    }
+
+    @Test
+    public void testReloadPublishesNewSnapshotAndNotifies() throws Exception {
+        Path env = dir.resolve(".env");
+        Files.writeString(env, "CONFIG_STORE_TEST_ENDPOINT=https://one\nCONFIG_STORE_TEST_DEPLOYMENT=gpt\n");
+
+        try (ConfigStore store = ConfigStore.load(env)) {
+            BlockingQueue<Set<String>> changes = new ArrayBlockingQueue<>(4);
+            store.subscribe((previous, current) -> changes.add(previous.changedKeys(current)));
+            ConfigStore.Snapshot before = store.snapshot();
+
+            // Unchanged file: same snapshot, no notification
+            assertSame(before, store.reload());
+
+            Files.writeString(env, "CONFIG_STORE_TEST_ENDPOINT=https://two\nCONFIG_STORE_TEST_DEPLOYMENT=gpt\n");
+            ConfigStore.Snapshot after = store.reload();
+
+            assertEquals("https://two", store.get("CONFIG_STORE_TEST_ENDPOINT"));
+            assertEquals("https://one", before.get("CONFIG_STORE_TEST_ENDPOINT"));
+            assertTrue(after.version() > before.version());
+            assertEquals(Set.of("CONFIG_STORE_TEST_ENDPOINT"), changes.poll(5, TimeUnit.SECONDS));
+            assertNull(changes.poll(100, TimeUnit.MILLISECONDS));
+        }
+    }
+
+    @Test
+    public void testReloadingRebuildsOnlyForWatchedKeys() throws Exception {
+        Path env = dir.resolve(".env");
+        Files.writeString(env, "CONFIG_STORE_TEST_ENDPOINT=https://one\nCONFIG_STORE_TEST_OTHER=a\n");
+
+        try (ConfigStore store = ConfigStore.load(env)) {
+            AtomicInteger builds = new AtomicInteger();
+            Supplier<String> client = store.reloading(snapshot -> {
+                builds.incrementAndGet();
+                return "client for " + snapshot.get("CONFIG_STORE_TEST_ENDPOINT");
+            }, "CONFIG_STORE_TEST_ENDPOINT");
+            assertEquals("client for https://one", client.get());
+
+            Files.writeString(env, "CONFIG_STORE_TEST_ENDPOINT=https://one\nCONFIG_STORE_TEST_OTHER=b\n");
+            store.reload();
+            Files.writeString(env, "CONFIG_STORE_TEST_ENDPOINT=https://two\nCONFIG_STORE_TEST_OTHER=b\n");
+            store.reload();
+
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (!client.get().endsWith("two") && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+            assertEquals("client for https://two", client.get());
+            assertEquals(2, builds.get());
+        }
+    }
+
+    @Test
+    public void testWatcherPicksUpEdits() throws Exception {
+        Path env = dir.resolve(".env");
+        Files.writeString(env, "CONFIG_STORE_TEST_ENDPOINT=https://one\n");
+
+        try (ConfigStore store = ConfigStore.open(env)) {
+            BlockingQueue<ConfigStore.Snapshot> snapshots = new ArrayBlockingQueue<>(4);
+            store.subscribe((previous, current) -> snapshots.add(current));
+
+            Files.writeString(env, "CONFIG_STORE_TEST_ENDPOINT=https://two\n");
+
+            ConfigStore.Snapshot current = snapshots.poll(10, TimeUnit.SECONDS);
+            assertNotNull(current, "watcher did not reload the file");
+            assertEquals("https://two", current.get("CONFIG_STORE_TEST_ENDPOINT"));
+            assertEquals("https://two", store.get("CONFIG_STORE_TEST_ENDPOINT"));
+        }
+    }
+}
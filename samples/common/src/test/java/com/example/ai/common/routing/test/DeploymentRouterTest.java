@@ -0,0 +1,175 @@
+package com.example.ai.common.routing.test;
+
+import com.example.ai.common.routing.DeploymentRouter;
+import com.example.ai.common.routing.DeploymentRouter.State;
+import com.example.ai.common.routing.DeploymentRouter.Stats;
+import com.example.ai.common.routing.NoDeploymentAvailableException;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DeploymentRouterTest {
+
+    private static final long MILLI = 1_000_000;
+
+    // Thrown for 429 and 5xx responses in these tests
+    private static final class Throttled extends RuntimeException {
+        Throttled(String deployment) {
+            super(deployment + " is throttled");
+        }
+    }
+
+    private final AtomicLong now = new AtomicLong();
+
+    private DeploymentRouter router(String... deployments) {
+        return new DeploymentRouter(List.of(deployments), Throttled.class::isInstance, 2, Duration.ofSeconds(30),
+            now::get);
+    }
+
+    // Makes a call that takes the given time on each deployment
+    private String call(DeploymentRouter router, Map<String, Long> latencyMillis) {
+        return router.call(deployment -> {
+            now.addAndGet(latencyMillis.get(deployment) * MILLI);
+            return deployment;
+        });
+    }
+
+    @Test
+    public void testPrefersTheDeploymentWithTheLowestLatency() {
+        DeploymentRouter router = router("eastus", "westus");
+        Map<String, Long> latency = Map.of("eastus", 400L, "westus", 100L);
+        // Until both have answered, the unmeasured one is assumed as fast as the other
+        for (int i = 0; i < 100 && router.stats().stream().anyMatch(stats -> Double.isNaN(stats.latencyMillis())); i++) {
+            call(router, latency);
+        }
+        Map<String, Integer> counts = new HashMap<>();
+        for (int i = 0; i < 20; i++) {
+            counts.merge(call(router, latency), 1, Integer::sum);
+        }
+        assertEquals(Map.of("westus", 20), counts);
+    }
+
+    @Test
+    public void testSpreadsConcurrentCallsByOutstandingRequests() {
+        DeploymentRouter router = router("eastus", "westus");
+        List<String> chosen = new ArrayList<>();
+        // Each call starts another before finishing, so the first stays outstanding
+        router.call(first -> {
+            chosen.add(first);
+            return router.call(second -> {
+                chosen.add(second);
+                return second;
+            });
+        });
+        assertNotEquals(chosen.get(0), chosen.get(1));
+    }
+
+    @Test
+    public void testFailsOverAndOpensTheBreaker() {
+        DeploymentRouter router = router("eastus", "westus");
+        List<String> attempts = new ArrayList<>();
+        for (int i = 0; i < 100 && state(router, "eastus") != State.OPEN; i++) {
+            String served = router.call(deployment -> {
+                attempts.add(deployment);
+                if (deployment.equals("eastus")) {
+                    throw new Throttled(deployment);
+                }
+                return deployment;
+            });
+            assertEquals("westus", served);
+        }
+        // Each failure on eastus was retried on westus, and the second one opened its breaker
+        assertEquals(State.OPEN, state(router, "eastus"));
+        assertEquals(2, attempts.stream().filter("eastus"::equals).count());
+        assertEquals(2, router.failovers());
+        for (int i = 0; i < 10; i++) {
+            assertEquals("westus", router.call(deployment -> deployment));
+        }
+    }
+
+    @Test
+    public void testTrialCallClosesOrReopensTheBreaker() {
+        DeploymentRouter router = router("eastus");
+        for (int i = 0; i < 2; i++) {
+            assertThrows(Throttled.class, () -> router.call(deployment -> {
+                throw new Throttled(deployment);
+            }));
+        }
+        assertEquals(State.OPEN, state(router, "eastus"));
+        now.addAndGet(Duration.ofSeconds(10).toNanos());
+        NoDeploymentAvailableException e = assertThrows(NoDeploymentAvailableException.class,
+            () -> router.call(deployment -> deployment));
+        assertEquals(Duration.ofSeconds(20), e.retryAfter());
+
+        // A failed trial opens the breaker again at once
+        now.addAndGet(Duration.ofSeconds(21).toNanos());
+        assertEquals(State.HALF_OPEN, state(router, "eastus"));
+        assertThrows(Throttled.class, () -> router.call(deployment -> {
+            throw new Throttled(deployment);
+        }));
+        assertEquals(State.OPEN, state(router, "eastus"));
+
+        // A successful one closes it
+        now.addAndGet(Duration.ofSeconds(31).toNanos());
+        assertEquals("eastus", router.call(deployment -> deployment));
+        assertEquals(State.CLOSED, state(router, "eastus"));
+    }
+
+    @Test
+    public void testAvoidsDeploymentsUnlessNothingElseIsAvailable() {
+        assertEquals("westus", router("eastus", "westus").call(deployment -> deployment, Set.of("eastus")));
+        assertEquals("eastus", router("eastus").call(deployment -> deployment, Set.of("eastus")));
+    }
+
+    @Test
+    public void testRethrowsOtherErrorsWithoutFailingOver() {
+        DeploymentRouter router = router("eastus", "westus");
+        List<String> attempts = new ArrayList<>();
+        assertThrows(IllegalArgumentException.class, () -> router.call(deployment -> {
+            attempts.add(deployment);
+            throw new IllegalArgumentException("Bad request");
+        }));
+        assertEquals(1, attempts.size());
+        assertEquals(0, router.failovers());
+    }
+
+    @Test
+    public void testThrowsTheLastErrorWhenEveryDeploymentFails() {
+        DeploymentRouter router = router("eastus", "westus");
+        List<String> attempts = new ArrayList<>();
+        Throttled e = assertThrows(Throttled.class, () -> router.call(deployment -> {
+            attempts.add(deployment);
+            throw new Throttled(deployment);
+        }));
+        assertEquals(2, attempts.size());
+        assertEquals(attempts.get(1) + " is throttled", e.getMessage());
+        assertEquals(1, router.failovers());
+    }
+
+    @Test
+    public void testUpdatingThePoolKeepsStatistics() {
+        DeploymentRouter router = router("eastus");
+        call(router, Map.of("eastus", 250L));
+        router.updatePool(List.of("eastus", "swedencentral"));
+        assertEquals(List.of("eastus", "swedencentral"), new ArrayList<>(router.deployments()));
+        assertEquals(250.0, router.stats().get(0).latencyMillis(), 0.001);
+        assertTrue(Double.isNaN(router.stats().get(1).latencyMillis()));
+        assertThrows(IllegalArgumentException.class, () -> router.updatePool(List.of()));
+    }
+
+    private static State state(DeploymentRouter router, String deployment) {
+        return router.stats().stream()
+            .filter(stats -> stats.deployment().equals(deployment))
+            .map(Stats::state)
+            .findFirst()
+            .orElseThrow();
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.ai.common.tokenizer.benchmark;
+
+import com.example.ai.common.tokenizer.BpeTokenizer;
+import com.example.ai.common.tokenizer.Encoding;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tokenizer throughput on large inputs. The {@code tokens} counter reports tokens per second.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TokenizerBenchmark {
+
+    private static final String[] PROSE = {
+        "Azure AI Foundry brings models, agents and evaluations together in one project. ",
+        "The deployment returned a 429 status code, so the client retried after 2.5 seconds. ",
+        "Summarize the following document in three bullet points for an engineering audience. ",
+    };
+    private static final String JSON =
+        "{\"name\":\"search-connection\",\"type\":\"AzureAISearch\",\"target\":\"https://contoso.search.windows.net\"},";
+    private static final String CODE = "for (Connection connection : connectionsClient.list(null, null)) {\n"
+        + "    System.out.println(connection.getName());\n}\n";
+
+    @Param({"o200k_base", "cl100k_base"})
+    public String encoding;
+
+    @Param({"1048576"})
+    public int length;
+
+    private BpeTokenizer tokenizer;
+    private String text;
+
+    /**
+     * Counts tokens processed so JMH can report them per second.
+     */
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    @State(Scope.Thread)
+    public static class Tokens {
+        public long tokens;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            tokens = 0;
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        tokenizer = BpeTokenizer.get(Encoding.valueOf(encoding.toUpperCase(Locale.ROOT)));
+        Random random = new Random(42);
+        StringBuilder builder = new StringBuilder(length + 256);
+        while (builder.length() < length) {
+            int kind = random.nextInt(10);
+            builder.append(kind < 6 ? PROSE[random.nextInt(PROSE.length)] : kind < 9 ? JSON : CODE);
+        }
+        text = builder.substring(0, length);
+    }
+
+    @Benchmark
+    public int countTokens(Tokens counter) {
+        int count = tokenizer.countTokens(text);
+        counter.tokens += count;
+        return count;
+    }
+
+    @Benchmark
+    public int[] encode(Tokens counter) {
+        int[] tokens = tokenizer.encode(text);
+        counter.tokens += tokens.length;
+        return tokens;
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.ai.common.tokenizer.test;
+
+import com.example.ai.common.tokenizer.BpeTokenizer;
+import com.example.ai.common.tokenizer.CostEstimator;
+import com.example.ai.common.tokenizer.Encoding;
+import com.example.ai.common.tokenizer.TokenBudget;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BpeTokenizerTest {
+
+    // Every byte, then merges that build "hello" and " world"
+    private static final String[] MERGES = {"ll", "he", "hell", "hello", " w", "or", " wor", "ld", " world"};
+
+    private static BpeTokenizer tokenizer() {
+        StringBuilder vocabulary = new StringBuilder();
+        Base64.Encoder encoder = Base64.getEncoder();
+        for (int b = 0; b < 256; b++) {
+            vocabulary.append(encoder.encodeToString(new byte[] {(byte) b})).append(' ').append(b).append('\n');
+        }
+        for (int i = 0; i < MERGES.length; i++) {
+            vocabulary.append(encoder.encodeToString(MERGES[i].getBytes(StandardCharsets.UTF_8)))
+                .append(' ').append(256 + i).append('\n');
+        }
+        return BpeTokenizer.load(new ByteArrayInputStream(vocabulary.toString().getBytes(StandardCharsets.US_ASCII)),
+            Encoding.CL100K_BASE.pattern());
+    }
+
+    private static int rank(String merge) {
+        for (int i = 0; i < MERGES.length; i++) {
+            if (MERGES[i].equals(merge)) {
+                return 256 + i;
+            }
+        }
+        throw new IllegalArgumentException(merge);
+    }
+
+    @Test
+    public void testMergesLowestRankFirst() {
+        BpeTokenizer tokenizer = tokenizer();
+        assertEquals(256 + MERGES.length, tokenizer.vocabularySize());
+        assertArrayEquals(new int[] {rank("hello"), rank(" world")}, tokenizer.encode("hello world"));
+        // h e l l -> h e ll -> he ll -> hell
+        assertArrayEquals(new int[] {rank("hell")}, tokenizer.encode("hell"));
+        // " wo" merges " w" before "or" can form, so it stays two tokens
+        assertArrayEquals(new int[] {rank(" w"), 'o'}, tokenizer.encode(" wo"));
+        assertArrayEquals(new int[] {rank("he"), 'x', rank("he")}, tokenizer.encode("hexhe"));
+    }
+
+    @Test
+    public void testRoundTripsAndCountsUnicode() {
+        BpeTokenizer tokenizer = tokenizer();
+        String text = "na\u00efve caf\u00e9 \u6771\u4eac \ud83d\ude42\n\n  hello   world's 12345!";
+        int[] tokens = tokenizer.encode(text);
+        assertEquals(text, tokenizer.decode(tokens));
+        assertEquals(tokens.length, tokenizer.countTokens(text));
+        assertEquals(0, tokenizer.countTokens(""));
+    }
+
+    @Test
+    public void testTruncateNeverSplitsCharacters() {
+        BpeTokenizer tokenizer = tokenizer();
+        // Each CJK character is three single-byte tokens here
+        assertEquals("\u6771", tokenizer.truncate("\u6771\u4eac", 4));
+        assertEquals("\u6771\u4eac", tokenizer.truncate("\u6771\u4eac", 6));
+        assertEquals("hello", tokenizer.truncate("hello world again", 1));
+        assertEquals("", tokenizer.truncate("hello", 0));
+    }
+
+    @Test
+    public void testEncodingForModel() {
+        assertEquals(Encoding.O200K_BASE, Encoding.forModel("gpt-4o-mini"));
+        assertEquals(Encoding.O200K_BASE, Encoding.forModel("gpt-4.1"));
+        assertEquals(Encoding.CL100K_BASE, Encoding.forModel("gpt-4"));
+        assertEquals(Encoding.CL100K_BASE, Encoding.forModel("gpt-35-turbo"));
+        assertEquals(Encoding.CL100K_BASE, Encoding.forModel("text-embedding-3-small"));
+        assertEquals(Encoding.O200K_BASE, Encoding.forModel("my-deployment"));
+    }
+
+    @Test
+    public void testBudget() {
+        TokenBudget budget = new TokenBudget(tokenizer(), 100, 40);
+        // 3 reply + (3 + "user" + "hello world")
+        assertEquals(3 + 3 + 4 + 2, budget.countPrompt("user", "hello world"));
+        assertEquals(40, budget.maxOutputTokens(50));
+        assertEquals(10, budget.maxOutputTokens(90));
+        assertTrue(budget.fits(60));
+        assertFalse(budget.fits(61));
+        assertThrows(IllegalArgumentException.class, () -> budget.maxOutputTokens(100));
+        assertEquals("hello", budget.truncateToFit("hello world", 59));
+    }
+
+    @Test
+    public void testCostEstimate() {
+        CostEstimator estimator = CostEstimator.withListPrices();
+        CostEstimator.Estimate estimate = estimator.estimate("gpt-4o-mini-eastus", 1_000_000, 500_000);
+        assertEquals(0, new BigDecimal("0.45").compareTo(estimate.cost()));
+        assertEquals(0, new BigDecimal("0.0125").compareTo(estimator.estimate("gpt-4o", 1000, 1000).cost()));
+        assertThrows(IllegalArgumentException.class, () -> estimator.estimate("llama-3", 1, 1));
+    }
+}
@@ -0,0 +1,211 @@
+package com.example.ai.common.usage.test;
+
+import com.example.ai.common.tokenizer.CostEstimator;
+import com.example.ai.common.usage.UsageLedger;
+import com.example.ai.common.usage.UsageLedger.Key;
+import com.example.ai.common.usage.UsageLedger.Usage;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class UsageLedgerTest {
+
+    private static final Instant TEN = Instant.parse("2025-06-01T10:00:00Z");
+    private static final Instant ELEVEN = Instant.parse("2025-06-01T11:00:00Z");
+
+    @TempDir
+    Path directory;
+
+    // A clock that can be moved between calls
+    private static final class MutableClock extends Clock {
+        private volatile Instant now;
+
+        MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        @Override
+        public ZoneOffset getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(java.time.ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+
+    @Test
+    public void testRollsUpByHourDeploymentAndTenant() {
+        MutableClock clock = new MutableClock(TEN.plusSeconds(125));
+        try (UsageLedger ledger = UsageLedger.open(directory.resolve("usage.tsv"), Duration.ZERO, clock)) {
+            ledger.record("gpt-4o", "contoso", 100, 20);
+            ledger.record("gpt-4o", "contoso", 50, 10);
+            ledger.record("gpt-4o-mini", "fabrikam", 1000, 300);
+            clock.now = ELEVEN.plusSeconds(5);
+            ledger.record("gpt-4o", null, 10, 5);
+
+            assertEquals(new Usage(2, 150, 30), ledger.totals().get(new Key(TEN, "gpt-4o", "contoso")));
+            assertEquals(List.of(TEN, ELEVEN), new ArrayList<>(ledger.byHour().keySet()));
+            assertEquals(new Usage(3, 1150, 330), ledger.byHour().get(TEN));
+            assertEquals(new Usage(3, 160, 35), ledger.byDeployment().get("gpt-4o"));
+            // Largest first
+            assertEquals(List.of("fabrikam", "contoso", UsageLedger.UNATTRIBUTED),
+                new ArrayList<>(ledger.byTenant().keySet()));
+
+            Map<String, BigDecimal> costs = ledger.costBy(Key::tenant, CostEstimator.withListPrices());
+            // 150 * 2.50 + 30 * 10.00 per million
+            assertEquals(new BigDecimal("0.000675"), costs.get("contoso"));
+            // 1000 * 0.15 + 300 * 0.60 per million
+            assertEquals(new BigDecimal("0.00033"), costs.get("fabrikam"));
+        }
+    }
+
+    @Test
+    public void testFlushAppendsDeltasAndReopenRestoresTotals() throws Exception {
+        Path file = directory.resolve("usage.tsv");
+        MutableClock clock = new MutableClock(TEN);
+        try (UsageLedger ledger = UsageLedger.open(file, Duration.ZERO, clock)) {
+            ledger.record("gpt-4o", "contoso", 100, 20);
+            ledger.flush();
+            ledger.flush();
+            ledger.record("gpt-4o", "contoso", 1, 2);
+        }
+        List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+        assertEquals(List.of(
+            "2025-06-01T10:00:00Z\tgpt-4o\tcontoso\t1\t100\t20",
+            "2025-06-01T10:00:00Z\tgpt-4o\tcontoso\t1\t1\t2"), lines);
+
+        try (UsageLedger reopened = UsageLedger.open(file, Duration.ZERO, clock)) {
+            reopened.record("gpt-4o", "contoso", 10, 10);
+            assertEquals(new Usage(3, 111, 32), reopened.byTenant().get("contoso"));
+        }
+        assertEquals(new Usage(3, 111, 32), UsageLedger.read(file).get(new Key(TEN, "gpt-4o", "contoso")));
+    }
+
+    @Test
+    public void testFlushDropsWhatAFailedFlushLeftBehind() throws Exception {
+        Path file = directory.resolve("usage.tsv");
+        MutableClock clock = new MutableClock(TEN);
+        try (UsageLedger ledger = UsageLedger.open(file, Duration.ZERO, clock)) {
+            ledger.record("gpt-4o", "contoso", 100, 20);
+            ledger.flush();
+            // What a flush that failed part way through leaves in the file; its usage is still pending
+            Files.writeString(file, "2025-06-01T10:00:00Z\tgpt-4o\tcontoso\t1\t5\t", StandardOpenOption.APPEND);
+            ledger.record("gpt-4o", "contoso", 5, 5);
+            ledger.flush();
+        }
+        assertEquals(List.of(
+            "2025-06-01T10:00:00Z\tgpt-4o\tcontoso\t1\t100\t20",
+            "2025-06-01T10:00:00Z\tgpt-4o\tcontoso\t1\t5\t5"), Files.readAllLines(file, StandardCharsets.UTF_8));
+        assertEquals(new Usage(2, 105, 25), UsageLedger.read(file).get(new Key(TEN, "gpt-4o", "contoso")));
+    }
+
+    @Test
+    public void testConcurrentRecordsAreNotLostAcrossFlushes() throws Exception {
+        Path file = directory.resolve("usage.tsv");
+        int threads = 4;
+        int calls = 20_000;
+        CountDownLatch start = new CountDownLatch(1);
+        try (UsageLedger ledger = UsageLedger.open(file, Duration.ofMillis(1))) {
+            List<Thread> workers = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                String tenant = "tenant-" + (t % 2);
+                Thread worker = new Thread(() -> {
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                    for (int i = 0; i < calls; i++) {
+                        ledger.record("gpt-4o", tenant, 3, 1);
+                    }
+                });
+                worker.start();
+                workers.add(worker);
+            }
+            start.countDown();
+            for (Thread worker : workers) {
+                worker.join();
+            }
+        }
+        Usage total = UsageLedger.read(file).values().stream().reduce(new Usage(0, 0, 0), Usage::plus);
+        assertEquals(new Usage((long) threads * calls, 3L * threads * calls, (long) threads * calls), total);
+    }
+
+    @Test
+    public void testFlushesRacingRecordsKeepEveryToken() throws Exception {
+        Path file = directory.resolve("usage.tsv");
+        int threads = 4;
+        int calls = 50_000;
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicBoolean recording = new AtomicBoolean(true);
+        try (UsageLedger ledger = UsageLedger.open(file, Duration.ZERO)) {
+            // Flush as often as possible, so drains land between the counters of a record
+            Thread flusher = new Thread(() -> {
+                while (recording.get()) {
+                    ledger.flush();
+                }
+            });
+            List<Thread> workers = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                Thread worker = new Thread(() -> {
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                    for (int i = 0; i < calls; i++) {
+                        ledger.record("gpt-4o", "contoso", 3, 1);
+                    }
+                });
+                worker.start();
+                workers.add(worker);
+            }
+            flusher.start();
+            start.countDown();
+            for (Thread worker : workers) {
+                worker.join();
+            }
+            recording.set(false);
+            flusher.join();
+
+            Usage expected = new Usage((long) threads * calls, 3L * threads * calls, (long) threads * calls);
+            assertEquals(expected, ledger.byTenant().get("contoso"));
+        }
+        Usage total = UsageLedger.read(file).values().stream().reduce(new Usage(0, 0, 0), Usage::plus);
+        assertEquals(new Usage((long) threads * calls, 3L * threads * calls, (long) threads * calls), total);
+    }
+
+    @Test
+    public void testRejectsTagsThatWouldBreakTheFile() {
+        try (UsageLedger ledger = UsageLedger.open(directory.resolve("usage.tsv"), Duration.ZERO)) {
+            assertThrows(IllegalArgumentException.class, () -> ledger.record("gpt-4o", "a\tb", 1, 1));
+            assertThrows(IllegalArgumentException.class, () -> ledger.record("gpt-4o\n", "a", 1, 1));
+            assertThrows(IllegalArgumentException.class, () -> ledger.record(null, "a", 1, 1));
+            assertThrows(IllegalArgumentException.class, () -> ledger.record("gpt-4o", "a", -1, 1));
+            assertTrue(ledger.totals().isEmpty());
+        }
+    }
+}
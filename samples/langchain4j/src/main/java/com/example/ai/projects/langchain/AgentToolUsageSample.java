@@ -5,16 +5,22 @@ import com.azure.ai.projects.ConnectionsClient;
 import com.azure.ai.projects.DeploymentsClient;
 import com.azure.ai.projects.models.Connection;
 import com.azure.ai.projects.models.Deployment;
-import com.azure.core.util.Configuration;
 import com.azure.identity.DefaultAzureCredentialBuilder;
 
+import com.example.ai.common.concurrency.AdaptiveConcurrencyLimiter;
+import com.example.ai.common.concurrency.HttpErrors;
+import com.example.ai.projects.langchain.concurrency.LimitedChatLanguageModel;
+import com.example.ai.projects.langchain.memory.LocalBpeTokenizer;
+import com.example.ai.projects.langchain.memory.TokenBudgetChatMemory;
+import com.example.ai.projects.langchain.tools.ParallelToolExecutor;
+import com.example.ai.projects.langchain.tools.ToolCallingAgent;
+import com.example.ai.projects.langchain.tools.ToolResultCache;
+import com.example.util.EnvironmentConfig;
 import dev.langchain4j.agent.tool.Tool;
-import dev.langchain4j.memory.chat.MessageWindowChatMemory;
 import dev.langchain4j.model.azure.AzureOpenAiChatModel;
-import dev.langchain4j.service.AiServices;
-import dev.langchain4j.service.SystemMessage;
-import dev.langchain4j.service.UserMessage;
+import dev.langchain4j.model.chat.ChatLanguageModel;
 
+import java.time.Duration;
 import java.util.Map;
 
 /**
@@ -22,46 +28,79 @@ import java.util.Map;
  */
 public class AgentToolUsageSample {
 
-    // Define an agent interface with tool-calling capabilities
-    interface AIProjectAgent {
-        @SystemMessage("You are an AI assistant with expertise in Azure SDK for Java. " +
-                     "Use the available tools to help answer questions.")
-        @UserMessage("{{message}}")
-        String chat(String message);
-    }    /**
+    private static final String SYSTEM_MESSAGE = "You are an AI assistant with expertise in Azure SDK for Java. " +
+        "Use the available tools to help answer questions.";
+
+    /**
      * Main method to demonstrate using LangChain4j with Azure SDK for Java for tool-calling.
      * @param args Command line arguments (not used).
      */
     public static void main(String[] args) {
-        // Get environment variables
-        String endpoint = Configuration.getGlobalConfiguration().get("AZURE_AI_ENDPOINT", "your-ai-endpoint");
-        String deploymentName = Configuration.getGlobalConfiguration().get("DEPLOYMENT_NAME", "your-deployment-name");
-        String apiKey = Configuration.getGlobalConfiguration().get("AZURE_API_KEY", "your-api-key");
+        // Bind and validate the settings before building any client
+        EnvironmentConfig.Settings settings = EnvironmentConfig.settings("AZURE_AI_ENDPOINT", "DEPLOYMENT_NAME", "AZURE_API_KEY");
+        String endpoint = settings.azureAIEndpoint();
+        String deploymentName = settings.deploymentName();
+        String apiKey = settings.apiKey();
         
         try {
+            // Keep the calls in flight to the endpoint within what it can currently take
+            AdaptiveConcurrencyLimiter limiter = AdaptiveConcurrencyLimiter.builder()
+                .throttled(HttpErrors::isThrottled)
+                .build();
+            
             // Create Azure OpenAI chat model
-            AzureOpenAiChatModel model = AzureOpenAiChatModel.builder()
+            ChatLanguageModel model = new LimitedChatLanguageModel(AzureOpenAiChatModel.builder()
                 .endpoint(endpoint)
                 .apiKey(apiKey)
                 .deploymentName(deploymentName)
-                .build();
+                .build(), limiter);
             
             // Create the tools provider
             AIProjectToolProvider toolProvider = new AIProjectToolProvider(endpoint);
             
-            // Create an AI agent with tool-calling capabilities
-            AIProjectAgent agent = AiServices.builder(AIProjectAgent.class)
-                .chatLanguageModel(model)
-                .tools(toolProvider)
-                .chatMemory(MessageWindowChatMemory.withMaxMessages(10))
+            // Connections and deployments rarely change within a conversation, so repeated
+            // lookups are answered from memory
+            ToolResultCache resultCache = ToolResultCache.builder()
+                .ttl("listConnections", Duration.ofMinutes(5))
+                .ttl("getDeploymentInfo", Duration.ofMinutes(5))
                 .build();
-            
-            // Chat with the agent
-            String response = agent.chat("List all my available connections in Azure SDK for Java");
-            System.out.println("Agent response: " + response);
-            
-            response = agent.chat("Tell me about my gpt-4o deployment");
-            System.out.println("Agent response: " + response);
+
+            // Tool calls from one model turn run concurrently, each with its own timeout
+            try (ParallelToolExecutor toolExecutor = ParallelToolExecutor.builder()
+                    .tools(toolProvider)
+                    .resultCache(resultCache)
+                    .timeout("listConnections", Duration.ofSeconds(10))
+                    .timeout("getDeploymentInfo", Duration.ofSeconds(5))
+                    .listener(result -> System.out.printf("  [tool] %s %s in %d ms%n",
+                        result.request().name(), result.outcome(), result.latency().toMillis()))
+                    .build()) {
+                // Bound the prompt by tokens rather than message count, since tool output can be
+                // long; turns that no longer fit are summarized in the background
+                TokenBudgetChatMemory chatMemory = TokenBudgetChatMemory.builder()
+                    .maxTokens(4000)
+                    .tokenizer(LocalBpeTokenizer.forModel(deploymentName))
+                    .summarizer(model)
+                    .build();
+                ToolCallingAgent agent = new ToolCallingAgent(model, toolExecutor, chatMemory, SYSTEM_MESSAGE, 5);
+
+                // Chat with the agent
+                String response = agent.chat("List all my available connections in Azure SDK for Java");
+                System.out.println("Agent response: " + response);
+
+                // Both tools are usually requested in the same turn and run in parallel
+                response = agent.chat("Tell me about my gpt-4o deployment and which connections it could use");
+                System.out.println("Agent response: " + response);
+
+                System.out.println("\nTool latency (" + (toolExecutor.usesVirtualThreads()
+                    ? "virtual threads" : "platform threads") + "):");
+                toolExecutor.stats().forEach((name, stats) -> System.out.printf(
+                    "  %-20s calls=%d avg=%.1f ms max=%.1f ms failures=%d timeouts=%d%n",
+                    name, stats.calls(), stats.averageMillis(), stats.maxMillis(), stats.failures(), stats.timeouts()));
+                System.out.println("Prompt size: ~" + chatMemory.tokenCount() + " tokens");
+                ToolResultCache.Stats cacheStats = resultCache.stats();
+                System.out.printf("Tool result cache: %d hits, %d misses, %d entries%n",
+                    cacheStats.hits(), cacheStats.misses(), cacheStats.size());
+            }
         } catch (Exception e) {
             System.out.println("Error: " + e.getMessage());
             e.printStackTrace();
@@ -97,27 +136,25 @@ public class AgentToolUsageSample {
         
         @Tool("Gets information about a specific deployment by name")
         public String getDeploymentInfo(String deploymentName) {
-            try {
-                Deployment deployment = deploymentsClient.get(deploymentName);
-                StringBuilder info = new StringBuilder("Deployment information:\n");
-                info.append("- Name: ").append(deployment.getName()).append("\n");
-                info.append("- Type: ").append(deployment.getType().getValue()).append("\n");
-                info.append("- Created at: ").append(deployment.getCreatedAt()).append("\n");
-                
-                // Add metadata if available
-                Map<String, String> metadata = deployment.getMetadata();
-                if (metadata != null && !metadata.isEmpty()) {
-                    info.append("- Metadata:\n");
-                    for (Map.Entry<String, String> entry : metadata.entrySet()) {
-                        info.append("  - ").append(entry.getKey()).append(": ")
-                            .append(entry.getValue()).append("\n");
-                    }
+            // Failures are thrown rather than returned as text, so the executor reports them to
+            // the model as failed calls and the result cache does not keep them
+            Deployment deployment = deploymentsClient.get(deploymentName);
+            StringBuilder info = new StringBuilder("Deployment information:\n");
+            info.append("- Name: ").append(deployment.getName()).append("\n");
+            info.append("- Type: ").append(deployment.getType().getValue()).append("\n");
+            info.append("- Created at: ").append(deployment.getCreatedAt()).append("\n");
+            
+            // Add metadata if available
+            Map<String, String> metadata = deployment.getMetadata();
+            if (metadata != null && !metadata.isEmpty()) {
+                info.append("- Metadata:\n");
+                for (Map.Entry<String, String> entry : metadata.entrySet()) {
+                    info.append("  - ").append(entry.getKey()).append(": ")
+                        .append(entry.getValue()).append("\n");
                 }
-                
-                return info.toString();
-            } catch (Exception e) {
-                return "Error getting deployment info: " + e.getMessage();
             }
+            
+            return info.toString();
         }
     }
 }
@@ -3,10 +3,17 @@ package com.example.ai.projects.langchain;
 import com.azure.ai.projects.AIProjectClientBuilder;
 import com.azure.ai.projects.DeploymentsClient;
 import com.azure.ai.projects.models.Deployment;
-import com.azure.core.util.Configuration;
 import com.azure.identity.DefaultAzureCredentialBuilder;
 
+import com.example.ai.common.concurrency.AdaptiveConcurrencyLimiter;
+import com.example.ai.common.concurrency.HttpErrors;
+import com.example.ai.common.tokenizer.BpeTokenizer;
+import com.example.ai.common.tokenizer.CostEstimator;
+import com.example.ai.common.tokenizer.TokenBudget;
+import com.example.ai.projects.langchain.concurrency.LimitedChatLanguageModel;
+import com.example.util.EnvironmentConfig;
 import dev.langchain4j.model.azure.AzureOpenAiChatModel;
+import dev.langchain4j.model.chat.ChatLanguageModel;
 import dev.langchain4j.service.AiServices;
 import dev.langchain4j.service.UserMessage;
 
@@ -25,10 +32,11 @@ public class LangChainIntegrationSample {
      * @param args Command line arguments (not used).
      */
     public static void main(String[] args) {
-        // Get environment variables
-        String endpoint = Configuration.getGlobalConfiguration().get("AZURE_AI_ENDPOINT", "your-ai-endpoint");
-        String deploymentName = Configuration.getGlobalConfiguration().get("DEPLOYMENT_NAME", "your-deployment-name");
-        String apiKey = Configuration.getGlobalConfiguration().get("AZURE_API_KEY", "your-api-key");
+        // Bind and validate the settings before building any client
+        EnvironmentConfig.Settings settings = EnvironmentConfig.settings("AZURE_AI_ENDPOINT", "DEPLOYMENT_NAME", "AZURE_API_KEY");
+        String endpoint = settings.azureAIEndpoint();
+        String deploymentName = settings.deploymentName();
+        String apiKey = settings.apiKey();
         
         // First, use Azure SDK for Java to get deployment information
         DeploymentsClient deploymentsClient = new AIProjectClientBuilder()
@@ -43,19 +51,39 @@ public class LangChainIntegrationSample {
                 deployment.getName(), 
                 deployment.getType().getValue());
                 
+            // Count the prompt locally and leave the rest of the context window for the answer
+            String message = "Tell me about Azure SDK for Java";
+            TokenBudget budget = new TokenBudget(BpeTokenizer.forModel(deploymentName), 128_000, 2_000);
+            int promptTokens = budget.countPrompt("user", message);
+            
+            // Keep the calls in flight to the endpoint within what it can currently take
+            AdaptiveConcurrencyLimiter limiter = AdaptiveConcurrencyLimiter.builder()
+                .throttled(HttpErrors::isThrottled)
+                .build();
+            
             // Now use LangChain4j with the deployment information
-            AzureOpenAiChatModel model = AzureOpenAiChatModel.builder()
+            ChatLanguageModel model = new LimitedChatLanguageModel(AzureOpenAiChatModel.builder()
                 .endpoint(endpoint)
                 .apiKey(apiKey)
                 .deploymentName(deploymentName)
-                .build();
+                .maxTokens(budget.maxOutputTokens(promptTokens))
+                .build(), limiter);
                 
             // Create an AI assistant using LangChain4j
             Assistant assistant = AiServices.create(Assistant.class, model);
             
             // Chat with the assistant
-            String response = assistant.chat("Tell me about Azure SDK for Java");
+            String response = assistant.chat(message);
             System.out.println("Assistant response: " + response);
+            
+            try {
+                CostEstimator.Estimate estimate = CostEstimator.withListPrices()
+                    .estimate(deploymentName, promptTokens, budget.tokenizer().countTokens(response));
+                System.out.printf("Estimated cost: $%s (%d prompt + %d completion tokens)%n",
+                    estimate.cost().toPlainString(), estimate.inputTokens(), estimate.outputTokens());
+            } catch (IllegalArgumentException e) {
+                System.out.println("No list price for deployment " + deploymentName);
+            }
         } catch (Exception e) {
             System.out.println("Error: " + e.getMessage());
             e.printStackTrace();
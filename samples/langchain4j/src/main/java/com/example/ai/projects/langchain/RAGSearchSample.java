@@ -7,24 +7,70 @@ import com.azure.ai.projects.models.Index;
 import com.azure.core.util.Configuration;
 import com.azure.identity.DefaultAzureCredentialBuilder;
 
-import dev.langchain4j.data.document.Document;
-import dev.langchain4j.data.document.DocumentSplitter;
-import dev.langchain4j.data.document.splitter.DocumentSplitters;
+import dev.langchain4j.data.embedding.Embedding;
 import dev.langchain4j.data.segment.TextSegment;
 import dev.langchain4j.model.azure.AzureOpenAiChatModel;
 import dev.langchain4j.model.azure.AzureOpenAiEmbeddingModel;
+import dev.langchain4j.model.chat.ChatLanguageModel;
 import dev.langchain4j.rag.content.retriever.ContentRetriever;
-import dev.langchain4j.rag.content.retriever.EmbeddingStoreContentRetriever;
 import dev.langchain4j.service.AiServices;
+import dev.langchain4j.store.embedding.EmbeddingStore;
 import dev.langchain4j.store.embedding.azure.AzureAiSearchEmbeddingStore;
 
+import com.example.ai.common.concurrency.AdaptiveConcurrencyLimiter;
+import com.example.ai.common.concurrency.HttpErrors;
+import com.example.ai.projects.langchain.concurrency.LimitedChatLanguageModel;
+import com.example.ai.projects.langchain.concurrency.LimitedEmbeddingModel;
+import com.example.ai.projects.langchain.rag.Bm25ContentRetriever;
+import com.example.ai.projects.langchain.rag.Bm25Index;
+import com.example.ai.projects.langchain.rag.CachingContentRetriever;
+import com.example.ai.projects.langchain.rag.CachingEmbeddingModel;
+import com.example.ai.projects.langchain.rag.EmbeddingCache;
+import com.example.ai.projects.langchain.rag.HnswEmbeddingStore;
+import com.example.ai.projects.langchain.rag.HybridContentRetriever;
+import com.example.ai.projects.langchain.rag.MarkdownChunker;
+import com.example.util.EnvironmentConfig;
+
+import java.io.ByteArrayInputStream;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 /**
  * Sample demonstrating RAG with Azure AI Search and LangChain4j using Azure SDK for Java.
  */
 public class RAGSearchSample {
 
+    // Example documents, used when RAG_DOCUMENTS_PATH is not set
+    private static final Map<String, String> EXAMPLE_DOCUMENTS = Map.of(
+        "azure-sdk.md",
+        """
+        # Azure SDK for Java
+        
+        Azure SDK for Java is a service that helps you build, deploy, and manage AI solutions.
+        It includes tools for connecting to data sources, creating indexes, and deploying models.
+        """,
+        "pricing.md",
+        """
+        # Contoso Product Pricing Information
+        
+        ## Surface Laptop Pricing
+        
+        | SKU        | Processor     | RAM  | Storage | Price (USD) |
+        |------------|---------------|------|---------|-------------|
+        | SL-CORE-8  | Intel Core i5 | 8GB  | 256GB   | $999        |
+        | SL-PLUS-16 | Intel Core i5 | 16GB | 512GB   | $1,299      |
+        | SL-PRO-16  | Intel Core i7 | 16GB | 512GB   | $1,499      |
+        | SL-MAX-32  | Intel Core i7 | 32GB | 1TB     | $1,999      |
+        """);
+
     // Define a RAG-powered assistant interface
     interface RagAssistant {
         String answer(String question);
@@ -35,71 +81,140 @@ public class RAGSearchSample {
      * @param args Command line arguments (not used).
      */
     public static void main(String[] args) {
-        // Get environment variables
-        String endpoint = Configuration.getGlobalConfiguration().get("AZURE_AI_ENDPOINT", "your-ai-endpoint");
-        String apiKey = Configuration.getGlobalConfiguration().get("AZURE_API_KEY", "your-api-key");        String chatModelDeployment = Configuration.getGlobalConfiguration().get("CHAT_MODEL_DEPLOYMENT", "gpt-4o");
+        // Bind and validate the settings before building any client; the search settings are
+        // only read when the index is on Azure AI Search, so they keep their defaults
+        EnvironmentConfig.Settings settings = EnvironmentConfig.settings("AZURE_AI_ENDPOINT", "AZURE_API_KEY");
+        String endpoint = settings.azureAIEndpoint();
+        String apiKey = settings.apiKey();
+        String chatModelDeployment = Configuration.getGlobalConfiguration().get("CHAT_MODEL_DEPLOYMENT",
+            Objects.requireNonNullElse(settings.deploymentName(), "gpt-4o"));
         String embeddingModelDeployment = Configuration.getGlobalConfiguration().get("EMBEDDING_MODEL_DEPLOYMENT", "text-embedding-3-small");
-        String indexName = Configuration.getGlobalConfiguration().get("INDEX_NAME", "my-search-index");
-        String aiSearchConnectionName = Configuration.getGlobalConfiguration().get("AI_SEARCH_CONNECTION_NAME", "my-search-connection");
+        String indexName = Objects.requireNonNullElse(settings.indexName(), "my-search-index");
+        String aiSearchConnectionName = Objects.requireNonNullElse(settings.aiSearchConnectionName(), "my-search-connection");
         String aiSearchEndpoint = Configuration.getGlobalConfiguration().get("AI_SEARCH_ENDPOINT", "your-search-endpoint");
         String aiSearchKey = Configuration.getGlobalConfiguration().get("AI_SEARCH_KEY", "your-search-key");
+        String embeddingCachePath = Configuration.getGlobalConfiguration().get("EMBEDDING_CACHE_PATH", "embedding-cache.bin");
+        String localVectorStorePath = Configuration.getGlobalConfiguration().get("LOCAL_VECTOR_STORE_PATH", "");
+        String documentsPath = Configuration.getGlobalConfiguration().get("RAG_DOCUMENTS_PATH", "");
+        boolean useLocalStore = !localVectorStorePath.isEmpty();
         
-        try {
-            // Create or update the index using Azure SDK for Java
-            IndexesClient indexesClient = new AIProjectClientBuilder()
-                .endpoint(endpoint)
-                .credential(new DefaultAzureCredentialBuilder().build())
-                .buildIndexesClient();
+        // Open the persistent embedding cache so unchanged segments are not re-embedded on every run
+        try (EmbeddingCache embeddingCache = EmbeddingCache.open(Paths.get(embeddingCachePath))) {
+            if (!useLocalStore) {
+                // Create or update the index using Azure SDK for Java
+                IndexesClient indexesClient = new AIProjectClientBuilder()
+                    .endpoint(endpoint)
+                    .credential(new DefaultAzureCredentialBuilder().build())
+                    .buildIndexesClient();
+                    
+                Index index = indexesClient.createOrUpdateVersion(
+                    indexName,
+                    "1.0",
+                    new AzureAISearchIndex(aiSearchConnectionName, indexName)
+                );
                 
-            Index index = indexesClient.createOrUpdateVersion(
-                indexName,
-                "1.0",
-                new AzureAISearchIndex(aiSearchConnectionName, indexName)
-            );
+                System.out.println("Using index: " + index.getName());
+            }
             
-            System.out.println("Using index: " + index.getName());
+            // Keep the calls in flight to the endpoint within what it can currently take
+            AdaptiveConcurrencyLimiter limiter = AdaptiveConcurrencyLimiter.builder()
+                .throttled(HttpErrors::isThrottled)
+                .build();
             
             // Set up the embedding model using Azure OpenAI
-            AzureOpenAiEmbeddingModel embeddingModel = AzureOpenAiEmbeddingModel.builder()
+            AzureOpenAiEmbeddingModel azureEmbeddingModel = AzureOpenAiEmbeddingModel.builder()
                 .endpoint(endpoint)
                 .apiKey(apiKey)
                 .deploymentName(embeddingModelDeployment)
                 .build();
+            
+            // Serve previously embedded segments from the local cache; only misses take a slot
+            CachingEmbeddingModel embeddingModel = new CachingEmbeddingModel(
+                new LimitedEmbeddingModel(azureEmbeddingModel, limiter), embeddingModelDeployment, embeddingCache);
                 
             // Set up the chat model using Azure OpenAI    
-            AzureOpenAiChatModel chatModel = AzureOpenAiChatModel.builder()
+            ChatLanguageModel chatModel = new LimitedChatLanguageModel(AzureOpenAiChatModel.builder()
                 .endpoint(endpoint)
                 .apiKey(apiKey)
                 .deploymentName(chatModelDeployment)
-                .build();
+                .build(), limiter);
                 
-            // Set up the Azure AI Search embedding store
-            AzureAiSearchEmbeddingStore embeddingStore = AzureAiSearchEmbeddingStore.builder()
-                .endpoint(aiSearchEndpoint)
-                .apiKey(aiSearchKey)
-                .indexName(indexName)
-                .build();
-                  // Create example documents to index
-            Document document = Document.from(
-                "Azure SDK for Java is a service that helps you build, deploy, and manage AI solutions. " +
-                "It includes tools for connecting to data sources, creating indexes, and deploying models."
-            );
+            // Set up the embedding store
+            EmbeddingStore<TextSegment> embeddingStore;
+            HnswEmbeddingStore localStore = null;
+            boolean storeLoaded = false;
+            if (useLocalStore) {
+                // Use the in-process HNSW store, reloading the previous snapshot if there is one
+                Path snapshot = Paths.get(localVectorStorePath);
+                if (Files.exists(snapshot)) {
+                    localStore = HnswEmbeddingStore.load(snapshot);
+                    storeLoaded = true;
+                    System.out.println("Loaded local vector store with " + localStore.size() + " vectors");
+                } else {
+                    int dimension = embeddingModel.embed("dimension").content().dimension();
+                    localStore = HnswEmbeddingStore.builder()
+                        .dimension(dimension)
+                        .build();
+                }
+                embeddingStore = localStore;
+            } else {
+                // Store embeddings in Azure AI Search
+                embeddingStore = AzureAiSearchEmbeddingStore.builder()
+                    .endpoint(aiSearchEndpoint)
+                    .apiKey(aiSearchKey)
+                    .indexName(indexName)
+                    .build();
+            }
             
-            // Split documents into chunks
-            DocumentSplitter splitter = DocumentSplitters.recursive(300, 0);
-            List<TextSegment> segments = splitter.split(document).stream()
-                .map(chunk -> TextSegment.from(chunk.text()))
-                .toList();
-                
-            // Store embeddings in Azure AI Search
-            embeddingStore.addAll(segments, embeddingModel);
+            // Embed and index each batch of segments as soon as the chunker produces it
+            Bm25Index keywordIndex = new Bm25Index();
+            boolean addVectors = !storeLoaded;
+            Consumer<List<TextSegment>> ingest = batch -> {
+                keywordIndex.addAll(batch);
+                if (addVectors) {
+                    List<Embedding> embeddings = embeddingModel.embedAll(batch).content();
+                    embeddingStore.addAll(embeddings, batch);
+                }
+            };
+            
+            // Stream the documents through the Markdown-aware chunker, so file size does not affect memory use
+            MarkdownChunker chunker = new MarkdownChunker(1000, 64);
+            if (!documentsPath.isEmpty()) {
+                List<Path> files;
+                try (Stream<Path> paths = Files.walk(Paths.get(documentsPath))) {
+                    files = paths
+                        .filter(path -> path.toString().endsWith(".md") || path.toString().endsWith(".txt"))
+                        .toList();
+                }
+                for (Path file : files) {
+                    long count = chunker.chunk(file, ingest);
+                    System.out.println("Ingested " + count + " segments from " + file);
+                }
+            } else {
+                for (Map.Entry<String, String> document : EXAMPLE_DOCUMENTS.entrySet()) {
+                    byte[] content = document.getValue().getBytes(StandardCharsets.UTF_8);
+                    chunker.chunk(Channels.newChannel(new ByteArrayInputStream(content)), document.getKey(), ingest);
+                }
+            }
+            System.out.printf("Embedding cache: %d hits, %d misses%n",
+                embeddingModel.hitCount(), embeddingModel.missCount());
             
-            // Create a content retriever
-            ContentRetriever contentRetriever = EmbeddingStoreContentRetriever.builder()
+            if (localStore != null && !storeLoaded) {
+                localStore.save(Paths.get(localVectorStorePath));
+            }
+            
+            // Create a vector retriever that serves repeated and near-duplicate questions locally
+            CachingContentRetriever vectorRetriever = CachingContentRetriever.builder()
                 .embeddingStore(embeddingStore)
                 .embeddingModel(embeddingModel)
                 .maxResults(3)
+                .similarityThreshold(0.95)
+                .capacity(256)
                 .build();
+            
+            // Fuse vector results with keyword results so exact product codes are not missed
+            ContentRetriever contentRetriever = new HybridContentRetriever(
+                List.of(vectorRetriever, new Bm25ContentRetriever(keywordIndex, 3)), 3);
                 
             // Create a RAG-powered assistant
             RagAssistant assistant = AiServices.builder(RagAssistant.class)
@@ -110,6 +225,15 @@ public class RAGSearchSample {
             // Ask a question
             String answer = assistant.answer("What is Azure SDK for Java?");
             System.out.println("Assistant answer: " + answer);
+            
+            // A near-duplicate question is answered from the local retrieval cache
+            answer = assistant.answer("What is the Azure SDK for Java?");
+            System.out.println("Assistant answer: " + answer);
+            System.out.println("Retrieval cache: " + vectorRetriever.stats());
+            
+            // Product codes are matched exactly by the keyword index
+            answer = assistant.answer("How much does the SL-PRO-16 cost?");
+            System.out.println("Assistant answer: " + answer);
         } catch (Exception e) {
             System.out.println("Error: " + e.getMessage());
             e.printStackTrace();
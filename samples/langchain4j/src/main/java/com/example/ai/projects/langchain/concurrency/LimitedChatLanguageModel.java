@@ -0,0 +1,45 @@
+package com.example.ai.projects.langchain.concurrency;
+
+import com.example.ai.common.concurrency.AdaptiveConcurrencyLimiter;
+import dev.langchain4j.agent.tool.ToolSpecification;
+import dev.langchain4j.data.message.AiMessage;
+import dev.langchain4j.data.message.ChatMessage;
+import dev.langchain4j.model.chat.ChatLanguageModel;
+import dev.langchain4j.model.output.Response;
+
+import java.util.List;
+
+/**
+ * Chat model decorator that sends every request through an {@link AdaptiveConcurrencyLimiter},
+ * so the calls in flight to the model follow its capacity. Requests over the limit wait for a
+ * slot or are shed with a {@link com.example.ai.common.concurrency.LimitExceededException}.
+ */
+public class LimitedChatLanguageModel implements ChatLanguageModel {
+
+    private final ChatLanguageModel delegate;
+    private final AdaptiveConcurrencyLimiter limiter;
+
+    /**
+     * @param delegate The model that makes the calls
+     * @param limiter The limiter, which may be shared with other models on the same endpoint
+     */
+    public LimitedChatLanguageModel(ChatLanguageModel delegate, AdaptiveConcurrencyLimiter limiter) {
+        this.delegate = delegate;
+        this.limiter = limiter;
+    }
+
+    @Override
+    public Response<AiMessage> generate(List<ChatMessage> messages) {
+        return limiter.call(() -> delegate.generate(messages));
+    }
+
+    @Override
+    public Response<AiMessage> generate(List<ChatMessage> messages, List<ToolSpecification> toolSpecifications) {
+        return limiter.call(() -> delegate.generate(messages, toolSpecifications));
+    }
+
+    @Override
+    public Response<AiMessage> generate(List<ChatMessage> messages, ToolSpecification toolSpecification) {
+        return limiter.call(() -> delegate.generate(messages, toolSpecification));
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.ai.projects.langchain.concurrency;
+
+import com.example.ai.common.concurrency.AdaptiveConcurrencyLimiter;
+import dev.langchain4j.data.embedding.Embedding;
+import dev.langchain4j.data.segment.TextSegment;
+import dev.langchain4j.model.embedding.EmbeddingModel;
+import dev.langchain4j.model.output.Response;
+
+import java.util.List;
+
+/**
+ * Embedding model decorator that sends every batch through an {@link AdaptiveConcurrencyLimiter}.
+ */
+public class LimitedEmbeddingModel implements EmbeddingModel {
+
+    private final EmbeddingModel delegate;
+    private final AdaptiveConcurrencyLimiter limiter;
+
+    /**
+     * @param delegate The model that makes the calls
+     * @param limiter The limiter, which may be shared with other models on the same endpoint
+     */
+    public LimitedEmbeddingModel(EmbeddingModel delegate, AdaptiveConcurrencyLimiter limiter) {
+        this.delegate = delegate;
+        this.limiter = limiter;
+    }
+
+    @Override
+    public Response<List<Embedding>> embedAll(List<TextSegment> textSegments) {
+        return limiter.call(() -> delegate.embedAll(textSegments));
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.ai.projects.langchain.memory;
+
+import dev.langchain4j.agent.tool.ToolExecutionRequest;
+import dev.langchain4j.agent.tool.ToolSpecification;
+import dev.langchain4j.data.message.AiMessage;
+import dev.langchain4j.data.message.ChatMessage;
+import dev.langchain4j.model.Tokenizer;
+
+/**
+ * Fast local token estimate for budgeting prompts.
+ *
+ * Counts roughly as BPE vocabularies such as cl100k split English text and JSON: a run of
+ * letters is one token per six characters, a run of digits one token per three, and every
+ * other visible character is a token of its own. Each message adds the chat format overhead.
+ * A single pass over the characters with no allocation, so it is cheap enough to run on every
+ * message. The estimate is close enough for budgeting a prompt, not for billing.
+ */
+public class ApproximateTokenizer implements Tokenizer {
+
+    // Tokens the chat format adds around each message, and for the reply primer
+    private static final int TOKENS_PER_MESSAGE = 4;
+    private static final int TOKENS_PER_REPLY = 3;
+
+    @Override
+    public int estimateTokenCountInText(String text) {
+        if (text == null) {
+            return 0;
+        }
+        int tokens = 0;
+        int letters = 0;
+        int digits = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (Character.isLetter(c)) {
+                letters++;
+                continue;
+            }
+            tokens += (letters + 5) / 6;
+            letters = 0;
+            if (Character.isDigit(c)) {
+                digits++;
+                continue;
+            }
+            tokens += (digits + 2) / 3;
+            digits = 0;
+            if (!Character.isWhitespace(c)) {
+                tokens++;
+            }
+        }
+        return tokens + (letters + 5) / 6 + (digits + 2) / 3;
+    }
+
+    @Override
+    public int estimateTokenCountInMessage(ChatMessage message) {
+        int tokens = TOKENS_PER_MESSAGE + estimateTokenCountInText(message.text());
+        if (message instanceof AiMessage aiMessage && aiMessage.hasToolExecutionRequests()) {
+            tokens += estimateTokenCountInToolExecutionRequests(aiMessage.toolExecutionRequests());
+        }
+        return tokens;
+    }
+
+    @Override
+    public int estimateTokenCountInMessages(Iterable<ChatMessage> messages) {
+        int tokens = TOKENS_PER_REPLY;
+        for (ChatMessage message : messages) {
+            tokens += estimateTokenCountInMessage(message);
+        }
+        return tokens;
+    }
+
+    @Override
+    public int estimateTokenCountInToolSpecification(ToolSpecification toolSpecification) {
+        return estimateTokenCountInText(toolSpecification.name())
+            + estimateTokenCountInText(toolSpecification.description())
+            + estimateTokenCountInText(String.valueOf(toolSpecification.parameters()));
+    }
+
+    @Override
+    public int estimateTokenCountInToolSpecifications(Iterable<ToolSpecification> toolSpecifications) {
+        int tokens = 0;
+        for (ToolSpecification toolSpecification : toolSpecifications) {
+            tokens += estimateTokenCountInToolSpecification(toolSpecification);
+        }
+        return tokens;
+    }
+
+    @Override
+    public int estimateTokenCountInToolExecutionRequest(ToolExecutionRequest toolExecutionRequest) {
+        return TOKENS_PER_MESSAGE + estimateTokenCountInText(toolExecutionRequest.name())
+            + estimateTokenCountInText(toolExecutionRequest.arguments());
+    }
+
+    @Override
+    public int estimateTokenCountInToolExecutionRequests(Iterable<ToolExecutionRequest> toolExecutionRequests) {
+        int tokens = 0;
+        for (ToolExecutionRequest toolExecutionRequest : toolExecutionRequests) {
+            tokens += estimateTokenCountInToolExecutionRequest(toolExecutionRequest);
+        }
+        return tokens;
+    }
+}
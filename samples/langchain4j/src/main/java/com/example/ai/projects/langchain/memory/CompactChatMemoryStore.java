@@ -0,0 +1,103 @@
+package com.example.ai.projects.langchain.memory;
+
+import dev.langchain4j.data.message.ChatMessage;
+import dev.langchain4j.data.message.ChatMessageDeserializer;
+import dev.langchain4j.data.message.ChatMessageSerializer;
+import dev.langchain4j.store.memory.chat.ChatMemoryStore;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * In-memory chat memory store that keeps each session as one compressed byte array.
+ *
+ * A session's messages are serialized to JSON and deflated, so an idle conversation costs a
+ * single array instead of a graph of message objects and strings. Chat transcripts compress
+ * well (tool output is mostly repeated JSON keys), which lets thousands of sessions share a
+ * modest heap. Messages are inflated only while a session is being read or updated.
+ */
+public class CompactChatMemoryStore implements ChatMemoryStore {
+
+    private final Map<Object, byte[]> sessions = new ConcurrentHashMap<>();
+
+    @Override
+    public List<ChatMessage> getMessages(Object memoryId) {
+        byte[] compressed = sessions.get(memoryId);
+        if (compressed == null) {
+            return new ArrayList<>();
+        }
+        return ChatMessageDeserializer.messagesFromJson(inflate(compressed));
+    }
+
+    @Override
+    public void updateMessages(Object memoryId, List<ChatMessage> messages) {
+        if (messages.isEmpty()) {
+            sessions.remove(memoryId);
+        } else {
+            sessions.put(memoryId, deflate(ChatMessageSerializer.messagesToJson(messages)));
+        }
+    }
+
+    @Override
+    public void deleteMessages(Object memoryId) {
+        sessions.remove(memoryId);
+    }
+
+    /**
+     * @return The number of stored sessions
+     */
+    public int sessionCount() {
+        return sessions.size();
+    }
+
+    /**
+     * @return The compressed size of all sessions in bytes
+     */
+    public long sizeInBytes() {
+        return sessions.values().stream().mapToLong(compressed -> compressed.length).sum();
+    }
+
+    private static byte[] deflate(String json) {
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            deflater.setInput(json.getBytes(StandardCharsets.UTF_8));
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(json.length() / 4 + 16);
+            byte[] buffer = new byte[4096];
+            while (!deflater.finished()) {
+                out.write(buffer, 0, deflater.deflate(buffer));
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static String inflate(byte[] compressed) {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(compressed);
+            ByteArrayOutputStream out = new ByteArrayOutputStream(compressed.length * 4);
+            byte[] buffer = new byte[4096];
+            while (!inflater.finished()) {
+                int length = inflater.inflate(buffer);
+                if (length == 0 && inflater.needsInput()) {
+                    throw new IllegalStateException("Truncated chat memory data");
+                }
+                out.write(buffer, 0, length);
+            }
+            return out.toString(StandardCharsets.UTF_8);
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("Corrupt chat memory data", e);
+        } finally {
+            inflater.end();
+        }
+    }
+}
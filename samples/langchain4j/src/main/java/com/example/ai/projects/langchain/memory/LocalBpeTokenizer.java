@@ -0,0 +1,102 @@
+package com.example.ai.projects.langchain.memory;
+
+import com.example.ai.common.tokenizer.BpeTokenizer;
+import dev.langchain4j.agent.tool.ToolExecutionRequest;
+import dev.langchain4j.agent.tool.ToolSpecification;
+import dev.langchain4j.data.message.AiMessage;
+import dev.langchain4j.data.message.ChatMessage;
+import dev.langchain4j.model.Tokenizer;
+
+/**
+ * Exact token counts for LangChain4j from the shared BPE tokenizer.
+ *
+ * Message framing is counted as the chat completions API bills it, so the totals match the
+ * prompt tokens reported in responses closely.
+ */
+public class LocalBpeTokenizer implements Tokenizer {
+
+    // Framing per message and for the reply primer
+    private static final int TOKENS_PER_MESSAGE = 3;
+    private static final int TOKENS_PER_REPLY = 3;
+
+    private final BpeTokenizer tokenizer;
+
+    /**
+     * @param tokenizer The BPE tokenizer of the model
+     */
+    public LocalBpeTokenizer(BpeTokenizer tokenizer) {
+        this.tokenizer = tokenizer;
+    }
+
+    /**
+     * @param model The model or deployment name
+     * @return A tokenizer with the model's vocabulary
+     */
+    public static LocalBpeTokenizer forModel(String model) {
+        return new LocalBpeTokenizer(BpeTokenizer.forModel(model));
+    }
+
+    @Override
+    public int estimateTokenCountInText(String text) {
+        return tokenizer.countTokens(text);
+    }
+
+    @Override
+    public int estimateTokenCountInMessage(ChatMessage message) {
+        int tokens = TOKENS_PER_MESSAGE + tokenizer.countTokens(role(message)) + tokenizer.countTokens(message.text());
+        if (message instanceof AiMessage aiMessage && aiMessage.hasToolExecutionRequests()) {
+            tokens += estimateTokenCountInToolExecutionRequests(aiMessage.toolExecutionRequests());
+        }
+        return tokens;
+    }
+
+    // The role names the API uses for each message type
+    private static String role(ChatMessage message) {
+        return switch (message.type()) {
+            case SYSTEM -> "system";
+            case USER -> "user";
+            case AI -> "assistant";
+            case TOOL_EXECUTION_RESULT -> "tool";
+        };
+    }
+
+    @Override
+    public int estimateTokenCountInMessages(Iterable<ChatMessage> messages) {
+        int tokens = TOKENS_PER_REPLY;
+        for (ChatMessage message : messages) {
+            tokens += estimateTokenCountInMessage(message);
+        }
+        return tokens;
+    }
+
+    @Override
+    public int estimateTokenCountInToolSpecification(ToolSpecification toolSpecification) {
+        return tokenizer.countTokens(toolSpecification.name())
+            + tokenizer.countTokens(toolSpecification.description())
+            + tokenizer.countTokens(String.valueOf(toolSpecification.parameters()));
+    }
+
+    @Override
+    public int estimateTokenCountInToolSpecifications(Iterable<ToolSpecification> toolSpecifications) {
+        int tokens = 0;
+        for (ToolSpecification toolSpecification : toolSpecifications) {
+            tokens += estimateTokenCountInToolSpecification(toolSpecification);
+        }
+        return tokens;
+    }
+
+    @Override
+    public int estimateTokenCountInToolExecutionRequest(ToolExecutionRequest toolExecutionRequest) {
+        return TOKENS_PER_MESSAGE + tokenizer.countTokens(toolExecutionRequest.name())
+            + tokenizer.countTokens(toolExecutionRequest.arguments());
+    }
+
+    @Override
+    public int estimateTokenCountInToolExecutionRequests(Iterable<ToolExecutionRequest> toolExecutionRequests) {
+        int tokens = 0;
+        for (ToolExecutionRequest toolExecutionRequest : toolExecutionRequests) {
+            tokens += estimateTokenCountInToolExecutionRequest(toolExecutionRequest);
+        }
+        return tokens;
+    }
+}
@@ -0,0 +1,394 @@
+package com.example.ai.projects.langchain.memory;
+
+import dev.langchain4j.agent.tool.ToolExecutionRequest;
+import dev.langchain4j.data.message.AiMessage;
+import dev.langchain4j.data.message.ChatMessage;
+import dev.langchain4j.data.message.SystemMessage;
+import dev.langchain4j.data.message.ToolExecutionResultMessage;
+import dev.langchain4j.data.message.UserMessage;
+import dev.langchain4j.memory.ChatMemory;
+import dev.langchain4j.memory.chat.ChatMemoryProvider;
+import dev.langchain4j.model.Tokenizer;
+import dev.langchain4j.model.chat.ChatLanguageModel;
+import dev.langchain4j.store.memory.chat.ChatMemoryStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Chat memory that keeps the prompt within a token budget.
+ *
+ * The system message is always kept. When the conversation grows past the budget, the oldest
+ * turns are evicted whole (a user message with the model replies and tool results that follow
+ * it), so a tool result is never separated from the call that produced it. The turn in
+ * progress is never evicted. If a summarizer model is set, evicted turns are folded into a
+ * running summary on a background thread and the summary is appended to the system message;
+ * the request path never waits for it. Messages live in a {@link ChatMemoryStore}, by default a
+ * {@link CompactChatMemoryStore} shared by all memories built from the same builder.
+ */
+public class TokenBudgetChatMemory implements ChatMemory {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(TokenBudgetChatMemory.class);
+    private static final String SUMMARY_HEADER = "\n\nSummary of the earlier conversation:\n";
+
+    private static final class DefaultExecutor {
+        private static final ExecutorService INSTANCE = newSummaryExecutor();
+    }
+
+    private final Object id;
+    private final int maxTokens;
+    private final int maxSummaryTokens;
+    private final Tokenizer tokenizer;
+    private final ChatMemoryStore store;
+    private final ChatLanguageModel summarizer;
+    private final Executor summaryExecutor;
+
+    // All guarded by "this"; token counts are kept so messages are only tokenized once
+    private boolean loaded;
+    private String systemText;
+    private String summary;
+    private int systemTokens;
+    private int[] tokenCounts = new int[8];
+    private int messageCount;
+    private List<ChatMessage> unsummarized = new ArrayList<>();
+    private boolean summarizing;
+    private int generation;
+
+    private TokenBudgetChatMemory(Builder builder, Object id) {
+        if (builder.maxTokens <= 0) {
+            throw new IllegalArgumentException("maxTokens must be positive");
+        }
+        this.id = id;
+        this.maxTokens = builder.maxTokens;
+        this.maxSummaryTokens = builder.maxSummaryTokens > 0 ? builder.maxSummaryTokens : builder.maxTokens / 4;
+        this.tokenizer = builder.tokenizer;
+        this.store = builder.store;
+        this.summarizer = builder.summarizer;
+        this.summaryExecutor = builder.summaryExecutor != null ? builder.summaryExecutor : DefaultExecutor.INSTANCE;
+    }
+
+    /**
+     * @return A builder for a token budget chat memory
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    @Override
+    public Object id() {
+        return id;
+    }
+
+    @Override
+    public synchronized void add(ChatMessage message) {
+        List<ChatMessage> messages = load();
+        if (message instanceof SystemMessage systemMessage) {
+            systemText = systemMessage.text();
+            systemTokens = countSystemTokens();
+        } else {
+            messages.add(message);
+            appendCount(tokenizer.estimateTokenCountInMessage(message));
+        }
+        evict(messages);
+        save(messages);
+        summarizeIfNeeded();
+    }
+
+    @Override
+    public synchronized List<ChatMessage> messages() {
+        List<ChatMessage> messages = load();
+        String system = systemPrompt();
+        if (system != null) {
+            messages.add(0, SystemMessage.from(system));
+        }
+        return messages;
+    }
+
+    @Override
+    public synchronized void clear() {
+        store.deleteMessages(id);
+        loaded = false;
+        messageCount = 0;
+        unsummarized = new ArrayList<>();
+        // Discards any summary still being generated
+        generation++;
+    }
+
+    /**
+     * @return The estimated prompt size of the current messages
+     */
+    public synchronized int tokenCount() {
+        load();
+        int tokens = systemTokens;
+        for (int i = 0; i < messageCount; i++) {
+            tokens += tokenCounts[i];
+        }
+        return tokens;
+    }
+
+    /**
+     * @return The running summary of evicted turns, or null if there is none yet
+     */
+    public synchronized String summary() {
+        load();
+        return summary;
+    }
+
+    private List<ChatMessage> load() {
+        List<ChatMessage> messages = new ArrayList<>(store.getMessages(id));
+        boolean hasSystem = !messages.isEmpty() && messages.get(0) instanceof SystemMessage;
+        if (!loaded) {
+            // Restore the system text and summary persisted by an earlier memory for this id
+            systemText = null;
+            summary = null;
+            if (hasSystem) {
+                String stored = messages.get(0).text();
+                int header = stored.indexOf(SUMMARY_HEADER);
+                systemText = header < 0 ? stored : stored.substring(0, header);
+                summary = header < 0 ? null : stored.substring(header + SUMMARY_HEADER.length());
+            }
+            systemTokens = countSystemTokens();
+            messageCount = 0;
+            for (int i = hasSystem ? 1 : 0; i < messages.size(); i++) {
+                appendCount(tokenizer.estimateTokenCountInMessage(messages.get(i)));
+            }
+            loaded = true;
+        }
+        if (hasSystem) {
+            messages.remove(0);
+        }
+        return messages;
+    }
+
+    private void save(List<ChatMessage> messages) {
+        List<ChatMessage> stored = new ArrayList<>(messages.size() + 1);
+        String system = systemPrompt();
+        if (system != null) {
+            stored.add(SystemMessage.from(system));
+        }
+        stored.addAll(messages);
+        store.updateMessages(id, stored);
+    }
+
+    // Drops the oldest whole turns until the messages fit, keeping the turn in progress
+    private void evict(List<ChatMessage> messages) {
+        int tokens = systemTokens;
+        for (int i = 0; i < messageCount; i++) {
+            tokens += tokenCounts[i];
+        }
+        while (tokens > maxTokens) {
+            int end = nextTurnStart(messages);
+            if (end < 0) {
+                break;
+            }
+            for (int i = 0; i < end; i++) {
+                tokens -= tokenCounts[i];
+            }
+            List<ChatMessage> evicted = messages.subList(0, end);
+            if (summarizer != null) {
+                unsummarized.addAll(evicted);
+            }
+            evicted.clear();
+            System.arraycopy(tokenCounts, end, tokenCounts, 0, messageCount - end);
+            messageCount -= end;
+        }
+    }
+
+    private static int nextTurnStart(List<ChatMessage> messages) {
+        for (int i = 1; i < messages.size(); i++) {
+            if (messages.get(i) instanceof UserMessage) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    // Must be called after the messages are saved, as the executor may run the task inline
+    private void summarizeIfNeeded() {
+        if (!summarizing && !unsummarized.isEmpty()) {
+            summarizing = true;
+            List<ChatMessage> batch = unsummarized;
+            unsummarized = new ArrayList<>();
+            String previous = summary;
+            int startedIn = generation;
+            summaryExecutor.execute(() -> summarize(previous, batch, startedIn));
+        }
+    }
+
+    private void summarize(String previous, List<ChatMessage> batch, int startedIn) {
+        String updated = null;
+        try {
+            updated = summarizer.generate(List.of(
+                SystemMessage.from("Summarize the conversation for an assistant that will continue it. Keep names, "
+                    + "identifiers, numbers and decisions; drop pleasantries. Use at most "
+                    + maxSummaryTokens * 3 / 4 + " words."),
+                UserMessage.from(transcript(previous, batch)))).content().text();
+        } catch (RuntimeException e) {
+            LOGGER.warn("Failed to summarize chat memory {}; evicted turns are dropped", id, e);
+        }
+        synchronized (this) {
+            summarizing = false;
+            if (generation != startedIn) {
+                return;
+            }
+            if (updated != null && !updated.isBlank()) {
+                List<ChatMessage> messages = load();
+                summary = updated.strip();
+                systemTokens = countSystemTokens();
+                evict(messages);
+                save(messages);
+            }
+            summarizeIfNeeded();
+        }
+    }
+
+    private static String transcript(String previous, List<ChatMessage> messages) {
+        StringBuilder transcript = new StringBuilder();
+        if (previous != null) {
+            transcript.append("Summary so far:\n").append(previous).append("\n\nConversation since then:\n");
+        }
+        for (ChatMessage message : messages) {
+            if (message instanceof UserMessage) {
+                transcript.append("User: ").append(message.text());
+            } else if (message instanceof AiMessage aiMessage && aiMessage.hasToolExecutionRequests()) {
+                transcript.append("Assistant called:");
+                for (ToolExecutionRequest request : aiMessage.toolExecutionRequests()) {
+                    transcript.append(' ').append(request.name()).append(request.arguments());
+                }
+            } else if (message instanceof ToolExecutionResultMessage toolResult) {
+                transcript.append("Tool ").append(toolResult.toolName()).append(": ").append(toolResult.text());
+            } else {
+                transcript.append("Assistant: ").append(message.text());
+            }
+            transcript.append('\n');
+        }
+        return transcript.toString();
+    }
+
+    private String systemPrompt() {
+        if (summary == null) {
+            return systemText;
+        }
+        return (systemText == null ? "" : systemText) + SUMMARY_HEADER + summary;
+    }
+
+    private int countSystemTokens() {
+        String system = systemPrompt();
+        return system == null ? 0 : tokenizer.estimateTokenCountInMessage(SystemMessage.from(system));
+    }
+
+    private void appendCount(int tokens) {
+        if (messageCount == tokenCounts.length) {
+            tokenCounts = Arrays.copyOf(tokenCounts, messageCount * 2);
+        }
+        tokenCounts[messageCount++] = tokens;
+    }
+
+    private static ExecutorService newSummaryExecutor() {
+        AtomicInteger count = new AtomicInteger();
+        return Executors.newFixedThreadPool(2, runnable -> {
+            Thread thread = new Thread(runnable, "chat-memory-summarizer-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Builder for {@link TokenBudgetChatMemory}.
+     */
+    public static class Builder {
+        private Object id = "default";
+        private int maxTokens = 4000;
+        private int maxSummaryTokens;
+        private Tokenizer tokenizer = new ApproximateTokenizer();
+        private ChatMemoryStore store = new CompactChatMemoryStore();
+        private ChatLanguageModel summarizer;
+        private Executor summaryExecutor;
+
+        /**
+         * @param id The conversation id (default "default")
+         * @return This builder
+         */
+        public Builder id(Object id) {
+            this.id = id;
+            return this;
+        }
+
+        /**
+         * @param maxTokens Token budget for the system message, summary and messages (default 4000)
+         * @return This builder
+         */
+        public Builder maxTokens(int maxTokens) {
+            this.maxTokens = maxTokens;
+            return this;
+        }
+
+        /**
+         * @param maxSummaryTokens Target summary size (default a quarter of the budget)
+         * @return This builder
+         */
+        public Builder maxSummaryTokens(int maxSummaryTokens) {
+            this.maxSummaryTokens = maxSummaryTokens;
+            return this;
+        }
+
+        /**
+         * @param tokenizer Counts message tokens (default {@link ApproximateTokenizer})
+         * @return This builder
+         */
+        public Builder tokenizer(Tokenizer tokenizer) {
+            this.tokenizer = tokenizer;
+            return this;
+        }
+
+        /**
+         * @param store Holds the messages (default a {@link CompactChatMemoryStore})
+         * @return This builder
+         */
+        public Builder chatMemoryStore(ChatMemoryStore store) {
+            this.store = store;
+            return this;
+        }
+
+        /**
+         * @param summarizer Summarizes evicted turns; without one they are dropped
+         * @return This builder
+         */
+        public Builder summarizer(ChatLanguageModel summarizer) {
+            this.summarizer = summarizer;
+            return this;
+        }
+
+        /**
+         * @param summaryExecutor Runs summarization (default two shared daemon threads)
+         * @return This builder
+         */
+        public Builder summaryExecutor(Executor summaryExecutor) {
+            this.summaryExecutor = summaryExecutor;
+            return this;
+        }
+
+        /**
+         * @return The memory
+         */
+        public TokenBudgetChatMemory build() {
+            return new TokenBudgetChatMemory(this, id);
+        }
+
+        /**
+         * Creates a memory per conversation, all sharing this builder's settings and store.
+         *
+         * @return The provider
+         */
+        public ChatMemoryProvider provider() {
+            return memoryId -> new TokenBudgetChatMemory(this, memoryId);
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.ai.projects.langchain.rag;
+
+import dev.langchain4j.rag.content.Content;
+import dev.langchain4j.rag.content.retriever.ContentRetriever;
+import dev.langchain4j.rag.query.Query;
+
+import java.util.List;
+
+/**
+ * Content retriever that performs keyword search over a local {@link Bm25Index}.
+ */
+public class Bm25ContentRetriever implements ContentRetriever {
+
+    private final Bm25Index index;
+    private final int maxResults;
+
+    /**
+     * Creates a keyword retriever.
+     *
+     * @param index The index to search
+     * @param maxResults The maximum number of results per query
+     */
+    public Bm25ContentRetriever(Bm25Index index, int maxResults) {
+        this.index = index;
+        this.maxResults = maxResults;
+    }
+
+    @Override
+    public List<Content> retrieve(Query query) {
+        return index.search(query.text(), maxResults).stream()
+            .map(result -> Content.from(result.segment()))
+            .toList();
+    }
+}
@@ -0,0 +1,368 @@
+package com.example.ai.projects.langchain.rag;
+
+import dev.langchain4j.data.segment.TextSegment;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Incremental in-memory inverted index with BM25 scoring.
+ *
+ * Postings are stored per term as a variable-length byte encoding of (document id delta,
+ * term frequency) pairs, so a posting usually costs two or three bytes. Segments can be added
+ * at any time while searches are running; a read-write lock keeps the two apart.
+ *
+ * The tokenizer keeps identifiers such as product codes and SKUs ("SL-PRO-16", "i7") as
+ * whole tokens and additionally indexes their parts, so exact codes rank highest while
+ * partial matches still score.
+ *
+ * Searches score term at a time into a sparse accumulator sized from the query terms' document
+ * frequencies, so the cost follows the length of the postings that are read rather than the
+ * size of the index.
+ */
+public class Bm25Index {
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+
+    /**
+     * Terms whose maximum score is below this fraction of the rarer query terms' maximum are skipped.
+     */
+    private static final double NEGLIGIBLE_CONTRIBUTION = 0.05;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, Postings> terms = new HashMap<>();
+    private final List<TextSegment> segments = new ArrayList<>();
+    private int[] documentLengths = new int[1024];
+    private long totalLength;
+
+    /**
+     * Adds a segment to the index.
+     *
+     * @param segment The segment to index
+     * @return The document id assigned to the segment
+     */
+    public int add(TextSegment segment) {
+        List<String> tokens = tokenize(segment.text());
+        Map<String, Integer> frequencies = new HashMap<>();
+        for (String token : tokens) {
+            frequencies.merge(token, 1, Integer::sum);
+        }
+
+        lock.writeLock().lock();
+        try {
+            int documentId = segments.size();
+            segments.add(segment);
+            if (documentId == documentLengths.length) {
+                documentLengths = Arrays.copyOf(documentLengths, documentId * 2);
+            }
+            documentLengths[documentId] = tokens.size();
+            totalLength += tokens.size();
+
+            for (Map.Entry<String, Integer> entry : frequencies.entrySet()) {
+                terms.computeIfAbsent(entry.getKey(), key -> new Postings()).add(documentId, entry.getValue());
+            }
+            return documentId;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Adds several segments to the index.
+     *
+     * @param segments The segments to index
+     */
+    public void addAll(List<TextSegment> segments) {
+        for (TextSegment segment : segments) {
+            add(segment);
+        }
+    }
+
+    /**
+     * @return The number of indexed segments
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return segments.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Searches the index.
+     *
+     * @param query The query text
+     * @param maxResults The maximum number of results
+     * @return Matching segments, best first
+     */
+    public List<ScoredSegment> search(String query, int maxResults) {
+        Set<String> queryTerms = new LinkedHashSet<>(tokenize(query));
+
+        lock.readLock().lock();
+        try {
+            int documentCount = segments.size();
+            if (documentCount == 0 || queryTerms.isEmpty()) {
+                return List.of();
+            }
+            double averageLength = (double) totalLength / documentCount;
+
+            // Score the rarest terms first, and skip common terms whose best possible contribution
+            // is negligible next to them (for example "sku" when the query contains "sku-1234")
+            List<Postings> candidates = new ArrayList<>();
+            for (String term : queryTerms) {
+                Postings postings = terms.get(term);
+                if (postings != null) {
+                    candidates.add(postings);
+                }
+            }
+            candidates.sort((a, b) -> Integer.compare(a.documentFrequency, b.documentFrequency));
+
+            List<Postings> scoredPostings = new ArrayList<>(candidates.size());
+            List<Double> idfs = new ArrayList<>(candidates.size());
+            double scoredUpperBound = 0;
+            long expectedMatches = 0;
+            for (Postings postings : candidates) {
+                double idf = Math.log(1 + (documentCount - postings.documentFrequency + 0.5)
+                    / (postings.documentFrequency + 0.5));
+                double upperBound = idf * (K1 + 1);
+                if (upperBound < NEGLIGIBLE_CONTRIBUTION * scoredUpperBound) {
+                    continue;
+                }
+                scoredUpperBound += upperBound;
+                expectedMatches += postings.documentFrequency;
+                scoredPostings.add(postings);
+                idfs.add(idf);
+            }
+
+            ScoreAccumulator scores = new ScoreAccumulator((int) Math.min(expectedMatches, documentCount));
+            for (int t = 0; t < scoredPostings.size(); t++) {
+                Postings postings = scoredPostings.get(t);
+                double idf = idfs.get(t);
+
+                // Decode the postings in place, without materializing them
+                byte[] data = postings.data;
+                int position = 0;
+                int documentId = 0;
+                while (position < postings.length) {
+                    int delta = 0;
+                    int shift = 0;
+                    byte b;
+                    do {
+                        b = data[position++];
+                        delta |= (b & 0x7F) << shift;
+                        shift += 7;
+                    } while (b < 0);
+                    int frequency = 0;
+                    shift = 0;
+                    do {
+                        b = data[position++];
+                        frequency |= (b & 0x7F) << shift;
+                        shift += 7;
+                    } while (b < 0);
+
+                    documentId += delta;
+                    double norm = K1 * (1 - B + B * documentLengths[documentId] / averageLength);
+                    scores.add(documentId, (float) (idf * frequency * (K1 + 1) / (frequency + norm)));
+                }
+            }
+
+            int[] top = scores.top(maxResults);
+            List<ScoredSegment> results = new ArrayList<>(top.length);
+            for (int documentId : top) {
+                results.add(new ScoredSegment(segments.get(documentId), scores.get(documentId)));
+            }
+            return results;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Splits text into lower-case tokens. Runs of letters and digits joined by '-', '_', '.',
+     * '/' (or ',' between digits) are kept as one token, and their parts are emitted as well.
+     */
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        int length = text.length();
+        int i = 0;
+        while (i < length) {
+            while (i < length && !Character.isLetterOrDigit(text.charAt(i))) {
+                i++;
+            }
+            int start = i;
+            int parts = 0;
+            int partStart = i;
+            while (i < length) {
+                char c = text.charAt(i);
+                if (Character.isLetterOrDigit(c)) {
+                    i++;
+                } else if (i > start && i + 1 < length && isJoiner(c, text.charAt(i - 1), text.charAt(i + 1))) {
+                    tokens.add(text.substring(partStart, i).toLowerCase());
+                    parts++;
+                    i++;
+                    partStart = i;
+                } else {
+                    break;
+                }
+            }
+            if (i > start) {
+                if (parts > 0) {
+                    tokens.add(text.substring(partStart, i).toLowerCase());
+                }
+                tokens.add(text.substring(start, i).toLowerCase());
+            }
+        }
+        return tokens;
+    }
+
+    private static boolean isJoiner(char c, char previous, char next) {
+        if (c == ',') {
+            // Thousands separators, as in "$1,299"
+            return Character.isDigit(previous) && Character.isDigit(next);
+        }
+        return (c == '-' || c == '_' || c == '.' || c == '/') && Character.isLetterOrDigit(next);
+    }
+
+    /**
+     * A search result.
+     *
+     * @param segment The matching segment
+     * @param score The BM25 score
+     */
+    public record ScoredSegment(TextSegment segment, double score) {
+    }
+
+    /**
+     * Postings list for one term: varint-encoded (document id delta, term frequency) pairs.
+     */
+    private static final class Postings {
+        byte[] data = new byte[8];
+        int length;
+        int lastDocumentId;
+        int documentFrequency;
+
+        void add(int documentId, int frequency) {
+            if (length + 10 > data.length) {
+                data = Arrays.copyOf(data, data.length * 2);
+            }
+            writeVarInt(documentId - lastDocumentId);
+            writeVarInt(frequency);
+            lastDocumentId = documentId;
+            documentFrequency++;
+        }
+
+        private void writeVarInt(int value) {
+            while ((value & ~0x7F) != 0) {
+                data[length++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            data[length++] = (byte) value;
+        }
+    }
+
+    /**
+     * Sparse document score accumulator: an open-addressing map from document id to score,
+     * sized from the document frequencies of the query terms.
+     */
+    private static final class ScoreAccumulator {
+        private final int[] keys;
+        private final float[] values;
+        private final int mask;
+        private int size;
+
+        ScoreAccumulator(int expected) {
+            int capacity = Integer.highestOneBit(Math.max(16, expected * 2 - 1)) << 1;
+            keys = new int[capacity];
+            values = new float[capacity];
+            mask = capacity - 1;
+            Arrays.fill(keys, -1);
+        }
+
+        void add(int documentId, float score) {
+            int slot = (documentId * 0x9E3779B9) & mask;
+            while (keys[slot] != -1 && keys[slot] != documentId) {
+                slot = (slot + 1) & mask;
+            }
+            if (keys[slot] == -1) {
+                keys[slot] = documentId;
+                size++;
+            }
+            values[slot] += score;
+        }
+
+        float get(int documentId) {
+            int slot = (documentId * 0x9E3779B9) & mask;
+            while (keys[slot] != documentId) {
+                slot = (slot + 1) & mask;
+            }
+            return values[slot];
+        }
+
+        /**
+         * Selects the highest scoring documents with a bounded min-heap.
+         */
+        int[] top(int k) {
+            int count = Math.min(k, size);
+            int[] heapIds = new int[count];
+            float[] heapScores = new float[count];
+            int heapSize = 0;
+            for (int slot = 0; slot < keys.length; slot++) {
+                if (keys[slot] == -1) {
+                    continue;
+                }
+                float score = values[slot];
+                if (heapSize < count) {
+                    int i = heapSize++;
+                    while (i > 0 && heapScores[(i - 1) / 2] > score) {
+                        heapIds[i] = heapIds[(i - 1) / 2];
+                        heapScores[i] = heapScores[(i - 1) / 2];
+                        i = (i - 1) / 2;
+                    }
+                    heapIds[i] = keys[slot];
+                    heapScores[i] = score;
+                } else if (count > 0 && score > heapScores[0]) {
+                    int i = 0;
+                    while (true) {
+                        int child = 2 * i + 1;
+                        if (child >= count) {
+                            break;
+                        }
+                        if (child + 1 < count && heapScores[child + 1] < heapScores[child]) {
+                            child++;
+                        }
+                        if (heapScores[child] >= score) {
+                            break;
+                        }
+                        heapIds[i] = heapIds[child];
+                        heapScores[i] = heapScores[child];
+                        i = child;
+                    }
+                    heapIds[i] = keys[slot];
+                    heapScores[i] = score;
+                }
+            }
+
+            // Order the heap contents best first
+            Integer[] order = new Integer[heapSize];
+            for (int i = 0; i < heapSize; i++) {
+                order[i] = i;
+            }
+            Arrays.sort(order, (a, b) -> Float.compare(heapScores[b], heapScores[a]));
+            int[] result = new int[heapSize];
+            for (int i = 0; i < heapSize; i++) {
+                result[i] = heapIds[order[i]];
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,264 @@
+package com.example.ai.projects.langchain.rag;
+
+import dev.langchain4j.data.embedding.Embedding;
+import dev.langchain4j.data.segment.TextSegment;
+import dev.langchain4j.model.embedding.EmbeddingModel;
+import dev.langchain4j.rag.content.Content;
+import dev.langchain4j.rag.content.retriever.ContentRetriever;
+import dev.langchain4j.rag.query.Query;
+import dev.langchain4j.store.embedding.EmbeddingMatch;
+import dev.langchain4j.store.embedding.EmbeddingStore;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Two-tier content retriever: top-k results are cached per query embedding in a bounded
+ * near-neighbour cache, and only queries with no sufficiently similar cached query fall
+ * through to the backing {@link EmbeddingStore} (for example Azure AI Search).
+ *
+ * The cache is a fixed number of slots holding normalized query vectors in one packed
+ * {@code float[]}; a lookup scans the slots and returns the most similar entry above the
+ * similarity threshold. When the cache is full the least recently used slot is replaced.
+ */
+public class CachingContentRetriever implements ContentRetriever {
+
+    private final EmbeddingStore<TextSegment> embeddingStore;
+    private final EmbeddingModel embeddingModel;
+    private final int maxResults;
+    private final double minScore;
+    private final double similarityThreshold;
+    private final int capacity;
+
+    // Cache slots, guarded by "this"
+    private float[] keys;
+    private final Object[] values;
+    private final long[] lastUsed;
+    private int used;
+    private long clock;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong missNanos = new AtomicLong();
+
+    private CachingContentRetriever(Builder builder) {
+        if (builder.embeddingStore == null || builder.embeddingModel == null) {
+            throw new IllegalArgumentException("embeddingStore and embeddingModel are required");
+        }
+        this.embeddingStore = builder.embeddingStore;
+        this.embeddingModel = builder.embeddingModel;
+        this.maxResults = builder.maxResults;
+        this.minScore = builder.minScore;
+        this.similarityThreshold = builder.similarityThreshold;
+        this.capacity = builder.capacity;
+        this.values = new Object[capacity];
+        this.lastUsed = new long[capacity];
+    }
+
+    /**
+     * @return A builder for a caching retriever
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    @Override
+    public List<Content> retrieve(Query query) {
+        float[] vector = normalize(embeddingModel.embed(query.text()).content().vector());
+
+        List<Content> cached = lookup(vector);
+        if (cached != null) {
+            hits.incrementAndGet();
+            return cached;
+        }
+
+        long start = System.nanoTime();
+        List<EmbeddingMatch<TextSegment>> matches =
+            embeddingStore.findRelevant(Embedding.from(vector), maxResults, minScore);
+        missNanos.addAndGet(System.nanoTime() - start);
+        misses.incrementAndGet();
+
+        List<Content> contents = matches.stream()
+            .map(match -> Content.from(match.embedded()))
+            .toList();
+        store(vector, contents);
+        return contents;
+    }
+
+    /**
+     * @return A snapshot of the cache statistics
+     */
+    public Stats stats() {
+        long hitCount = hits.get();
+        long missCount = misses.get();
+        long averageMissNanos = missCount == 0 ? 0 : missNanos.get() / missCount;
+        return new Stats(hitCount, missCount, averageMissNanos, hitCount * averageMissNanos);
+    }
+
+    /**
+     * Removes all cached results, for example after the backing index was re-ingested.
+     */
+    public synchronized void invalidateAll() {
+        for (int i = 0; i < used; i++) {
+            values[i] = null;
+        }
+        used = 0;
+    }
+
+    @SuppressWarnings("unchecked")
+    private synchronized List<Content> lookup(float[] vector) {
+        int best = -1;
+        double bestSimilarity = similarityThreshold;
+        for (int slot = 0; slot < used; slot++) {
+            double similarity = dot(vector, slot);
+            if (similarity >= bestSimilarity) {
+                bestSimilarity = similarity;
+                best = slot;
+            }
+        }
+        if (best < 0) {
+            return null;
+        }
+        lastUsed[best] = ++clock;
+        return (List<Content>) values[best];
+    }
+
+    private synchronized void store(float[] vector, List<Content> contents) {
+        if (keys == null) {
+            keys = new float[capacity * vector.length];
+        }
+        int slot;
+        if (used < capacity) {
+            slot = used++;
+        } else {
+            slot = 0;
+            for (int i = 1; i < capacity; i++) {
+                if (lastUsed[i] < lastUsed[slot]) {
+                    slot = i;
+                }
+            }
+        }
+        System.arraycopy(vector, 0, keys, slot * vector.length, vector.length);
+        values[slot] = contents;
+        lastUsed[slot] = ++clock;
+    }
+
+    private double dot(float[] vector, int slot) {
+        int offset = slot * vector.length;
+        float sum = 0;
+        for (int i = 0; i < vector.length; i++) {
+            sum += vector[i] * keys[offset + i];
+        }
+        return sum;
+    }
+
+    private static float[] normalize(float[] vector) {
+        double norm = 0;
+        for (float value : vector) {
+            norm += value * value;
+        }
+        norm = Math.sqrt(norm);
+        float[] normalized = new float[vector.length];
+        for (int i = 0; i < vector.length && norm > 0; i++) {
+            normalized[i] = (float) (vector[i] / norm);
+        }
+        return normalized;
+    }
+
+    /**
+     * Cache statistics.
+     *
+     * @param hits Queries served from the local cache
+     * @param misses Queries that went to the backing store
+     * @param averageMissNanos Average latency of a backing store lookup
+     * @param savedNanos Estimated latency saved by cache hits (hits * average miss latency)
+     */
+    public record Stats(long hits, long misses, long averageMissNanos, long savedNanos) {
+
+        /**
+         * @return The fraction of queries served from the cache
+         */
+        public double hitRate() {
+            long total = hits + misses;
+            return total == 0 ? 0 : (double) hits / total;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("hits=%d, misses=%d, hitRate=%.1f%%, avgMiss=%dms, saved=%dms",
+                hits, misses, hitRate() * 100,
+                TimeUnit.NANOSECONDS.toMillis(averageMissNanos), TimeUnit.NANOSECONDS.toMillis(savedNanos));
+        }
+    }
+
+    /**
+     * Builder for {@link CachingContentRetriever}.
+     */
+    public static class Builder {
+        private EmbeddingStore<TextSegment> embeddingStore;
+        private EmbeddingModel embeddingModel;
+        private int maxResults = 3;
+        private double minScore = 0;
+        private double similarityThreshold = 0.95;
+        private int capacity = 256;
+
+        /**
+         * @param embeddingStore The store queried on a cache miss
+         * @return This builder
+         */
+        public Builder embeddingStore(EmbeddingStore<TextSegment> embeddingStore) {
+            this.embeddingStore = embeddingStore;
+            return this;
+        }
+
+        /**
+         * @param embeddingModel The model used to embed queries
+         * @return This builder
+         */
+        public Builder embeddingModel(EmbeddingModel embeddingModel) {
+            this.embeddingModel = embeddingModel;
+            return this;
+        }
+
+        /**
+         * @param maxResults The number of results requested from the store
+         * @return This builder
+         */
+        public Builder maxResults(int maxResults) {
+            this.maxResults = maxResults;
+            return this;
+        }
+
+        /**
+         * @param minScore The minimum relevance score requested from the store
+         * @return This builder
+         */
+        public Builder minScore(double minScore) {
+            this.minScore = minScore;
+            return this;
+        }
+
+        /**
+         * @param similarityThreshold The cosine similarity at which two queries are treated as the same
+         * @return This builder
+         */
+        public Builder similarityThreshold(double similarityThreshold) {
+            this.similarityThreshold = similarityThreshold;
+            return this;
+        }
+
+        /**
+         * @param capacity The maximum number of cached queries
+         * @return This builder
+         */
+        public Builder capacity(int capacity) {
+            this.capacity = capacity;
+            return this;
+        }
+
+        public CachingContentRetriever build() {
+            return new CachingContentRetriever(this);
+        }
+    }
+}
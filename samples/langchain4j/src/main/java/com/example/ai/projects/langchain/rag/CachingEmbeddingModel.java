@@ -0,0 +1,88 @@
+package com.example.ai.projects.langchain.rag;
+
+import dev.langchain4j.data.embedding.Embedding;
+import dev.langchain4j.data.segment.TextSegment;
+import dev.langchain4j.model.embedding.EmbeddingModel;
+import dev.langchain4j.model.output.Response;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Embedding model decorator that serves previously embedded segments from an {@link EmbeddingCache}.
+ * Only segments missing from the cache are sent to the underlying model, in a single batch.
+ */
+public class CachingEmbeddingModel implements EmbeddingModel {
+
+    private final EmbeddingModel delegate;
+    private final String modelDeployment;
+    private final EmbeddingCache cache;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    /**
+     * Creates a caching embedding model.
+     *
+     * @param delegate The model used for cache misses
+     * @param modelDeployment The deployment name of the delegate, part of the cache key
+     * @param cache The cache holding previously computed vectors
+     */
+    public CachingEmbeddingModel(EmbeddingModel delegate, String modelDeployment, EmbeddingCache cache) {
+        this.delegate = delegate;
+        this.modelDeployment = modelDeployment;
+        this.cache = cache;
+    }
+
+    @Override
+    public Response<List<Embedding>> embedAll(List<TextSegment> textSegments) {
+        Embedding[] results = new Embedding[textSegments.size()];
+        long[][] keys = new long[textSegments.size()][];
+        List<TextSegment> missing = new ArrayList<>();
+        List<Integer> missingPositions = new ArrayList<>();
+
+        for (int i = 0; i < textSegments.size(); i++) {
+            keys[i] = EmbeddingCache.key(modelDeployment, textSegments.get(i).text());
+            float[] vector = cache.get(keys[i]);
+            if (vector != null) {
+                results[i] = Embedding.from(vector);
+            } else {
+                missing.add(textSegments.get(i));
+                missingPositions.add(i);
+            }
+        }
+
+        hits.addAndGet(textSegments.size() - missing.size());
+        misses.addAndGet(missing.size());
+
+        if (missing.isEmpty()) {
+            return Response.from(Arrays.asList(results));
+        }
+
+        Response<List<Embedding>> response = delegate.embedAll(missing);
+        List<Embedding> computed = response.content();
+        for (int i = 0; i < computed.size(); i++) {
+            int position = missingPositions.get(i);
+            results[position] = computed.get(i);
+            cache.put(keys[position], computed.get(i).vector());
+        }
+
+        return Response.from(Arrays.asList(results), response.tokenUsage());
+    }
+
+    /**
+     * @return The number of segments served from the cache
+     */
+    public long hitCount() {
+        return hits.get();
+    }
+
+    /**
+     * @return The number of segments sent to the underlying model
+     */
+    public long missCount() {
+        return misses.get();
+    }
+}
@@ -0,0 +1,290 @@
+package com.example.ai.projects.langchain.rag;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Persistent embedding cache backed by a memory-mapped file.
+ *
+ * Each entry maps a 128-bit hash of (model deployment, segment text) to a packed
+ * {@code float[]} vector. The file layout is a fixed header followed by fixed-size records:
+ * <pre>
+ * header: magic(int) version(int) dimension(int) count(int) reserved(16 bytes)
+ * record: keyHi(long) keyLo(long) vector(float * dimension)
+ * </pre>
+ * The in-memory index is an open-addressing table of primitive longs that is rebuilt
+ * from the file when the cache is opened. A single file holds vectors of one dimension.
+ */
+public class EmbeddingCache implements Closeable {
+
+    private static final int MAGIC = 0x454D4243; // "EMBC"
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 32;
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private final FileChannel channel;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private MappedByteBuffer buffer;
+    private int dimension;
+    private int count;
+    private int capacity;
+
+    // Open-addressing index: key halves -> record number (+1, so 0 means empty)
+    private long[] indexHi;
+    private long[] indexLo;
+    private int[] indexSlot;
+
+    private EmbeddingCache(FileChannel channel) {
+        this.channel = channel;
+    }
+
+    /**
+     * Opens (or creates) an embedding cache file.
+     *
+     * @param file The cache file
+     * @return The opened cache
+     */
+    public static EmbeddingCache open(Path file) {
+        try {
+            FileChannel channel = FileChannel.open(file,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            EmbeddingCache cache = new EmbeddingCache(channel);
+            cache.load();
+            return cache;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to open embedding cache: " + file, e);
+        }
+    }
+
+    /**
+     * Computes the cache key for a segment embedded by a given model deployment.
+     *
+     * @param modelDeployment The embedding model deployment name
+     * @param text The segment text
+     * @return A 128-bit key as two longs
+     */
+    public static long[] key(String modelDeployment, String text) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(modelDeployment.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            byte[] hash = digest.digest(text.getBytes(StandardCharsets.UTF_8));
+            return new long[] { toLong(hash, 0), toLong(hash, 8) };
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /**
+     * Looks up a cached vector.
+     *
+     * @param key The key returned by {@link #key(String, String)}
+     * @return A copy of the cached vector, or null if not present
+     */
+    public float[] get(long[] key) {
+        lock.readLock().lock();
+        try {
+            int record = find(key[0], key[1]);
+            if (record < 0) {
+                return null;
+            }
+            float[] vector = new float[dimension];
+            buffer.slice(vectorOffset(record), dimension * Float.BYTES)
+                .order(ByteOrder.LITTLE_ENDIAN)
+                .asFloatBuffer()
+                .get(vector);
+            return vector;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Stores a vector. Existing entries are left untouched.
+     *
+     * @param key The key returned by {@link #key(String, String)}
+     * @param vector The embedding vector
+     */
+    public void put(long[] key, float[] vector) {
+        lock.writeLock().lock();
+        try {
+            if (dimension == 0) {
+                dimension = vector.length;
+                buffer.putInt(8, dimension);
+                remap(capacity);
+            } else if (vector.length != dimension) {
+                throw new IllegalArgumentException(
+                    "Vector dimension " + vector.length + " does not match cache dimension " + dimension);
+            }
+            if (find(key[0], key[1]) >= 0) {
+                return;
+            }
+            if (count == capacity) {
+                remap(capacity * 2);
+            }
+
+            int record = count;
+            int offset = recordOffset(record);
+            buffer.putLong(offset, key[0]);
+            buffer.putLong(offset + Long.BYTES, key[1]);
+            buffer.slice(vectorOffset(record), dimension * Float.BYTES)
+                .order(ByteOrder.LITTLE_ENDIAN)
+                .asFloatBuffer()
+                .put(vector);
+
+            // Publish the record only after it has been fully written
+            count++;
+            buffer.putInt(12, count);
+            index(key[0], key[1], record);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @return The number of cached vectors
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return count;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Forces pending writes to the underlying storage device.
+     */
+    public void flush() {
+        lock.writeLock().lock();
+        try {
+            buffer.force();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        flush();
+        channel.close();
+    }
+
+    private void load() throws IOException {
+        long existing = channel.size();
+        if (existing < HEADER_BYTES) {
+            capacity = INITIAL_CAPACITY;
+            buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_BYTES);
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            buffer.putInt(0, MAGIC);
+            buffer.putInt(4, VERSION);
+            buffer.putInt(8, 0);
+            buffer.putInt(12, 0);
+            resetIndex(capacity);
+            return;
+        }
+
+        MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_BYTES);
+        header.order(ByteOrder.LITTLE_ENDIAN);
+        if (header.getInt(0) != MAGIC || header.getInt(4) != VERSION) {
+            throw new IOException("Not an embedding cache file (bad magic or version)");
+        }
+        dimension = header.getInt(8);
+        count = header.getInt(12);
+        capacity = Math.max(INITIAL_CAPACITY, Integer.highestOneBit(Math.max(1, count)) * 2);
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, mappedBytes(capacity));
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+
+        resetIndex(capacity);
+        for (int record = 0; record < count; record++) {
+            int offset = recordOffset(record);
+            index(buffer.getLong(offset), buffer.getLong(offset + Long.BYTES), record);
+        }
+    }
+
+    private void remap(int newCapacity) {
+        try {
+            buffer.force();
+            buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, mappedBytes(newCapacity));
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            capacity = newCapacity;
+
+            resetIndex(newCapacity);
+            for (int record = 0; record < count; record++) {
+                int offset = recordOffset(record);
+                index(buffer.getLong(offset), buffer.getLong(offset + Long.BYTES), record);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to grow embedding cache", e);
+        }
+    }
+
+    private long mappedBytes(int records) {
+        long bytes = HEADER_BYTES + (long) records * recordBytes();
+        if (bytes > Integer.MAX_VALUE) {
+            throw new IllegalStateException("Embedding cache exceeds the 2 GB mapping limit");
+        }
+        return bytes;
+    }
+
+    private int recordBytes() {
+        return 2 * Long.BYTES + dimension * Float.BYTES;
+    }
+
+    private int recordOffset(int record) {
+        return HEADER_BYTES + record * recordBytes();
+    }
+
+    private int vectorOffset(int record) {
+        return recordOffset(record) + 2 * Long.BYTES;
+    }
+
+    private void resetIndex(int records) {
+        int slots = Integer.highestOneBit(records) * 4;
+        indexHi = new long[slots];
+        indexLo = new long[slots];
+        indexSlot = new int[slots];
+    }
+
+    private int find(long hi, long lo) {
+        int mask = indexSlot.length - 1;
+        for (int i = (int) (hi ^ (hi >>> 32)) & mask; indexSlot[i] != 0; i = (i + 1) & mask) {
+            if (indexHi[i] == hi && indexLo[i] == lo) {
+                return indexSlot[i] - 1;
+            }
+        }
+        return -1;
+    }
+
+    private void index(long hi, long lo, int record) {
+        int mask = indexSlot.length - 1;
+        int i = (int) (hi ^ (hi >>> 32)) & mask;
+        while (indexSlot[i] != 0) {
+            i = (i + 1) & mask;
+        }
+        indexHi[i] = hi;
+        indexLo[i] = lo;
+        indexSlot[i] = record + 1;
+    }
+
+    private static long toLong(byte[] bytes, int offset) {
+        long value = 0;
+        for (int i = 0; i < Long.BYTES; i++) {
+            value = (value << 8) | (bytes[offset + i] & 0xFF);
+        }
+        return value;
+    }
+}
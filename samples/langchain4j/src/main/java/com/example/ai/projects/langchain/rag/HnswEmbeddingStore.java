@@ -0,0 +1,684 @@
+package com.example.ai.projects.langchain.rag;
+
+import dev.langchain4j.data.document.Metadata;
+import dev.langchain4j.data.embedding.Embedding;
+import dev.langchain4j.data.segment.TextSegment;
+import dev.langchain4j.store.embedding.EmbeddingMatch;
+import dev.langchain4j.store.embedding.EmbeddingStore;
+import dev.langchain4j.store.embedding.RelevanceScore;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * In-process {@link EmbeddingStore} backed by an HNSW (Hierarchical Navigable Small World) graph.
+ *
+ * Vectors are normalized on insert and kept off-heap in fixed-size direct buffer chunks, so
+ * similarity is a plain dot product over primitive floats. Inserts are serialized by a single
+ * writer lock, while searches never block: a node only becomes visible to readers once it is
+ * fully linked and the published size is advanced, and neighbor lists are replaced atomically.
+ *
+ * The store can be written to a snapshot file with {@link #save(Path)} and reloaded with
+ * {@link #load(Path)}; vectors are read straight into direct buffers on reload.
+ */
+public class HnswEmbeddingStore implements EmbeddingStore<TextSegment> {
+
+    private static final int MAGIC = 0x484E5357; // "HNSW"
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 64;
+    private static final int CHUNK_NODES = 4096;
+
+    private final int dimension;
+    private final int m;
+    private final int maxNeighborsLayer0;
+    private final int efConstruction;
+    private final int efSearch;
+    private final double levelMultiplier;
+
+    private final Object writeLock = new Object();
+
+    // Published state, read without locking by searches
+    private volatile int size;
+    private volatile Chunk[] chunks = new Chunk[0];
+    private volatile Node[] nodes = new Node[CHUNK_NODES];
+    private volatile EntryPoint entryPoint;
+
+    private HnswEmbeddingStore(Builder builder) {
+        if (builder.dimension <= 0) {
+            throw new IllegalArgumentException("dimension must be set to a positive value");
+        }
+        this.dimension = builder.dimension;
+        this.m = builder.m;
+        this.maxNeighborsLayer0 = builder.m * 2;
+        this.efConstruction = builder.efConstruction;
+        this.efSearch = builder.efSearch;
+        this.levelMultiplier = 1 / Math.log(builder.m);
+    }
+
+    /**
+     * @return A builder for a new, empty store
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    @Override
+    public String add(Embedding embedding) {
+        String id = UUID.randomUUID().toString();
+        add(id, embedding);
+        return id;
+    }
+
+    @Override
+    public void add(String id, Embedding embedding) {
+        insert(id, embedding.vector(), null);
+    }
+
+    @Override
+    public String add(Embedding embedding, TextSegment textSegment) {
+        String id = UUID.randomUUID().toString();
+        insert(id, embedding.vector(), textSegment);
+        return id;
+    }
+
+    @Override
+    public List<String> addAll(List<Embedding> embeddings) {
+        List<String> ids = new ArrayList<>(embeddings.size());
+        for (Embedding embedding : embeddings) {
+            ids.add(add(embedding));
+        }
+        return ids;
+    }
+
+    @Override
+    public List<String> addAll(List<Embedding> embeddings, List<TextSegment> textSegments) {
+        if (embeddings.size() != textSegments.size()) {
+            throw new IllegalArgumentException("The number of embeddings and text segments must match");
+        }
+        List<String> ids = new ArrayList<>(embeddings.size());
+        for (int i = 0; i < embeddings.size(); i++) {
+            ids.add(add(embeddings.get(i), textSegments.get(i)));
+        }
+        return ids;
+    }
+
+    @Override
+    public List<EmbeddingMatch<TextSegment>> findRelevant(Embedding referenceEmbedding, int maxResults, double minScore) {
+        // Take a consistent snapshot of the published state
+        EntryPoint entry = entryPoint;
+        int visible = size;
+        if (entry == null || visible == 0) {
+            return List.of();
+        }
+        Node[] nodesSnapshot = nodes;
+        Chunk[] chunksSnapshot = chunks;
+
+        float[] query = normalize(referenceEmbedding.vector());
+        int current = entry.node;
+        for (int level = entry.level; level > 0; level--) {
+            current = greedyClosest(query, current, level, visible, nodesSnapshot, chunksSnapshot);
+        }
+        NodeQueue found = searchLayer(query, current, Math.max(efSearch, maxResults), 0,
+            visible, nodesSnapshot, chunksSnapshot);
+
+        int[] ids = new int[found.size];
+        float[] scores = new float[found.size];
+        for (int i = found.size - 1; i >= 0; i--) {
+            scores[i] = found.peekScore();
+            ids[i] = found.pop();
+        }
+
+        List<EmbeddingMatch<TextSegment>> matches = new ArrayList<>(Math.min(maxResults, ids.length));
+        for (int i = 0; i < ids.length && matches.size() < maxResults; i++) {
+            double score = RelevanceScore.fromCosineSimilarity(scores[i]);
+            if (score < minScore) {
+                break;
+            }
+            Node node = nodesSnapshot[ids[i]];
+            matches.add(new EmbeddingMatch<>(score, node.id,
+                Embedding.from(vector(ids[i], chunksSnapshot)), node.embedded));
+        }
+        return matches;
+    }
+
+    /**
+     * @return The number of searchable vectors in the store
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return The vector dimension accepted by this store
+     */
+    public int dimension() {
+        return dimension;
+    }
+
+    /**
+     * Writes a snapshot of the store. Searches may continue while the snapshot is written;
+     * inserts wait until it completes.
+     *
+     * @param file The snapshot file to create or replace
+     */
+    public void save(Path file) {
+        synchronized (writeLock) {
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                EntryPoint entry = entryPoint;
+                ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+                header.putInt(MAGIC).putInt(VERSION).putInt(dimension).putInt(m)
+                    .putInt(efConstruction).putInt(efSearch).putInt(size)
+                    .putInt(entry != null ? entry.node : -1).putInt(entry != null ? entry.level : -1);
+                header.clear();
+                channel.write(header, 0);
+
+                // Vectors go straight from the off-heap chunks to the file
+                long position = HEADER_BYTES;
+                long remaining = (long) size * dimension * Float.BYTES;
+                for (int c = 0; remaining > 0; c++) {
+                    ByteBuffer bytes = chunkBytes(c);
+                    bytes.limit((int) Math.min(bytes.capacity(), remaining));
+                    while (bytes.hasRemaining()) {
+                        position += channel.write(bytes, position);
+                    }
+                    remaining -= bytes.limit();
+                }
+
+                channel.position(position);
+                DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel)));
+                for (int i = 0; i < size; i++) {
+                    writeNode(out, nodes[i]);
+                }
+                out.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to write HNSW snapshot: " + file, e);
+            }
+        }
+    }
+
+    /**
+     * Loads a store from a snapshot written by {@link #save(Path)}.
+     *
+     * @param file The snapshot file
+     * @return The loaded store
+     */
+    public static HnswEmbeddingStore load(Path file) {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            while (header.hasRemaining() && channel.read(header) >= 0) {
+                // read the full header
+            }
+            header.flip();
+            if (header.remaining() < HEADER_BYTES || header.getInt() != MAGIC || header.getInt() != VERSION) {
+                throw new IOException("Not an HNSW snapshot (bad magic or version)");
+            }
+
+            HnswEmbeddingStore store = builder()
+                .dimension(header.getInt())
+                .m(header.getInt())
+                .efConstruction(header.getInt())
+                .efSearch(header.getInt())
+                .build();
+            int count = header.getInt();
+            int entryNode = header.getInt();
+            int entryLevel = header.getInt();
+
+            store.ensureCapacity(count);
+            long position = HEADER_BYTES;
+            long remaining = (long) count * store.dimension * Float.BYTES;
+            for (int c = 0; remaining > 0; c++) {
+                ByteBuffer bytes = store.chunkBytes(c);
+                bytes.limit((int) Math.min(bytes.capacity(), remaining));
+                while (bytes.hasRemaining()) {
+                    int read = channel.read(bytes, position);
+                    if (read < 0) {
+                        throw new IOException("Unexpected end of HNSW snapshot");
+                    }
+                    position += read;
+                }
+                remaining -= bytes.limit();
+            }
+
+            channel.position(position);
+            DataInputStream in = new DataInputStream(new BufferedInputStream(Channels.newInputStream(channel)));
+            for (int i = 0; i < count; i++) {
+                store.nodes[i] = readNode(in);
+            }
+            store.entryPoint = entryNode >= 0 ? new EntryPoint(entryNode, entryLevel) : null;
+            store.size = count;
+            return store;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to load HNSW snapshot: " + file, e);
+        }
+    }
+
+    private void insert(String id, float[] vector, TextSegment embedded) {
+        if (vector.length != dimension) {
+            throw new IllegalArgumentException(
+                "Embedding dimension " + vector.length + " does not match store dimension " + dimension);
+        }
+        float[] normalized = normalize(vector);
+        int level = randomLevel();
+
+        synchronized (writeLock) {
+            int node = size;
+            ensureCapacity(node + 1);
+            Chunk[] chunksSnapshot = chunks;
+            chunksSnapshot[node / CHUNK_NODES].floats().put((node % CHUNK_NODES) * dimension, normalized);
+            Node[] nodesSnapshot = nodes;
+            nodesSnapshot[node] = new Node(id, embedded, level);
+
+            EntryPoint entry = entryPoint;
+            if (entry == null) {
+                entryPoint = new EntryPoint(node, level);
+                size = node + 1;
+                return;
+            }
+
+            // The node being inserted is visible to the writer only
+            int visible = node + 1;
+            int current = entry.node;
+            for (int l = entry.level; l > level; l--) {
+                current = greedyClosest(normalized, current, l, visible, nodesSnapshot, chunksSnapshot);
+            }
+
+            for (int l = Math.min(level, entry.level); l >= 0; l--) {
+                NodeQueue candidates = searchLayer(normalized, current, efConstruction, l,
+                    visible, nodesSnapshot, chunksSnapshot);
+                int[] neighbors = closest(candidates, l == 0 ? maxNeighborsLayer0 : m);
+                nodesSnapshot[node].neighbors.set(l, neighbors);
+                for (int neighbor : neighbors) {
+                    link(neighbor, node, l, nodesSnapshot, chunksSnapshot);
+                }
+                current = neighbors.length > 0 ? neighbors[0] : current;
+            }
+
+            // Publish the node only once it is fully linked
+            size = node + 1;
+            if (level > entry.level) {
+                entryPoint = new EntryPoint(node, level);
+            }
+        }
+    }
+
+    private void link(int from, int to, int level, Node[] nodesSnapshot, Chunk[] chunksSnapshot) {
+        int limit = level == 0 ? maxNeighborsLayer0 : m;
+        int[] existing = nodesSnapshot[from].neighbors.get(level);
+        int[] updated = Arrays.copyOf(existing, existing.length + 1);
+        updated[existing.length] = to;
+
+        if (updated.length > limit) {
+            // Keep the closest neighbors of the node being updated
+            float[] base = vector(from, chunksSnapshot);
+            NodeQueue queue = new NodeQueue(updated.length, false);
+            for (int candidate : updated) {
+                queue.push(candidate, dot(base, candidate, chunksSnapshot));
+            }
+            updated = closest(queue, limit);
+        }
+        // Readers see either the old or the new list, never a partially written one
+        nodesSnapshot[from].neighbors.set(level, updated);
+    }
+
+    private int greedyClosest(float[] query, int start, int level, int visible,
+                              Node[] nodesSnapshot, Chunk[] chunksSnapshot) {
+        int current = start;
+        float best = dot(query, current, chunksSnapshot);
+        boolean improved = true;
+        while (improved) {
+            improved = false;
+            for (int neighbor : nodesSnapshot[current].neighborsAt(level)) {
+                if (neighbor >= visible) {
+                    continue;
+                }
+                float score = dot(query, neighbor, chunksSnapshot);
+                if (score > best) {
+                    best = score;
+                    current = neighbor;
+                    improved = true;
+                }
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Best-first search of one layer. Returns a min-queue of at most {@code ef} results,
+     * so the worst result is at the head.
+     */
+    private NodeQueue searchLayer(float[] query, int start, int ef, int level, int visible,
+                                  Node[] nodesSnapshot, Chunk[] chunksSnapshot) {
+        BitSet visited = new BitSet(visible);
+        NodeQueue candidates = new NodeQueue(ef * 2, true);
+        NodeQueue results = new NodeQueue(ef + 1, false);
+
+        float startScore = dot(query, start, chunksSnapshot);
+        visited.set(start);
+        candidates.push(start, startScore);
+        results.push(start, startScore);
+
+        while (candidates.size > 0) {
+            float candidateScore = candidates.peekScore();
+            if (results.size >= ef && candidateScore < results.peekScore()) {
+                break;
+            }
+            int candidate = candidates.pop();
+            for (int neighbor : nodesSnapshot[candidate].neighborsAt(level)) {
+                if (neighbor >= visible || visited.get(neighbor)) {
+                    continue;
+                }
+                visited.set(neighbor);
+                float score = dot(query, neighbor, chunksSnapshot);
+                if (results.size < ef || score > results.peekScore()) {
+                    candidates.push(neighbor, score);
+                    results.push(neighbor, score);
+                    if (results.size > ef) {
+                        results.pop();
+                    }
+                }
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Drains a min-queue and returns up to {@code limit} ids, closest first.
+     */
+    private static int[] closest(NodeQueue queue, int limit) {
+        while (queue.size > limit) {
+            queue.pop();
+        }
+        int[] ids = new int[queue.size];
+        for (int i = ids.length - 1; i >= 0; i--) {
+            ids[i] = queue.pop();
+        }
+        return ids;
+    }
+
+    private int randomLevel() {
+        double uniform = 1.0 - ThreadLocalRandom.current().nextDouble();
+        return (int) (-Math.log(uniform) * levelMultiplier);
+    }
+
+    private void ensureCapacity(int nodeCount) {
+        int requiredChunks = (nodeCount + CHUNK_NODES - 1) / CHUNK_NODES;
+        if (requiredChunks > chunks.length) {
+            Chunk[] grown = Arrays.copyOf(chunks, requiredChunks);
+            for (int c = chunks.length; c < requiredChunks; c++) {
+                ByteBuffer bytes = ByteBuffer.allocateDirect(CHUNK_NODES * dimension * Float.BYTES)
+                    .order(ByteOrder.LITTLE_ENDIAN);
+                grown[c] = new Chunk(bytes, bytes.asFloatBuffer());
+            }
+            chunks = grown;
+        }
+        if (nodeCount > nodes.length) {
+            nodes = Arrays.copyOf(nodes, Math.max(nodeCount, nodes.length * 2));
+        }
+    }
+
+    private ByteBuffer chunkBytes(int chunk) {
+        // A byte view of the same off-heap memory, used for bulk snapshot I/O
+        return chunks[chunk].bytes().duplicate().clear();
+    }
+
+    private float[] vector(int node, Chunk[] chunksSnapshot) {
+        float[] vector = new float[dimension];
+        chunksSnapshot[node / CHUNK_NODES].floats().get((node % CHUNK_NODES) * dimension, vector);
+        return vector;
+    }
+
+    private float dot(float[] query, int node, Chunk[] chunksSnapshot) {
+        FloatBuffer chunk = chunksSnapshot[node / CHUNK_NODES].floats();
+        int offset = (node % CHUNK_NODES) * dimension;
+        float sum = 0;
+        for (int i = 0; i < dimension; i++) {
+            sum += query[i] * chunk.get(offset + i);
+        }
+        return sum;
+    }
+
+    private static float[] normalize(float[] vector) {
+        double norm = 0;
+        for (float value : vector) {
+            norm += value * value;
+        }
+        norm = Math.sqrt(norm);
+        float[] normalized = new float[vector.length];
+        if (norm == 0) {
+            return normalized;
+        }
+        for (int i = 0; i < vector.length; i++) {
+            normalized[i] = (float) (vector[i] / norm);
+        }
+        return normalized;
+    }
+
+    private static void writeNode(DataOutputStream out, Node node) throws IOException {
+        writeString(out, node.id);
+        out.writeInt(node.neighbors.length());
+        for (int l = 0; l < node.neighbors.length(); l++) {
+            int[] neighbors = node.neighbors.get(l);
+            out.writeInt(neighbors.length);
+            for (int neighbor : neighbors) {
+                out.writeInt(neighbor);
+            }
+        }
+        out.writeBoolean(node.embedded != null);
+        if (node.embedded != null) {
+            writeString(out, node.embedded.text());
+            Map<String, String> metadata = node.embedded.metadata().asMap();
+            out.writeInt(metadata.size());
+            for (Map.Entry<String, String> entry : metadata.entrySet()) {
+                writeString(out, entry.getKey());
+                writeString(out, entry.getValue());
+            }
+        }
+    }
+
+    private static Node readNode(DataInputStream in) throws IOException {
+        String id = readString(in);
+        int levels = in.readInt();
+        int[][] neighbors = new int[levels][];
+        for (int l = 0; l < levels; l++) {
+            neighbors[l] = new int[in.readInt()];
+            for (int i = 0; i < neighbors[l].length; i++) {
+                neighbors[l][i] = in.readInt();
+            }
+        }
+        TextSegment embedded = null;
+        if (in.readBoolean()) {
+            String text = readString(in);
+            int entries = in.readInt();
+            Map<String, String> metadata = new HashMap<>();
+            for (int i = 0; i < entries; i++) {
+                metadata.put(readString(in), readString(in));
+            }
+            embedded = TextSegment.from(text, new Metadata(metadata));
+        }
+        Node node = new Node(id, embedded, levels - 1);
+        for (int l = 0; l < levels; l++) {
+            node.neighbors.set(l, neighbors[l]);
+        }
+        return node;
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static final int[] NO_NEIGHBORS = new int[0];
+
+    private static final class Node {
+        final String id;
+        final TextSegment embedded;
+        final AtomicReferenceArray<int[]> neighbors;
+
+        Node(String id, TextSegment embedded, int level) {
+            this.id = id;
+            this.embedded = embedded;
+            this.neighbors = new AtomicReferenceArray<>(level + 1);
+            for (int l = 0; l <= level; l++) {
+                neighbors.set(l, NO_NEIGHBORS);
+            }
+        }
+
+        int[] neighborsAt(int level) {
+            return level < neighbors.length() ? neighbors.get(level) : NO_NEIGHBORS;
+        }
+    }
+
+    private record EntryPoint(int node, int level) {
+    }
+
+    private record Chunk(ByteBuffer bytes, FloatBuffer floats) {
+    }
+
+    /**
+     * Binary heap of node ids ordered by score, backed by primitive arrays.
+     */
+    private static final class NodeQueue {
+        private int[] ids;
+        private float[] scores;
+        private final boolean maxFirst;
+        int size;
+
+        NodeQueue(int initialCapacity, boolean maxFirst) {
+            this.ids = new int[Math.max(4, initialCapacity)];
+            this.scores = new float[ids.length];
+            this.maxFirst = maxFirst;
+        }
+
+        void push(int id, float score) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+                scores = Arrays.copyOf(scores, size * 2);
+            }
+            int i = size++;
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (!before(score, scores[parent])) {
+                    break;
+                }
+                ids[i] = ids[parent];
+                scores[i] = scores[parent];
+                i = parent;
+            }
+            ids[i] = id;
+            scores[i] = score;
+        }
+
+        float peekScore() {
+            return scores[0];
+        }
+
+        int pop() {
+            int top = ids[0];
+            size--;
+            int lastId = ids[size];
+            float lastScore = scores[size];
+            int i = 0;
+            while (true) {
+                int child = 2 * i + 1;
+                if (child >= size) {
+                    break;
+                }
+                if (child + 1 < size && before(scores[child + 1], scores[child])) {
+                    child++;
+                }
+                if (!before(scores[child], lastScore)) {
+                    break;
+                }
+                ids[i] = ids[child];
+                scores[i] = scores[child];
+                i = child;
+            }
+            ids[i] = lastId;
+            scores[i] = lastScore;
+            return top;
+        }
+
+        private boolean before(float a, float b) {
+            return maxFirst ? a > b : a < b;
+        }
+    }
+
+    /**
+     * Builder for {@link HnswEmbeddingStore}.
+     */
+    public static class Builder {
+        private int dimension;
+        private int m = 16;
+        private int efConstruction = 200;
+        private int efSearch = 64;
+
+        /**
+         * @param dimension The vector dimension, e.g. 1536 for text-embedding-3-small
+         * @return This builder
+         */
+        public Builder dimension(int dimension) {
+            this.dimension = dimension;
+            return this;
+        }
+
+        /**
+         * @param m The maximum number of neighbors per node on upper layers (layer 0 uses 2 * m)
+         * @return This builder
+         */
+        public Builder m(int m) {
+            this.m = m;
+            return this;
+        }
+
+        /**
+         * @param efConstruction The candidate list size used while inserting
+         * @return This builder
+         */
+        public Builder efConstruction(int efConstruction) {
+            this.efConstruction = efConstruction;
+            return this;
+        }
+
+        /**
+         * @param efSearch The minimum candidate list size used while searching
+         * @return This builder
+         */
+        public Builder efSearch(int efSearch) {
+            this.efSearch = efSearch;
+            return this;
+        }
+
+        public HnswEmbeddingStore build() {
+            return new HnswEmbeddingStore(this);
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.ai.projects.langchain.rag;
+
+import dev.langchain4j.rag.content.Content;
+import dev.langchain4j.rag.content.retriever.ContentRetriever;
+import dev.langchain4j.rag.query.Query;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Content retriever that fuses the results of several retrievers (for example vector and
+ * BM25 keyword search) with reciprocal-rank fusion: each result scores 1 / (k + rank) in every
+ * list it appears in, and results are ordered by the sum of their scores.
+ */
+public class HybridContentRetriever implements ContentRetriever {
+
+    private static final int DEFAULT_RANK_CONSTANT = 60;
+
+    private final List<ContentRetriever> retrievers;
+    private final int maxResults;
+    private final int rankConstant;
+
+    /**
+     * Creates a hybrid retriever with the usual rank constant of 60.
+     *
+     * @param retrievers The retrievers whose results are fused
+     * @param maxResults The maximum number of fused results
+     */
+    public HybridContentRetriever(List<ContentRetriever> retrievers, int maxResults) {
+        this(retrievers, maxResults, DEFAULT_RANK_CONSTANT);
+    }
+
+    /**
+     * Creates a hybrid retriever.
+     *
+     * @param retrievers The retrievers whose results are fused
+     * @param maxResults The maximum number of fused results
+     * @param rankConstant The RRF constant k; larger values flatten the contribution of top ranks
+     */
+    public HybridContentRetriever(List<ContentRetriever> retrievers, int maxResults, int rankConstant) {
+        this.retrievers = List.copyOf(retrievers);
+        this.maxResults = maxResults;
+        this.rankConstant = rankConstant;
+    }
+
+    @Override
+    public List<Content> retrieve(Query query) {
+        // Results from different retrievers are matched on their segment text
+        Map<String, Content> contents = new LinkedHashMap<>();
+        Map<String, Double> scores = new LinkedHashMap<>();
+        for (ContentRetriever retriever : retrievers) {
+            List<Content> results = retriever.retrieve(query);
+            for (int rank = 0; rank < results.size(); rank++) {
+                Content content = results.get(rank);
+                String key = content.textSegment().text();
+                contents.putIfAbsent(key, content);
+                scores.merge(key, 1.0 / (rankConstant + rank + 1), Double::sum);
+            }
+        }
+
+        List<String> ranked = new ArrayList<>(scores.keySet());
+        ranked.sort((a, b) -> Double.compare(scores.get(b), scores.get(a)));
+        return ranked.stream()
+            .limit(maxResults)
+            .map(contents::get)
+            .toList();
+    }
+}
@@ -0,0 +1,253 @@
+package com.example.ai.projects.langchain.rag;
+
+import dev.langchain4j.data.document.Metadata;
+import dev.langchain4j.data.segment.TextSegment;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Streaming, Markdown-aware chunker.
+ *
+ * Input is read through a channel in fixed-size buffers and decoded incrementally, and segments
+ * are handed to the consumer in batches as soon as they are complete, so memory use depends on
+ * the buffer, segment and batch sizes rather than on the size of the file.
+ *
+ * A new segment starts at every Markdown heading outside fenced code blocks, and sections longer
+ * than the maximum segment length are split at line boundaries (very long lines are split hard).
+ * Each segment carries the source name, the heading path (for example
+ * "Contoso Product Pricing Information > Surface Laptop Pricing") and its position as metadata.
+ */
+public class MarkdownChunker {
+
+    /** Metadata key holding the source file name. */
+    public static final String FILE_NAME = "file_name";
+
+    /** Metadata key holding the heading path of the segment. */
+    public static final String HEADING = "heading";
+
+    /** Metadata key holding the position of the segment within its source. */
+    public static final String INDEX = "index";
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final int maxSegmentLength;
+    private final int batchSize;
+
+    /**
+     * Creates a chunker.
+     *
+     * @param maxSegmentLength The maximum segment length in characters
+     * @param batchSize The number of segments handed to the consumer at a time
+     */
+    public MarkdownChunker(int maxSegmentLength, int batchSize) {
+        if (maxSegmentLength <= 0 || batchSize <= 0) {
+            throw new IllegalArgumentException("maxSegmentLength and batchSize must be positive");
+        }
+        this.maxSegmentLength = maxSegmentLength;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Chunks a file.
+     *
+     * @param file The file to read
+     * @param consumer Receives batches of segments as they are produced
+     * @return The number of segments produced
+     */
+    public long chunk(Path file, Consumer<List<TextSegment>> consumer) {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return chunk(channel, file.getFileName().toString(), consumer);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read " + file, e);
+        }
+    }
+
+    /**
+     * Chunks UTF-8 text read from a channel.
+     *
+     * @param channel The channel to read; it is not closed
+     * @param source The name recorded in the segment metadata
+     * @param consumer Receives batches of segments as they are produced
+     * @return The number of segments produced
+     */
+    public long chunk(ReadableByteChannel channel, String source, Consumer<List<TextSegment>> consumer) {
+        Session session = new Session(source, consumer);
+        CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder()
+            .onMalformedInput(CodingErrorAction.REPLACE)
+            .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        ByteBuffer bytes = ByteBuffer.allocate(BUFFER_SIZE);
+        CharBuffer chars = CharBuffer.allocate(BUFFER_SIZE);
+
+        try {
+            boolean endOfInput = false;
+            while (!endOfInput) {
+                endOfInput = channel.read(bytes) < 0;
+                bytes.flip();
+                // Bytes of a character split across reads stay in the buffer for the next pass
+                CoderResult result;
+                do {
+                    result = decoder.decode(bytes, chars, endOfInput);
+                    chars.flip();
+                    session.accept(chars);
+                    chars.clear();
+                } while (result.isOverflow());
+                bytes.compact();
+            }
+            while (decoder.flush(chars).isOverflow()) {
+                chars.flip();
+                session.accept(chars);
+                chars.clear();
+            }
+            chars.flip();
+            session.accept(chars);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read " + source, e);
+        }
+        return session.finish();
+    }
+
+    /**
+     * State for one input: the current line, the current segment and the pending batch.
+     */
+    private final class Session {
+        private final String source;
+        private final Consumer<List<TextSegment>> consumer;
+        private final StringBuilder line = new StringBuilder();
+        private final StringBuilder segment = new StringBuilder();
+        private final String[] headings = new String[6];
+        private final List<TextSegment> batch = new ArrayList<>();
+        private boolean inCodeFence;
+        // The current line is the rest of a line whose start was already passed on
+        private boolean continuation;
+        private long count;
+
+        Session(String source, Consumer<List<TextSegment>> consumer) {
+            this.source = source;
+            this.consumer = consumer;
+        }
+
+        void accept(CharBuffer chars) {
+            while (chars.hasRemaining()) {
+                char c = chars.get();
+                if (c == '\n') {
+                    line.append(c);
+                    endLine();
+                } else if (c != '\r') {
+                    line.append(c);
+                    if (line.length() >= maxSegmentLength) {
+                        // A line that cannot fit in one segment is never a heading; pass it on in pieces
+                        append(line);
+                        line.setLength(0);
+                        continuation = true;
+                    }
+                }
+            }
+        }
+
+        long finish() {
+            endLine();
+            flushSegment();
+            if (!batch.isEmpty()) {
+                consumer.accept(List.copyOf(batch));
+                batch.clear();
+            }
+            return count;
+        }
+
+        private void endLine() {
+            if (line.length() == 0) {
+                continuation = false;
+                return;
+            }
+            if (continuation) {
+                // The middle of a line is plain text, whatever it starts with
+                continuation = false;
+            } else if (isCodeFence()) {
+                inCodeFence = !inCodeFence;
+            } else if (!inCodeFence) {
+                int level = headingLevel();
+                if (level > 0) {
+                    flushSegment();
+                    headings[level - 1] = line.substring(level).strip();
+                    Arrays.fill(headings, level, headings.length, null);
+                }
+            }
+            append(line);
+            line.setLength(0);
+        }
+
+        private void append(CharSequence text) {
+            if (segment.length() + text.length() > maxSegmentLength) {
+                flushSegment();
+            }
+            segment.append(text);
+        }
+
+        private boolean isCodeFence() {
+            int i = 0;
+            while (i < line.length() && line.charAt(i) == ' ') {
+                i++;
+            }
+            return i < 4 && line.length() >= i + 3
+                && line.charAt(i) == '`' && line.charAt(i + 1) == '`' && line.charAt(i + 2) == '`';
+        }
+
+        private int headingLevel() {
+            int level = 0;
+            while (level < line.length() && line.charAt(level) == '#') {
+                level++;
+            }
+            boolean followedBySpace = level < line.length() && Character.isWhitespace(line.charAt(level));
+            return level >= 1 && level <= 6 && followedBySpace ? level : 0;
+        }
+
+        private void flushSegment() {
+            String text = segment.toString().strip();
+            segment.setLength(0);
+            if (text.isEmpty()) {
+                return;
+            }
+
+            Metadata metadata = new Metadata()
+                .add(FILE_NAME, source)
+                .add(INDEX, String.valueOf(count++));
+            String heading = headingPath();
+            if (!heading.isEmpty()) {
+                metadata.add(HEADING, heading);
+            }
+            batch.add(TextSegment.from(text, metadata));
+            if (batch.size() == batchSize) {
+                consumer.accept(List.copyOf(batch));
+                batch.clear();
+            }
+        }
+
+        private String headingPath() {
+            StringBuilder path = new StringBuilder();
+            for (String heading : headings) {
+                if (heading != null) {
+                    if (path.length() > 0) {
+                        path.append(" > ");
+                    }
+                    path.append(heading);
+                }
+            }
+            return path.toString();
+        }
+    }
+}
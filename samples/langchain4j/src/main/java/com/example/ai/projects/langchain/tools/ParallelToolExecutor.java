@@ -0,0 +1,389 @@
+package com.example.ai.projects.langchain.tools;
+
+import dev.langchain4j.agent.tool.Tool;
+import dev.langchain4j.agent.tool.ToolExecutionRequest;
+import dev.langchain4j.agent.tool.ToolExecutor;
+import dev.langchain4j.agent.tool.ToolMemoryId;
+import dev.langchain4j.agent.tool.ToolSpecification;
+import dev.langchain4j.agent.tool.ToolSpecifications;
+import dev.langchain4j.data.message.ToolExecutionResultMessage;
+import dev.langchain4j.internal.Json;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Parameter;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.function.Consumer;
+
+/**
+ * Executes the tool calls of one model turn concurrently.
+ *
+ * Every request in a turn is dispatched at once, on virtual threads when the JVM has them
+ * (Java 21+) and on a pool of platform threads otherwise. Each tool has its own timeout, counted
+ * from when the call starts running, so time spent waiting for a free pool thread does not count
+ * against it; a call that runs past it is cancelled and reported to the model as timed out.
+ * Results are returned in the order of the requests, so the conversation reads the same as with
+ * sequential execution, and the latency of every call is recorded per tool.
+ */
+public class ParallelToolExecutor implements AutoCloseable {
+
+    /**
+     * How a tool call ended.
+     */
+    public enum Outcome {
+        SUCCEEDED,
+        FAILED,
+        TIMED_OUT
+    }
+
+    /**
+     * The result of one tool call.
+     *
+     * @param request The request from the model
+     * @param text The text returned to the model
+     * @param outcome How the call ended
+     * @param latency How long the call ran
+     */
+    public record ToolResult(ToolExecutionRequest request, String text, Outcome outcome, Duration latency) {
+
+        /**
+         * @return The message that feeds the result back to the model
+         */
+        public ToolExecutionResultMessage toMessage() {
+            return ToolExecutionResultMessage.from(request, text);
+        }
+    }
+
+    /**
+     * Latency statistics for one tool.
+     *
+     * @param calls Number of calls
+     * @param failures Calls that threw
+     * @param timeouts Calls that were cancelled at their timeout
+     * @param averageMillis Mean latency
+     * @param maxMillis Highest latency
+     */
+    public record ToolStats(long calls, long failures, long timeouts, double averageMillis, double maxMillis) {
+    }
+
+    private static final class Counters {
+        final AtomicLong calls = new AtomicLong();
+        final AtomicLong failures = new AtomicLong();
+        final AtomicLong timeouts = new AtomicLong();
+        final AtomicLong totalNanos = new AtomicLong();
+        final LongAccumulator maxNanos = new LongAccumulator(Long::max, 0);
+    }
+
+    private final Map<String, ToolSpecification> specifications;
+    private final Map<String, ToolExecutor> executors;
+    private final Map<String, Duration> timeouts;
+    private final Duration defaultTimeout;
+    private final Consumer<ToolResult> listener;
+    private final ExecutorService executorService;
+    private final boolean virtualThreads;
+    private final Map<String, Counters> counters = new ConcurrentHashMap<>();
+
+    private ParallelToolExecutor(Builder builder) {
+        if (builder.executors.isEmpty()) {
+            throw new IllegalArgumentException("At least one tool is required");
+        }
+        this.specifications = new LinkedHashMap<>(builder.specifications);
+        this.executors = new HashMap<>();
+        builder.executors.forEach((name, executor) ->
+            executors.put(name, builder.resultCache == null ? executor : builder.resultCache.wrap(name, executor)));
+        this.timeouts = new HashMap<>(builder.timeouts);
+        this.defaultTimeout = builder.defaultTimeout;
+        this.listener = builder.listener;
+        ExecutorService virtual = newVirtualThreadExecutor();
+        this.virtualThreads = virtual != null;
+        this.executorService = virtual != null ? virtual : newPlatformThreadExecutor(builder.platformThreads);
+    }
+
+    /**
+     * @return A builder for a parallel tool executor
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * @return The specifications of the registered tools, to send to the model
+     */
+    public List<ToolSpecification> toolSpecifications() {
+        return new ArrayList<>(specifications.values());
+    }
+
+    /**
+     * @return true if tool calls run on virtual threads
+     */
+    public boolean usesVirtualThreads() {
+        return virtualThreads;
+    }
+
+    /**
+     * Runs the tool calls of one model turn concurrently and waits for all of them.
+     *
+     * @param requests The tool calls requested by the model
+     * @param memoryId The conversation the calls belong to
+     * @return One result per request, in request order
+     */
+    public List<ToolResult> executeAll(List<ToolExecutionRequest> requests, Object memoryId) {
+        List<CompletableFuture<Long>> starts = new ArrayList<>(requests.size());
+        List<Future<ToolResult>> futures = new ArrayList<>(requests.size());
+        for (ToolExecutionRequest request : requests) {
+            CompletableFuture<Long> started = new CompletableFuture<>();
+            starts.add(started);
+            futures.add(executorService.submit(() -> {
+                started.complete(System.nanoTime());
+                return execute(request, memoryId);
+            }));
+        }
+
+        List<ToolResult> results = new ArrayList<>(requests.size());
+        for (int i = 0; i < requests.size(); i++) {
+            ToolExecutionRequest request = requests.get(i);
+            Duration timeout = timeouts.getOrDefault(request.name(), defaultTimeout);
+            long started = 0;
+            ToolResult result;
+            try {
+                // The timeout runs from when the call gets a thread, not from when it was queued
+                started = starts.get(i).get();
+                long remaining = started + timeout.toNanos() - System.nanoTime();
+                result = futures.get(i).get(Math.max(remaining, 0), TimeUnit.NANOSECONDS);
+            } catch (TimeoutException e) {
+                futures.get(i).cancel(true);
+                result = new ToolResult(request,
+                    "Tool " + request.name() + " did not respond within " + timeout.toMillis() + " ms",
+                    Outcome.TIMED_OUT, timeout);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                futures.forEach(future -> future.cancel(true));
+                throw new IllegalStateException("Interrupted while waiting for tool results", e);
+            } catch (ExecutionException e) {
+                // execute() reports failures as results, so this only happens on unexpected errors
+                result = new ToolResult(request, "Error: " + e.getCause().getMessage(), Outcome.FAILED,
+                    Duration.ofNanos(System.nanoTime() - started));
+            }
+            record(result);
+            results.add(result);
+        }
+        return results;
+    }
+
+    /**
+     * @return Latency statistics per tool name
+     */
+    public Map<String, ToolStats> stats() {
+        Map<String, ToolStats> stats = new LinkedHashMap<>();
+        counters.forEach((name, counter) -> {
+            long calls = counter.calls.get();
+            stats.put(name, new ToolStats(calls, counter.failures.get(), counter.timeouts.get(),
+                calls == 0 ? 0 : counter.totalNanos.get() / 1e6 / calls, counter.maxNanos.get() / 1e6));
+        });
+        return stats;
+    }
+
+    @Override
+    public void close() {
+        executorService.shutdownNow();
+    }
+
+    private ToolResult execute(ToolExecutionRequest request, Object memoryId) {
+        long start = System.nanoTime();
+        ToolExecutor executor = executors.get(request.name());
+        if (executor == null) {
+            return new ToolResult(request, "Error: unknown tool " + request.name(), Outcome.FAILED, Duration.ZERO);
+        }
+        try {
+            String text = executor.execute(request, memoryId);
+            return new ToolResult(request, text, Outcome.SUCCEEDED, Duration.ofNanos(System.nanoTime() - start));
+        } catch (RuntimeException e) {
+            return new ToolResult(request, "Error: " + e.getMessage(), Outcome.FAILED,
+                Duration.ofNanos(System.nanoTime() - start));
+        }
+    }
+
+    private void record(ToolResult result) {
+        Counters counter = counters.computeIfAbsent(result.request().name(), name -> new Counters());
+        long nanos = result.latency().toNanos();
+        counter.calls.incrementAndGet();
+        counter.totalNanos.addAndGet(nanos);
+        counter.maxNanos.accumulate(nanos);
+        if (result.outcome() == Outcome.FAILED) {
+            counter.failures.incrementAndGet();
+        } else if (result.outcome() == Outcome.TIMED_OUT) {
+            counter.timeouts.incrementAndGet();
+        }
+        if (listener != null) {
+            listener.accept(result);
+        }
+    }
+
+    /**
+     * Runs a {@link Tool} method. Unlike langchain4j's DefaultToolExecutor, which returns the
+     * message of an exception thrown by the method as an ordinary result, this rethrows it, so the
+     * call is reported as failed and is not cached.
+     */
+    private record MethodToolExecutor(Object toolProvider, Method method) implements ToolExecutor {
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public String execute(ToolExecutionRequest request, Object memoryId) {
+            String json = request.arguments();
+            Map<String, Object> arguments = json == null || json.isBlank() ? Map.of() : Json.fromJson(json, Map.class);
+            Parameter[] parameters = method.getParameters();
+            Object[] values = new Object[parameters.length];
+            for (int i = 0; i < parameters.length; i++) {
+                if (parameters[i].isAnnotationPresent(ToolMemoryId.class)) {
+                    values[i] = memoryId;
+                } else {
+                    Object argument = arguments == null ? null : arguments.get(parameters[i].getName());
+                    // Round-trip through JSON to convert e.g. the parsed Double to the declared int
+                    values[i] = argument == null ? null : Json.fromJson(Json.toJson(argument), parameters[i].getType());
+                }
+            }
+            Object result;
+            try {
+                result = method.invoke(toolProvider, values);
+            } catch (InvocationTargetException e) {
+                Throwable cause = e.getCause();
+                throw cause instanceof RuntimeException runtime ? runtime : new RuntimeException(cause.getMessage(), cause);
+            } catch (IllegalAccessException e) {
+                throw new IllegalStateException(e);
+            }
+            if (method.getReturnType() == void.class) {
+                return "Success";
+            }
+            return method.getReturnType() == String.class ? (String) result : Json.toJson(result);
+        }
+    }
+
+    // The samples target Java 17, so virtual threads are looked up reflectively
+    private static ExecutorService newVirtualThreadExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+
+    private static ExecutorService newPlatformThreadExecutor(int threads) {
+        AtomicInteger count = new AtomicInteger();
+        return Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "tool-executor-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Builder for {@link ParallelToolExecutor}.
+     */
+    public static class Builder {
+        private final Map<String, ToolSpecification> specifications = new LinkedHashMap<>();
+        private final Map<String, ToolExecutor> executors = new HashMap<>();
+        private final Map<String, Duration> timeouts = new HashMap<>();
+        private Duration defaultTimeout = Duration.ofSeconds(30);
+        private int platformThreads = 8;
+        private Consumer<ToolResult> listener;
+        private ToolResultCache resultCache;
+
+        /**
+         * Registers every {@link Tool} method of an object. An exception thrown by a method is
+         * reported as a failed call.
+         *
+         * @param toolProvider The object declaring the tools
+         * @return This builder
+         */
+        public Builder tools(Object toolProvider) {
+            for (Method method : toolProvider.getClass().getDeclaredMethods()) {
+                if (method.isAnnotationPresent(Tool.class)) {
+                    // Tool providers are often package-private classes
+                    method.setAccessible(true);
+                    tool(ToolSpecifications.toolSpecificationFrom(method), new MethodToolExecutor(toolProvider, method));
+                }
+            }
+            return this;
+        }
+
+        /**
+         * @param specification The tool specification sent to the model
+         * @param executor Runs the tool
+         * @return This builder
+         */
+        public Builder tool(ToolSpecification specification, ToolExecutor executor) {
+            specifications.put(specification.name(), specification);
+            executors.put(specification.name(), executor);
+            return this;
+        }
+
+        /**
+         * @param defaultTimeout Timeout for tools without their own timeout (default 30 seconds)
+         * @return This builder
+         */
+        public Builder defaultTimeout(Duration defaultTimeout) {
+            this.defaultTimeout = defaultTimeout;
+            return this;
+        }
+
+        /**
+         * @param toolName The tool name
+         * @param timeout How long a call to the tool may run
+         * @return This builder
+         */
+        public Builder timeout(String toolName, Duration timeout) {
+            timeouts.put(toolName, timeout);
+            return this;
+        }
+
+        /**
+         * @param platformThreads Pool size when virtual threads are not available (default 8)
+         * @return This builder
+         */
+        public Builder platformThreads(int platformThreads) {
+            this.platformThreads = platformThreads;
+            return this;
+        }
+
+        /**
+         * @param listener Called with each result, in request order
+         * @return This builder
+         */
+        public Builder listener(Consumer<ToolResult> listener) {
+            this.listener = listener;
+            return this;
+        }
+
+        /**
+         * @param resultCache Serves repeated calls of read-only tools from memory
+         * @return This builder
+         */
+        public Builder resultCache(ToolResultCache resultCache) {
+            this.resultCache = resultCache;
+            return this;
+        }
+
+        /**
+         * @return The executor
+         */
+        public ParallelToolExecutor build() {
+            return new ParallelToolExecutor(this);
+        }
+    }
+}
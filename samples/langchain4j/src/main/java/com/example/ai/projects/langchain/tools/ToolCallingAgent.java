@@ -0,0 +1,72 @@
+package com.example.ai.projects.langchain.tools;
+
+import dev.langchain4j.agent.tool.ToolSpecification;
+import dev.langchain4j.data.message.AiMessage;
+import dev.langchain4j.data.message.SystemMessage;
+import dev.langchain4j.data.message.ToolExecutionResultMessage;
+import dev.langchain4j.data.message.UserMessage;
+import dev.langchain4j.memory.ChatMemory;
+import dev.langchain4j.model.chat.ChatLanguageModel;
+
+import java.util.List;
+
+/**
+ * Chat agent that runs the model's tool loop with a {@link ParallelToolExecutor}.
+ *
+ * When the model requests several tools in one turn, they run concurrently and their results
+ * are added to the memory in request order before the model is called again. If the model is
+ * still requesting tools after the last allowed round, each of those requests is answered with
+ * an error result before the agent gives up, so the memory never holds unanswered requests.
+ */
+public class ToolCallingAgent {
+
+    private final ChatLanguageModel chatModel;
+    private final ParallelToolExecutor toolExecutor;
+    private final ChatMemory chatMemory;
+    private final int maxToolRounds;
+    private final List<ToolSpecification> toolSpecifications;
+
+    /**
+     * @param chatModel The chat model
+     * @param toolExecutor Runs the tools the model requests
+     * @param chatMemory The conversation memory
+     * @param systemMessage The system message, or null for none
+     * @param maxToolRounds How many rounds of tool calls one user message may trigger
+     */
+    public ToolCallingAgent(ChatLanguageModel chatModel, ParallelToolExecutor toolExecutor, ChatMemory chatMemory,
+                            String systemMessage, int maxToolRounds) {
+        this.chatModel = chatModel;
+        this.toolExecutor = toolExecutor;
+        this.chatMemory = chatMemory;
+        this.maxToolRounds = maxToolRounds;
+        this.toolSpecifications = toolExecutor.toolSpecifications();
+        if (systemMessage != null) {
+            chatMemory.add(SystemMessage.from(systemMessage));
+        }
+    }
+
+    /**
+     * Sends a user message and runs any tool calls the model makes.
+     *
+     * @param message The user message
+     * @return The model's final answer
+     */
+    public String chat(String message) {
+        chatMemory.add(UserMessage.from(message));
+        for (int round = 0; ; round++) {
+            AiMessage aiMessage = chatModel.generate(chatMemory.messages(), toolSpecifications).content();
+            chatMemory.add(aiMessage);
+            if (!aiMessage.hasToolExecutionRequests()) {
+                return aiMessage.text();
+            }
+            if (round == maxToolRounds) {
+                // Answer every pending request so the memory stays valid for the next user message
+                aiMessage.toolExecutionRequests().forEach(request ->
+                    chatMemory.add(ToolExecutionResultMessage.from(request, "Error: tool budget exhausted")));
+                throw new IllegalStateException("The model requested tools more than " + maxToolRounds + " times");
+            }
+            toolExecutor.executeAll(aiMessage.toolExecutionRequests(), chatMemory.id())
+                .forEach(result -> chatMemory.add(result.toMessage()));
+        }
+    }
+}
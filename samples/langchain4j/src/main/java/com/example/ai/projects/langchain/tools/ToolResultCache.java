@@ -0,0 +1,238 @@
+package com.example.ai.projects.langchain.tools;
+
+import dev.langchain4j.agent.tool.ToolExecutionRequest;
+import dev.langchain4j.agent.tool.ToolExecutor;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Memoizes the results of read-only tools.
+ *
+ * Only tools given a time to live are cached; results are keyed by tool name and arguments and
+ * kept in a bounded least-recently-used map. Identical calls that arrive while one is running
+ * share its result, and failures are not cached. Entries can be dropped explicitly, and a tool
+ * that changes state can be declared to invalidate the tools whose results it affects.
+ */
+public class ToolResultCache {
+
+    /**
+     * Cache statistics.
+     *
+     * @param hits Calls answered from the cache
+     * @param misses Calls that ran the tool
+     * @param size Entries currently cached
+     */
+    public record Stats(long hits, long misses, int size) {
+    }
+
+    private record Entry(String result, long expiresAt) {
+    }
+
+    private final int maxEntries;
+    private final Map<String, Duration> ttls;
+    private final Map<String, Set<String>> invalidations;
+    private final Map<String, CompletableFuture<String>> running = new ConcurrentHashMap<>();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    // Access-ordered for LRU eviction; both guarded by "this"
+    private final LinkedHashMap<String, Entry> entries;
+    private long generation;
+
+    private ToolResultCache(Builder builder) {
+        this.maxEntries = builder.maxEntries;
+        this.ttls = new HashMap<>(builder.ttls);
+        this.invalidations = new HashMap<>(builder.invalidations);
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    /**
+     * @return A builder for a tool result cache
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Wraps a tool so that its results are served from this cache. Tools without a time to live
+     * are returned unchanged, apart from triggering the invalidations declared for them.
+     *
+     * @param toolName The tool name
+     * @param delegate Runs the tool
+     * @return The caching executor
+     */
+    public ToolExecutor wrap(String toolName, ToolExecutor delegate) {
+        Duration ttl = ttls.get(toolName);
+        ToolExecutor executor = ttl == null ? delegate : (request, memoryId) -> execute(request, memoryId, ttl, delegate);
+        Set<String> invalidates = invalidations.getOrDefault(toolName, Set.of());
+        if (invalidates.isEmpty()) {
+            return executor;
+        }
+        return (request, memoryId) -> {
+            try {
+                return executor.execute(request, memoryId);
+            } finally {
+                invalidates.forEach(this::invalidate);
+            }
+        };
+    }
+
+    /**
+     * Drops every cached result of a tool.
+     *
+     * @param toolName The tool name
+     */
+    public synchronized void invalidate(String toolName) {
+        String prefix = toolName + '\0';
+        entries.keySet().removeIf(key -> key.startsWith(prefix));
+        generation++;
+    }
+
+    /**
+     * Drops the cached result of one call.
+     *
+     * @param toolName The tool name
+     * @param arguments The call arguments as sent by the model
+     */
+    public synchronized void invalidate(String toolName, String arguments) {
+        entries.remove(key(toolName, arguments));
+        generation++;
+    }
+
+    /**
+     * Drops all cached results.
+     */
+    public synchronized void invalidateAll() {
+        entries.clear();
+        generation++;
+    }
+
+    /**
+     * @return A snapshot of the cache statistics
+     */
+    public synchronized Stats stats() {
+        return new Stats(hits.get(), misses.get(), entries.size());
+    }
+
+    private String execute(ToolExecutionRequest request, Object memoryId, Duration ttl, ToolExecutor delegate) {
+        String key = key(request.name(), request.arguments());
+        String cached = lookup(key);
+        if (cached != null) {
+            hits.incrementAndGet();
+            return cached;
+        }
+
+        CompletableFuture<String> future = new CompletableFuture<>();
+        CompletableFuture<String> existing = running.putIfAbsent(key, future);
+        if (existing != null) {
+            hits.incrementAndGet();
+            try {
+                return existing.join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException cause ? cause : e;
+            }
+        }
+
+        misses.incrementAndGet();
+        long startedIn;
+        synchronized (this) {
+            startedIn = generation;
+        }
+        try {
+            String result = delegate.execute(request, memoryId);
+            synchronized (this) {
+                // A result computed before an invalidation may already be stale
+                if (generation == startedIn) {
+                    entries.put(key, new Entry(result, System.nanoTime() + ttl.toNanos()));
+                }
+            }
+            future.complete(result);
+            return result;
+        } catch (RuntimeException e) {
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            running.remove(key, future);
+        }
+    }
+
+    private synchronized String lookup(String key) {
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (System.nanoTime() - entry.expiresAt() >= 0) {
+            entries.remove(key);
+            return null;
+        }
+        return entry.result();
+    }
+
+    private static String key(String toolName, String arguments) {
+        return toolName + '\0' + (arguments == null ? "" : arguments.strip());
+    }
+
+    /**
+     * Builder for {@link ToolResultCache}.
+     */
+    public static class Builder {
+        private int maxEntries = 256;
+        private final Map<String, Duration> ttls = new HashMap<>();
+        private final Map<String, Set<String>> invalidations = new HashMap<>();
+
+        /**
+         * @param maxEntries Maximum number of cached results (default 256)
+         * @return This builder
+         */
+        public Builder maxEntries(int maxEntries) {
+            this.maxEntries = maxEntries;
+            return this;
+        }
+
+        /**
+         * Enables caching for a read-only tool.
+         *
+         * @param toolName The tool name
+         * @param ttl How long its results are reused
+         * @return This builder
+         */
+        public Builder ttl(String toolName, Duration ttl) {
+            ttls.put(toolName, ttl);
+            return this;
+        }
+
+        /**
+         * Declares that running a tool changes what other tools return.
+         *
+         * @param mutatingTool The tool that changes state
+         * @param affectedTools The tools whose cached results it invalidates
+         * @return This builder
+         */
+        public Builder invalidates(String mutatingTool, String... affectedTools) {
+            invalidations.computeIfAbsent(mutatingTool, name -> new HashSet<>()).addAll(List.of(affectedTools));
+            return this;
+        }
+
+        /**
+         * @return The cache
+         */
+        public ToolResultCache build() {
+            return new ToolResultCache(this);
+        }
+    }
+}
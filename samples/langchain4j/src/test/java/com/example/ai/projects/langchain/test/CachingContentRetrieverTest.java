@@ -0,0 +1,80 @@
+package com.example.ai.projects.langchain.test;
+
+import com.example.ai.projects.langchain.rag.CachingContentRetriever;
+import com.example.ai.projects.langchain.rag.HnswEmbeddingStore;
+
+import dev.langchain4j.data.embedding.Embedding;
+import dev.langchain4j.data.segment.TextSegment;
+import dev.langchain4j.model.embedding.EmbeddingModel;
+import dev.langchain4j.model.output.Response;
+import dev.langchain4j.rag.content.Content;
+import dev.langchain4j.rag.query.Query;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CachingContentRetrieverTest {
+
+    // Fixed vectors so that "near duplicate" is well defined
+    private static final Map<String, float[]> VECTORS = Map.of(
+        "laptop", new float[] { 1f, 0f, 0f },
+        "What is the Surface Laptop?", new float[] { 0.99f, 0.05f, 0f },
+        "What is a Surface Laptop?", new float[] { 0.98f, 0.06f, 0f },
+        "cloud", new float[] { 0f, 1f, 0f },
+        "Tell me about Contoso Cloud", new float[] { 0.05f, 0.99f, 0f });
+
+    private final EmbeddingModel fakeModel = segments -> Response.from(segments.stream()
+        .map(segment -> Embedding.from(VECTORS.get(segment.text())))
+        .toList());
+
+    @Test
+    public void testNearDuplicateQueriesAreServedLocally() {
+        HnswEmbeddingStore store = HnswEmbeddingStore.builder().dimension(3).build();
+        store.add(fakeModel.embed("laptop").content(), TextSegment.from("laptop"));
+        store.add(fakeModel.embed("cloud").content(), TextSegment.from("cloud"));
+
+        CachingContentRetriever retriever = CachingContentRetriever.builder()
+            .embeddingStore(store)
+            .embeddingModel(fakeModel)
+            .maxResults(1)
+            .similarityThreshold(0.99)
+            .build();
+
+        List<Content> first = retriever.retrieve(Query.from("What is the Surface Laptop?"));
+        List<Content> second = retriever.retrieve(Query.from("What is a Surface Laptop?"));
+        List<Content> third = retriever.retrieve(Query.from("Tell me about Contoso Cloud"));
+
+        assertEquals("laptop", first.get(0).textSegment().text());
+        assertSame(first, second);
+        assertEquals("cloud", third.get(0).textSegment().text());
+
+        CachingContentRetriever.Stats stats = retriever.stats();
+        assertEquals(1, stats.hits());
+        assertEquals(2, stats.misses());
+        assertEquals(1.0 / 3, stats.hitRate(), 1e-9);
+    }
+
+    @Test
+    public void testLeastRecentlyUsedEntryIsEvicted() {
+        HnswEmbeddingStore store = HnswEmbeddingStore.builder().dimension(3).build();
+        store.add(fakeModel.embed("laptop").content(), TextSegment.from("laptop"));
+
+        CachingContentRetriever retriever = CachingContentRetriever.builder()
+            .embeddingStore(store)
+            .embeddingModel(fakeModel)
+            .similarityThreshold(0.999)
+            .capacity(1)
+            .build();
+
+        retriever.retrieve(Query.from("laptop"));
+        retriever.retrieve(Query.from("cloud"));
+        retriever.retrieve(Query.from("laptop"));
+
+        assertEquals(0, retriever.stats().hits());
+        assertEquals(3, retriever.stats().misses());
+    }
+}
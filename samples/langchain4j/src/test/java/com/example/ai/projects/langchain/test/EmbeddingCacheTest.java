@@ -0,0 +1,66 @@
+package com.example.ai.projects.langchain.test;
+
+import com.example.ai.projects.langchain.rag.CachingEmbeddingModel;
+import com.example.ai.projects.langchain.rag.EmbeddingCache;
+
+import dev.langchain4j.data.embedding.Embedding;
+import dev.langchain4j.data.segment.TextSegment;
+import dev.langchain4j.model.embedding.EmbeddingModel;
+import dev.langchain4j.model.output.Response;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class EmbeddingCacheTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void testVectorsSurviveReopen() throws Exception {
+        Path file = tempDir.resolve("cache.bin");
+
+        try (EmbeddingCache cache = EmbeddingCache.open(file)) {
+            // Write enough entries to force the mapping to grow
+            for (int i = 0; i < 5000; i++) {
+                cache.put(EmbeddingCache.key("model", "segment " + i), new float[] { i, -i, 0.5f });
+            }
+        }
+
+        try (EmbeddingCache cache = EmbeddingCache.open(file)) {
+            assertEquals(5000, cache.size());
+            assertArrayEquals(new float[] { 4999, -4999, 0.5f }, cache.get(EmbeddingCache.key("model", "segment 4999")));
+            assertNull(cache.get(EmbeddingCache.key("other-model", "segment 1")));
+        }
+    }
+
+    @Test
+    public void testOnlyMissesReachTheModel() throws Exception {
+        AtomicInteger embedded = new AtomicInteger();
+        EmbeddingModel fakeModel = segments -> {
+            embedded.addAndGet(segments.size());
+            return Response.from(segments.stream()
+                .map(segment -> Embedding.from(new float[] { segment.text().length(), 1f }))
+                .toList());
+        };
+
+        try (EmbeddingCache cache = EmbeddingCache.open(tempDir.resolve("cache.bin"))) {
+            CachingEmbeddingModel model = new CachingEmbeddingModel(fakeModel, "model", cache);
+
+            model.embedAll(List.of(TextSegment.from("a"), TextSegment.from("bb")));
+            List<Embedding> second = model.embedAll(List.of(
+                TextSegment.from("a"), TextSegment.from("ccc"), TextSegment.from("bb"))).content();
+
+            assertEquals(3, embedded.get());
+            assertEquals(2, model.hitCount());
+            assertEquals(3f, second.get(1).vector()[0]);
+            assertEquals(2f, second.get(2).vector()[0]);
+        }
+    }
+}
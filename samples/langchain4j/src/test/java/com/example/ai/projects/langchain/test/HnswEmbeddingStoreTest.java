@@ -0,0 +1,136 @@
+package com.example.ai.projects.langchain.test;
+
+import com.example.ai.projects.langchain.rag.HnswEmbeddingStore;
+
+import dev.langchain4j.data.document.Metadata;
+import dev.langchain4j.data.embedding.Embedding;
+import dev.langchain4j.data.segment.TextSegment;
+import dev.langchain4j.store.embedding.EmbeddingMatch;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HnswEmbeddingStoreTest {
+
+    private static final int DIMENSION = 32;
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void testRecallAgainstBruteForce() {
+        Random random = new Random(42);
+        List<float[]> vectors = randomVectors(random, 2000);
+        HnswEmbeddingStore store = HnswEmbeddingStore.builder().dimension(DIMENSION).build();
+        for (int i = 0; i < vectors.size(); i++) {
+            store.add(Embedding.from(vectors.get(i)), TextSegment.from("segment " + i));
+        }
+
+        int hits = 0;
+        int queries = 50;
+        for (int q = 0; q < queries; q++) {
+            float[] query = randomVectors(random, 1).get(0);
+            int expected = IntStream.range(0, vectors.size()).boxed()
+                .max(Comparator.comparingDouble(i -> cosine(query, vectors.get(i))))
+                .orElseThrow();
+            List<EmbeddingMatch<TextSegment>> matches = store.findRelevant(Embedding.from(query), 5);
+            if (matches.stream().anyMatch(match -> match.embedded().text().equals("segment " + expected))) {
+                hits++;
+            }
+        }
+        assertTrue(hits >= queries * 0.9, "Recall too low: " + hits + "/" + queries);
+    }
+
+    @Test
+    public void testSnapshotRoundTrip() {
+        Random random = new Random(7);
+        HnswEmbeddingStore store = HnswEmbeddingStore.builder().dimension(DIMENSION).build();
+        List<float[]> vectors = randomVectors(random, 300);
+        for (int i = 0; i < vectors.size(); i++) {
+            store.add(Embedding.from(vectors.get(i)),
+                TextSegment.from("segment " + i, Metadata.from("file", "doc-" + i + ".md")));
+        }
+
+        Path snapshot = tempDir.resolve("store.hnsw");
+        store.save(snapshot);
+        HnswEmbeddingStore loaded = HnswEmbeddingStore.load(snapshot);
+
+        assertEquals(store.size(), loaded.size());
+        Embedding query = Embedding.from(vectors.get(123));
+        EmbeddingMatch<TextSegment> original = store.findRelevant(query, 1).get(0);
+        EmbeddingMatch<TextSegment> reloaded = loaded.findRelevant(query, 1).get(0);
+        assertEquals("segment 123", reloaded.embedded().text());
+        assertEquals("doc-123.md", reloaded.embedded().metadata().get("file"));
+        assertEquals(original.embeddingId(), reloaded.embeddingId());
+    }
+
+    @Test
+    public void testSearchWhileInserting() throws Exception {
+        Random random = new Random(3);
+        List<float[]> vectors = randomVectors(random, 3000);
+        HnswEmbeddingStore store = HnswEmbeddingStore.builder().dimension(DIMENSION).build();
+        store.add(Embedding.from(vectors.get(0)), TextSegment.from("segment 0"));
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            Future<?> writer = executor.submit(() -> {
+                for (int i = 1; i < vectors.size(); i++) {
+                    store.add(Embedding.from(vectors.get(i)), TextSegment.from("segment " + i));
+                }
+            });
+            List<Future<?>> readers = new ArrayList<>();
+            for (int r = 0; r < 3; r++) {
+                readers.add(executor.submit(() -> {
+                    while (!writer.isDone()) {
+                        List<EmbeddingMatch<TextSegment>> matches =
+                            store.findRelevant(Embedding.from(vectors.get(0)), 3);
+                        assertFalse(matches.isEmpty());
+                    }
+                }));
+            }
+            writer.get();
+            for (Future<?> reader : readers) {
+                reader.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(vectors.size(), store.size());
+    }
+
+    private static List<float[]> randomVectors(Random random, int count) {
+        List<float[]> vectors = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            float[] vector = new float[DIMENSION];
+            for (int d = 0; d < DIMENSION; d++) {
+                vector[d] = (float) random.nextGaussian();
+            }
+            vectors.add(vector);
+        }
+        return vectors;
+    }
+
+    private static double cosine(float[] a, float[] b) {
+        double dot = 0;
+        double normA = 0;
+        double normB = 0;
+        for (int i = 0; i < a.length; i++) {
+            dot += a[i] * b[i];
+            normA += a[i] * a[i];
+            normB += b[i] * b[i];
+        }
+        return dot / Math.sqrt(normA * normB);
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.ai.projects.langchain.test;
+
+import com.example.ai.projects.langchain.rag.Bm25ContentRetriever;
+import com.example.ai.projects.langchain.rag.Bm25Index;
+import com.example.ai.projects.langchain.rag.HybridContentRetriever;
+
+import dev.langchain4j.data.segment.TextSegment;
+import dev.langchain4j.rag.content.Content;
+import dev.langchain4j.rag.content.retriever.ContentRetriever;
+import dev.langchain4j.rag.query.Query;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HybridRetrievalTest {
+
+    private static final List<TextSegment> PRICING = List.of(
+        TextSegment.from("SL-CORE-8 Surface Laptop Core, Intel Core i5, 8GB, $999"),
+        TextSegment.from("SL-PLUS-16 Surface Laptop Plus, Intel Core i5, 16GB, $1,299"),
+        TextSegment.from("SL-PRO-16 Surface Laptop Pro, Intel Core i7, 16GB, $1,499"),
+        TextSegment.from("SL-MAX-32 Surface Laptop Max, Intel Core i7, 32GB, $1,999"));
+
+    @Test
+    public void testExactProductCodeRanksFirst() {
+        Bm25Index index = new Bm25Index();
+        index.addAll(PRICING);
+
+        List<Bm25Index.ScoredSegment> results = index.search("How much is the SL-PRO-16?", 4);
+
+        assertEquals(PRICING.get(2), results.get(0).segment());
+        assertTrue(results.get(0).score() > results.get(1).score());
+        assertEquals(PRICING.get(3), index.search("1,999", 1).get(0).segment());
+    }
+
+    @Test
+    public void testSegmentsAddedLaterAreSearchable() {
+        Bm25Index index = new Bm25Index();
+        index.addAll(PRICING);
+        assertTrue(index.search("ultra 64GB", 1).isEmpty());
+
+        TextSegment ultra = TextSegment.from("SL-ULTRA-64 Surface Laptop Ultra, 64GB");
+        index.add(ultra);
+
+        assertEquals(5, index.size());
+        assertEquals(ultra, index.search("SL-ULTRA-64", 1).get(0).segment());
+    }
+
+    @Test
+    public void testManySegmentsKeepCorrectPostings() {
+        Bm25Index index = new Bm25Index();
+        for (int i = 0; i < 5000; i++) {
+            index.add(TextSegment.from("segment " + i + " SKU-" + i + (i % 100 == 0 ? " rare" : "")));
+        }
+
+        assertEquals("segment 4321 SKU-4321", index.search("sku-4321", 1).get(0).segment().text());
+        assertEquals(50, index.search("rare", 100).size());
+    }
+
+    @Test
+    public void testReciprocalRankFusion() {
+        ContentRetriever vector = query -> List.of(
+            Content.from(PRICING.get(0)), Content.from(PRICING.get(1)), Content.from(PRICING.get(2)));
+        ContentRetriever keyword = query -> List.of(
+            Content.from(PRICING.get(2)), Content.from(PRICING.get(3)));
+
+        List<Content> fused = new HybridContentRetriever(List.of(vector, keyword), 3)
+            .retrieve(Query.from("SL-PRO-16"));
+
+        // Found by both retrievers, so it outranks the vector-only top result
+        assertEquals(PRICING.get(2), fused.get(0).textSegment());
+        assertEquals(PRICING.get(0), fused.get(1).textSegment());
+        assertEquals(3, fused.size());
+    }
+
+    @Test
+    public void testKeywordRetrieverReturnsContent() {
+        Bm25Index index = new Bm25Index();
+        index.addAll(PRICING);
+
+        List<Content> contents = new Bm25ContentRetriever(index, 2).retrieve(Query.from("i7 32GB"));
+
+        assertEquals(PRICING.get(3), contents.get(0).textSegment());
+        assertEquals(2, contents.size());
+    }
+}
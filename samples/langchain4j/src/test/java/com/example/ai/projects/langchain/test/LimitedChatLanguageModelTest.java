@@ -0,0 +1,85 @@
+package com.example.ai.projects.langchain.test;
+
+import com.example.ai.common.concurrency.AdaptiveConcurrencyLimiter;
+import com.example.ai.common.concurrency.AdaptiveConcurrencyLimiter.Rejection;
+import com.example.ai.common.concurrency.LimitExceededException;
+import com.example.ai.projects.langchain.concurrency.LimitedChatLanguageModel;
+import dev.langchain4j.agent.tool.ToolSpecification;
+import dev.langchain4j.data.message.AiMessage;
+import dev.langchain4j.data.message.ChatMessage;
+import dev.langchain4j.data.message.UserMessage;
+import dev.langchain4j.model.chat.ChatLanguageModel;
+import dev.langchain4j.model.output.Response;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LimitedChatLanguageModelTest {
+
+    // Stands in for a 429 response
+    private static final class Throttled extends RuntimeException {
+    }
+
+    @Test
+    public void testToolCallsGoThroughTheLimiter() {
+        AdaptiveConcurrencyLimiter limiter = AdaptiveConcurrencyLimiter.builder().build();
+        ChatLanguageModel model = new LimitedChatLanguageModel(new ChatLanguageModel() {
+            @Override
+            public Response<AiMessage> generate(List<ChatMessage> messages) {
+                return Response.from(AiMessage.from("plain"));
+            }
+
+            @Override
+            public Response<AiMessage> generate(List<ChatMessage> messages, List<ToolSpecification> tools) {
+                return Response.from(AiMessage.from("with " + tools.size() + " tools"));
+            }
+        }, limiter);
+
+        List<ChatMessage> messages = List.of(UserMessage.from("hi"));
+        assertEquals("plain", model.generate(messages).content().text());
+        ToolSpecification tool = ToolSpecification.builder().name("lookup").description("lookup").build();
+        assertEquals("with 1 tools", model.generate(messages, List.of(tool)).content().text());
+        assertEquals(2, limiter.accepted());
+    }
+
+    @Test
+    public void testThrottledCallsLowerTheLimitAndExcessCallsAreShed() throws Exception {
+        AdaptiveConcurrencyLimiter limiter = AdaptiveConcurrencyLimiter.builder()
+            .initialLimit(2)
+            .maxQueue(0)
+            .throttled(Throttled.class::isInstance)
+            .build();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ChatLanguageModel model = new LimitedChatLanguageModel(messages -> {
+            if (messages.isEmpty()) {
+                throw new Throttled();
+            }
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return Response.from(AiMessage.from("done"));
+        }, limiter);
+
+        // 2 * 0.9 leaves room for one call
+        assertThrows(Throttled.class, () -> model.generate(List.of()));
+        assertEquals(1, limiter.limit());
+
+        Thread slow = new Thread(() -> model.generate(List.of(UserMessage.from("slow"))));
+        slow.start();
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        LimitExceededException e = assertThrows(LimitExceededException.class,
+            () -> model.generate(List.of(UserMessage.from("shed"))));
+        assertEquals(Rejection.QUEUE_FULL, e.reason());
+        release.countDown();
+        slow.join();
+        assertEquals(1, limiter.rejected(Rejection.QUEUE_FULL));
+    }
+}
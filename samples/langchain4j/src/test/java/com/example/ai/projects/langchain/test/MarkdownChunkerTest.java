@@ -0,0 +1,124 @@
+package com.example.ai.projects.langchain.test;
+
+import com.example.ai.projects.langchain.rag.MarkdownChunker;
+
+import dev.langchain4j.data.segment.TextSegment;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.BufferedWriter;
+import java.io.ByteArrayInputStream;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MarkdownChunkerTest {
+
+    private static final String PRODUCT_INFO = """
+        # Contoso Cloud Services Security Features
+
+        Contoso Cloud Services provides enterprise-grade security features.
+
+        ## Security Capabilities
+
+        - **Multi-factor Authentication**: SMS, email, and authenticator apps.
+
+        ```bash
+        # not a heading inside a code block
+        az login
+        ```
+
+        ## Security Best Practices
+
+        1. Regularly review access permissions
+        """;
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void testSegmentsFollowHeadings() {
+        List<TextSegment> segments = new ArrayList<>();
+        long count = new MarkdownChunker(1000, 10).chunk(
+            Channels.newChannel(new ByteArrayInputStream(PRODUCT_INFO.getBytes(StandardCharsets.UTF_8))),
+            "product_info_1.md", segments::addAll);
+
+        assertEquals(3, count);
+        assertEquals(3, segments.size());
+        assertEquals("Contoso Cloud Services Security Features",
+            segments.get(0).metadata().get(MarkdownChunker.HEADING));
+        assertEquals("Contoso Cloud Services Security Features > Security Capabilities",
+            segments.get(1).metadata().get(MarkdownChunker.HEADING));
+        assertTrue(segments.get(1).text().contains("# not a heading inside a code block"));
+        assertTrue(segments.get(2).text().startsWith("## Security Best Practices"));
+        assertEquals("product_info_1.md", segments.get(2).metadata().get(MarkdownChunker.FILE_NAME));
+        assertEquals("2", segments.get(2).metadata().get(MarkdownChunker.INDEX));
+    }
+
+    @Test
+    public void testRestOfAnOverlongLineIsNotAHeadingOrFence() {
+        String markdown = "# Title\n"
+            + "a".repeat(20) + "```\n"
+            + "b".repeat(20) + "# fake heading\n"
+            + "## Real\n"
+            + "text\n";
+        List<TextSegment> segments = new ArrayList<>();
+        new MarkdownChunker(20, 10).chunk(
+            Channels.newChannel(new ByteArrayInputStream(markdown.getBytes(StandardCharsets.UTF_8))),
+            "long_lines.md", segments::addAll);
+
+        TextSegment fake = segments.stream()
+            .filter(segment -> segment.text().contains("# fake heading"))
+            .findFirst()
+            .orElseThrow();
+        assertEquals("Title", fake.metadata().get(MarkdownChunker.HEADING));
+        // The ``` fragment did not open a code block, so the real heading still starts a segment
+        TextSegment last = segments.get(segments.size() - 1);
+        assertTrue(last.text().startsWith("## Real"), last.text());
+        assertEquals("Title > Real", last.metadata().get(MarkdownChunker.HEADING));
+    }
+
+    @Test
+    public void testLargeFileIsStreamedInBoundedSegmentsAndBatches() throws Exception {
+        Path file = tempDir.resolve("manual.md");
+        int sections = 2000;
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            for (int i = 0; i < sections; i++) {
+                writer.write("## Section " + i + "\n\n");
+                for (int j = 0; j < 20; j++) {
+                    // Multi-byte characters make sure decoding across buffer boundaries is correct
+                    writer.write("Gr\u00f6\u00dfe und Gewicht \u2013 paragraph " + j + " of section " + i + ".\n");
+                }
+            }
+            writer.write("x".repeat(5000));
+        }
+
+        int maxSegmentLength = 500;
+        int batchSize = 32;
+        List<Integer> batchSizes = new ArrayList<>();
+        List<TextSegment> last = new ArrayList<>();
+        long[] totalLength = new long[1];
+        long count = new MarkdownChunker(maxSegmentLength, batchSize).chunk(file, batch -> {
+            batchSizes.add(batch.size());
+            for (TextSegment segment : batch) {
+                assertTrue(segment.text().length() <= maxSegmentLength);
+                assertFalse(segment.text().contains("\ufffd"));
+                totalLength[0] += segment.text().length();
+            }
+            last.clear();
+            last.addAll(batch);
+        });
+
+        assertEquals(count, batchSizes.stream().mapToInt(Integer::intValue).sum());
+        assertTrue(count > sections);
+        assertTrue(batchSizes.stream().allMatch(size -> size <= batchSize));
+        assertTrue(totalLength[0] > Files.size(file) / 2);
+        assertEquals("Section " + (sections - 1), last.get(last.size() - 1).metadata().get(MarkdownChunker.HEADING));
+    }
+}
@@ -0,0 +1,204 @@
+package com.example.ai.projects.langchain.test;
+
+import com.example.ai.projects.langchain.tools.ParallelToolExecutor;
+import com.example.ai.projects.langchain.tools.ParallelToolExecutor.Outcome;
+import com.example.ai.projects.langchain.tools.ParallelToolExecutor.ToolResult;
+import com.example.ai.projects.langchain.tools.ToolCallingAgent;
+import dev.langchain4j.agent.tool.ToolExecutionRequest;
+import dev.langchain4j.agent.tool.ToolExecutor;
+import dev.langchain4j.agent.tool.ToolSpecification;
+import dev.langchain4j.data.message.AiMessage;
+import dev.langchain4j.data.message.ChatMessage;
+import dev.langchain4j.data.message.ToolExecutionResultMessage;
+import dev.langchain4j.memory.ChatMemory;
+import dev.langchain4j.memory.chat.MessageWindowChatMemory;
+import dev.langchain4j.model.chat.ChatLanguageModel;
+import dev.langchain4j.model.output.Response;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ParallelToolExecutorTest {
+
+    private static ToolSpecification spec(String name) {
+        return ToolSpecification.builder().name(name).description(name).build();
+    }
+
+    private static ToolExecutor sleeping(long millis, String text) {
+        return (request, memoryId) -> {
+            try {
+                Thread.sleep(millis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("cancelled");
+            }
+            return text;
+        };
+    }
+
+    private static ToolExecutionRequest request(String id, String name) {
+        return ToolExecutionRequest.builder().id(id).name(name).arguments("{}").build();
+    }
+
+    // A model that answers every tool-enabled turn from the conversation so far
+    private static ChatLanguageModel scripted(Function<List<ChatMessage>, AiMessage> script) {
+        return new ChatLanguageModel() {
+            @Override
+            public Response<AiMessage> generate(List<ChatMessage> history) {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public Response<AiMessage> generate(List<ChatMessage> history, List<ToolSpecification> tools) {
+                return Response.from(script.apply(history));
+            }
+        };
+    }
+
+    @Test
+    public void testRunsCallsConcurrentlyAndKeepsRequestOrder() {
+        try (ParallelToolExecutor executor = ParallelToolExecutor.builder()
+                .tool(spec("slow"), sleeping(300, "slow result"))
+                .tool(spec("fast"), sleeping(10, "fast result"))
+                .tool(spec("medium"), sleeping(150, "medium result"))
+                .build()) {
+            long start = System.nanoTime();
+            List<ToolResult> results = executor.executeAll(
+                List.of(request("1", "slow"), request("2", "fast"), request("3", "medium")), "session");
+            long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+            assertEquals(List.of("1", "2", "3"), results.stream().map(result -> result.request().id()).toList());
+            assertEquals(List.of("slow result", "fast result", "medium result"),
+                results.stream().map(ToolResult::text).toList());
+            // Sequential execution would take at least 460 ms
+            assertTrue(elapsedMillis < 450, "took " + elapsedMillis + " ms");
+            assertTrue(results.get(0).latency().toMillis() >= 300);
+            assertEquals("fast result", results.get(1).toMessage().text());
+        }
+    }
+
+    @Test
+    public void testPerToolTimeoutCancelsOnlyThatCall() {
+        try (ParallelToolExecutor executor = ParallelToolExecutor.builder()
+                .tool(spec("hanging"), sleeping(10_000, "never"))
+                .tool(spec("quick"), sleeping(10, "done"))
+                .timeout("hanging", Duration.ofMillis(200))
+                .build()) {
+            long start = System.nanoTime();
+            List<ToolResult> results = executor.executeAll(List.of(request("1", "hanging"), request("2", "quick")), null);
+
+            assertTrue((System.nanoTime() - start) / 1_000_000 < 2_000);
+            assertEquals(Outcome.TIMED_OUT, results.get(0).outcome());
+            assertTrue(results.get(0).text().contains("200 ms"));
+            assertEquals(Outcome.SUCCEEDED, results.get(1).outcome());
+            assertEquals(1, executor.stats().get("hanging").timeouts());
+        }
+    }
+
+    @Test
+    public void testFailuresAndUnknownToolsAreReportedToTheModel() {
+        try (ParallelToolExecutor executor = ParallelToolExecutor.builder()
+                .tool(spec("broken"), (request, memoryId) -> {
+                    throw new IllegalArgumentException("deployment not found");
+                })
+                .build()) {
+            List<ToolResult> results = executor.executeAll(List.of(request("1", "broken"), request("2", "missing")), null);
+
+            assertEquals(Outcome.FAILED, results.get(0).outcome());
+            assertTrue(results.get(0).text().contains("deployment not found"));
+            assertEquals(Outcome.FAILED, results.get(1).outcome());
+            assertTrue(results.get(1).text().contains("unknown tool"));
+        }
+    }
+
+    @Test
+    public void testRecordsLatencyPerTool() {
+        try (ParallelToolExecutor executor = ParallelToolExecutor.builder()
+                .tool(spec("lookup"), sleeping(20, "ok"))
+                .build()) {
+            executor.executeAll(List.of(request("1", "lookup"), request("2", "lookup")), null);
+
+            ParallelToolExecutor.ToolStats stats = executor.stats().get("lookup");
+            assertEquals(2, stats.calls());
+            assertTrue(stats.averageMillis() >= 20);
+            assertTrue(stats.maxMillis() >= stats.averageMillis());
+        }
+    }
+
+    @Test
+    public void testTimeoutStartsWhenTheCallStartsRunning() {
+        // With one platform thread the second call waits for the first; that wait is not part of its timeout
+        try (ParallelToolExecutor executor = ParallelToolExecutor.builder()
+                .tool(spec("first"), sleeping(300, "first result"))
+                .tool(spec("second"), sleeping(10, "second result"))
+                .timeout("second", Duration.ofMillis(200))
+                .platformThreads(1)
+                .build()) {
+            List<ToolResult> results = executor.executeAll(List.of(request("1", "first"), request("2", "second")), null);
+
+            assertEquals(Outcome.SUCCEEDED, results.get(0).outcome());
+            assertEquals(Outcome.SUCCEEDED, results.get(1).outcome());
+            assertEquals("second result", results.get(1).text());
+        }
+    }
+
+    @Test
+    public void testAgentFeedsToolResultsBackInRequestOrder() {
+        ChatLanguageModel model = scripted(history -> {
+            if (!(history.get(history.size() - 1) instanceof ToolExecutionResultMessage)) {
+                return AiMessage.from(request("a", "connections"), request("b", "deployment"));
+            }
+            String results = history.stream()
+                .filter(message -> message instanceof ToolExecutionResultMessage)
+                .map(message -> ((ToolExecutionResultMessage) message).text())
+                .reduce((left, right) -> left + "," + right)
+                .orElse("");
+            return AiMessage.from(results);
+        });
+
+        try (ParallelToolExecutor executor = ParallelToolExecutor.builder()
+                .tool(spec("connections"), sleeping(100, "conn"))
+                .tool(spec("deployment"), sleeping(10, "dep"))
+                .build()) {
+            ToolCallingAgent agent = new ToolCallingAgent(model, executor,
+                MessageWindowChatMemory.withMaxMessages(20), "You are helpful.", 3);
+
+            assertEquals("conn,dep", agent.chat("What do I have?"));
+        }
+    }
+
+    @Test
+    public void testAgentAnswersPendingRequestsWhenTheBudgetIsExhausted() {
+        ChatMemory memory = MessageWindowChatMemory.withMaxMessages(20);
+        ChatLanguageModel model = scripted(history -> AiMessage.from(request("a", "lookup"), request("b", "lookup")));
+
+        try (ParallelToolExecutor executor = ParallelToolExecutor.builder()
+                .tool(spec("lookup"), sleeping(1, "found"))
+                .build()) {
+            ToolCallingAgent agent = new ToolCallingAgent(model, executor, memory, null, 1);
+
+            assertThrows(IllegalStateException.class, () -> agent.chat("Keep looking"));
+
+            // Every tool request in the memory is followed by a result for it
+            List<ChatMessage> messages = memory.messages();
+            ChatMessage last = messages.get(messages.size() - 1);
+            assertInstanceOf(ToolExecutionResultMessage.class, last);
+            assertEquals("Error: tool budget exhausted", ((ToolExecutionResultMessage) last).text());
+            List<String> requested = messages.stream()
+                .filter(message -> message instanceof AiMessage)
+                .flatMap(message -> ((AiMessage) message).toolExecutionRequests().stream())
+                .map(ToolExecutionRequest::id)
+                .toList();
+            List<String> answered = messages.stream()
+                .filter(message -> message instanceof ToolExecutionResultMessage)
+                .map(message -> ((ToolExecutionResultMessage) message).id())
+                .toList();
+            assertEquals(List.of("a", "b", "a", "b"), requested);
+            assertEquals(requested, answered);
+        }
+    }
+}
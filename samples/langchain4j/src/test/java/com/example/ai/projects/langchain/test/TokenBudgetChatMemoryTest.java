@@ -0,0 +1,146 @@
+package com.example.ai.projects.langchain.test;
+
+import com.example.ai.projects.langchain.memory.ApproximateTokenizer;
+import com.example.ai.projects.langchain.memory.CompactChatMemoryStore;
+import com.example.ai.projects.langchain.memory.TokenBudgetChatMemory;
+import dev.langchain4j.agent.tool.ToolExecutionRequest;
+import dev.langchain4j.data.message.AiMessage;
+import dev.langchain4j.data.message.ChatMessage;
+import dev.langchain4j.data.message.SystemMessage;
+import dev.langchain4j.data.message.ToolExecutionResultMessage;
+import dev.langchain4j.data.message.UserMessage;
+import dev.langchain4j.memory.ChatMemory;
+import dev.langchain4j.memory.chat.ChatMemoryProvider;
+import dev.langchain4j.model.chat.ChatLanguageModel;
+import dev.langchain4j.model.output.Response;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TokenBudgetChatMemoryTest {
+
+    private static final ApproximateTokenizer TOKENIZER = new ApproximateTokenizer();
+
+    private static String words(int count) {
+        return "word ".repeat(count).strip();
+    }
+
+    private static void addToolTurn(ChatMemory memory, String question, String toolOutput) {
+        ToolExecutionRequest request = ToolExecutionRequest.builder().id("1").name("lookup").arguments("{}").build();
+        memory.add(UserMessage.from(question));
+        memory.add(AiMessage.from(request));
+        memory.add(ToolExecutionResultMessage.from(request, toolOutput));
+        memory.add(AiMessage.from("answer to " + question));
+    }
+
+    @Test
+    public void testApproximateTokenizer() {
+        assertEquals(0, TOKENIZER.estimateTokenCountInText(""));
+        assertEquals(2, TOKENIZER.estimateTokenCountInText("hello world"));
+        assertEquals(3, TOKENIZER.estimateTokenCountInText("getDeploymentInfo"));
+        // "{", "\"", 4 letters, "\"", ":", 3 digits, "}"
+        assertEquals(7, TOKENIZER.estimateTokenCountInText("{\"name\":123}"));
+        assertEquals(100, TOKENIZER.estimateTokenCountInText(words(100)));
+    }
+
+    @Test
+    public void testEvictsWholeTurnsAndPinsSystemMessage() {
+        TokenBudgetChatMemory memory = TokenBudgetChatMemory.builder().maxTokens(300).build();
+        memory.add(SystemMessage.from("You are helpful."));
+        for (int i = 0; i < 5; i++) {
+            addToolTurn(memory, "question " + i, words(40));
+        }
+
+        List<ChatMessage> messages = memory.messages();
+        assertTrue(memory.tokenCount() <= 300, "tokens: " + memory.tokenCount());
+        assertEquals("You are helpful.", messages.get(0).text());
+        // The oldest remaining message starts a turn, so no tool result lost its call
+        assertInstanceOf(UserMessage.class, messages.get(1));
+        assertEquals("answer to question 4", messages.get(messages.size() - 1).text());
+        assertTrue(messages.size() < 1 + 5 * 4);
+        assertEquals(0, (messages.size() - 1) % 4);
+    }
+
+    @Test
+    public void testKeepsTheTurnInProgressEvenIfOverBudget() {
+        TokenBudgetChatMemory memory = TokenBudgetChatMemory.builder().maxTokens(50).build();
+        addToolTurn(memory, "first", words(10));
+        memory.add(UserMessage.from("second"));
+        memory.add(AiMessage.from(words(200)));
+
+        List<ChatMessage> messages = memory.messages();
+        assertEquals(2, messages.size());
+        assertEquals("second", messages.get(0).text());
+    }
+
+    @Test
+    public void testSummarizesEvictedTurnsInTheBackground() throws InterruptedException {
+        List<String> prompts = new ArrayList<>();
+        CountDownLatch release = new CountDownLatch(1);
+        ChatLanguageModel summarizer = new ChatLanguageModel() {
+            @Override
+            public Response<AiMessage> generate(List<ChatMessage> messages) {
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                prompts.add(messages.get(1).text());
+                return Response.from(AiMessage.from("The user asked about question 0."));
+            }
+        };
+        TokenBudgetChatMemory memory = TokenBudgetChatMemory.builder()
+            .maxTokens(150)
+            .summarizer(summarizer)
+            .build();
+        memory.add(SystemMessage.from("You are helpful."));
+        addToolTurn(memory, "question 0", words(60));
+        addToolTurn(memory, "question 1", words(60));
+
+        // Eviction does not wait for the summarizer
+        assertNull(memory.summary());
+        release.countDown();
+        for (int i = 0; i < 100 && memory.summary() == null; i++) {
+            Thread.sleep(20);
+        }
+
+        assertEquals("The user asked about question 0.", memory.summary());
+        assertTrue(prompts.get(0).contains("User: question 0"));
+        assertTrue(prompts.get(0).contains("Tool lookup: word"));
+        String system = memory.messages().get(0).text();
+        assertTrue(system.startsWith("You are helpful."));
+        assertTrue(system.endsWith("The user asked about question 0."));
+    }
+
+    @Test
+    public void testProviderKeepsSessionsInCompactStore() {
+        CompactChatMemoryStore store = new CompactChatMemoryStore();
+        ChatMemoryProvider provider = TokenBudgetChatMemory.builder()
+            .maxTokens(1000)
+            .chatMemoryStore(store)
+            .provider();
+        for (int session = 0; session < 100; session++) {
+            ChatMemory memory = provider.get(session);
+            memory.add(SystemMessage.from("You are helpful."));
+            addToolTurn(memory, "question " + session, "{\"connections\":[" + "{\"name\":\"search\",\"type\":\"AzureAISearch\"},".repeat(20) + "]}");
+        }
+
+        assertEquals(100, store.sessionCount());
+        // Repetitive tool output compresses well below its raw size
+        assertTrue(store.sizeInBytes() < 100 * 900, "bytes: " + store.sizeInBytes());
+
+        // A new memory for an existing session picks up where the last one left off
+        List<ChatMessage> restored = provider.get(42).messages();
+        assertEquals("You are helpful.", restored.get(0).text());
+        assertEquals("question 42", restored.get(1).text());
+        assertEquals(5, restored.size());
+
+        provider.get(42).clear();
+        assertEquals(99, store.sessionCount());
+    }
+}
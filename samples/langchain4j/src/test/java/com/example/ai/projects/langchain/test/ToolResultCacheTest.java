@@ -0,0 +1,186 @@
+package com.example.ai.projects.langchain.test;
+
+import com.example.ai.projects.langchain.tools.ParallelToolExecutor;
+import com.example.ai.projects.langchain.tools.ParallelToolExecutor.Outcome;
+import com.example.ai.projects.langchain.tools.ParallelToolExecutor.ToolResult;
+import com.example.ai.projects.langchain.tools.ToolResultCache;
+import dev.langchain4j.agent.tool.Tool;
+import dev.langchain4j.agent.tool.ToolExecutionRequest;
+import dev.langchain4j.agent.tool.ToolExecutor;
+import dev.langchain4j.agent.tool.ToolSpecification;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ToolResultCacheTest {
+
+    private static ToolExecutionRequest request(String name, String arguments) {
+        return ToolExecutionRequest.builder().id(name).name(name).arguments(arguments).build();
+    }
+
+    private static ToolExecutor counting(AtomicInteger calls) {
+        return (request, memoryId) -> request.name() + request.arguments() + "#" + calls.incrementAndGet();
+    }
+
+    @Test
+    public void testRepeatedCallsAreServedFromCache() {
+        AtomicInteger calls = new AtomicInteger();
+        ToolResultCache cache = ToolResultCache.builder().ttl("lookup", Duration.ofMinutes(1)).build();
+        ToolExecutor executor = cache.wrap("lookup", counting(calls));
+
+        String first = executor.execute(request("lookup", "{\"name\":\"a\"}"), "session");
+        assertEquals(first, executor.execute(request("lookup", "{\"name\":\"a\"}"), "session"));
+        assertEquals(first, executor.execute(request("lookup", " {\"name\":\"a\"}\n"), "other session"));
+        assertNotEquals(first, executor.execute(request("lookup", "{\"name\":\"b\"}"), "session"));
+
+        assertEquals(2, calls.get());
+        assertEquals(new ToolResultCache.Stats(2, 2, 2), cache.stats());
+    }
+
+    @Test
+    public void testToolsWithoutTtlAndFailuresAreNotCached() {
+        AtomicInteger calls = new AtomicInteger();
+        ToolResultCache cache = ToolResultCache.builder().ttl("flaky", Duration.ofMinutes(1)).build();
+        ToolExecutor uncached = cache.wrap("send", counting(calls));
+        uncached.execute(request("send", "{}"), null);
+        uncached.execute(request("send", "{}"), null);
+        assertEquals(2, calls.get());
+
+        AtomicInteger attempts = new AtomicInteger();
+        ToolExecutor flaky = cache.wrap("flaky", (request, memoryId) -> {
+            if (attempts.incrementAndGet() == 1) {
+                throw new IllegalStateException("unavailable");
+            }
+            return "ok";
+        });
+        assertThrows(IllegalStateException.class, () -> flaky.execute(request("flaky", "{}"), null));
+        assertEquals("ok", flaky.execute(request("flaky", "{}"), null));
+        assertEquals("ok", flaky.execute(request("flaky", "{}"), null));
+        assertEquals(2, attempts.get());
+    }
+
+    @Test
+    public void testEntriesExpireAndSizeIsBounded() throws InterruptedException {
+        AtomicInteger calls = new AtomicInteger();
+        ToolResultCache cache = ToolResultCache.builder()
+            .ttl("lookup", Duration.ofMillis(100))
+            .maxEntries(2)
+            .build();
+        ToolExecutor executor = cache.wrap("lookup", counting(calls));
+
+        executor.execute(request("lookup", "a"), null);
+        executor.execute(request("lookup", "b"), null);
+        executor.execute(request("lookup", "a"), null);
+        executor.execute(request("lookup", "c"), null);
+        assertEquals(2, cache.stats().size());
+        // "b" was least recently used and was evicted
+        executor.execute(request("lookup", "b"), null);
+        assertEquals(4, calls.get());
+
+        Thread.sleep(150);
+        executor.execute(request("lookup", "b"), null);
+        assertEquals(5, calls.get());
+    }
+
+    @Test
+    public void testInvalidation() {
+        AtomicInteger reads = new AtomicInteger();
+        ToolResultCache cache = ToolResultCache.builder()
+            .ttl("listConnections", Duration.ofMinutes(1))
+            .ttl("getDeploymentInfo", Duration.ofMinutes(1))
+            .invalidates("createConnection", "listConnections")
+            .build();
+        ToolExecutor list = cache.wrap("listConnections", counting(reads));
+        ToolExecutor info = cache.wrap("getDeploymentInfo", counting(reads));
+        ToolExecutor create = cache.wrap("createConnection", (request, memoryId) -> "created");
+
+        list.execute(request("listConnections", "{}"), null);
+        info.execute(request("getDeploymentInfo", "{\"deploymentName\":\"gpt-4o\"}"), null);
+        create.execute(request("createConnection", "{}"), null);
+        list.execute(request("listConnections", "{}"), null);
+        info.execute(request("getDeploymentInfo", "{\"deploymentName\":\"gpt-4o\"}"), null);
+        assertEquals(3, reads.get());
+
+        cache.invalidate("getDeploymentInfo", "{\"deploymentName\":\"gpt-4o\"}");
+        info.execute(request("getDeploymentInfo", "{\"deploymentName\":\"gpt-4o\"}"), null);
+        assertEquals(4, reads.get());
+
+        cache.invalidateAll();
+        assertEquals(0, cache.stats().size());
+    }
+
+    @Test
+    public void testConcurrentIdenticalCallsInOneTurnRunOnce() {
+        AtomicInteger calls = new AtomicInteger();
+        ToolResultCache cache = ToolResultCache.builder().ttl("slow", Duration.ofMinutes(1)).build();
+        try (ParallelToolExecutor executor = ParallelToolExecutor.builder()
+                .tool(ToolSpecification.builder().name("slow").description("slow").build(), (request, memoryId) -> {
+                    calls.incrementAndGet();
+                    try {
+                        Thread.sleep(200);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return "result";
+                })
+                .resultCache(cache)
+                .build()) {
+            List<ToolResult> results = executor.executeAll(
+                List.of(request("slow", "{}"), request("slow", "{}"), request("slow", "{}")), "session");
+
+            assertEquals(List.of("result", "result", "result"), results.stream().map(ToolResult::text).toList());
+            assertEquals(1, calls.get());
+
+            executor.executeAll(List.of(request("slow", "{}")), "session");
+            assertEquals(1, calls.get());
+            assertEquals(3, cache.stats().hits());
+        }
+    }
+
+    static class DeploymentTools {
+        final AtomicInteger calls = new AtomicInteger();
+
+        @Tool("Lists the connections")
+        public String listConnections() {
+            calls.incrementAndGet();
+            return "search";
+        }
+
+        @Tool("Gets information about a deployment")
+        public String getDeploymentInfo(String deploymentName) {
+            calls.incrementAndGet();
+            throw new IllegalArgumentException("deployment " + deploymentName + " not found");
+        }
+    }
+
+    @Test
+    public void testExceptionsFromToolMethodsFailTheCallAndAreNotCached() {
+        DeploymentTools tools = new DeploymentTools();
+        ToolResultCache cache = ToolResultCache.builder()
+            .ttl("listConnections", Duration.ofMinutes(1))
+            .ttl("getDeploymentInfo", Duration.ofMinutes(1))
+            .build();
+        try (ParallelToolExecutor executor = ParallelToolExecutor.builder()
+                .tools(tools)
+                .resultCache(cache)
+                .build()) {
+            List<ToolResult> results = executor.executeAll(
+                List.of(request("listConnections", "{}"), request("getDeploymentInfo", "{}")), "session");
+
+            assertEquals(Outcome.SUCCEEDED, results.get(0).outcome());
+            assertEquals("search", results.get(0).text());
+            assertEquals(Outcome.FAILED, results.get(1).outcome());
+            assertTrue(results.get(1).text().contains("not found"), results.get(1).text());
+            assertEquals(1, cache.stats().size());
+
+            ToolResult retried = executor.executeAll(List.of(request("getDeploymentInfo", "{}")), "session").get(0);
+            assertEquals(Outcome.FAILED, retried.outcome());
+            assertEquals(3, tools.calls.get());
+            assertEquals(1, cache.stats().size());
+        }
+    }
+}
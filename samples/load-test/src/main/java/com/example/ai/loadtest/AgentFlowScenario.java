@@ -0,0 +1,152 @@
+package com.example.ai.loadtest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The conversation {@code AgentHelper.runConversation} has with an agent, as one operation:
+ * create a thread, add the user message, start a run, poll it until it finishes, read the
+ * messages and delete the thread.
+ *
+ * The agent is created once by {@link #create} and shared by every conversation.
+ */
+public final class AgentFlowScenario implements Scenario {
+
+    private final String endpoint;
+    private final String agentId;
+    private final String authorization;
+    private final Executor pollDelay;
+
+    // Ends the flow early with the status of a failed request
+    private static final class StatusException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        final int status;
+
+        StatusException(int status) {
+            super(null, null, false, false);
+            this.status = status;
+        }
+    }
+
+    private AgentFlowScenario(String endpoint, String agentId, String authorization, Duration pollInterval) {
+        this.endpoint = endpoint;
+        this.agentId = agentId;
+        this.authorization = authorization;
+        this.pollDelay = CompletableFuture.delayedExecutor(pollInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Creates the agent the conversations use.
+     *
+     * @param client The client to send requests with
+     * @param endpoint The project endpoint, e.g. the mock server's URI
+     * @param model The model deployment of the agent
+     * @param token A bearer token to send, or null
+     * @param pollInterval How long to wait between polls of a run
+     * @return The scenario
+     * @throws IOException If the agent cannot be created
+     * @throws InterruptedException If interrupted while creating the agent
+     */
+    public static AgentFlowScenario create(HttpClient client, URI endpoint, String model, String token,
+                                           Duration pollInterval) throws IOException, InterruptedException {
+        String base = endpoint.toString().replaceAll("/+$", "");
+        String authorization = token != null ? "Bearer " + token : null;
+        HttpRequest request = request(base, authorization, "POST", "/assistants",
+            "{\"model\":" + Json.quote(model) + ",\"name\":\"load-test-agent\","
+                + "\"instructions\":\"You are a helpful assistant.\"}");
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        String agentId = Json.string(response.body(), "id");
+        if (response.statusCode() / 100 != 2 || agentId == null) {
+            throw new IOException("Cannot create the agent: HTTP " + response.statusCode() + " " + response.body());
+        }
+        return new AgentFlowScenario(base, agentId, authorization, pollInterval);
+    }
+
+    /**
+     * Deletes the agent.
+     *
+     * @param client The client to send requests with
+     */
+    public void deleteAgent(HttpClient client) {
+        client.sendAsync(request(endpoint, authorization, "DELETE", "/assistants/" + agentId, null),
+            HttpResponse.BodyHandlers.discarding()).join();
+    }
+
+    @Override
+    public CompletableFuture<Integer> start(HttpClient client) {
+        return send(client, "POST", "/threads", "{}")
+            .thenCompose(thread -> {
+                String threadId = Json.string(thread, "id");
+                return send(client, "POST", "/threads/" + threadId + "/messages",
+                        "{\"role\":\"user\",\"content\":\"What is the capital of France?\"}")
+                    .thenCompose(message -> send(client, "POST", "/threads/" + threadId + "/runs",
+                        "{\"assistant_id\":" + Json.quote(agentId) + "}"))
+                    .thenCompose(run -> poll(client, threadId, Json.string(run, "id"), Json.string(run, "status")))
+                    .thenCompose(status -> {
+                        if (!"completed".equals(status)) {
+                            return deleteThread(client, threadId).thenApply(deleted -> FAILED);
+                        }
+                        return send(client, "GET", "/threads/" + threadId + "/messages", null)
+                            .thenCompose(messages -> deleteThread(client, threadId))
+                            .thenApply(deleted -> 200);
+                    });
+            })
+            .handle((status, error) -> {
+                Throwable cause = error instanceof CompletionException ? error.getCause() : error;
+                if (cause instanceof StatusException failed) {
+                    return failed.status;
+                }
+                if (cause != null) {
+                    throw new CompletionException(cause);
+                }
+                return status;
+            });
+    }
+
+    private CompletableFuture<String> poll(HttpClient client, String threadId, String runId, String status) {
+        if (!"queued".equals(status) && !"in_progress".equals(status)) {
+            return CompletableFuture.completedFuture(status);
+        }
+        return CompletableFuture.runAsync(() -> { }, pollDelay)
+            .thenCompose(ignored -> send(client, "GET", "/threads/" + threadId + "/runs/" + runId, null))
+            .thenCompose(run -> poll(client, threadId, runId, Json.string(run, "status")));
+    }
+
+    private CompletableFuture<String> deleteThread(HttpClient client, String threadId) {
+        return send(client, "DELETE", "/threads/" + threadId, null);
+    }
+
+    private CompletableFuture<String> send(HttpClient client, String method, String path, String body) {
+        return client.sendAsync(request(endpoint, authorization, method, path, body),
+                HttpResponse.BodyHandlers.ofString())
+            .thenApply(response -> {
+                if (response.statusCode() / 100 != 2) {
+                    throw new StatusException(response.statusCode());
+                }
+                return response.body();
+            });
+    }
+
+    private static HttpRequest request(String endpoint, String authorization, String method, String path,
+                                       String body) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(endpoint + path))
+            .timeout(Duration.ofSeconds(60))
+            .header("Content-Type", "application/json")
+            .method(method, body != null
+                ? HttpRequest.BodyPublishers.ofString(body)
+                : HttpRequest.BodyPublishers.noBody());
+        if (authorization != null) {
+            builder.header("Authorization", authorization);
+        }
+        return builder.build();
+    }
+}
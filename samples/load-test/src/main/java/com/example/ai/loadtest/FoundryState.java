@@ -0,0 +1,287 @@
+package com.example.ai.loadtest;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The resources the mock server holds in memory: agents, threads with their messages, runs,
+ * vector stores and files, plus a fixed set of connections and deployments.
+ *
+ * Methods return the JSON body of the response, or null if the resource does not exist.
+ */
+final class FoundryState {
+
+    private static final int CONNECTIONS = 5;
+
+    private final AtomicLong ids = new AtomicLong();
+    private final Map<String, String> agents = new ConcurrentHashMap<>();
+    private final Map<String, ThreadState> threads = new ConcurrentHashMap<>();
+    private final Map<String, String> vectorStores = new ConcurrentHashMap<>();
+    private final Map<String, String> files = new ConcurrentHashMap<>();
+    private final List<String> deploymentNames;
+    private final long runNanos;
+    private final String reply;
+
+    // Runs live with their thread, so deleting the thread frees them
+    private static final class ThreadState {
+        final List<String> messages = new ArrayList<>();
+        final Map<String, Run> runs = new ConcurrentHashMap<>();
+    }
+
+    private static final class Run {
+        final String id;
+        final String threadId;
+        final String agentId;
+        final long createdAt = Instant.now().getEpochSecond();
+        final long startedNanos = System.nanoTime();
+        boolean completed;
+
+        Run(String id, String threadId, String agentId) {
+            this.id = id;
+            this.threadId = threadId;
+            this.agentId = agentId;
+        }
+    }
+
+    /**
+     * @param deploymentNames The deployments to list
+     * @param runNanos How long a run stays in progress
+     * @param reply The assistant message a run adds to its thread
+     */
+    FoundryState(List<String> deploymentNames, long runNanos, String reply) {
+        this.deploymentNames = List.copyOf(deploymentNames);
+        this.runNanos = runNanos;
+        this.reply = reply;
+    }
+
+    private String nextId(String prefix) {
+        return prefix + Long.toHexString(0x1000000L + ids.incrementAndGet());
+    }
+
+    private static long now() {
+        return Instant.now().getEpochSecond();
+    }
+
+    // Agents
+
+    String createAgent(String request) {
+        String id = nextId("asst_");
+        String agent = "{\"id\":" + Json.quote(id) + ",\"object\":\"assistant\",\"created_at\":" + now()
+            + ",\"name\":" + Json.quote(Json.string(request, "name"))
+            + ",\"model\":" + Json.quote(Json.string(request, "model"))
+            + ",\"instructions\":" + Json.quote(Json.string(request, "instructions"))
+            + ",\"tools\":[],\"metadata\":{}}";
+        agents.put(id, agent);
+        return agent;
+    }
+
+    String getAgent(String id) {
+        return agents.get(id);
+    }
+
+    String listAgents() {
+        return list(new ArrayList<>(agents.values()));
+    }
+
+    String deleteAgent(String id) {
+        return deleted(id, "assistant.deleted", agents.remove(id) != null);
+    }
+
+    // Threads and messages
+
+    String createThread() {
+        String id = nextId("thread_");
+        threads.put(id, new ThreadState());
+        return thread(id);
+    }
+
+    String getThread(String id) {
+        return threads.containsKey(id) ? thread(id) : null;
+    }
+
+    String deleteThread(String id) {
+        return deleted(id, "thread.deleted", threads.remove(id) != null);
+    }
+
+    private static String thread(String id) {
+        return "{\"id\":" + Json.quote(id) + ",\"object\":\"thread\",\"created_at\":" + now() + ",\"metadata\":{}}";
+    }
+
+    String createMessage(String threadId, String request) {
+        ThreadState thread = threads.get(threadId);
+        if (thread == null) {
+            return null;
+        }
+        String role = Json.string(request, "role");
+        return addMessage(threadId, thread.messages, role != null ? role : "user",
+            Json.string(request, "content"), null, null);
+    }
+
+    private String addMessage(String threadId, List<String> messages, String role, String content,
+                              String agentId, String runId) {
+        String id = nextId("msg_");
+        String message = "{\"id\":" + Json.quote(id) + ",\"object\":\"thread.message\",\"created_at\":" + now()
+            + ",\"thread_id\":" + Json.quote(threadId) + ",\"role\":" + Json.quote(role)
+            + ",\"content\":[{\"type\":\"text\",\"text\":{\"value\":" + Json.quote(content) + ",\"annotations\":[]}}]"
+            + ",\"assistant_id\":" + Json.quote(agentId) + ",\"run_id\":" + Json.quote(runId)
+            + ",\"attachments\":[],\"metadata\":{}}";
+        synchronized (messages) {
+            messages.add(message);
+        }
+        return message;
+    }
+
+    String listMessages(String threadId) {
+        ThreadState thread = threads.get(threadId);
+        if (thread == null) {
+            return null;
+        }
+        List<String> newestFirst;
+        synchronized (thread.messages) {
+            newestFirst = new ArrayList<>(thread.messages);
+        }
+        Collections.reverse(newestFirst);
+        return list(newestFirst);
+    }
+
+    // Runs
+
+    String createRun(String threadId, String request) {
+        ThreadState thread = threads.get(threadId);
+        if (thread == null) {
+            return null;
+        }
+        Run run = new Run(nextId("run_"), threadId, Json.string(request, "assistant_id"));
+        thread.runs.put(run.id, run);
+        return run(thread, run);
+    }
+
+    String getRun(String threadId, String runId) {
+        ThreadState thread = threads.get(threadId);
+        Run run = thread != null ? thread.runs.get(runId) : null;
+        return run != null ? run(thread, run) : null;
+    }
+
+    // A run is queued, then in progress, then completes once its duration has passed
+    private String run(ThreadState thread, Run run) {
+        String status;
+        synchronized (run) {
+            long elapsed = System.nanoTime() - run.startedNanos;
+            if (run.completed || elapsed >= runNanos) {
+                if (!run.completed) {
+                    run.completed = true;
+                    addMessage(run.threadId, thread.messages, "assistant", reply, run.agentId, run.id);
+                }
+                status = "completed";
+            } else {
+                status = elapsed < runNanos / 10 ? "queued" : "in_progress";
+            }
+        }
+        return "{\"id\":" + Json.quote(run.id) + ",\"object\":\"thread.run\",\"created_at\":" + run.createdAt
+            + ",\"thread_id\":" + Json.quote(run.threadId) + ",\"assistant_id\":" + Json.quote(run.agentId)
+            + ",\"status\":" + Json.quote(status) + ",\"last_error\":null,\"tools\":[],\"metadata\":{}}";
+    }
+
+    // Vector stores and files
+
+    String createVectorStore(String request) {
+        String id = nextId("vs_");
+        String vectorStore = "{\"id\":" + Json.quote(id) + ",\"object\":\"vector_store\",\"created_at\":" + now()
+            + ",\"name\":" + Json.quote(Json.string(request, "name"))
+            + ",\"status\":\"completed\",\"file_counts\":{\"in_progress\":0,\"completed\":0,\"failed\":0,"
+            + "\"cancelled\":0,\"total\":0},\"metadata\":{}}";
+        vectorStores.put(id, vectorStore);
+        return vectorStore;
+    }
+
+    String getVectorStore(String id) {
+        return vectorStores.get(id);
+    }
+
+    String deleteVectorStore(String id) {
+        return deleted(id, "vector_store.deleted", vectorStores.remove(id) != null);
+    }
+
+    String createFile(int bytes) {
+        String id = nextId("assistant-");
+        String file = "{\"id\":" + Json.quote(id) + ",\"object\":\"file\",\"bytes\":" + bytes
+            + ",\"created_at\":" + now() + ",\"filename\":\"upload\",\"purpose\":\"assistants\",\"status\":\"processed\"}";
+        files.put(id, file);
+        return file;
+    }
+
+    String getFile(String id) {
+        return files.get(id);
+    }
+
+    String deleteFile(String id) {
+        return deleted(id, "file", files.remove(id) != null);
+    }
+
+    // Connections and deployments
+
+    String listConnections() {
+        List<String> connections = new ArrayList<>(CONNECTIONS);
+        for (int i = 0; i < CONNECTIONS; i++) {
+            connections.add(connection("connection-" + i));
+        }
+        return page(connections);
+    }
+
+    String getConnection(String name) {
+        return name.startsWith("connection-") ? connection(name) : null;
+    }
+
+    private static String connection(String name) {
+        return "{\"name\":" + Json.quote(name) + ",\"id\":" + Json.quote("/connections/" + name)
+            + ",\"type\":\"AzureOpenAI\",\"target\":\"https://localhost/\",\"isDefault\":false"
+            + ",\"credentials\":{\"type\":\"AAD\"},\"metadata\":{}}";
+    }
+
+    String listDeployments() {
+        List<String> deployments = new ArrayList<>(deploymentNames.size());
+        for (String name : deploymentNames) {
+            deployments.add(deployment(name));
+        }
+        return page(deployments);
+    }
+
+    String getDeployment(String name) {
+        return deploymentNames.contains(name) ? deployment(name) : null;
+    }
+
+    private static String deployment(String name) {
+        return "{\"name\":" + Json.quote(name) + ",\"type\":\"ModelDeployment\",\"modelName\":" + Json.quote(name)
+            + ",\"modelVersion\":\"1\",\"modelPublisher\":\"OpenAI\",\"capabilities\":{\"chat_completion\":\"true\"}"
+            + ",\"sku\":{\"name\":\"GlobalStandard\",\"capacity\":100},\"connectionName\":\"connection-0\"}";
+    }
+
+    // Shapes shared by the operations
+
+    private static String list(List<String> items) {
+        String first = items.isEmpty() ? null : Json.string(items.get(0), "id");
+        String last = items.isEmpty() ? null : Json.string(items.get(items.size() - 1), "id");
+        return "{\"object\":\"list\",\"data\":[" + String.join(",", items) + "],\"first_id\":" + Json.quote(first)
+            + ",\"last_id\":" + Json.quote(last) + ",\"has_more\":false}";
+    }
+
+    private static String page(List<String> items) {
+        return "{\"value\":[" + String.join(",", items) + "]}";
+    }
+
+    private static String deleted(String id, String object, boolean deleted) {
+        return deleted ? "{\"id\":" + Json.quote(id) + ",\"object\":" + Json.quote(object) + ",\"deleted\":true}" : null;
+    }
+
+    /**
+     * @return The number of live agents, threads, vector stores and files
+     */
+    int resourceCount() {
+        return agents.size() + threads.size() + vectorStores.size() + files.size();
+    }
+}
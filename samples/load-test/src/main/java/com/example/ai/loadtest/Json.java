@@ -0,0 +1,136 @@
+package com.example.ai.loadtest;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * The little JSON handling the server and scenarios need, so the harness has no dependencies.
+ * Reading only looks up string fields by name, which is enough for
+ * the request and response bodies involved.
+ */
+final class Json {
+
+    // Compiled once per field name; the server looks up the same few fields on every request
+    private static final Map<String, Pattern> FIELDS = new ConcurrentHashMap<>();
+
+    private Json() {
+    }
+
+    /**
+     * @param value The string, may be null
+     * @return The string as a JSON literal
+     */
+    static String quote(String value) {
+        if (value == null) {
+            return "null";
+        }
+        StringBuilder builder = new StringBuilder(value.length() + 2).append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> builder.append("\\\"");
+                case '\\' -> builder.append("\\\\");
+                case '\n' -> builder.append("\\n");
+                case '\r' -> builder.append("\\r");
+                case '\t' -> builder.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        builder.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        builder.append(c);
+                    }
+                }
+            }
+        }
+        return builder.append('"').toString();
+    }
+
+    /**
+     * @param json The JSON text
+     * @param field The field name
+     * @return The first string value of the field, unescaped, or null if there is none
+     */
+    static String string(String json, String field) {
+        Matcher matcher = pattern(field).matcher(json);
+        return matcher.find() ? unescape(matcher.group(1)) : null;
+    }
+
+    /**
+     * @param json The JSON text
+     * @param field The field name
+     * @return The last string value of the field, unescaped, or null if there is none
+     */
+    static String lastString(String json, String field) {
+        Matcher matcher = pattern(field).matcher(json);
+        String last = null;
+        while (matcher.find()) {
+            last = matcher.group(1);
+        }
+        return last != null ? unescape(last) : null;
+    }
+
+    /**
+     * @param json The JSON text
+     * @param field The field name
+     * @return The number of strings in the field if it is an array of strings, otherwise 1
+     */
+    static int arrayLength(String json, String field) {
+        Matcher matcher = Pattern.compile("\"" + Pattern.quote(field) + "\"\\s*:\\s*\\[").matcher(json);
+        if (!matcher.find()) {
+            return 1;
+        }
+        int count = 0;
+        boolean inString = false;
+        for (int i = matcher.end(); i < json.length(); i++) {
+            char c = json.charAt(i);
+            if (inString) {
+                if (c == '\\') {
+                    i++;
+                } else if (c == '"') {
+                    inString = false;
+                }
+            } else if (c == '"') {
+                inString = true;
+                count++;
+            } else if (c == ']') {
+                break;
+            }
+        }
+        return Math.max(count, 1);
+    }
+
+    private static Pattern pattern(String field) {
+        return FIELDS.computeIfAbsent(field,
+            name -> Pattern.compile("\"" + Pattern.quote(name) + "\"\\s*:\\s*\"((?:[^\"\\\\]|\\\\.)*)\""));
+    }
+
+    private static String unescape(String value) {
+        if (value.indexOf('\\') < 0) {
+            return value;
+        }
+        StringBuilder builder = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c != '\\' || i + 1 == value.length()) {
+                builder.append(c);
+                continue;
+            }
+            char escaped = value.charAt(++i);
+            switch (escaped) {
+                case 'n' -> builder.append('\n');
+                case 'r' -> builder.append('\r');
+                case 't' -> builder.append('\t');
+                case 'b' -> builder.append('\b');
+                case 'f' -> builder.append('\f');
+                case 'u' -> {
+                    builder.append((char) Integer.parseInt(value.substring(i + 1, i + 5), 16));
+                    i += 4;
+                }
+                default -> builder.append(escaped);
+            }
+        }
+        return builder.toString();
+    }
+}
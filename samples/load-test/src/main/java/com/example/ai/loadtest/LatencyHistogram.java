@@ -0,0 +1,122 @@
+package com.example.ai.loadtest;
+
+import java.io.PrintStream;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A lock-free latency histogram in microseconds with log-linear buckets: exact below 128
+ * microseconds, then 64 buckets per power of two, so any reported value is within 1.6% of the
+ * recorded one.
+ * Recording is a few atomic adds and allocates nothing, so it can sit on the response path
+ * of every request.
+ */
+public final class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 7;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int HALF = SUB_BUCKETS / 2;
+    // Values below 2^41 microseconds (about 25 days) are distinguished; larger ones share the last bucket
+    private static final int MAX_SHIFT = 41 - SUB_BUCKET_BITS;
+    private static final int BUCKETS = SUB_BUCKETS + MAX_SHIFT * HALF;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong sum = new AtomicLong();
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * @param duration The latency
+     * @param unit The unit of the latency
+     */
+    public void record(long duration, TimeUnit unit) {
+        long micros = Math.max(0, unit.toMicros(duration));
+        counts.incrementAndGet(index(micros));
+        count.incrementAndGet();
+        sum.addAndGet(micros);
+        max.accumulateAndGet(micros, Math::max);
+    }
+
+    private static int index(long micros) {
+        if (micros < SUB_BUCKETS) {
+            return (int) micros;
+        }
+        // Shift so the value keeps its top SUB_BUCKET_BITS bits, i.e. falls in [HALF, SUB_BUCKETS)
+        int shift = 64 - Long.numberOfLeadingZeros(micros) - SUB_BUCKET_BITS;
+        if (shift > MAX_SHIFT) {
+            return BUCKETS - 1;
+        }
+        return SUB_BUCKETS + (shift - 1) * HALF + (int) (micros >>> shift) - HALF;
+    }
+
+    // The largest value that maps to the bucket
+    private static long highestValue(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        int shift = (index - SUB_BUCKETS) / HALF + 1;
+        long top = (index - SUB_BUCKETS) % HALF + HALF;
+        return ((top + 1) << shift) - 1;
+    }
+
+    /**
+     * @return The number of recorded latencies
+     */
+    public long count() {
+        return count.get();
+    }
+
+    /**
+     * @return The largest recorded latency in microseconds
+     */
+    public long maxMicros() {
+        return max.get();
+    }
+
+    /**
+     * @return The mean latency in microseconds, 0 if nothing was recorded
+     */
+    public double meanMicros() {
+        long n = count.get();
+        return n == 0 ? 0 : (double) sum.get() / n;
+    }
+
+    /**
+     * @param percentile The percentile, between 0 and 100
+     * @return The latency in microseconds at or below which that share of the latencies fall
+     */
+    public long percentileMicros(double percentile) {
+        if (percentile < 0 || percentile > 100) {
+            throw new IllegalArgumentException("Percentile must be between 0 and 100: " + percentile);
+        }
+        long total = count.get();
+        if (total == 0) {
+            return 0;
+        }
+        long target = Math.max(1, (long) Math.ceil(percentile / 100 * total));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts.get(i);
+            if (seen >= target) {
+                return i == BUCKETS - 1 ? max.get() : Math.min(highestValue(i), max.get());
+            }
+        }
+        return max.get();
+    }
+
+    /**
+     * Prints the usual percentiles in milliseconds.
+     *
+     * @param out Where to print
+     */
+    public void print(PrintStream out) {
+        out.printf("  Latency (ms)  mean %.1f  p50 %.1f  p90 %.1f  p99 %.1f  p99.9 %.1f  max %.1f%n",
+            meanMicros() / 1000,
+            percentileMicros(50) / 1000.0,
+            percentileMicros(90) / 1000.0,
+            percentileMicros(99) / 1000.0,
+            percentileMicros(99.9) / 1000.0,
+            maxMicros() / 1000.0);
+    }
+}
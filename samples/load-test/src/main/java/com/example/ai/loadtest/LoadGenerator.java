@@ -0,0 +1,372 @@
+package com.example.ai.loadtest;
+
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Drives a scenario at a fixed arrival rate and reports throughput, latency percentiles and
+ * errors.
+ *
+ * The load is open: operations start on schedule whether or not earlier ones have finished,
+ * as independent users would send them. Latency is measured from the scheduled start, so a
+ * stalled system shows up as latency instead of quietly lowering the offered load. Operations
+ * beyond the in-flight limit are not started and are reported as dropped.
+ *
+ * Usage:
+ * <pre>
+ * mvn exec:java -Dexec.args="--url http://localhost:8080/api/ai/connections --rps 50 --duration 60"
+ * mvn exec:java -Dexec.args="--scenario agent --endpoint http://localhost:8089 --rps 10"
+ * </pre>
+ */
+public final class LoadGenerator {
+
+    private final double rps;
+    private final Duration duration;
+    private final Duration warmup;
+    private final int maxInFlight;
+    private final Duration drainTimeout;
+    private final HttpClient client;
+
+    /**
+     * The outcome of a run, counting only operations scheduled after the warmup.
+     *
+     * @param targetRps The arrival rate
+     * @param duration The measured period
+     * @param started Operations started
+     * @param dropped Operations not started because too many were in flight
+     * @param completed Operations that finished, successfully or not
+     * @param succeeded Operations that finished with a 2xx status
+     * @param errors Failed operations by cause, e.g. {@code HTTP 429}
+     * @param latencies The latency of every completed operation
+     */
+    public record Result(double targetRps, Duration duration, long started, long dropped, long completed,
+                         long succeeded, Map<String, Long> errors, LatencyHistogram latencies) {
+
+        /**
+         * @return Completed operations per second
+         */
+        public double throughput() {
+            return completed / (duration.toNanos() / 1e9);
+        }
+
+        /**
+         * @return The fraction of completed operations that failed
+         */
+        public double errorRate() {
+            return completed == 0 ? 0 : (double) (completed - succeeded) / completed;
+        }
+
+        /**
+         * @param out Where to print the report
+         */
+        public void print(PrintStream out) {
+            out.printf("  Target %.1f/s for %ds: %d started, %d dropped, %d completed, %d unfinished%n",
+                targetRps, duration.toSeconds(), started, dropped, completed, started - completed);
+            out.printf("  Throughput %.1f/s, %d succeeded, error rate %.2f%%%n",
+                throughput(), succeeded, errorRate() * 100);
+            errors.forEach((cause, count) -> out.printf("    %-24s %d%n", cause, count));
+            latencies.print(out);
+        }
+    }
+
+    private LoadGenerator(Builder builder) {
+        this.rps = builder.rps;
+        this.duration = builder.duration;
+        this.warmup = builder.warmup;
+        this.maxInFlight = builder.maxInFlight;
+        this.drainTimeout = builder.drainTimeout;
+        this.client = builder.client != null ? builder.client : defaultClient();
+    }
+
+    /**
+     * @return A client for HTTP/1.1, which is what the mock server and most local apps speak
+     */
+    public static HttpClient defaultClient() {
+        return HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+    }
+
+    /**
+     * @return A builder for 10 operations per second for 30 seconds after a 5 second warmup
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * @return The client operations are started with
+     */
+    public HttpClient client() {
+        return client;
+    }
+
+    /**
+     * Runs the scenario for the warmup and the measured period, then waits for the operations
+     * in flight to finish.
+     *
+     * @param scenario The operation to start
+     * @return The result of the measured period
+     * @throws InterruptedException If interrupted while waiting for operations in flight
+     */
+    public Result run(Scenario scenario) throws InterruptedException {
+        LatencyHistogram latencies = new LatencyHistogram();
+        AtomicInteger inFlight = new AtomicInteger();
+        LongAdder started = new LongAdder();
+        LongAdder dropped = new LongAdder();
+        LongAdder completed = new LongAdder();
+        LongAdder succeeded = new LongAdder();
+        Map<String, LongAdder> errors = new ConcurrentHashMap<>();
+
+        long start = System.nanoTime();
+        long measureFrom = start + warmup.toNanos();
+        long end = measureFrom + duration.toNanos();
+        for (long i = 0; ; i++) {
+            long scheduled = start + (long) (i * 1e9 / rps);
+            if (scheduled - end >= 0) {
+                break;
+            }
+            long wait = scheduled - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            boolean measured = scheduled - measureFrom >= 0;
+            if (inFlight.get() >= maxInFlight) {
+                if (measured) {
+                    dropped.increment();
+                }
+                continue;
+            }
+            inFlight.incrementAndGet();
+            if (measured) {
+                started.increment();
+            }
+            CompletableFuture<Integer> operation;
+            try {
+                operation = scenario.start(client);
+            } catch (RuntimeException e) {
+                operation = CompletableFuture.failedFuture(e);
+            }
+            operation.whenComplete((status, error) -> {
+                if (measured) {
+                    latencies.record(System.nanoTime() - scheduled, TimeUnit.NANOSECONDS);
+                    completed.increment();
+                    String cause = cause(status, error);
+                    if (cause == null) {
+                        succeeded.increment();
+                    } else {
+                        errors.computeIfAbsent(cause, key -> new LongAdder()).increment();
+                    }
+                }
+                inFlight.decrementAndGet();
+            });
+        }
+
+        long deadline = System.nanoTime() + drainTimeout.toNanos();
+        while (inFlight.get() > 0 && System.nanoTime() - deadline < 0) {
+            Thread.sleep(10);
+        }
+
+        Map<String, Long> errorCounts = new TreeMap<>();
+        errors.forEach((cause, count) -> errorCounts.put(cause, count.sum()));
+        return new Result(rps, duration, started.sum(), dropped.sum(), completed.sum(), succeeded.sum(),
+            errorCounts, latencies);
+    }
+
+    // Null for success, otherwise what the failure is counted as
+    private static String cause(Integer status, Throwable error) {
+        if (error != null) {
+            Throwable cause = error instanceof CompletionException && error.getCause() != null
+                ? error.getCause()
+                : error;
+            return cause.getClass().getSimpleName();
+        }
+        if (status == Scenario.FAILED) {
+            return "Operation failed";
+        }
+        return status / 100 == 2 ? null : "HTTP " + status;
+    }
+
+    /**
+     * Builder for {@link LoadGenerator}.
+     */
+    public static final class Builder {
+        private double rps = 10;
+        private Duration duration = Duration.ofSeconds(30);
+        private Duration warmup = Duration.ofSeconds(5);
+        private int maxInFlight = 1000;
+        private Duration drainTimeout = Duration.ofSeconds(60);
+        private HttpClient client;
+
+        private Builder() {
+        }
+
+        /**
+         * @param rps Operations to start per second
+         * @return This builder
+         */
+        public Builder rps(double rps) {
+            if (rps <= 0) {
+                throw new IllegalArgumentException("rps must be positive: " + rps);
+            }
+            this.rps = rps;
+            return this;
+        }
+
+        /**
+         * @param duration The measured period
+         * @return This builder
+         */
+        public Builder duration(Duration duration) {
+            this.duration = duration;
+            return this;
+        }
+
+        /**
+         * @param warmup The period before measuring, at the same rate
+         * @return This builder
+         */
+        public Builder warmup(Duration warmup) {
+            this.warmup = warmup;
+            return this;
+        }
+
+        /**
+         * @param maxInFlight Operations allowed in flight before new ones are dropped
+         * @return This builder
+         */
+        public Builder maxInFlight(int maxInFlight) {
+            if (maxInFlight < 1) {
+                throw new IllegalArgumentException("maxInFlight must be at least 1: " + maxInFlight);
+            }
+            this.maxInFlight = maxInFlight;
+            return this;
+        }
+
+        /**
+         * @param drainTimeout How long to wait for operations in flight at the end
+         * @return This builder
+         */
+        public Builder drainTimeout(Duration drainTimeout) {
+            this.drainTimeout = drainTimeout;
+            return this;
+        }
+
+        /**
+         * @param client The client to start operations with
+         * @return This builder
+         */
+        public Builder client(HttpClient client) {
+            this.client = client;
+            return this;
+        }
+
+        /**
+         * @return The load generator
+         */
+        public LoadGenerator build() {
+            return new LoadGenerator(this);
+        }
+    }
+
+    /**
+     * Runs a load test from the command line.
+     *
+     * Options: {@code --rps}, {@code --duration} and {@code --warmup} (seconds),
+     * {@code --max-in-flight}, and either {@code --url} with optional {@code --method},
+     * {@code --body} (text, or {@code @file}) and repeated {@code --header Name:Value}, or
+     * {@code --scenario agent --endpoint URL} with optional {@code --model}, {@code --token}
+     * and {@code --poll-interval} (milliseconds).
+     */
+    public static void main(String[] args) throws Exception {
+        Builder builder = builder();
+        String url = null;
+        String method = "GET";
+        String body = null;
+        List<String[]> headers = new ArrayList<>();
+        String scenarioName = "request";
+        String endpoint = null;
+        String model = "gpt-4o";
+        String token = null;
+        Duration pollInterval = Duration.ofMillis(500);
+        for (int i = 0; i < args.length; i++) {
+            String option = args[i];
+            if (i + 1 == args.length) {
+                throw new IllegalArgumentException("Missing value for " + option);
+            }
+            String value = args[++i];
+            switch (option) {
+                case "--rps" -> builder.rps(Double.parseDouble(value));
+                case "--duration" -> builder.duration(Duration.ofSeconds(Long.parseLong(value)));
+                case "--warmup" -> builder.warmup(Duration.ofSeconds(Long.parseLong(value)));
+                case "--max-in-flight" -> builder.maxInFlight(Integer.parseInt(value));
+                case "--url" -> url = value;
+                case "--method" -> method = value;
+                case "--body" -> body = value.startsWith("@") ? Files.readString(Path.of(value.substring(1))) : value;
+                case "--header" -> {
+                    int colon = value.indexOf(':');
+                    if (colon < 1) {
+                        throw new IllegalArgumentException("Expected Name:Value: " + value);
+                    }
+                    headers.add(new String[] {value.substring(0, colon).trim(), value.substring(colon + 1).trim()});
+                }
+                case "--scenario" -> scenarioName = value;
+                case "--endpoint" -> endpoint = value;
+                case "--model" -> model = value;
+                case "--token" -> token = value;
+                case "--poll-interval" -> pollInterval = Duration.ofMillis(Long.parseLong(value));
+                default -> throw new IllegalArgumentException("Unknown option " + option);
+            }
+        }
+
+        LoadGenerator generator = builder.build();
+        Result result;
+        if (scenarioName.equals("agent")) {
+            if (endpoint == null) {
+                throw new IllegalArgumentException("--scenario agent needs --endpoint");
+            }
+            AgentFlowScenario scenario = AgentFlowScenario.create(generator.client(), URI.create(endpoint), model,
+                token, pollInterval);
+            try {
+                result = generator.run(scenario);
+            } finally {
+                scenario.deleteAgent(generator.client());
+            }
+        } else if (scenarioName.equals("request")) {
+            if (url == null) {
+                throw new IllegalArgumentException("--url is required");
+            }
+            HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(url))
+                .timeout(Duration.ofSeconds(60))
+                .method(method, body != null
+                    ? HttpRequest.BodyPublishers.ofString(body)
+                    : HttpRequest.BodyPublishers.noBody());
+            for (String[] header : headers) {
+                request.header(header[0], header[1]);
+            }
+            result = generator.run(Scenario.request(request.build()));
+        } else {
+            throw new IllegalArgumentException("Unknown scenario " + scenarioName + "; use request or agent");
+        }
+
+        System.out.println("Load test results:");
+        result.print(System.out);
+    }
+}
@@ -0,0 +1,552 @@
+package com.example.ai.loadtest;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import com.sun.net.httpserver.HttpsConfigurator;
+import com.sun.net.httpserver.HttpsServer;
+
+import javax.net.ssl.KeyManagerFactory;
+import javax.net.ssl.SSLContext;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.GeneralSecurityException;
+import java.security.KeyStore;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A local stand-in for an Azure AI Foundry project and its Azure OpenAI endpoint, for load tests
+ * that must not depend on live Azure.
+ *
+ * It emulates agents, threads, messages, runs, vector stores, files, connections, deployments,
+ * chat completions and embeddings, with per-category latency and injected 429 and 500 responses.
+ * Any path prefix is accepted, so a project endpoint such as
+ * {@code https://localhost:8443/api/projects/load-test} works as well as the bare host.
+ *
+ * Run it with:
+ * <pre>
+ * mvn exec:java -Dexec.mainClass=com.example.ai.loadtest.MockFoundryServer \
+ *     -Dexec.args="--port 8443 --latency chat=400:150 --throttle-rate 0.02 --error-rate 0.01"
+ * </pre>
+ */
+public final class MockFoundryServer implements AutoCloseable {
+
+    /**
+     * The groups of operations that share a latency setting.
+     */
+    public enum Category {
+        /** Chat completions and embeddings */
+        CHAT,
+        /** Agents, threads, messages, runs, vector stores and files */
+        AGENTS,
+        /** Connections and deployments */
+        PROJECT
+    }
+
+    /**
+     * Latency added to a response, uniformly distributed within the jitter around the mean.
+     *
+     * @param meanMillis The mean latency in milliseconds
+     * @param jitterMillis The maximum deviation from the mean in milliseconds
+     */
+    public record Latency(long meanMillis, long jitterMillis) {
+
+        public Latency {
+            if (meanMillis < 0 || jitterMillis < 0 || jitterMillis > meanMillis) {
+                throw new IllegalArgumentException("Latency must satisfy 0 <= jitter <= mean: "
+                    + meanMillis + ":" + jitterMillis);
+            }
+        }
+
+        /**
+         * @param value The latency as {@code mean} or {@code mean:jitter} in milliseconds
+         * @return The latency
+         */
+        public static Latency parse(String value) {
+            int colon = value.indexOf(':');
+            return colon < 0
+                ? new Latency(Long.parseLong(value.trim()), 0)
+                : new Latency(Long.parseLong(value.substring(0, colon).trim()),
+                    Long.parseLong(value.substring(colon + 1).trim()));
+        }
+
+        long sampleMillis(Random random) {
+            return jitterMillis == 0 ? meanMillis : meanMillis - jitterMillis + random.nextLong(2 * jitterMillis + 1);
+        }
+    }
+
+    private static final Set<String> ROOTS = Set.of("openai", "chat", "embeddings", "assistants", "threads",
+        "vector_stores", "files", "connections", "deployments");
+    private static final int EMBEDDING_DIMENSIONS = 1536;
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final FoundryState state;
+    private final Map<Category, Latency> latencies;
+    private final double throttleRate;
+    private final double errorRate;
+    private final String reply;
+    private final int completionTokens;
+    private final String embedding;
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder throttled = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+
+    private MockFoundryServer(Builder builder) throws IOException {
+        this.latencies = new EnumMap<>(builder.latencies);
+        this.throttleRate = builder.throttleRate;
+        this.errorRate = builder.errorRate;
+        this.completionTokens = builder.completionTokens;
+        this.reply = "token ".repeat(builder.completionTokens).trim();
+        this.state = new FoundryState(builder.deployments, builder.runDuration.toNanos(), reply);
+
+        StringBuilder vector = new StringBuilder(EMBEDDING_DIMENSIONS * 8).append('[');
+        Random random = new Random(42);
+        for (int i = 0; i < EMBEDDING_DIMENSIONS; i++) {
+            vector.append(i == 0 ? "" : ",")
+                .append(String.format(Locale.ROOT, "%.5f", random.nextGaussian() / 40));
+        }
+        this.embedding = vector.append(']').toString();
+
+        InetSocketAddress address = new InetSocketAddress(builder.port);
+        if (builder.keystore != null) {
+            HttpsServer https = HttpsServer.create(address, 1024);
+            https.setHttpsConfigurator(new HttpsConfigurator(sslContext(builder.keystore, builder.keystorePassword)));
+            server = https;
+        } else {
+            server = HttpServer.create(address, 1024);
+        }
+        // Responses sleep to emulate latency, so every exchange gets its own thread
+        AtomicInteger threads = new AtomicInteger();
+        executor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "mock-foundry-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        server.setExecutor(executor);
+        server.createContext("/", this::handle);
+        server.start();
+    }
+
+    private static SSLContext sslContext(Path keystore, char[] password) throws IOException {
+        try (InputStream in = Files.newInputStream(keystore)) {
+            KeyStore keyStore = KeyStore.getInstance("PKCS12");
+            keyStore.load(in, password);
+            KeyManagerFactory keyManagers = KeyManagerFactory.getInstance(KeyManagerFactory.getDefaultAlgorithm());
+            keyManagers.init(keyStore, password);
+            SSLContext context = SSLContext.getInstance("TLS");
+            context.init(keyManagers.getKeyManagers(), null, null);
+            return context;
+        } catch (GeneralSecurityException e) {
+            throw new IOException("Cannot load keystore " + keystore, e);
+        }
+    }
+
+    /**
+     * @return A builder for a server on an ephemeral port with default latencies and no faults
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * @return The port the server listens on
+     */
+    public int port() {
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * @return The base URI of the server, e.g. {@code http://localhost:51234}
+     */
+    public URI uri() {
+        return URI.create((server instanceof HttpsServer ? "https" : "http") + "://localhost:" + port());
+    }
+
+    /**
+     * @return The number of requests received
+     */
+    public long requestCount() {
+        return requests.sum();
+    }
+
+    /**
+     * @return The number of injected 429 responses
+     */
+    public long throttledCount() {
+        return throttled.sum();
+    }
+
+    /**
+     * @return The number of injected 500 responses
+     */
+    public long failedCount() {
+        return failed.sum();
+    }
+
+    /**
+     * @return The number of agents, threads, vector stores and files currently held
+     */
+    public int resourceCount() {
+        return state.resourceCount();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            requests.increment();
+            String method = exchange.getRequestMethod();
+            byte[] body = exchange.getRequestBody().readAllBytes();
+            List<String> path = route(exchange.getRequestURI().getPath());
+            if (path.isEmpty()) {
+                respond(exchange, 404, error("NotFound", "No operation at " + exchange.getRequestURI().getPath()));
+                return;
+            }
+
+            // Throttling is decided before the work, failures after it, as a real service would
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            double fault = random.nextDouble();
+            if (fault < throttleRate) {
+                throttled.increment();
+                exchange.getResponseHeaders().set("Retry-After", "1");
+                exchange.getResponseHeaders().set("retry-after-ms", "1000");
+                respond(exchange, 429, error("429", "Rate limit is exceeded. Try again in 1 seconds."));
+                return;
+            }
+            try {
+                Thread.sleep(latencies.get(category(path)).sampleMillis(random));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                respond(exchange, 503, error("ServiceUnavailable", "Server is shutting down"));
+                return;
+            }
+            if (fault < throttleRate + errorRate) {
+                failed.increment();
+                respond(exchange, 500, error("InternalServerError", "Injected failure"));
+                return;
+            }
+
+            String response = dispatch(method, path, new String(body, StandardCharsets.UTF_8), body.length);
+            if (response == null) {
+                respond(exchange, 404, error("NotFound", "No resource for " + method + " " + String.join("/", path)));
+            } else {
+                respond(exchange, 200, response);
+            }
+        }
+    }
+
+    // The path from the first known resource name on, so any project prefix is accepted
+    private static List<String> route(String path) {
+        List<String> segments = Arrays.stream(path.split("/")).filter(segment -> !segment.isEmpty()).toList();
+        for (int i = 0; i < segments.size(); i++) {
+            if (ROOTS.contains(segments.get(i))) {
+                return segments.subList(i, segments.size());
+            }
+        }
+        return List.of();
+    }
+
+    private static Category category(List<String> path) {
+        return switch (path.get(0)) {
+            case "openai", "chat", "embeddings" -> Category.CHAT;
+            case "connections", "deployments" -> Category.PROJECT;
+            default -> Category.AGENTS;
+        };
+    }
+
+    private String dispatch(String method, List<String> path, String body, int bodyLength) {
+        boolean get = method.equals("GET");
+        boolean post = method.equals("POST");
+        boolean delete = method.equals("DELETE");
+        int n = path.size();
+        String last = path.get(n - 1);
+        switch (path.get(0)) {
+            case "openai", "chat", "embeddings" -> {
+                if (!post) {
+                    return null;
+                }
+                // openai/deployments/{deployment}/... or a model named in the body
+                String model = n > 2 && path.get(1).equals("deployments") ? path.get(2) : Json.string(body, "model");
+                if (last.equals("completions") && path.get(n - 2).equals("chat")) {
+                    return chatCompletion(model, bodyLength);
+                }
+                return last.equals("embeddings") ? embeddings(model, body, bodyLength) : null;
+            }
+            case "assistants" -> {
+                if (n == 1) {
+                    return post ? state.createAgent(body) : get ? state.listAgents() : null;
+                }
+                return n == 2 ? (get ? state.getAgent(last) : delete ? state.deleteAgent(last) : null) : null;
+            }
+            case "threads" -> {
+                if (n == 1) {
+                    return post ? state.createThread() : null;
+                }
+                String threadId = path.get(1);
+                if (n == 2) {
+                    return get ? state.getThread(threadId) : delete ? state.deleteThread(threadId) : null;
+                }
+                if (n == 3 && last.equals("messages")) {
+                    return post ? state.createMessage(threadId, body) : get ? state.listMessages(threadId) : null;
+                }
+                if (n == 3 && last.equals("runs")) {
+                    return post ? state.createRun(threadId, body) : null;
+                }
+                return n == 4 && path.get(2).equals("runs") && get ? state.getRun(threadId, last) : null;
+            }
+            case "vector_stores" -> {
+                if (n == 1) {
+                    return post ? state.createVectorStore(body) : null;
+                }
+                return n == 2 ? (get ? state.getVectorStore(last) : delete ? state.deleteVectorStore(last) : null) : null;
+            }
+            case "files" -> {
+                if (n == 1) {
+                    return post ? state.createFile(bodyLength) : null;
+                }
+                return n == 2 ? (get ? state.getFile(last) : delete ? state.deleteFile(last) : null) : null;
+            }
+            case "connections" -> {
+                return !get ? null : n == 1 ? state.listConnections() : n == 2 ? state.getConnection(last) : null;
+            }
+            case "deployments" -> {
+                return !get ? null : n == 1 ? state.listDeployments() : n == 2 ? state.getDeployment(last) : null;
+            }
+            default -> {
+                return null;
+            }
+        }
+    }
+
+    // Prompt tokens are estimated from the request size; the reply has the configured length
+    private String chatCompletion(String model, int bodyLength) {
+        int promptTokens = Math.max(1, bodyLength / 4);
+        return "{\"id\":\"chatcmpl-" + Long.toHexString(ThreadLocalRandom.current().nextLong() >>> 1) + "\""
+            + ",\"object\":\"chat.completion\",\"created\":" + Instant.now().getEpochSecond()
+            + ",\"model\":" + Json.quote(model)
+            + ",\"choices\":[{\"index\":0,\"message\":{\"role\":\"assistant\",\"content\":" + Json.quote(reply) + "}"
+            + ",\"finish_reason\":\"stop\"}]"
+            + ",\"usage\":{\"prompt_tokens\":" + promptTokens + ",\"completion_tokens\":" + completionTokens
+            + ",\"total_tokens\":" + (promptTokens + completionTokens) + "}}";
+    }
+
+    private String embeddings(String model, String body, int bodyLength) {
+        int inputs = Json.arrayLength(body, "input");
+        List<String> data = new ArrayList<>(inputs);
+        for (int i = 0; i < inputs; i++) {
+            data.add("{\"object\":\"embedding\",\"index\":" + i + ",\"embedding\":" + embedding + "}");
+        }
+        int promptTokens = Math.max(1, bodyLength / 4);
+        return "{\"object\":\"list\",\"data\":[" + String.join(",", data) + "],\"model\":" + Json.quote(model)
+            + ",\"usage\":{\"prompt_tokens\":" + promptTokens + ",\"total_tokens\":" + promptTokens + "}}";
+    }
+
+    private static String error(String code, String message) {
+        return "{\"error\":{\"code\":" + Json.quote(code) + ",\"message\":" + Json.quote(message) + "}}";
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.getResponseHeaders().set("x-ms-request-id", Long.toHexString(ThreadLocalRandom.current().nextLong()));
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    /**
+     * Builder for {@link MockFoundryServer}.
+     */
+    public static final class Builder {
+        private int port;
+        private final Map<Category, Latency> latencies = new EnumMap<>(Map.of(
+            Category.CHAT, new Latency(400, 150),
+            Category.AGENTS, new Latency(60, 20),
+            Category.PROJECT, new Latency(40, 10)));
+        private double throttleRate;
+        private double errorRate;
+        private Duration runDuration = Duration.ofSeconds(2);
+        private int completionTokens = 50;
+        private List<String> deployments = List.of("gpt-4o", "gpt-4o-mini");
+        private Path keystore;
+        private char[] keystorePassword;
+
+        private Builder() {
+        }
+
+        /**
+         * @param port The port to listen on, 0 for an ephemeral port
+         * @return This builder
+         */
+        public Builder port(int port) {
+            this.port = port;
+            return this;
+        }
+
+        /**
+         * @param category The operations
+         * @param latency The latency added to their responses
+         * @return This builder
+         */
+        public Builder latency(Category category, Latency latency) {
+            latencies.put(category, latency);
+            return this;
+        }
+
+        /**
+         * @param throttleRate The fraction of requests answered with 429 and a one second Retry-After
+         * @return This builder
+         */
+        public Builder throttleRate(double throttleRate) {
+            this.throttleRate = rate(throttleRate);
+            return this;
+        }
+
+        /**
+         * @param errorRate The fraction of requests answered with 500
+         * @return This builder
+         */
+        public Builder errorRate(double errorRate) {
+            this.errorRate = rate(errorRate);
+            return this;
+        }
+
+        private static double rate(double rate) {
+            if (rate < 0 || rate > 1) {
+                throw new IllegalArgumentException("Rate must be between 0 and 1: " + rate);
+            }
+            return rate;
+        }
+
+        /**
+         * @param runDuration How long an agent run takes to complete
+         * @return This builder
+         */
+        public Builder runDuration(Duration runDuration) {
+            this.runDuration = runDuration;
+            return this;
+        }
+
+        /**
+         * @param completionTokens The length of chat completions and agent replies
+         * @return This builder
+         */
+        public Builder completionTokens(int completionTokens) {
+            this.completionTokens = completionTokens;
+            return this;
+        }
+
+        /**
+         * @param deployments The deployment names to list
+         * @return This builder
+         */
+        public Builder deployments(List<String> deployments) {
+            this.deployments = List.copyOf(deployments);
+            return this;
+        }
+
+        /**
+         * Serves HTTPS with the key in a PKCS12 keystore. The Azure SDK only sends credentials
+         * over HTTPS, so SDK clients need this.
+         *
+         * @param keystore The keystore
+         * @param password The keystore password
+         * @return This builder
+         */
+        public Builder https(Path keystore, char[] password) {
+            this.keystore = keystore;
+            this.keystorePassword = password;
+            return this;
+        }
+
+        /**
+         * @return The started server
+         * @throws IOException If the port or the keystore cannot be used
+         */
+        public MockFoundryServer start() throws IOException {
+            if (throttleRate + errorRate > 1) {
+                throw new IllegalArgumentException("Throttle and error rates add up to more than 1");
+            }
+            return new MockFoundryServer(this);
+        }
+    }
+
+    /**
+     * Starts the server and runs until interrupted.
+     *
+     * Options: {@code --port}, {@code --latency chat=400:150,agents=60:20,project=40:10},
+     * {@code --throttle-rate}, {@code --error-rate}, {@code --run-duration} (milliseconds),
+     * {@code --completion-tokens}, {@code --deployments gpt-4o,gpt-4o-mini} and
+     * {@code --keystore file.p12 --keystore-password password}.
+     */
+    public static void main(String[] args) throws Exception {
+        Builder builder = builder().port(8089);
+        Path keystore = null;
+        String password = "";
+        for (int i = 0; i < args.length; i++) {
+            String option = args[i];
+            if (i + 1 == args.length) {
+                throw new IllegalArgumentException("Missing value for " + option);
+            }
+            String value = args[++i];
+            switch (option) {
+                case "--port" -> builder.port(Integer.parseInt(value));
+                case "--latency" -> {
+                    for (String entry : value.split(",")) {
+                        String[] parts = entry.split("=", 2);
+                        if (parts.length != 2) {
+                            throw new IllegalArgumentException("Expected category=mean[:jitter]: " + entry);
+                        }
+                        Category category = Category.valueOf(parts[0].trim().toUpperCase(Locale.ROOT));
+                        builder.latency(category, Latency.parse(parts[1]));
+                    }
+                }
+                case "--throttle-rate" -> builder.throttleRate(Double.parseDouble(value));
+                case "--error-rate" -> builder.errorRate(Double.parseDouble(value));
+                case "--run-duration" -> builder.runDuration(Duration.ofMillis(Long.parseLong(value)));
+                case "--completion-tokens" -> builder.completionTokens(Integer.parseInt(value));
+                case "--deployments" -> builder.deployments(List.of(value.split(",")));
+                case "--keystore" -> keystore = Path.of(value);
+                case "--keystore-password" -> password = value;
+                default -> throw new IllegalArgumentException("Unknown option " + option);
+            }
+        }
+        if (keystore != null) {
+            builder.https(keystore, password.toCharArray());
+        }
+
+        MockFoundryServer server = builder.start();
+        System.out.println("Mock Foundry server listening on " + server.uri());
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            System.out.printf("Served %d requests (%d throttled, %d failed)%n",
+                server.requestCount(), server.throttledCount(), server.failedCount());
+            server.close();
+        }));
+        Thread.currentThread().join();
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.ai.loadtest;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * One operation the load generator starts at the target rate, e.g. a single request or a whole
+ * agent conversation.
+ */
+@FunctionalInterface
+public interface Scenario {
+
+    /**
+     * The outcome of an operation that failed although every request in it succeeded, such as
+     * an agent run that ended as failed.
+     */
+    int FAILED = 0;
+
+    /**
+     * Starts the operation without blocking.
+     *
+     * @param client The client to send requests with
+     * @return The HTTP status that decides the outcome: 2xx for success, the first error status,
+     *     or {@link #FAILED}. Completes exceptionally on I/O errors.
+     */
+    CompletableFuture<Integer> start(HttpClient client);
+
+    /**
+     * @param request The request to send
+     * @return A scenario that sends the request and discards the response body
+     */
+    static Scenario request(HttpRequest request) {
+        return client -> client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+            .thenApply(HttpResponse::statusCode);
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.ai.loadtest.test;
+
+import com.example.ai.loadtest.LatencyHistogram;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LatencyHistogramTest {
+
+    @Test
+    public void testPercentilesWithinPrecision() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long micros = 1; micros <= 100_000; micros++) {
+            histogram.record(micros, TimeUnit.MICROSECONDS);
+        }
+        assertEquals(100_000, histogram.count());
+        assertEquals(100_000, histogram.maxMicros());
+        assertEquals(50_000.5, histogram.meanMicros(), 0.001);
+        assertEquals(50_000, histogram.percentileMicros(50), 50_000 * 0.016);
+        assertEquals(99_000, histogram.percentileMicros(99), 99_000 * 0.016);
+        assertEquals(100_000, histogram.percentileMicros(100));
+        assertEquals(1, histogram.percentileMicros(0));
+    }
+
+    @Test
+    public void testSmallValuesAreExact() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(5, TimeUnit.MICROSECONDS);
+        histogram.record(127, TimeUnit.MICROSECONDS);
+        assertEquals(5, histogram.percentileMicros(50));
+        assertEquals(127, histogram.percentileMicros(100));
+    }
+
+    @Test
+    public void testLargeValuesAndEmpty() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertEquals(0, histogram.percentileMicros(99));
+        histogram.record(3, TimeUnit.DAYS);
+        histogram.record(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        assertEquals(TimeUnit.DAYS.toMicros(3), histogram.percentileMicros(50), TimeUnit.DAYS.toMicros(3) * 0.016);
+        assertEquals(Long.MAX_VALUE / 1000, histogram.percentileMicros(100));
+        assertThrows(IllegalArgumentException.class, () -> histogram.percentileMicros(101));
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.ai.loadtest.test;
+
+import com.example.ai.loadtest.AgentFlowScenario;
+import com.example.ai.loadtest.LoadGenerator;
+import com.example.ai.loadtest.MockFoundryServer;
+import com.example.ai.loadtest.MockFoundryServer.Category;
+import com.example.ai.loadtest.MockFoundryServer.Latency;
+import com.example.ai.loadtest.Scenario;
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MockFoundryServerTest {
+
+    private static MockFoundryServer.Builder fastServer() {
+        return MockFoundryServer.builder()
+            .latency(Category.CHAT, new Latency(5, 2))
+            .latency(Category.AGENTS, new Latency(1, 0))
+            .latency(Category.PROJECT, new Latency(1, 0))
+            .runDuration(Duration.ofMillis(50));
+    }
+
+    private static HttpResponse<String> send(HttpClient client, HttpRequest request) throws Exception {
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    @Test
+    public void testEmulatesProjectAndOpenAiOperations() throws Exception {
+        try (MockFoundryServer server = fastServer().completionTokens(3).start()) {
+            HttpClient client = LoadGenerator.defaultClient();
+            String project = server.uri() + "/api/projects/load-test";
+
+            HttpResponse<String> deployments = send(client,
+                HttpRequest.newBuilder(URI.create(project + "/deployments?api-version=1")).build());
+            assertEquals(200, deployments.statusCode());
+            assertTrue(deployments.body().contains("\"name\":\"gpt-4o-mini\""));
+
+            HttpResponse<String> missing = send(client,
+                HttpRequest.newBuilder(URI.create(project + "/connections/nope")).build());
+            assertEquals(404, missing.statusCode());
+
+            HttpResponse<String> chat = send(client, HttpRequest.newBuilder(
+                    URI.create(server.uri() + "/openai/deployments/gpt-4o/chat/completions?api-version=1"))
+                .POST(HttpRequest.BodyPublishers.ofString("{\"messages\":[{\"role\":\"user\",\"content\":\"hi\"}]}"))
+                .build());
+            assertEquals(200, chat.statusCode());
+            assertTrue(chat.body().contains("\"content\":\"token token token\""));
+            assertTrue(chat.body().contains("\"completion_tokens\":3"));
+
+            HttpResponse<String> embeddings = send(client, HttpRequest.newBuilder(
+                    URI.create(server.uri() + "/openai/deployments/embed/embeddings"))
+                .POST(HttpRequest.BodyPublishers.ofString("{\"input\":[\"a\",\"b \\\"quoted\\\"\"]}"))
+                .build());
+            assertTrue(embeddings.body().contains("\"index\":1"));
+            assertFalse(embeddings.body().contains("\"index\":2"));
+        }
+    }
+
+    @Test
+    public void testAgentConversationCompletesAndCleansUp() throws Exception {
+        try (MockFoundryServer server = fastServer().start()) {
+            HttpClient client = LoadGenerator.defaultClient();
+            AgentFlowScenario scenario = AgentFlowScenario.create(client, server.uri(), "gpt-4o", null,
+                Duration.ofMillis(10));
+            assertEquals(200, (int) scenario.start(client).join());
+            scenario.deleteAgent(client);
+            assertEquals(0, server.resourceCount());
+        }
+    }
+
+    @Test
+    public void testLoadGeneratorReportsInjectedFaults() throws Exception {
+        try (MockFoundryServer server = fastServer().throttleRate(0.2).errorRate(0.1).start()) {
+            LoadGenerator generator = LoadGenerator.builder()
+                .rps(100)
+                .warmup(Duration.ZERO)
+                .duration(Duration.ofSeconds(2))
+                .build();
+            LoadGenerator.Result result = generator.run(Scenario.request(
+                HttpRequest.newBuilder(URI.create(server.uri() + "/connections")).build()));
+
+            assertEquals(200, result.started() + result.dropped());
+            assertEquals(result.started(), result.completed());
+            long throttled = result.errors().getOrDefault("HTTP 429", 0L);
+            long failed = result.errors().getOrDefault("HTTP 500", 0L);
+            assertEquals(result.completed(), result.succeeded() + throttled + failed);
+            assertTrue(throttled > 15 && throttled < 70, "throttled " + throttled);
+            assertTrue(failed > 4 && failed < 45, "failed " + failed);
+            assertEquals(result.completed(), result.latencies().count());
+            assertTrue(result.latencies().percentileMicros(50) >= 0);
+        }
+    }
+}
@@ -3,39 +3,48 @@ package com.example.ai.projects;
 import com.azure.ai.projects.AIProjectClientBuilder;
 import com.azure.ai.projects.ConnectionsClient;
 import com.azure.ai.projects.models.Connection;
-import com.azure.core.util.Configuration;
 import com.azure.identity.DefaultAzureCredentialBuilder;
+import com.example.util.EnvironmentConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.util.Map;
+import java.util.Objects;
 
 /**
  * Sample showing how to get a connection using the Azure SDK for Java.
  */
 public class BasicConnectionSample {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(BasicConnectionSample.class);
+
     /**
      * Main method to demonstrate how to get a connection using Azure SDK for Java.
      * @param args Command line arguments (not used).
      */
     public static void main(String[] args) {
+        // Bind and validate the settings before building any client
+        EnvironmentConfig.Settings settings = EnvironmentConfig.settings("AZURE_AI_ENDPOINT");
+
         // Create a client using DefaultAzureCredential
         ConnectionsClient connectionsClient = new AIProjectClientBuilder()
-            .endpoint(Configuration.getGlobalConfiguration().get("AZURE_AI_ENDPOINT", "your-ai-endpoint"))
+            .endpoint(settings.azureAIEndpoint())
             .credential(new DefaultAzureCredentialBuilder().build())
             .buildConnectionsClient();
 
         // Get a connection by name
-        String connectionName = Configuration.getGlobalConfiguration().get("CONNECTION_NAME", "your-connection-name");
+        String connectionName = Objects.requireNonNullElse(settings.connectionName(), "your-connection-name");
         Connection connection = connectionsClient.get(connectionName);
         
         // Print connection details
-        System.out.printf("Connection name: %s%n", connection.getName());
-        System.out.printf("Connection type: %s%n", connection.getType().getValue());
+        LOGGER.info("Connection name: {}", connection.getName());
+        LOGGER.info("Connection type: {}", connection.getType().getValue());
         
         // Print connection metadata if available
         Map<String, String> metadata = connection.getMetadata();
         if (metadata != null) {
             for (Map.Entry<String, String> entry : metadata.entrySet()) {
-                System.out.printf("Metadata key: %s, value: %s%n", entry.getKey(), entry.getValue());
+                LOGGER.info("Metadata key: {}, value: {}", entry.getKey(), entry.getValue());
             }
         }
     }
@@ -4,33 +4,44 @@ import com.azure.ai.projects.AIProjectClientBuilder;
 import com.azure.ai.projects.DeploymentsClient;
 import com.azure.ai.projects.models.Deployment;
 import com.azure.ai.projects.models.ListViewType;
-import com.azure.core.util.Configuration;
 import com.azure.identity.DefaultAzureCredentialBuilder;
+import com.example.util.EnvironmentConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Objects;
 
 /**
  * Sample showing how to work with deployments using the Azure SDK for Java.
  */
 public class DeploymentsSample {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(DeploymentsSample.class);
+
     /**
      * Main method to demonstrate how to work with deployments using Azure SDK for Java.
      * @param args Command line arguments (not used).
      */
-    public static void main(String[] args) {        // Create a client using DefaultAzureCredential
+    public static void main(String[] args) {
+        // Bind and validate the settings before building any client
+        EnvironmentConfig.Settings settings = EnvironmentConfig.settings("AZURE_AI_ENDPOINT");
+
+        // Create a client using DefaultAzureCredential
         DeploymentsClient deploymentsClient = new AIProjectClientBuilder()
-            .endpoint(Configuration.getGlobalConfiguration().get("AZURE_AI_ENDPOINT", "your-ai-endpoint"))
+            .endpoint(settings.azureAIEndpoint())
             .credential(new DefaultAzureCredentialBuilder().build())
             .buildDeploymentsClient();
 
         // Get a specific deployment
-        String deploymentName = Configuration.getGlobalConfiguration().get("DEPLOYMENT_NAME", "your-deployment-name");
+        String deploymentName = Objects.requireNonNullElse(settings.deploymentName(), "your-deployment-name");
         Deployment deployment = deploymentsClient.get(deploymentName);
-        System.out.printf("Deployment name: %s%n", deployment.getName());
-        System.out.printf("Deployment type: %s%n", deployment.getType().getValue());
+        LOGGER.info("Deployment name: {}", deployment.getName());
+        LOGGER.info("Deployment type: {}", deployment.getType().getValue());
 
         // List all deployments
-        System.out.println("\nListing all deployments:");
+        LOGGER.info("Listing all deployments:");
         for (Deployment dep : deploymentsClient.list(null, ListViewType.ALL)) {
-            System.out.printf("Deployment name: %s, type: %s%n", 
+            LOGGER.info("Deployment name: {}, type: {}", 
                 dep.getName(),
                 dep.getType().getValue());
         }
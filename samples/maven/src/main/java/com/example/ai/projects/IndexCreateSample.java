@@ -6,23 +6,35 @@ import com.azure.ai.projects.models.AzureAISearchIndex;
 import com.azure.ai.projects.models.Index;
 import com.azure.core.util.Configuration;
 import com.azure.identity.DefaultAzureCredentialBuilder;
+import com.example.util.EnvironmentConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Objects;
 
 /**
  * Sample showing how to create a search index using the Azure SDK for Java.
  */
 public class IndexCreateSample {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(IndexCreateSample.class);
+
     /**
      * Main method to demonstrate how to create a search index with Azure SDK for Java.
      * @param args Command line arguments (not used).
-     */    public static void main(String[] args) {
+     */
+    public static void main(String[] args) {
+        // Bind and validate the settings before building any client
+        EnvironmentConfig.Settings settings = EnvironmentConfig.settings("AZURE_AI_ENDPOINT");
+
         // Create a client using DefaultAzureCredential
         IndexesClient indexesClient = new AIProjectClientBuilder()
-            .endpoint(Configuration.getGlobalConfiguration().get("AZURE_AI_ENDPOINT", "your-ai-endpoint"))
+            .endpoint(settings.azureAIEndpoint())
             .credential(new DefaultAzureCredentialBuilder().build())
             .buildIndexesClient();
 
         // Get configuration values
-        String indexName = Configuration.getGlobalConfiguration().get("INDEX_NAME", "my-search-index");
+        String indexName = Objects.requireNonNullElse(settings.indexName(), "my-search-index");
         String indexVersion = Configuration.getGlobalConfiguration().get("INDEX_VERSION", "1.0");
         String aiSearchConnectionName = Configuration.getGlobalConfiguration().get("AI_SEARCH_CONNECTION_NAME", "my-ai-search-connection");
         String aiSearchIndexName = Configuration.getGlobalConfiguration().get("AI_SEARCH_INDEX_NAME", "my-ai-search-index-name");
@@ -34,8 +46,8 @@ public class IndexCreateSample {
             new AzureAISearchIndex(aiSearchConnectionName, aiSearchIndexName)
         );
         
-        System.out.println("Index created: " + index.getId());
-        System.out.println("Index name: " + index.getName());
-        System.out.println("Index version: " + index.getVersion());
+        LOGGER.info("Index created: {}", index.getId());
+        LOGGER.info("Index name: {}", index.getName());
+        LOGGER.info("Index version: {}", index.getVersion());
     }
 }
@@ -4,27 +4,36 @@ import com.azure.ai.projects.AIProjectClientBuilder;
 import com.azure.ai.projects.ConnectionsClient;
 import com.azure.ai.projects.models.Connection;
 import com.azure.ai.projects.models.ListViewType;
-import com.azure.core.util.Configuration;
 import com.azure.identity.DefaultAzureCredentialBuilder;
+import com.example.util.EnvironmentConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
  * Sample showing how to list connections using the Azure SDK for Java.
  */
 public class ListConnectionsSample {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ListConnectionsSample.class);
+
     /**
      * Main method to demonstrate how to list connections using Azure SDK for Java.
      * @param args Command line arguments (not used).
      */
-    public static void main(String[] args) {        // Create a client using DefaultAzureCredential
+    public static void main(String[] args) {
+        // Bind and validate the settings before building any client
+        EnvironmentConfig.Settings settings = EnvironmentConfig.settings("AZURE_AI_ENDPOINT");
+
+        // Create a client using DefaultAzureCredential
         ConnectionsClient connectionsClient = new AIProjectClientBuilder()
-            .endpoint(Configuration.getGlobalConfiguration().get("AZURE_AI_ENDPOINT", "your-ai-endpoint"))
+            .endpoint(settings.azureAIEndpoint())
             .credential(new DefaultAzureCredentialBuilder().build())
             .buildConnectionsClient();
 
         // List all connections
-        System.out.println("Listing all connections:");
+        LOGGER.info("Listing all connections:");
         for (Connection connection : connectionsClient.list(null, ListViewType.ALL)) {
-            System.out.printf("Connection name: %s, type: %s%n", 
+            LOGGER.info("Connection name: {}, type: {}", 
                 connection.getName(),
                 connection.getType().getValue());
         }
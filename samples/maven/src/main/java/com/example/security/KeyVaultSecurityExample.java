@@ -3,15 +3,28 @@ package com.example.security;
 import com.azure.identity.DefaultAzureCredentialBuilder;
 import com.azure.security.keyvault.secrets.SecretClient;
 import com.azure.security.keyvault.secrets.SecretClientBuilder;
-import com.azure.security.keyvault.secrets.models.KeyVaultSecret;
+import com.example.util.EnvironmentConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
 
 /**
  * Example showing how to securely access secrets from Azure Key Vault
  * for production environments.
+ *
+ * Secrets are read through a {@link SecretCache}, so each one costs a single Key Vault
+ * request and later reads are served from memory.
  */
 public class KeyVaultSecurityExample {
 
-    private final SecretClient secretClient;
+    private static final Logger LOGGER = LoggerFactory.getLogger(KeyVaultSecurityExample.class);
+
+    // Secrets the application reads, fetched together at startup
+    private static final List<String> SECRET_NAMES = List.of("azure-ai-endpoint", "connection-name", "deployment-name",
+        "index-name");
+
+    private final SecretCache secretCache;
 
     /**
      * Initialize the KeyVaultSecurityExample with a Key Vault URL.
@@ -21,10 +34,11 @@ public class KeyVaultSecurityExample {
     public KeyVaultSecurityExample(String keyVaultUrl) {
         // Create a secret client using DefaultAzureCredential
         // This will use the most appropriate authentication method based on the environment
-        this.secretClient = new SecretClientBuilder()
+        SecretClient secretClient = new SecretClientBuilder()
             .vaultUrl(keyVaultUrl)
             .credential(new DefaultAzureCredentialBuilder().build())
             .buildClient();
+        this.secretCache = SecretCache.forVault(secretClient);
     }
 
     /**
@@ -34,8 +48,14 @@ public class KeyVaultSecurityExample {
      * @return The secret value
      */
     public String getSecret(String secretName) {
-        KeyVaultSecret secret = secretClient.getSecret(secretName);
-        return secret.getValue();
+        return secretCache.get(secretName);
+    }
+
+    /**
+     * @return The cache the secrets are read through
+     */
+    public SecretCache getSecretCache() {
+        return secretCache;
     }
 
     /**
@@ -45,26 +65,43 @@ public class KeyVaultSecurityExample {
         // Key Vault URL from environment variable
         String keyVaultUrl = System.getenv("AZURE_KEY_VAULT_URL");
         if (keyVaultUrl == null || keyVaultUrl.isEmpty()) {
-            System.err.println("AZURE_KEY_VAULT_URL environment variable is not set");
+            LOGGER.warn("AZURE_KEY_VAULT_URL environment variable is not set");
             System.exit(1);
         }
 
         try {
             KeyVaultSecurityExample securityExample = new KeyVaultSecurityExample(keyVaultUrl);
+            SecretCache secretCache = securityExample.getSecretCache();
+
+            // Fetch the secrets the application needs in one go
+            long start = System.nanoTime();
+            List<String> failed = secretCache.prefetch(SECRET_NAMES);
+            LOGGER.info("Prefetched {} secrets in {} ms",
+                SECRET_NAMES.size() - failed.size(), (System.nanoTime() - start) / 1_000_000);
+            if (!failed.isEmpty()) {
+                LOGGER.warn("Could not fetch secrets: {}", failed);
+            }
+
+            // Variables missing from .env and the environment now fall back to Key Vault,
+            // e.g. AZURE_AI_ENDPOINT is read from the azure-ai-endpoint secret
+            EnvironmentConfig.setFallbackSource(secretCache::getForEnvironmentVariable);
 
-            // Retrieve secrets from Key Vault
-            String azureAIEndpoint = securityExample.getSecret("azure-ai-endpoint");
+            // Bind and validate the settings now that Key Vault can fill in the ones that are not set
+            EnvironmentConfig.settings("AZURE_AI_ENDPOINT");
+
+            start = System.nanoTime();
+            String azureAIEndpoint = EnvironmentConfig.getAzureAIEndpoint();
             String connectionName = securityExample.getSecret("connection-name");
-            
-            System.out.println("Azure AI Endpoint: " + azureAIEndpoint);
-            System.out.println("Connection Name: " + connectionName);
+            LOGGER.info("Read configuration in {} us", (System.nanoTime() - start) / 1_000);
+
+            LOGGER.info("Azure AI Endpoint: {}", azureAIEndpoint);
+            LOGGER.info("Connection Name: {}", connectionName);
             
             // Use these secure credentials in your application
             // This is just an example - in real code, you'd pass these values to your client
             
         } catch (Exception e) {
-            System.err.println("Error retrieving secrets from Key Vault: " + e.getMessage());
-            e.printStackTrace();
+            LOGGER.error("Error retrieving secrets from Key Vault", e);
         }
     }
 }
@@ -0,0 +1,230 @@
+package com.example.security;
+
+import com.azure.core.exception.ResourceNotFoundException;
+import com.azure.security.keyvault.secrets.SecretClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * In-memory cache of Key Vault secrets.
+ *
+ * A secret is fetched once and then served from memory until its time to live runs out.
+ * Shortly before that, a scheduler reloads it in the background, so readers of a secret that
+ * is in use never wait for Key Vault. A secret that has not been read since it was loaded is
+ * not refreshed and simply expires, so names read once are not fetched forever. Concurrent
+ * misses for the same secret share a single request, and if a background refresh fails the
+ * cached value keeps being served until it expires. Secrets that do not exist are cached as
+ * absent for the same time to live.
+ */
+public class SecretCache implements AutoCloseable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SecretCache.class);
+
+    private static final class Entry {
+        private final String value;
+        private final long loadedAt;
+        private final long expiresAt;
+        private volatile long lastReadAt;
+
+        private Entry(String value, long loadedAt, long expiresAt) {
+            this.value = value;
+            this.loadedAt = loadedAt;
+            this.expiresAt = expiresAt;
+            this.lastReadAt = loadedAt;
+        }
+
+        private boolean readSinceLoad() {
+            return lastReadAt - loadedAt > 0;
+        }
+    }
+
+    private final Function<String, String> loader;
+    private final long ttlNanos;
+    private final long refreshAheadNanos;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final Map<String, CompletableFuture<Entry>> loading = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService scheduler;
+    private final ExecutorService loaders;
+
+    /**
+     * @param loader Fetches a secret value by name, returning null if the secret does not exist
+     * @param ttl How long a fetched value is served
+     * @param refreshAhead How long before expiry the value is reloaded in the background
+     * @param parallelism How many secrets are fetched at the same time
+     */
+    public SecretCache(Function<String, String> loader, Duration ttl, Duration refreshAhead, int parallelism) {
+        if (refreshAhead.compareTo(ttl) >= 0) {
+            throw new IllegalArgumentException("refreshAhead must be shorter than ttl");
+        }
+        this.loader = loader;
+        this.ttlNanos = ttl.toNanos();
+        this.refreshAheadNanos = refreshAhead.toNanos();
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> daemon(runnable, "secret-cache-refresh"));
+        AtomicInteger threads = new AtomicInteger();
+        this.loaders = Executors.newFixedThreadPool(parallelism,
+            runnable -> daemon(runnable, "secret-cache-loader-" + threads.incrementAndGet()));
+    }
+
+    /**
+     * Creates a cache that reads from Key Vault, serving values for 30 minutes and refreshing
+     * them a minute before they expire.
+     *
+     * @param secretClient The Key Vault secret client
+     * @return The cache
+     */
+    public static SecretCache forVault(SecretClient secretClient) {
+        return new SecretCache(name -> {
+            try {
+                return secretClient.getSecret(name).getValue();
+            } catch (ResourceNotFoundException e) {
+                return null;
+            }
+        }, Duration.ofMinutes(30), Duration.ofMinutes(1), 4);
+    }
+
+    /**
+     * Maps an environment variable name to the Key Vault naming convention, for example
+     * {@code AZURE_AI_ENDPOINT} to {@code azure-ai-endpoint}.
+     *
+     * @param key The environment variable name
+     * @return The secret name
+     */
+    public static String secretName(String key) {
+        return key.toLowerCase(Locale.ROOT).replace('_', '-');
+    }
+
+    /**
+     * Gets a secret, fetching it only if it is not cached or has expired.
+     *
+     * @param secretName The secret name
+     * @return The secret value, or null if the secret does not exist
+     */
+    public String get(String secretName) {
+        Entry entry = entries.get(secretName);
+        long now = System.nanoTime();
+        if (entry != null && now - entry.expiresAt < 0) {
+            entry.lastReadAt = now;
+            return entry.value;
+        }
+        try {
+            return load(secretName).join().value;
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+    }
+
+    /**
+     * Looks up the secret for an environment variable, for use as a fallback configuration source.
+     *
+     * @param key The environment variable name
+     * @return The secret value, or null if the secret does not exist
+     */
+    public String getForEnvironmentVariable(String key) {
+        return get(secretName(key));
+    }
+
+    /**
+     * Fetches the given secrets in parallel and waits for all of them, so that later reads are
+     * served from memory. Failures are reported but do not stop the other secrets from loading.
+     *
+     * @param secretNames The secrets the application will read
+     * @return The names of the secrets that could not be fetched
+     */
+    public List<String> prefetch(Collection<String> secretNames) {
+        Map<String, CompletableFuture<Entry>> futures = new ConcurrentHashMap<>();
+        secretNames.forEach(name -> futures.put(name, load(name)));
+        CompletableFuture.allOf(futures.values().stream()
+            .map(future -> future.exceptionally(e -> null))
+            .toArray(CompletableFuture[]::new)).join();
+        return futures.entrySet().stream()
+            .filter(entry -> entry.getValue().isCompletedExceptionally())
+            .map(Map.Entry::getKey)
+            .sorted()
+            .toList();
+    }
+
+    /**
+     * Drops a secret so the next read fetches it again, for example after it was rotated.
+     *
+     * @param secretName The secret name
+     */
+    public void invalidate(String secretName) {
+        entries.remove(secretName);
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+        loaders.shutdownNow();
+    }
+
+    // Starts a fetch unless one is already running for the secret
+    private CompletableFuture<Entry> load(String secretName) {
+        CompletableFuture<Entry> future = new CompletableFuture<>();
+        CompletableFuture<Entry> existing = loading.putIfAbsent(secretName, future);
+        if (existing != null) {
+            return existing;
+        }
+        try {
+            loaders.execute(() -> fetch(secretName, future));
+        } catch (RejectedExecutionException e) {
+            // The cache was closed: fail this request and any that joined it, and let the next one retry
+            loading.remove(secretName, future);
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+
+    private void fetch(String secretName, CompletableFuture<Entry> future) {
+        try {
+            String value = loader.apply(secretName);
+            long now = System.nanoTime();
+            Entry entry = new Entry(value, now, now + ttlNanos);
+            entries.put(secretName, entry);
+            scheduler.schedule(() -> refresh(secretName, entry), ttlNanos - refreshAheadNanos, TimeUnit.NANOSECONDS);
+            future.complete(entry);
+        } catch (RuntimeException e) {
+            future.completeExceptionally(e);
+        } finally {
+            loading.remove(secretName, future);
+        }
+    }
+
+    private void refresh(String secretName, Entry scheduledFor) {
+        // Skip secrets that were invalidated or reloaded since this refresh was scheduled
+        if (entries.get(secretName) != scheduledFor) {
+            return;
+        }
+        // Let secrets that nobody read since the last load expire instead of fetching them again
+        if (!scheduledFor.readSinceLoad()) {
+            LOGGER.debug("Secret {} was not read since it was loaded; letting it expire", secretName);
+            return;
+        }
+        load(secretName).exceptionally(e -> {
+            LOGGER.warn("Failed to refresh secret {}; serving the cached value until it expires", secretName, e);
+            return null;
+        });
+    }
+
+    private static Thread daemon(Runnable runnable, String name) {
+        Thread thread = new Thread(runnable, name);
+        thread.setDaemon(true);
+        return thread;
+    }
+}
@@ -1,15 +1,146 @@
 package com.example.util;
 
-import io.github.cdimascio.dotenv.Dotenv;
+import com.example.ai.common.config.ConfigStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
 
 /**
  * Utility class for handling environment variables in the Azure SDK for Java samples.
  * Loads variables from .env file with fallback to system environment variables.
+ * Values are read from {@link ConfigStore#global()}, so edits to .env are picked up without a restart.
  */
 public class EnvironmentConfig {
-    private static final Dotenv dotenv = Dotenv.configure()
-            .ignoreIfMissing()
-            .load();
+
+    /**
+     * The settings used by the samples, bound once from a configuration snapshot.
+     * Settings that are not configured are null; each sample states the ones it reads with
+     * {@link #require(String...)}.
+     *
+     * @param azureAIEndpoint The value of AZURE_AI_ENDPOINT
+     * @param connectionName The value of CONNECTION_NAME
+     * @param deploymentName The value of DEPLOYMENT_NAME
+     * @param indexName The value of INDEX_NAME
+     */
+    public record Settings(String azureAIEndpoint, String connectionName, String deploymentName, String indexName) {
+
+        /**
+         * Binds the settings from a snapshot, falling back to the fallback source for settings it does not have.
+         *
+         * @param snapshot The configuration
+         * @return The settings
+         */
+        public static Settings bind(ConfigStore.Snapshot snapshot) {
+            Function<String, String> value = key -> {
+                String found = snapshot.get(key);
+                return found != null ? found : fallbackSource.apply(key);
+            };
+            return new Settings(
+                value.apply("AZURE_AI_ENDPOINT"),
+                value.apply("CONNECTION_NAME"),
+                value.apply("DEPLOYMENT_NAME"),
+                value.apply("INDEX_NAME"));
+        }
+
+        /**
+         * Check that the given settings are set.
+         *
+         * @param keys The environment variable names of the settings
+         * @return These settings
+         * @throws IllegalArgumentException listing every one of the settings that is missing
+         */
+        public Settings require(String... keys) {
+            List<String> missing = Arrays.stream(keys)
+                    .filter(key -> value(key) == null)
+                    .toList();
+            if (!missing.isEmpty()) {
+                throw missing(missing);
+            }
+            return this;
+        }
+
+        /**
+         * Binds the settings from a changed snapshot. If the snapshot is missing one of the
+         * required settings, a warning is logged and these settings are kept.
+         *
+         * @param snapshot The changed configuration
+         * @param required The environment variable names of the settings that must stay set
+         * @return The new settings, or these settings if the snapshot is missing a required one
+         */
+        public Settings rebind(ConfigStore.Snapshot snapshot, Collection<String> required) {
+            try {
+                return bind(snapshot).require(required.toArray(String[]::new));
+            } catch (IllegalArgumentException e) {
+                LOGGER.warn("Keeping the previous settings: {}", e.getMessage());
+                return this;
+            }
+        }
+
+        private String value(String key) {
+            return switch (key) {
+                case "AZURE_AI_ENDPOINT" -> azureAIEndpoint;
+                case "CONNECTION_NAME" -> connectionName;
+                case "DEPLOYMENT_NAME" -> deploymentName;
+                case "INDEX_NAME" -> indexName;
+                default -> throw new IllegalArgumentException("'" + key + "' is not a bound setting");
+            };
+        }
+    }
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(EnvironmentConfig.class);
+    private static final Set<String> requiredKeys = ConcurrentHashMap.newKeySet();
+    private static volatile Settings settings;
+    private static volatile Function<String, String> fallbackSource = key -> null;
+
+    /**
+     * Set a source that is consulted for variables that are not set in the .env file or the
+     * system environment, such as {@link com.example.security.SecretCache#getForEnvironmentVariable}.
+     *
+     * @param source Returns the value for a variable name, or null if it has none
+     */
+    public static void setFallbackSource(Function<String, String> source) {
+        fallbackSource = source;
+    }
+
+    /**
+     * Get the bound settings, binding them on the first call, and check that the given ones are set.
+     * Samples call this at the top of main with the settings they read, so that a missing setting
+     * stops them before any client is built. The settings are bound again whenever the configuration
+     * store publishes a new snapshot; a snapshot that is missing a required setting is logged and the
+     * previous settings are kept. The getters below return the bound fields without checking them
+     * again.
+     *
+     * @param required The environment variable names of the settings the caller reads
+     * @return The current settings
+     * @throws IllegalArgumentException listing every one of the required settings that is missing
+     */
+    public static Settings settings(String... required) {
+        Settings current = current().require(required);
+        requiredKeys.addAll(Arrays.asList(required));
+        return current;
+    }
+
+    private static Settings current() {
+        Settings current = settings;
+        if (current == null) {
+            synchronized (EnvironmentConfig.class) {
+                if (settings == null) {
+                    ConfigStore store = ConfigStore.global();
+                    Settings bound = Settings.bind(store.snapshot());
+                    store.subscribe((previous, snapshot) -> settings = settings.rebind(snapshot, requiredKeys));
+                    settings = bound;
+                }
+                current = settings;
+            }
+        }
+        return current;
+    }
 
     /**
      * Get an environment variable with a fallback value.
@@ -19,9 +150,9 @@ public class EnvironmentConfig {
      * @return The environment variable value or the default value
      */
     public static String get(String key, String defaultValue) {
-        String value = dotenv.get(key);
+        String value = ConfigStore.global().get(key);
         if (value == null) {
-            value = System.getenv(key);
+            value = fallbackSource.apply(key);
         }
         return value != null ? value : defaultValue;
     }
@@ -35,7 +166,37 @@ public class EnvironmentConfig {
      * @throws IllegalArgumentException if the environment variable is not set
      */
     public static String getRequired(String key) {
-        String value = get(key, null);
+        return required(ConfigStore.global().get(key), key);
+    }
+
+    /**
+     * Check that all the given environment variables are set.
+     * Every missing variable is reported in a single IllegalArgumentException, so a sample
+     * can validate its configuration once at startup.
+     *
+     * @param keys The environment variable names
+     * @throws IllegalArgumentException if any of the environment variables is not set
+     */
+    public static void requireAll(String... keys) {
+        ConfigStore.Snapshot snapshot = ConfigStore.global().snapshot();
+        List<String> missing = Arrays.stream(keys)
+                .filter(key -> snapshot.get(key) == null && fallbackSource.apply(key) == null)
+                .toList();
+        if (!missing.isEmpty()) {
+            throw missing(missing);
+        }
+    }
+
+    private static IllegalArgumentException missing(List<String> keys) {
+        return new IllegalArgumentException(
+                "Required environment variables are not set: " + String.join(", ", keys) + ". " +
+                "Please set them in your .env file or system environment variables.");
+    }
+
+    private static String required(String value, String key) {
+        if (value == null) {
+            value = fallbackSource.apply(key);
+        }
         if (value == null) {
             throw new IllegalArgumentException(
                     "Required environment variable '" + key + "' is not set. " +
@@ -50,7 +211,7 @@ public class EnvironmentConfig {
      * @return The Azure AI endpoint URL
      */
     public static String getAzureAIEndpoint() {
-        return getRequired("AZURE_AI_ENDPOINT");
+        return current().azureAIEndpoint();
     }
 
     /**
@@ -59,7 +220,7 @@ public class EnvironmentConfig {
      * @return The connection name
      */
     public static String getConnectionName() {
-        return getRequired("CONNECTION_NAME");
+        return current().connectionName();
     }
 
     /**
@@ -68,7 +229,7 @@ public class EnvironmentConfig {
      * @return The deployment name
      */
     public static String getDeploymentName() {
-        return getRequired("DEPLOYMENT_NAME");
+        return current().deploymentName();
     }
 
     /**
@@ -77,6 +238,6 @@ public class EnvironmentConfig {
      * @return The index name
      */
     public static String getIndexName() {
-        return getRequired("INDEX_NAME");
+        return current().indexName();
     }
 }
@@ -0,0 +1,148 @@
+package com.example.security.test;
+
+import com.example.security.SecretCache;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SecretCacheTest {
+
+    @Test
+    public void testServesFromMemoryAfterFirstLoad() {
+        AtomicInteger calls = new AtomicInteger();
+        try (SecretCache cache = new SecretCache(name -> {
+            calls.incrementAndGet();
+            return "value-of-" + name;
+        }, Duration.ofMinutes(5), Duration.ofMinutes(1), 2)) {
+            assertEquals("value-of-azure-ai-endpoint", cache.get("azure-ai-endpoint"));
+            assertEquals("value-of-azure-ai-endpoint", cache.get("azure-ai-endpoint"));
+            assertEquals(1, calls.get());
+        }
+    }
+
+    @Test
+    public void testConcurrentMissesShareOneLoad() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService readers = Executors.newFixedThreadPool(8);
+        try (SecretCache cache = new SecretCache(name -> {
+            calls.incrementAndGet();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return "secret";
+        }, Duration.ofMinutes(5), Duration.ofMinutes(1), 2)) {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                results.add(readers.submit(() -> cache.get("connection-name")));
+            }
+            Thread.sleep(100);
+            release.countDown();
+            for (Future<String> result : results) {
+                assertEquals("secret", result.get());
+            }
+            assertEquals(1, calls.get());
+        } finally {
+            readers.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testRefreshesAheadOfExpiry() throws Exception {
+        AtomicInteger version = new AtomicInteger();
+        try (SecretCache cache = new SecretCache(name -> "v" + version.incrementAndGet(),
+                Duration.ofMillis(400), Duration.ofMillis(300), 2)) {
+            assertEquals("v1", cache.get("deployment-name"));
+            assertEquals("v1", cache.get("deployment-name"));
+
+            // The refresh runs about 100 ms after the load, well before the entry expires
+            long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+            while (version.get() < 2 && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+            assertEquals("v2", cache.get("deployment-name"));
+        }
+    }
+
+    @Test
+    public void testUnreadSecretsExpireWithoutRefresh() throws Exception {
+        AtomicInteger version = new AtomicInteger();
+        try (SecretCache cache = new SecretCache(name -> "v" + version.incrementAndGet(),
+                Duration.ofMillis(300), Duration.ofMillis(250), 2)) {
+            // Loaded but never read from memory, so the refresh at about 50 ms is skipped
+            assertEquals("v1", cache.get("index-name"));
+            Thread.sleep(400);
+            assertEquals(1, version.get());
+
+            // After expiry the next read fetches it again
+            assertEquals("v2", cache.get("index-name"));
+        }
+    }
+
+    @Test
+    public void testLoadAfterCloseFailsAndDoesNotLinger() {
+        AtomicInteger calls = new AtomicInteger();
+        SecretCache cache = new SecretCache(name -> "v" + calls.incrementAndGet(),
+            Duration.ofMinutes(5), Duration.ofMinutes(1), 2);
+        cache.close();
+
+        assertThrows(RejectedExecutionException.class, () -> cache.get("azure-ai-endpoint"));
+        // A second read is rejected the same way instead of joining a future that never completes
+        assertTimeoutPreemptively(Duration.ofSeconds(5),
+            () -> assertThrows(RejectedExecutionException.class, () -> cache.get("azure-ai-endpoint")));
+        assertEquals(List.of("azure-ai-endpoint"), cache.prefetch(List.of("azure-ai-endpoint")));
+        assertEquals(0, calls.get());
+    }
+
+    @Test
+    public void testMissingSecretsAreCachedAsAbsent() {
+        AtomicInteger calls = new AtomicInteger();
+        try (SecretCache cache = new SecretCache(name -> {
+            calls.incrementAndGet();
+            return null;
+        }, Duration.ofMinutes(5), Duration.ofMinutes(1), 2)) {
+            assertNull(cache.getForEnvironmentVariable("INDEX_NAME"));
+            assertNull(cache.get("index-name"));
+            assertEquals(1, calls.get());
+        }
+    }
+
+    @Test
+    public void testPrefetchLoadsAllAndReportsFailures() {
+        Map<String, Integer> calls = new ConcurrentHashMap<>();
+        try (SecretCache cache = new SecretCache(name -> {
+            calls.merge(name, 1, Integer::sum);
+            if (name.equals("broken")) {
+                throw new IllegalStateException("forbidden");
+            }
+            return name.toUpperCase();
+        }, Duration.ofMinutes(5), Duration.ofMinutes(1), 4)) {
+            List<String> failed = cache.prefetch(List.of("a", "b", "broken", "c"));
+
+            assertEquals(List.of("broken"), failed);
+            assertEquals("A", cache.get("a"));
+            assertEquals("C", cache.get("c"));
+            assertEquals(1, (int) calls.get("a"));
+            assertThrows(IllegalStateException.class, () -> cache.get("broken"));
+        }
+    }
+
+    @Test
+    public void testSecretNameMapping() {
+        assertEquals("azure-ai-endpoint", SecretCache.secretName("AZURE_AI_ENDPOINT"));
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.util.test;
+
+import com.example.ai.common.config.ConfigStore;
+import com.example.util.EnvironmentConfig;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class EnvironmentConfigTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    public void testRequireAllReportsEveryMissingKey() {
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+            () -> EnvironmentConfig.requireAll("ENVIRONMENT_CONFIG_TEST_A", "PATH", "ENVIRONMENT_CONFIG_TEST_B"));
+
+        assertTrue(e.getMessage().contains("ENVIRONMENT_CONFIG_TEST_A, ENVIRONMENT_CONFIG_TEST_B"), e.getMessage());
+        assertFalse(e.getMessage().contains("PATH"), e.getMessage());
+    }
+
+    @Test
+    public void testSettingsAreBoundFromASnapshot() {
+        EnvironmentConfig.Settings settings = EnvironmentConfig.Settings.bind(new ConfigStore.Snapshot(Map.of(
+            "AZURE_AI_ENDPOINT", "https://example.services.ai.azure.com",
+            "CONNECTION_NAME", "search",
+            "DEPLOYMENT_NAME", "gpt-4o",
+            "INDEX_NAME", "docs"), 1));
+
+        assertEquals(new EnvironmentConfig.Settings("https://example.services.ai.azure.com", "search", "gpt-4o", "docs"),
+            settings);
+    }
+
+    @Test
+    public void testSettingsRequireOnlyTheGivenKeys() {
+        EnvironmentConfig.Settings settings = EnvironmentConfig.Settings.bind(new ConfigStore.Snapshot(Map.of(
+            "AZURE_AI_ENDPOINT", "https://example.services.ai.azure.com"), 1));
+
+        assertNull(settings.indexName());
+        assertSame(settings, settings.require("AZURE_AI_ENDPOINT"));
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+            () -> settings.require("AZURE_AI_ENDPOINT", "DEPLOYMENT_NAME", "INDEX_NAME"));
+        assertTrue(e.getMessage().contains("DEPLOYMENT_NAME, INDEX_NAME"), e.getMessage());
+        assertFalse(e.getMessage().contains("AZURE_AI_ENDPOINT"), e.getMessage());
+    }
+
+    @Test
+    public void testFallbackSourceIsConsultedForUnsetVariables() {
+        EnvironmentConfig.setFallbackSource(key -> key.equals("ENVIRONMENT_CONFIG_TEST_SECRET") ? "from-vault" : null);
+        try {
+            assertEquals("from-vault", EnvironmentConfig.getRequired("ENVIRONMENT_CONFIG_TEST_SECRET"));
+            assertEquals("default", EnvironmentConfig.get("ENVIRONMENT_CONFIG_TEST_OTHER", "default"));
+            assertDoesNotThrow(() -> EnvironmentConfig.requireAll("ENVIRONMENT_CONFIG_TEST_SECRET"));
+
+            EnvironmentConfig.setFallbackSource(key -> key.equals("INDEX_NAME") ? "docs-from-vault" : null);
+            EnvironmentConfig.Settings settings = EnvironmentConfig.Settings.bind(new ConfigStore.Snapshot(Map.of(
+                "AZURE_AI_ENDPOINT", "https://example.services.ai.azure.com",
+                "CONNECTION_NAME", "search",
+                "DEPLOYMENT_NAME", "gpt-4o"), 1));
+            assertEquals("docs-from-vault", settings.indexName());
+        } finally {
+            EnvironmentConfig.setFallbackSource(key -> null);
+        }
+    }
+
+    @Test
+    public void testReloadMissingARequiredKeyKeepsThePreviousSettings() throws Exception {
+        Path env = dir.resolve(".env");
+        Files.writeString(env, "AZURE_AI_ENDPOINT=https://one\nDEPLOYMENT_NAME=gpt-4o\n");
+        List<String> required = List.of("AZURE_AI_ENDPOINT");
+
+        try (ConfigStore store = ConfigStore.load(env)) {
+            AtomicReference<EnvironmentConfig.Settings> settings =
+                new AtomicReference<>(EnvironmentConfig.Settings.bind(store.snapshot()).require("AZURE_AI_ENDPOINT"));
+            BlockingQueue<EnvironmentConfig.Settings> rebound = new ArrayBlockingQueue<>(4);
+            store.subscribe((previous, snapshot) ->
+                rebound.add(settings.updateAndGet(current -> current.rebind(snapshot, required))));
+
+            Files.writeString(env, "DEPLOYMENT_NAME=gpt-4o-mini\n");
+            store.reload();
+            assertEquals(new EnvironmentConfig.Settings("https://one", null, "gpt-4o", null),
+                rebound.poll(5, TimeUnit.SECONDS));
+
+            Files.writeString(env, "AZURE_AI_ENDPOINT=https://two\nDEPLOYMENT_NAME=gpt-4o-mini\n");
+            store.reload();
+            assertEquals(new EnvironmentConfig.Settings("https://two", null, "gpt-4o-mini", null),
+                rebound.poll(5, TimeUnit.SECONDS));
+        }
+    }
+}
@@ -1,14 +1,21 @@
 package com.example.ai.projects.spring;
 
+import com.example.util.EnvironmentConfig;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 /**
- * Main application class for the Spring Boot application.
+ * Main application class for the Spring Boot application. Scheduling refreshes the
+ * deployment pool in the background.
  */
 @SpringBootApplication
+@EnableScheduling
 public class AzureAISpringApplication {
     public static void main(String[] args) {
+        // Fail fast, listing every missing setting, instead of on the first unresolved placeholder
+        EnvironmentConfig.settings(
+            "AZURE_AI_ENDPOINT", "AZURE_OPENAI_ENDPOINT", "AZURE_API_KEY", "AZURE_OPENAI_DEPLOYMENT_NAME");
         SpringApplication.run(AzureAISpringApplication.class, args);
     }
 }
@@ -4,25 +4,62 @@ import com.azure.ai.projects.AIProjectClientBuilder;
 import com.azure.ai.projects.ConnectionsClient;
 import com.azure.ai.projects.DeploymentsClient;
 import com.azure.ai.projects.IndexesClient;
+import com.azure.core.credential.AccessToken;
+import com.azure.core.credential.TokenCredential;
 import com.azure.identity.DefaultAzureCredentialBuilder;
+import com.example.ai.common.concurrency.AdaptiveConcurrencyLimiter;
+import com.example.ai.common.concurrency.AdaptiveConcurrencyLimiter.Rejection;
+import com.example.ai.common.concurrency.HedgingExecutor;
+import com.example.ai.common.concurrency.HttpErrors;
+import com.example.ai.common.metrics.AzureSdkMetricsPolicy;
+import com.example.ai.common.tokenizer.BpeTokenizer;
+import com.example.ai.common.tokenizer.TokenBudget;
+import com.example.ai.projects.spring.service.DeploymentPool;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
 
 /**
  * Configuration class for Azure SDK for Java clients.
+ *
+ * All beans are lazy: the credential and clients are created on first use rather than at
+ * startup, and every client shares the same credential and its token cache. Services depend
+ * on {@link org.springframework.beans.factory.ObjectProvider} so that injecting a client does
+ * not create it.
  */
-@Configuration
+@Configuration(proxyBeanMethods = false)
+@Lazy
 public class AzureAIConfig {
-    
-    @Value("${azure.ai.endpoint}")
-    private String aiEndpoint;
-    
+
+    /**
+     * Uses {@code azure.ai.static-token} when it is set, so the application can run against a
+     * local stand-in such as the load-test mock server without signing in. Leave it unset for Azure.
+     */
     @Bean
-    public AIProjectClientBuilder aiProjectClientBuilder() {
+    public TokenCredential azureCredential(@Value("${azure.ai.static-token:}") String staticToken) {
+        if (!staticToken.isBlank()) {
+            return request -> Mono.just(new AccessToken(staticToken, OffsetDateTime.now().plusHours(1)));
+        }
+        return new DefaultAzureCredentialBuilder().build();
+    }
+
+    @Bean
+    public AIProjectClientBuilder aiProjectClientBuilder(@Value("${azure.ai.endpoint}") String aiEndpoint,
+                                                         TokenCredential azureCredential,
+                                                         MeterRegistry meterRegistry) {
         return new AIProjectClientBuilder()
             .endpoint(aiEndpoint)
-            .credential(new DefaultAzureCredentialBuilder().build());
+            .credential(azureCredential)
+            .addPolicy(new AzureSdkMetricsPolicy(meterRegistry));
     }
     
     @Bean
@@ -39,4 +76,76 @@ public class AzureAIConfig {
     public IndexesClient indexesClient(AIProjectClientBuilder builder) {
         return builder.buildIndexesClient();
     }
+
+    /**
+     * Sizes completions from the prompt instead of a fixed max-tokens. The vocabulary is
+     * loaded on the first chat request.
+     */
+    @Bean
+    public TokenBudget tokenBudget(@Value("${spring.ai.azure.openai.chat.options.model}") String deploymentName,
+                                   @Value("${azure.ai.context-window:128000}") int contextWindow,
+                                   @Value("${spring.ai.azure.openai.chat.options.max-tokens:2000}") int maxTokens) {
+        return new TokenBudget(BpeTokenizer.forModel(deploymentName), contextWindow, maxTokens);
+    }
+
+    /**
+     * Hedges chat completions that are slower than the given percentile of recent ones, with
+     * at most the budgeted share of extra calls. Only created when {@code azure.ai.hedging.enabled}
+     * is true.
+     */
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(name = "azure.ai.hedging.enabled", havingValue = "true")
+    public HedgingExecutor chatHedging(@Value("${azure.ai.hedging.percentile:95}") double percentile,
+                                       @Value("${azure.ai.hedging.budget:0.05}") double budget,
+                                       MeterRegistry meterRegistry) {
+        HedgingExecutor hedging = new HedgingExecutor(percentile, budget);
+        FunctionCounter.builder("foundry.hedging.hedges", hedging, HedgingExecutor::hedges)
+            .description("Chat completions duplicated because they were slow")
+            .register(meterRegistry);
+        FunctionCounter.builder("foundry.hedging.wins", hedging, HedgingExecutor::hedgeWins)
+            .description("Duplicated chat completions that answered first")
+            .register(meterRegistry);
+        return hedging;
+    }
+
+    /**
+     * Limits the chat completions in flight, raising or lowering the limit from their latency
+     * and 429 responses. Completions over the limit wait up to {@code max-wait} in a queue of
+     * {@code max-queue} and are then shed.
+     */
+    @Bean
+    public AdaptiveConcurrencyLimiter chatLimiter(@Value("${azure.ai.limiter.initial-limit:10}") int initialLimit,
+                                                 @Value("${azure.ai.limiter.min-limit:1}") int minLimit,
+                                                 @Value("${azure.ai.limiter.max-limit:200}") int maxLimit,
+                                                 @Value("${azure.ai.limiter.max-queue:100}") int maxQueue,
+                                                 @Value("${azure.ai.limiter.max-wait:PT5S}") Duration maxWait,
+                                                 MeterRegistry meterRegistry) {
+        AdaptiveConcurrencyLimiter limiter = AdaptiveConcurrencyLimiter.builder()
+            .initialLimit(initialLimit)
+            .minLimit(minLimit)
+            .maxLimit(maxLimit)
+            .maxQueue(maxQueue)
+            .maxWait(maxWait)
+            .throttled(HttpErrors::isThrottled)
+            .build();
+        Gauge.builder("foundry.limiter.limit", limiter, AdaptiveConcurrencyLimiter::limit)
+            .description("Chat completions allowed in flight")
+            .register(meterRegistry);
+        Gauge.builder("foundry.limiter.inflight", limiter, AdaptiveConcurrencyLimiter::inFlight)
+            .description("Chat completions in flight")
+            .register(meterRegistry);
+        Gauge.builder("foundry.limiter.queued", limiter, AdaptiveConcurrencyLimiter::queued)
+            .description("Chat completions waiting for a slot")
+            .register(meterRegistry);
+        FunctionCounter.builder("foundry.limiter.throttled", limiter, AdaptiveConcurrencyLimiter::throttled)
+            .description("Chat completions rejected with 429, each of which lowered the limit")
+            .register(meterRegistry);
+        for (Rejection rejection : Rejection.values()) {
+            FunctionCounter.builder("foundry.limiter.rejected", limiter, l -> l.rejected(rejection))
+                .description("Chat completions shed instead of sent")
+                .tag("reason", rejection.name().toLowerCase())
+                .register(meterRegistry);
+        }
+        return limiter;
+    }
 }
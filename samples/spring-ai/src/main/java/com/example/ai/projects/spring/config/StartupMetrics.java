@@ -0,0 +1,60 @@
+package com.example.ai.projects.spring.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Logs how long after JVM start the application became ready and served its first request.
+ *
+ * Both times are measured from JVM start, so they include class loading and context refresh and
+ * can be compared across plain, AOT and CDS runs. The first request includes creating the
+ * lazily initialized Azure clients it uses.
+ */
+@Component
+public class StartupMetrics extends OncePerRequestFilter implements ApplicationListener<ApplicationReadyEvent> {
+
+    private static final Logger logger = LoggerFactory.getLogger(StartupMetrics.class);
+
+    private final AtomicBoolean firstRequestSeen = new AtomicBoolean();
+
+    @Override
+    public void onApplicationEvent(ApplicationReadyEvent event) {
+        logger.info("Time to ready: {} ms after JVM start ({} ms in Spring)",
+            uptimeMillis(), event.getTimeTaken().toMillis());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        if (firstRequestSeen.get()) {
+            chain.doFilter(request, response);
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            if (firstRequestSeen.compareAndSet(false, true)) {
+                logger.info("Time to first request: {} ms after JVM start ({} {} took {} ms)",
+                    uptimeMillis(), request.getMethod(), request.getRequestURI(),
+                    (System.nanoTime() - start) / 1_000_000);
+            }
+        }
+    }
+
+    private static long uptimeMillis() {
+        return ManagementFactory.getRuntimeMXBean().getUptime();
+    }
+}
@@ -1,6 +1,9 @@
 package com.example.ai.projects.spring.controller;
 
+import com.example.ai.common.concurrency.LimitExceededException;
+import com.example.ai.common.routing.NoDeploymentAvailableException;
 import com.example.ai.projects.spring.service.AIChatService;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -20,20 +23,47 @@ public class ChatController {
     /**
      * Chat with the AI.
      * @param message The user message.
-     * @return The AI response.
+     * @return The AI response, or 503 if the model endpoint has no capacity for it or every
+     *         deployment is out of rotation.
      */
     @PostMapping
     public ResponseEntity<String> chat(@RequestBody String message) {
-        return ResponseEntity.ok(chatService.chat(message));
+        try {
+            return ResponseEntity.ok(chatService.chat(message));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (LimitExceededException e) {
+            return unavailable(e.getMessage(), 1);
+        } catch (NoDeploymentAvailableException e) {
+            return unavailable(e.getMessage(), retryAfterSeconds(e));
+        }
     }
     
     /**
      * Chat about a specific deployment.
      * @param name The name of the deployment.
-     * @return The AI response.
+     * @return The AI response, or 503 if the model endpoint has no capacity for it or every
+     *         deployment is out of rotation.
      */
     @GetMapping("/deployments/{name}")
     public ResponseEntity<String> chatAboutDeployment(@PathVariable String name) {
-        return ResponseEntity.ok(chatService.chatAboutDeployment(name));
+        try {
+            return ResponseEntity.ok(chatService.chatAboutDeployment(name));
+        } catch (LimitExceededException e) {
+            return unavailable(e.getMessage(), 1);
+        } catch (NoDeploymentAvailableException e) {
+            return unavailable(e.getMessage(), retryAfterSeconds(e));
+        }
+    }
+
+    private static ResponseEntity<String> unavailable(String message, long retryAfterSeconds) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+            .header("Retry-After", Long.toString(retryAfterSeconds))
+            .body(message);
+    }
+
+    // Retry-After is in whole seconds; round up so the client does not come back to open breakers
+    private static long retryAfterSeconds(NoDeploymentAvailableException e) {
+        return Math.max(1, (e.retryAfter().toMillis() + 999) / 1000);
     }
 }
@@ -1,6 +1,21 @@
 package com.example.ai.projects.spring.service;
 
 import com.azure.ai.projects.models.Deployment;
+import com.example.ai.common.concurrency.AdaptiveConcurrencyLimiter;
+import com.example.ai.common.concurrency.HedgingExecutor;
+import com.example.ai.common.concurrency.LimitExceededException;
+import com.example.ai.common.concurrency.SingleFlight;
+import com.example.ai.common.routing.DeploymentRouter;
+import com.example.ai.common.routing.NoDeploymentAvailableException;
+import com.example.ai.common.tokenizer.TokenBudget;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import org.springframework.ai.azure.openai.AzureOpenAiChatOptions;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.ai.chat.ChatClient;
 import org.springframework.ai.chat.ChatResponse;
 import org.springframework.ai.chat.messages.Message;
@@ -8,69 +23,195 @@ import org.springframework.ai.chat.messages.SystemMessage;
 import org.springframework.ai.chat.messages.UserMessage;
 import org.springframework.ai.chat.prompt.Prompt;
 import org.springframework.ai.chat.prompt.SystemPromptTemplate;
+import org.springframework.ai.chat.metadata.Usage;
 import org.springframework.stereotype.Service;
 
-import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Service for chatting with AI using Spring AI and Azure SDK for Java.
+ *
+ * Each chat is observed as {@code foundry.chat}, which actuator exports as a timer (and as a
+ * span when a tracing bridge is on the classpath), and the token usage the service reports
+ * goes to the {@code foundry.tokens} summary per deployment. Model calls are spread over the
+ * {@link DeploymentPool}, so both are tagged with the deployment that answered. With
+ * {@code azure.ai.hedging.enabled}, a slow model call is duplicated on another deployment and
+ * the first answer wins; see {@link HedgingExecutor}. Every model call goes through an
+ * {@link AdaptiveConcurrencyLimiter}, which sheds calls the endpoint has no capacity for.
+ *
+ * Concurrent identical requests can share one upstream call, as set by
+ * {@code azure.ai.coalescing.scope}; see {@link CoalescingScope}. The {@code foundry.coalesced}
+ * counter reports the requests that did.
  */
 @Service
 public class AIChatService {
     
+    private static final String DEPLOYMENT_SYSTEM_PROMPT =
+        "You are an AI assistant that provides information about Azure SDK for Java. " +
+        "Here's information about a deployment named {{name}}:\n" +
+        "- Type: {{type}}\n" +
+        "- Created at: {{createdAt}}\n" +
+        "Please answer user questions about this deployment.";
+    
     private final ChatClient chatClient;
     private final AzureAIService aiService;
+    private final ObjectProvider<TokenBudget> tokenBudget;
+    private final ObservationRegistry observations;
+    private final MeterRegistry meters;
+    private final DeploymentPool deploymentPool;
+    private final ObjectProvider<HedgingExecutor> hedging;
+    private final ObjectProvider<AdaptiveConcurrencyLimiter> limiter;
+    private final CoalescingScope coalescingScope;
+    private final SingleFlight<String, Deployment> deploymentFlights = new SingleFlight<>();
+    private final SingleFlight<String, ChatResponse> completionFlights = new SingleFlight<>();
     
-    public AIChatService(ChatClient chatClient, AzureAIService aiService) {
+    public AIChatService(ChatClient chatClient, AzureAIService aiService, ObjectProvider<TokenBudget> tokenBudget,
+                         ObservationRegistry observations, MeterRegistry meters, DeploymentPool deploymentPool,
+                         ObjectProvider<HedgingExecutor> hedging, ObjectProvider<AdaptiveConcurrencyLimiter> limiter,
+                         @Value("${azure.ai.coalescing.scope:metadata}") CoalescingScope coalescingScope) {
         this.chatClient = chatClient;
         this.aiService = aiService;
+        this.tokenBudget = tokenBudget;
+        this.observations = observations;
+        this.meters = meters;
+        this.deploymentPool = deploymentPool;
+        this.hedging = hedging;
+        this.limiter = limiter;
+        this.coalescingScope = coalescingScope;
+        FunctionCounter.builder("foundry.coalesced", deploymentFlights, SingleFlight::coalesced)
+            .description("Requests that shared an identical call already in flight")
+            .tag("call", "deployment")
+            .register(meters);
+        FunctionCounter.builder("foundry.coalesced", completionFlights, SingleFlight::coalesced)
+            .description("Requests that shared an identical call already in flight")
+            .tag("call", "completion")
+            .register(meters);
     }
     
     /**
-     * Chat with the AI.
+     * Chat with the AI. The completion limit is whatever the context window has left after
+     * the prompt, capped at the configured max-tokens.
      * @param userMessage The user message.
      * @return The AI response.
+     * @throws IllegalArgumentException If the message does not fit in the context window.
      */
     public String chat(String userMessage) {
-        return chatClient.call(userMessage);
+        TokenBudget budget = tokenBudget.getObject();
+        int promptTokens = budget.countPrompt("user", userMessage);
+        AzureOpenAiChatOptions options = AzureOpenAiChatOptions.builder()
+            .withMaxTokens(budget.maxOutputTokens(promptTokens))
+            .build();
+        return call(new Prompt(userMessage, options), "chat").getResult().getOutput().getContent();
     }
       /**
      * Chat about a specific deployment.
      * @param deploymentName The name of the deployment.
      * @return The AI response.
+     * @throws LimitExceededException If the model endpoint has no capacity for the call.
+     * @throws NoDeploymentAvailableException If every deployment in the pool is out of rotation.
      */
     public String chatAboutDeployment(String deploymentName) {
         try {            // Get deployment info using Azure SDK for Java
-            Deployment deployment = aiService.getDeployment(deploymentName);
-            
-            // Create a system prompt with deployment information
-            String systemPromptTemplate = "You are an AI assistant that provides information about Azure SDK for Java. " +
-                "Here's information about a deployment named {{name}}:\n" +
-                "- Type: {{type}}\n" +
-                "- Created at: {{createdAt}}\n" +
-                "Please answer user questions about this deployment.";
-            
-            Map<String, Object> variables = new HashMap<>();
-            variables.put("name", deployment.getName());
-            variables.put("type", deployment.getType().getValue());
-            variables.put("createdAt", deployment.getCreatedAt().toString());
-            
-            Message systemMessage = new SystemPromptTemplate(systemPromptTemplate).create(variables);
-            Message userMessage = new UserMessage("Tell me about this deployment");
+            Deployment deployment = coalescingScope.coalescesMetadata()
+                ? deploymentFlights.execute(deploymentName, () -> aiService.getDeployment(deploymentName))
+                : aiService.getDeployment(deploymentName);
             
-            List<Message> messages = new ArrayList<>();
-            messages.add(systemMessage);
-            messages.add(userMessage);
-            
-            Prompt prompt = new Prompt(messages);
-            ChatResponse response = chatClient.call(prompt);
+            Prompt prompt = deploymentPrompt(deployment.getName(), deployment.getType().getValue(),
+                deployment.getCreatedAt().toString());
+            ChatResponse response = call(prompt, "deployment");
             
             return response.getResult().getOutput().getContent();
+        } catch (LimitExceededException | NoDeploymentAvailableException e) {
+            // Shed calls are not errors of this deployment; the caller reports them as such
+            throw e;
         } catch (Exception e) {
             return "Error getting information about deployment: " + e.getMessage();
         }
     }
+
+    private ChatResponse call(Prompt prompt, String operation) {
+        if (coalescingScope.coalescesCompletions()) {
+            return completionFlights.execute(fingerprint(prompt), () -> callModel(prompt, operation));
+        }
+        return callModel(prompt, operation);
+    }
+
+    // Identical messages with the same completion limit are the same request
+    private static String fingerprint(Prompt prompt) {
+        StringBuilder key = new StringBuilder();
+        if (prompt.getOptions() instanceof AzureOpenAiChatOptions options) {
+            key.append(options.getMaxTokens());
+        }
+        for (Message message : prompt.getInstructions()) {
+            key.append('\0').append(message.getMessageType()).append('\0').append(message.getContent());
+        }
+        return key.toString();
+    }
+
+    private ChatResponse callModel(Prompt prompt, String operation) {
+        DeploymentRouter router = deploymentPool.router();
+        HedgingExecutor hedger = hedging.getIfAvailable();
+        if (hedger == null) {
+            return router.call(deployment -> callDeployment(prompt, operation, deployment));
+        }
+        // The hedge goes to a deployment the first call is not using, if there is one
+        Set<String> busy = ConcurrentHashMap.newKeySet();
+        return hedger.call(
+            () -> router.call(deployment -> {
+                busy.add(deployment);
+                return callDeployment(prompt, operation, deployment);
+            }),
+            () -> router.call(deployment -> callDeployment(prompt, operation, deployment), busy));
+    }
+
+    private ChatResponse callDeployment(Prompt prompt, String operation, String deployment) {
+        AzureOpenAiChatOptions.Builder options = AzureOpenAiChatOptions.builder().withModel(deployment);
+        if (prompt.getOptions() instanceof AzureOpenAiChatOptions requested) {
+            options.withMaxTokens(requested.getMaxTokens());
+        }
+        Prompt routed = new Prompt(prompt.getInstructions(), options.build());
+        ChatResponse response = Observation.createNotStarted("foundry.chat", observations)
+            .lowCardinalityKeyValue("deployment", deployment)
+            .lowCardinalityKeyValue("operation", operation)
+            .observe(() -> limiter.getObject().call(() -> chatClient.call(routed)));
+        Usage usage = response.getMetadata().getUsage();
+        recordTokens(deployment, "prompt", usage.getPromptTokens());
+        recordTokens(deployment, "completion", usage.getGenerationTokens());
+        return response;
+    }
+
+    private void recordTokens(String deployment, String type, Long tokens) {
+        if (tokens == null) {
+            return;
+        }
+        DistributionSummary.builder("foundry.tokens")
+            .baseUnit("tokens")
+            .tag("deployment", deployment)
+            .tag("type", type)
+            .publishPercentileHistogram()
+            .register(meters)
+            .record(tokens);
+    }
+
+    /**
+     * Build the prompt that asks about a deployment.
+     * @param name The deployment name.
+     * @param type The deployment type.
+     * @param createdAt When the deployment was created.
+     * @return The prompt.
+     */
+    public static Prompt deploymentPrompt(String name, String type, String createdAt) {
+        Map<String, Object> variables = new HashMap<>();
+        variables.put("name", name);
+        variables.put("type", type);
+        variables.put("createdAt", createdAt);
+        
+        Message systemMessage = new SystemPromptTemplate(DEPLOYMENT_SYSTEM_PROMPT).create(variables);
+        Message userMessage = new UserMessage("Tell me about this deployment");
+        return new Prompt(List.of(systemMessage, userMessage));
+    }
 }
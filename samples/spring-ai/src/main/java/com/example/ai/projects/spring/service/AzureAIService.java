@@ -5,21 +5,25 @@ import com.azure.ai.projects.DeploymentsClient;
 import com.azure.ai.projects.models.Connection;
 import com.azure.ai.projects.models.Deployment;
 import com.azure.ai.projects.models.ListViewType;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.stereotype.Service;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 
 /**
  * Service class for Azure SDK for Java operations.
+ * Clients are looked up on first use, so the service does not create them at startup.
  */
 @Service
 public class AzureAIService {
     
-    private final ConnectionsClient connectionsClient;
-    private final DeploymentsClient deploymentsClient;
+    private final ObjectProvider<ConnectionsClient> connectionsClient;
+    private final ObjectProvider<DeploymentsClient> deploymentsClient;
     
-    public AzureAIService(ConnectionsClient connectionsClient, DeploymentsClient deploymentsClient) {
+    public AzureAIService(ObjectProvider<ConnectionsClient> connectionsClient,
+                          ObjectProvider<DeploymentsClient> deploymentsClient) {
         this.connectionsClient = connectionsClient;
         this.deploymentsClient = deploymentsClient;
     }
@@ -28,9 +32,7 @@ public class AzureAIService {
      * @return A list of connections.
      */
     public List<Connection> listConnections() {
-        List<Connection> connections = new ArrayList<>();
-        connectionsClient.list(null, ListViewType.ALL).forEach(connections::add);
-        return connections;
+        return toList(connectionsClient.getObject().list(null, ListViewType.ALL));
     }
     
     /**
@@ -39,16 +41,14 @@ public class AzureAIService {
      * @return The connection.
      */
     public Connection getConnection(String connectionName) {
-        return connectionsClient.get(connectionName);
+        return connectionsClient.getObject().get(connectionName);
     }
       /**
      * List all deployments using Azure SDK for Java.
      * @return A list of deployments.
      */
     public List<Deployment> listDeployments() {
-        List<Deployment> deployments = new ArrayList<>();
-        deploymentsClient.list(null, ListViewType.ALL).forEach(deployments::add);
-        return deployments;
+        return toList(deploymentsClient.getObject().list(null, ListViewType.ALL));
     }
     
     /**
@@ -57,6 +57,22 @@ public class AzureAIService {
      * @return The deployment.
      */
     public Deployment getDeployment(String deploymentName) {
-        return deploymentsClient.get(deploymentName);
+        return deploymentsClient.getObject().get(deploymentName);
+    }
+
+    /**
+     * Drains the items of a listing into a list, fetching any remaining pages.
+     * @param items The items.
+     * @return A mutable list of the items.
+     */
+    public static <T> List<T> toList(Iterable<T> items) {
+        if (items instanceof Collection<T> collection) {
+            return new ArrayList<>(collection);
+        }
+        List<T> list = new ArrayList<>();
+        for (T item : items) {
+            list.add(item);
+        }
+        return list;
     }
 }
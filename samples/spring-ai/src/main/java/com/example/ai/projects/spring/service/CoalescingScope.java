@@ -0,0 +1,34 @@
+package com.example.ai.projects.spring.service;
+
+/**
+ * Which calls concurrent identical chat requests share, set with
+ * {@code azure.ai.coalescing.scope}.
+ */
+public enum CoalescingScope {
+
+    /** Every request makes its own calls */
+    NONE,
+
+    /** Requests about the same deployment share one lookup of its metadata */
+    METADATA,
+
+    /**
+     * Requests also share one model call when their prompts are identical, so they get the
+     * same completion even at a non-zero temperature
+     */
+    COMPLETIONS;
+
+    /**
+     * @return Whether deployment lookups are shared
+     */
+    public boolean coalescesMetadata() {
+        return this != NONE;
+    }
+
+    /**
+     * @return Whether model calls are shared
+     */
+    public boolean coalescesCompletions() {
+        return this == COMPLETIONS;
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.ai.projects.spring.service;
+
+import com.azure.ai.projects.models.Deployment;
+import com.example.ai.common.concurrency.HttpErrors;
+import com.example.ai.common.routing.DeploymentRouter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * The chat deployments that model calls are spread over.
+ *
+ * The pool starts as the configured chat deployment. When {@code azure.ai.routing.pattern} is
+ * set, the project's deployments are listed in the background and every deployment whose name
+ * matches the pattern joins the pool, for example {@code gpt-4o(-.+)?} for {@code gpt-4o},
+ * {@code gpt-4o-westus} and {@code gpt-4o-ptu}. The deployments in a pool must serve the same
+ * model, since any of them may answer a request.
+ *
+ * Calls fail over to another deployment on 429 and 5xx responses; see {@link DeploymentRouter}.
+ */
+@Service
+public class DeploymentPool {
+
+    private static final Logger logger = LoggerFactory.getLogger(DeploymentPool.class);
+
+    private final AzureAIService aiService;
+    private final Pattern pattern;
+    private final DeploymentRouter router;
+
+    public DeploymentPool(AzureAIService aiService, MeterRegistry meters,
+                          @Value("${spring.ai.azure.openai.chat.options.model}") String deploymentName,
+                          @Value("${azure.ai.routing.pattern:}") String pattern,
+                          @Value("${azure.ai.routing.failure-threshold:5}") int failureThreshold,
+                          @Value("${azure.ai.routing.open-duration:PT30S}") Duration openDuration) {
+        this.aiService = aiService;
+        this.pattern = pattern.isBlank() ? null : Pattern.compile(pattern);
+        this.router = new DeploymentRouter(List.of(deploymentName), DeploymentPool::isFailover, failureThreshold,
+            openDuration, System::nanoTime);
+        FunctionCounter.builder("foundry.routing.failovers", router, DeploymentRouter::failovers)
+            .description("Model calls retried on another deployment after a 429 or 5xx response")
+            .register(meters);
+        Gauge.builder("foundry.routing.pool.size", router, r -> r.deployments().size())
+            .description("Deployments that model calls are spread over")
+            .register(meters);
+    }
+
+    /**
+     * @return The router over the pool
+     */
+    public DeploymentRouter router() {
+        return router;
+    }
+
+    /**
+     * Lists the project's deployments and replaces the pool with those matching the pattern.
+     * If listing fails or nothing matches, the pool is left as it was.
+     */
+    @Scheduled(initialDelayString = "${azure.ai.routing.initial-delay:PT10S}",
+               fixedDelayString = "${azure.ai.routing.refresh-interval:PT5M}")
+    public void refresh() {
+        if (pattern == null) {
+            return;
+        }
+        try {
+            List<String> matching = aiService.listDeployments().stream()
+                .map(Deployment::getName)
+                .filter(name -> name != null && pattern.matcher(name).matches())
+                .sorted()
+                .toList();
+            if (matching.isEmpty()) {
+                logger.warn("No deployment matches {}; keeping the pool {}", pattern, router.deployments());
+                return;
+            }
+            if (!matching.equals(List.copyOf(router.deployments()))) {
+                logger.info("Deployment pool is now {}", matching);
+            }
+            router.updatePool(matching);
+        } catch (RuntimeException e) {
+            logger.warn("Could not refresh the deployment pool; keeping {}", router.deployments(), e);
+        }
+    }
+
+    /**
+     * @param error A failed call's error
+     * @return Whether it is a 429 or 5xx response, which another deployment may not return
+     */
+    public static boolean isFailover(Throwable error) {
+        int status = HttpErrors.status(error);
+        return status == 429 || status >= 500;
+    }
+}
@@ -6,6 +6,7 @@ import com.azure.ai.projects.models.Connection;
 import com.azure.ai.projects.models.Deployment;
 import com.example.ai.projects.spring.service.AIChatService;
 import com.example.ai.projects.spring.service.AzureAIService;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.junit.jupiter.api.Test;
 import org.springframework.ai.chat.ChatClient;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -13,11 +14,19 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 
 import java.time.OffsetDateTime;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 /**
@@ -38,6 +47,9 @@ public class AzureAIIntegrationTest {
     @MockBean
     private DeploymentsClient deploymentsClient;
     
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
     @MockBean
     private ChatClient chatClient;
       @Test
@@ -75,6 +87,51 @@ public class AzureAIIntegrationTest {
         assertEquals("This is a test deployment", result);
     }
     
+    @Test
+    public void testConcurrentChatsAboutADeploymentShareOneLookup() throws Exception {
+        // Arrange: the lookup blocks until every request is waiting on it
+        CountDownLatch release = new CountDownLatch(1);
+        Deployment mockDeployment = createMockDeployment("popular-deployment");
+        when(deploymentsClient.get("popular-deployment")).thenAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return mockDeployment;
+        });
+        when(chatClient.call(any(org.springframework.ai.chat.prompt.Prompt.class)))
+            .thenReturn(new org.springframework.ai.chat.ChatResponse(
+                List.of(new org.springframework.ai.chat.Generation("A popular deployment"))
+            ));
+        int requests = 4;
+        double coalescedBefore = coalesced("deployment");
+        ExecutorService pool = Executors.newFixedThreadPool(requests);
+        
+        try {
+            // Act
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < requests; i++) {
+                results.add(pool.submit(() -> chatService.chatAboutDeployment("popular-deployment")));
+            }
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (coalesced("deployment") - coalescedBefore < requests - 1 && System.nanoTime() < deadline) {
+                Thread.sleep(1);
+            }
+            assertEquals(requests - 1, coalesced("deployment") - coalescedBefore,
+                "requests that joined the lookup in flight");
+            release.countDown();
+            
+            // Assert
+            for (Future<String> result : results) {
+                assertEquals("A popular deployment", result.get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        verify(deploymentsClient, times(1)).get("popular-deployment");
+    }
+    
+    private double coalesced(String call) {
+        return meterRegistry.get("foundry.coalesced").tag("call", call).functionCounter().count();
+    }
+    
     private Connection createMockConnection(String name) {
         Connection connection = new Connection();
         connection.setName(name);
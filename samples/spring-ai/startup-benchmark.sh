@@ -0,0 +1,38 @@
+#!/usr/bin/env bash
+# Measures time to first request for the Spring AI sample.
+#
+# Usage: ./startup-benchmark.sh [runs] [extra JVM options...]
+#   ./startup-benchmark.sh 5
+#   ./startup-benchmark.sh 5 -Dspring.aot.enabled=true
+#   ./startup-benchmark.sh 5 -XX:SharedArchiveFile=target/application.jsa
+#
+# Each run starts the application, sends a request as soon as the port accepts connections and
+# reports the wall-clock time until the response, followed by the StartupMetrics log lines.
+
+set -euo pipefail
+
+RUNS=${1:-5}
+shift || true
+PORT=${SERVER_PORT:-8080}
+URL=${BENCHMARK_URL:-http://localhost:$PORT/api/ai/connections}
+JAR=$(ls target/*-exec.jar | head -n 1)
+
+for run in $(seq 1 "$RUNS"); do
+    log=$(mktemp)
+    start=$(date +%s%N)
+    java "$@" -jar "$JAR" --server.port="$PORT" > "$log" 2>&1 &
+    pid=$!
+    until curl -s -o /dev/null "$URL"; do
+        if ! kill -0 "$pid" 2>/dev/null; then
+            echo "Application exited; see $log" >&2
+            exit 1
+        fi
+        sleep 0.02
+    done
+    end=$(date +%s%N)
+    sleep 0.2
+    kill "$pid" && wait "$pid" 2>/dev/null || true
+    echo "Run $run: first response after $(( (end - start) / 1000000 )) ms"
+    grep -h "Time to" "$log" | sed 's/^.*Time to/  Time to/'
+    rm -f "$log"
+done